@@ -32,6 +32,7 @@ import com.google.common.eventbus.EventBus;
 import tech.mcprison.prison.alerts.Alerts;
 import tech.mcprison.prison.commands.CommandHandler;
 import tech.mcprison.prison.error.ErrorManager;
+import tech.mcprison.prison.integration.EconomyFacade;
 import tech.mcprison.prison.integration.IntegrationManager;
 import tech.mcprison.prison.internal.platform.Platform;
 import tech.mcprison.prison.localization.LocaleManager;
@@ -41,13 +42,16 @@ import tech.mcprison.prison.modules.PluginEntity;
 import tech.mcprison.prison.output.ChatDisplay;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.placeholders.PlaceholderManager;
+import tech.mcprison.prison.placeholders.PlaceholdersStats;
 import tech.mcprison.prison.placeholders.PlaceholdersUtil;
 import tech.mcprison.prison.selection.SelectionManager;
 import tech.mcprison.prison.store.Database;
 import tech.mcprison.prison.troubleshoot.TroubleshootManager;
 import tech.mcprison.prison.util.EventExceptionHandler;
+import tech.mcprison.prison.util.PrisonCooldownTracker;
 import tech.mcprison.prison.util.PrisonStatsUtil;
 import tech.mcprison.prison.util.PrisonTPS;
+import tech.mcprison.prison.util.PrisonTickStats;
 
 /**
  * Entry point for implementations. <p> An instance of Prison can be retrieved using the static
@@ -295,6 +299,14 @@ public class Prison
         
         this.prisonTPS = new PrisonTPS();
         this.prisonTPS.submitAsyncTPSTask();
+        
+        PrisonTickStats.startTickTask();
+        
+        PrisonCooldownTracker.startSweeperTask();
+        
+        PlaceholdersStats.getInstance().startSnapshotTask();
+        
+        EconomyFacade.getInstance().start();
 
         
         // Setup the LocalManager if it is not yet started:
@@ -714,6 +726,12 @@ public class Prison
      */
     public void deinit() {
         moduleManager.unregisterAll();
+        
+        // Write the queued economy transactions before the economy plugins are disabled:
+        EconomyFacade.getInstance().shutdown();
+        
+        // Write out any log messages that are still waiting to be logged:
+        Output.get().shutdownAsyncLogging();
     }
 
     // Getters
@@ -44,6 +44,7 @@ import tech.mcprison.prison.commands.RegisteredCommand;
 import tech.mcprison.prison.commands.Wildcard;
 import tech.mcprison.prison.discord.PrisonPasteChat;
 import tech.mcprison.prison.discord.PrisonSupportFiles;
+import tech.mcprison.prison.integration.EconomyFacade;
 import tech.mcprison.prison.internal.CommandSender;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.localization.LocaleManager;
@@ -54,9 +55,11 @@ import tech.mcprison.prison.output.DisplayComponent;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.output.Output.DebugTarget;
 import tech.mcprison.prison.placeholders.PlaceholdersStats;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 import tech.mcprison.prison.troubleshoot.TroubleshootResult;
 import tech.mcprison.prison.troubleshoot.Troubleshooter;
 import tech.mcprison.prison.util.PrisonJarReporter;
+import tech.mcprison.prison.util.PrisonTickStats;
 
 /**
  * Root commands for managing the platform as a whole, in-game.
@@ -2105,13 +2108,87 @@ public class PrisonCommand
     				+ "first 20 characters will be used.",
     				def = "") String notes ) {
     	
+    	startBackupAsync( sender, BackupTypes.manual, notes );
+    }
+    
+    @Command(identifier = "prison support backup incremental", 
+    		description = "This will make an incremental backup of all Prison settings, where " +
+    				"only the files that have changed since the last incremental backup are " +
+    				"stored in the new zip file.  The zip file's manifest points to the older " +
+    				"incremental backups for the unchanged files, so do not delete the older " +
+    				"backups if you may need to restore the newer ones.  The temp files are " +
+    				"deleted after the backup, the same as with a full backup.", 
+    				onlyPlayers = false, permissions = "prison.debug" )
+    public void supportBackupIncrementalPrison( CommandSender sender, 
+    		
+    		@Wildcard(join=true)
+    		@Arg(name = "notes", description = "Optional short note to append to the file name. Only the "
+    				+ "first 20 characters will be used.",
+    				def = "") String notes ) {
+    	
+    	startBackupAsync( sender, BackupTypes.incremental, notes );
+    }
+    
+    private void startBackupAsync( CommandSender sender, BackupTypes backupType, String notes ) {
+    	
     	PrisonBackups prisonBackup = new PrisonBackups();
     	
-    	String message = prisonBackup.startBackup( BackupTypes.manual, notes );
+    	boolean started = prisonBackup.startBackupAsync( backupType, notes, message -> {
+    		
+    		sender.sendMessage( message );
+    		sender.sendMessage( "Backup finished." );
+    	});
     	
-    	sender.sendMessage( message );
-    	sender.sendMessage( "Backup finished." );
-
+    	if ( started ) {
+    		sender.sendMessage( "Backup started." );
+    	}
+    	else {
+    		sender.sendMessage( "Another backup is running. Try again after it is finished." );
+    	}
+    }
+    
+    @Command(identifier = "prison support backup restore", 
+    		description = "Restores all of the files from an incremental backup.  The files are " +
+    				"placed in the directory plugins/Prison/backups/restore_<backupName>/ " +
+    				"and are not copied over Prison's current files.  To use them, stop the " +
+    				"server and copy them in to plugins/Prison/.  Use this command without " +
+    				"a backup name to list the incremental backups.", 
+    				onlyPlayers = false, permissions = "prison.debug" )
+    public void supportBackupRestore( CommandSender sender, 
+    		
+    		@Arg(name = "backupName", description = "The name of the incremental backup's " +
+    				"zip file.", def = "") String backupName ) {
+    	
+    	PrisonBackups prisonBackup = new PrisonBackups();
+    	
+    	if ( backupName == null || backupName.trim().length() == 0 ) {
+    		
+    		ChatDisplay display = new ChatDisplay("Prison Incremental Backups:");
+    		
+    		List<String> backups = prisonBackup.getIncrementalBackups();
+    		
+    		for ( String backup : backups ) {
+    			display.addText( backup );
+    		}
+    		
+    		if ( backups.size() == 0 ) {
+    			display.addText( "There are no incremental backups." );
+    		}
+    		
+    		display.send(sender);
+    		return;
+    	}
+    	
+    	String name = backupName.trim();
+    	
+    	sender.sendMessage( "Restoring backup " + name + "..." );
+    	
+    	PrisonTaskSubmitter.runTaskLaterAsync( () -> {
+    		
+    		String message = prisonBackup.restoreIncrementalBackup( name );
+    		
+    		PrisonTaskSubmitter.runTaskLater( () -> sender.sendMessage( message ), 0 );
+    	}, 0 );
     }
     
     @Command(identifier = "prison support backup logs", 
@@ -2140,6 +2217,64 @@ public class PrisonCommand
 //    }
 	
     
+    @Command(identifier = "prison stats ticks", 
+    		description = "Shows how long the server's main thread spends within prison's " +
+    				"subsystems, such as mine resets, block breaks, autosell, placeholders, and " +
+    				"command tasks, along with the server's tick durations.  Shows the percentiles " +
+    				"so lag spikes can be identified and the paging settings can be tuned.", 
+    				onlyPlayers = false, permissions = "prison.debug" )
+    public void statsTicksCommand( CommandSender sender, 
+    		@Arg(name = "options", description = "Options: [reset] clears all of the recorded stats. "
+    				+ "[export] saves the percentiles to a csv file in plugins/Prison/stats/.", 
+    				def = "." ) String options ) {
+    	
+    	ChatDisplay display = new ChatDisplay("Prison Tick Stats");
+    	
+    	PrisonTickStats.displayStats( display );
+    	
+    	if ( "export".equalsIgnoreCase( options ) ) {
+    		try {
+    			File exportFile = PrisonTickStats.exportStats();
+    			
+    			display.addText( "&7Exported the tick stats to: &3%s", exportFile.getAbsolutePath() );
+    		}
+    		catch ( IOException e ) {
+    			display.addText( "&cFailed to export the tick stats: %s", e.getMessage() );
+    		}
+    	}
+    	else if ( "reset".equalsIgnoreCase( options ) ) {
+    		PrisonTickStats.reset();
+    		
+    		display.addText( "&7The tick stats have been reset." );
+    	}
+    	
+    	display.send(sender);
+    }
+    
+    
+    @Command(identifier = "prison stats economy", 
+    		description = "Shows how long the economy plugins take to get the player balances, " +
+    				"and to write the deposits and withdrawals, along with how many transactions " +
+    				"have been queued and written in batches.", 
+    				onlyPlayers = false, permissions = "prison.debug" )
+    public void statsEconomyCommand( CommandSender sender, 
+    		@Arg(name = "options", description = "Options: [reset] clears all of the recorded stats.", 
+    				def = "." ) String options ) {
+    	
+    	ChatDisplay display = new ChatDisplay("Prison Economy Stats");
+    	
+    	EconomyFacade.getInstance().displayStats( display );
+    	
+    	if ( "reset".equalsIgnoreCase( options ) ) {
+    		EconomyFacade.getInstance().resetStats();
+    		
+    		display.addText( "&7The economy stats have been reset." );
+    	}
+    	
+    	display.send(sender);
+    }
+    
+    
     @Command(identifier = "prison tokens balance", 
     		description = "Prison tokens: a player's current balance.", 
     		// aliases = "tokens bal",
@@ -9,11 +9,11 @@ import tech.mcprison.prison.output.Output;
 public class AutoFeaturesWrapper
 {
 	
-	private static AutoFeaturesWrapper instance = null;
+	private static volatile AutoFeaturesWrapper instance = null;
 
 	private AutoFeaturesFileConfig autoFeaturesConfig = null;
 	
-	private static BlockConvertersFileConfig blockConvertersConfig = null;
+	private static volatile BlockConvertersFileConfig blockConvertersConfig = null;
 
 	private AutoFeaturesWrapper() {
 		super();
@@ -7,14 +7,15 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
+import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.cache.PlayerCacheStats;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 
 public class BackpackCache {
 
-	public static final String BACKPACK_CACHE_WRITE_DELAY_CONFIG_NAME = "backpack.cache.write_delay";
-	public static final long BACKPACK_CACHE_WRITE_DELAY_VALUE_MS = 60000; // 60 seconds
+	public static final String BACKPACK_CACHE_WRITE_DELAY_CONFIG_NAME = "backpack-cache.write-delay-sec";
+	public static final int BACKPACK_CACHE_WRITE_DELAY_VALUE_SEC = 60; // 60 seconds
 	
 	public static final String BACKPACK_CACHE_TIME_TO_LIVE_CONFIG_NAME = "backpack.cache.time_to_live";
 	public static final long BACKPACK_CACHE_TIME_TO_LIVE_VALUE_MS = 30 * 60 * 1000; // 30 mins
@@ -89,7 +90,10 @@ public class BackpackCache {
 	 * </p>
 	 */
 	public static void onDisable() {
-		getInstance().onDisableInternal();
+		// Do not start the cache if it was never used:
+		if ( instance != null ) {
+			instance.onDisableInternal();
+		}
 		
 	}
 	
@@ -138,7 +142,7 @@ public class BackpackCache {
 						// they must be done in-line so the shutdown process will wait for all
 						// players to be saved.
 						
-						getCacheFiles().toJsonFile( playerData );
+						saveCacheData( playerData );
 						
 						if ( playerData.getTask() != null ) {
 							
@@ -193,6 +197,37 @@ public class BackpackCache {
 
 
 	
+	/**
+	 * <p>Marks the player's backpacks as changed so they will be saved by the next 
+	 * run of the async save task.  The backpacks are never saved on the thread 
+	 * that changed them.
+	 * </p>
+	 * 
+	 * @param playerData
+	 */
+	public void markDirty( BackpackCachePlayerData playerData ) {
+		if ( playerData != null ) {
+			playerData.setDirty( true );
+		}
+	}
+	
+	/**
+	 * <p>Saves the player's backpacks to their cache file.  This synchronizes on
+	 * the player data so the backpacks cannot be changed while they are being 
+	 * serialized.
+	 * </p>
+	 * 
+	 * @param playerData
+	 */
+	public void saveCacheData( BackpackCachePlayerData playerData ) {
+		
+		synchronized ( playerData ) {
+			
+			playerData.setDirty( false );
+			getCacheFiles().toJsonFile( playerData );
+		}
+	}
+	
 	public void addPlayerData( BackpackCachePlayerData playerData ) {
 		
 		if ( playerData != null ) {
@@ -252,6 +287,54 @@ public class BackpackCache {
 		return getPlayer( player, true );
 	}
 	
+	/**
+	 * <p>Returns the player's data if they are in the cache, otherwise it loads 
+	 * the player's file but does NOT add it to the cache.  This is for looking
+	 * up offline players, such as with the admin commands, so they are not kept 
+	 * in the cache since they will never be unloaded.
+	 * </p>
+	 * 
+	 * <p>Since the save task only saves the players in the cache, any changes to
+	 * data that is not cached must be saved with saveCacheData().  Use isCached()
+	 * to check.
+	 * </p>
+	 * 
+	 * @param player
+	 * @return
+	 */
+	public BackpackCachePlayerData getOfflinePlayer( Player player ) {
+		BackpackCachePlayerData playerData = getPlayer( player, false );
+		
+		if ( playerData == null && player != null && player.getUUID() != null ) {
+			
+			playerData = getCacheFiles().fromJson( player );
+		}
+		
+		return playerData;
+	}
+	
+	/**
+	 * <p>Returns true if this player data object is the one in the cache, which
+	 * means the save task will save it when it is marked dirty.
+	 * </p>
+	 * 
+	 * @param playerData
+	 * @return
+	 */
+	public boolean isCached( BackpackCachePlayerData playerData ) {
+		boolean results = false;
+		
+		if ( playerData != null && playerData.getPlayerUuid() != null ) {
+			
+			synchronized ( getPlayers() ) {
+				
+				results = getPlayers().get( playerData.getPlayerUuid() ) == playerData;
+			}
+		}
+		
+		return results;
+	}
+	
 	
 	/**
 	 * <p>This returns the cached player object.  If they have not been loaded
@@ -373,9 +456,13 @@ public class BackpackCache {
 		
 		BackpackCacheSaveAllPlayersTask task = new BackpackCacheSaveAllPlayersTask();
 		
-		// Submit Timer Task to start running in 10 minutes (6000 ticks) and then
-		// refresh stats every 5 minutes (3000 ticks):
-		int taskId = PrisonTaskSubmitter.runTaskTimerAsync( task, 6000, 3000 );
+		long writeTimeTicks = Prison.get().getPlatform()
+				.getConfigInt( BACKPACK_CACHE_WRITE_DELAY_CONFIG_NAME, 
+						BACKPACK_CACHE_WRITE_DELAY_VALUE_SEC ) * 20;
+		
+		// Submit Timer Task to start running after the write delay, and then save
+		// all dirty backpacks at the same interval:
+		int taskId = PrisonTaskSubmitter.runTaskTimerAsync( task, writeTimeTicks, writeTimeTicks );
 		task.setTaskId( taskId );
 		
 		return task;
@@ -1,5 +1,9 @@
 package tech.mcprison.prison.backpacks;
 
+import java.io.File;
+import java.util.Collection;
+import java.util.TreeSet;
+
 import tech.mcprison.prison.cache.CoreCacheData;
 import tech.mcprison.prison.cache.CoreCacheFiles;
 import tech.mcprison.prison.internal.Player;
@@ -22,4 +26,52 @@ public class BackpackCacheFiles
 		return (BackpackCachePlayerData) results;
 	}
 	
+	public BackpackCachePlayerData fromJsonFile( File playerFile ) {
+		
+		CoreCacheData results = fromJsonFile( playerFile, BackpackCachePlayerData.class );
+		
+		return (BackpackCachePlayerData) results;
+	}
+	
+	/**
+	 * <p>Returns all of the player files within the backpack cache directory.
+	 * This does not load any of the files.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public Collection<File> getAllPlayerFiles() {
+		return new TreeSet<>( getPlayerFiles().values() );
+	}
+	
+	/**
+	 * <p>Finds the player's file by their name, which is the part of the file name
+	 * that follows the UUID prefix.  This only checks the file names, so it 
+	 * does not load any files.  Since the file names are updated when the player 
+	 * is loaded, this may not find players who have changed their names.
+	 * </p>
+	 * 
+	 * @param playerName
+	 * @return The file, or null if not found.
+	 */
+	public File findPlayerFile( String playerName ) {
+		File results = null;
+		
+		String suffix = "_" + playerName.toLowerCase() + FILE_SUFFIX_JSON;
+		
+		for ( File file : getAllPlayerFiles() ) {
+			if ( file.getName().toLowerCase().endsWith( suffix ) && file.exists() ) {
+				results = file;
+				break;
+			}
+		}
+		
+		return results;
+	}
+	
+	@Override
+	protected CoreCacheData createCacheData( Player player, File playerFile ) {
+		return new BackpackCachePlayerData( player, playerFile );
+	}
+	
 }
@@ -18,12 +18,23 @@ public class BackpackCacheLoadPlayerTask
 	
 		BackpackCache bCache = BackpackCache.getInstance();
 		
-		BackpackCachePlayerData playerData = bCache.getCacheFiles().fromJson( player );
-		
-		if ( playerData != null ) {
+		// If the player was already loaded, such as by autopickup, then do not 
+		// replace what's in the cache since it may have unsaved changes:
+		if ( !bCache.getPlayers().containsKey( player.getUUID().toString() ) ) {
+			
+			BackpackCachePlayerData playerData = bCache.getCacheFiles().fromJson( player );
 			
-			synchronized ( bCache.getPlayers() ) {
+			if ( playerData != null ) {
+				
+				playerData.setPlayer( player );
 				
+				synchronized ( bCache.getPlayers() ) {
+					
+					if ( !bCache.getPlayers().containsKey( playerData.getPlayerUuid() ) ) {
+						
+						bCache.addPlayerData( playerData );
+					}
+				}
 			}
 		}
 		
@@ -4,12 +4,15 @@ import java.io.File;
 import java.util.Set;
 import java.util.TreeMap;
 
+import tech.mcprison.prison.backpacks.BackpackEnums.BackpackType;
 import tech.mcprison.prison.cache.CoreCacheData;
 import tech.mcprison.prison.internal.Player;
 
 public class BackpackCachePlayerData
 	implements CoreCacheData {
 	
+	public static final String SILO_BACKPACK_NAME = "silo";
+	
 	private transient Player player;
 	
 	private String playerUuid;
@@ -29,6 +32,9 @@ public class BackpackCachePlayerData
 	
 	
 	private TreeMap<String, PlayerBackpack> backpacks;
+	
+	// If null, then the default limit on the number of backpacks applies:
+	private Integer backpackLimit;
 
 	
 	private transient boolean dirty = false;
@@ -71,6 +77,43 @@ public class BackpackCachePlayerData
 		return sb.toString();
 	}
 	
+	/**
+	 * <p>Returns the player's silo backpack, and if they do not have one yet, 
+	 * then it will be created.  The limits are always updated so changes to 
+	 * the settings will apply to existing backpacks.
+	 * </p>
+	 * 
+	 * <p>Any changes to the backpack must be synchronized on this object, since
+	 * it may be saved asynchronously, and then it must be marked as dirty with 
+	 * <code>BackpackCache.markDirty()</code>.
+	 * </p>
+	 * 
+	 * @param itemType The XMaterial name of the item used for the backpack.
+	 * @param maxSiloSlots
+	 * @param maxSiloSize
+	 * @param maxTotalSize
+	 * @return
+	 */
+	public PlayerBackpack getSiloBackpack( String itemType, 
+					int maxSiloSlots, int maxSiloSize, int maxTotalSize ) {
+		
+		PlayerBackpack backpack = getBackpacks().get( SILO_BACKPACK_NAME );
+		
+		if ( backpack == null ) {
+			backpack = new PlayerBackpack( getPlayerName(), getPlayerUuid(), 
+							BackpackType.silo, SILO_BACKPACK_NAME, itemType );
+			
+			getBackpacks().put( SILO_BACKPACK_NAME, backpack );
+			setDirty( true );
+		}
+		
+		backpack.setMaxSiloSlots( maxSiloSlots );
+		backpack.setMaxSiloSize( maxSiloSize );
+		backpack.setMaxTotalSize( maxTotalSize );
+		
+		return backpack;
+	}
+	
 	protected Player getPlayer() {
 		return player;
 	}
@@ -85,6 +128,13 @@ public class BackpackCachePlayerData
 		this.backpacks = backpacks;
 	}
 
+	public Integer getBackpackLimit() {
+		return backpackLimit;
+	}
+	public void setBackpackLimit( Integer backpackLimit ) {
+		this.backpackLimit = backpackLimit;
+	}
+
 	public File getPlayerFile() {
 		return playerFile;
 	}
@@ -55,8 +55,7 @@ public class BackpackCacheSaveAllPlayersTask
 					
 					try
 					{
-						playerData.setDirty( false );
-						bCache.getCacheFiles().toJsonFile( playerData );
+						bCache.saveCacheData( playerData );
 					}
 					catch ( Exception e )
 					{
@@ -23,7 +23,7 @@ public class BackpackCacheUnloadPlayerTask
 		
 		if ( removed != null ) {
 			
-			bCache.getCacheFiles().toJsonFile( removed );
+			bCache.saveCacheData( removed );
 		}
 		
 	}
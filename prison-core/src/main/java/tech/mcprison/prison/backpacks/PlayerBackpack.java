@@ -22,10 +22,15 @@ public class PlayerBackpack {
 	// either inventory or silos... not both... not neither:
 	private BackpackType backpackType;
 	
-	private List<ItemStack> inventory;
+	// The platform's items are not saved with the backpack. See serializedInventory.
+	private transient List<ItemStack> inventory;
 //	private Inventory inventory;
 	private int inventorySize;
 	
+	// Each slot's item is serialized by the platform, which preserves all of the
+	// item's details, without the cache files depending upon the platform's classes.
+	private List<String> serializedInventory;
+	
 	
 	// if max of 54 silos, then can use a double-chest to view as GUI and 
 	// show the itemStacks with quantity being added lore?
@@ -38,6 +43,7 @@ public class PlayerBackpack {
 		super();
 		
 		this.inventory = new ArrayList<>();
+		this.serializedInventory = new ArrayList<>();
 		this.silos = new TreeMap<>();
 		
 	}
@@ -54,6 +60,127 @@ public class PlayerBackpack {
 		this.name = backpackName;
 		this.itemType = itemType;
 	}
+	
+	
+	/**
+	 * <p>Silos only store a count for each kind of item, so adding, removing, 
+	 * checking if full, and selling all depend upon the number of different 
+	 * items within the backpack, and not the number of items.
+	 * </p>
+	 * 
+	 * <p>Any limit that is zero, or less, is treated as no limit.
+	 * </p>
+	 * 
+	 * @return The total count of all items within all silos.
+	 */
+	public long getSiloTotalCount() {
+		long total = 0;
+		
+		for ( PlayerBackpackSiloData silo : getSilos().values() ) {
+			total += silo.getCount();
+		}
+		
+		return total;
+	}
+	
+	/**
+	 * <p>Returns how many more of the given item can be added to this backpack's
+	 * silos, taking in to consideration the max size of a silo, the max total
+	 * size for all silos, and if a new silo is needed, the max number of silos.
+	 * </p>
+	 * 
+	 * @param itemType The block's search name, which is the key for the silo.
+	 * @return
+	 */
+	public int getSiloCapacity( String itemType ) {
+		
+		PlayerBackpackSiloData silo = getSilos().get( itemType );
+		int count = silo == null ? 0 : silo.getCount();
+		
+		// Without any limits, a silo's count still cannot go past the max int:
+		long capacity = (long) Integer.MAX_VALUE - count;
+		
+		if ( silo == null && getMaxSiloSlots() > 0 && 
+				getSilos().size() >= getMaxSiloSlots() ) {
+			capacity = 0;
+		}
+		else {
+			
+			if ( getMaxSiloSize() > 0 ) {
+				capacity = Math.min( capacity, getMaxSiloSize() - count );
+			}
+			
+			if ( getMaxTotalSize() > 0 ) {
+				capacity = Math.min( capacity, getMaxTotalSize() - getSiloTotalCount() );
+			}
+		}
+		
+		return (int) Math.max( 0, capacity );
+	}
+	
+	public boolean isSiloFull( String itemType ) {
+		return getSiloCapacity( itemType ) == 0;
+	}
+	
+	/**
+	 * <p>Adds the amount to the item's silo, creating the silo if needed.
+	 * </p>
+	 * 
+	 * @param itemType The block's search name, which is the key for the silo.
+	 * @param amount
+	 * @return The amount that could not be added because the silos are full.
+	 */
+	public int addSiloItems( String itemType, int amount ) {
+		int added = Math.min( amount, getSiloCapacity( itemType ) );
+		
+		if ( added > 0 ) {
+			
+			PlayerBackpackSiloData silo = getSilos().get( itemType );
+			
+			if ( silo == null ) {
+				silo = new PlayerBackpackSiloData( itemType );
+				getSilos().put( itemType, silo );
+			}
+			
+			silo.setCount( silo.getCount() + added );
+		}
+		
+		return amount - Math.max( 0, added );
+	}
+	
+	/**
+	 * <p>Removes up to the amount from the item's silo.  If the silo is empty 
+	 * afterwards, and it's not locked, then it is removed so its slot can be 
+	 * used by another item.
+	 * </p>
+	 * 
+	 * @param itemType The block's search name, which is the key for the silo.
+	 * @param amount
+	 * @return The amount that was removed.
+	 */
+	public int removeSiloItems( String itemType, int amount ) {
+		int removed = 0;
+		
+		PlayerBackpackSiloData silo = getSilos().get( itemType );
+		
+		if ( silo != null && amount > 0 ) {
+			
+			removed = Math.min( amount, silo.getCount() );
+			silo.setCount( silo.getCount() - removed );
+			
+			if ( silo.getCount() == 0 && !silo.isLocked() ) {
+				getSilos().remove( itemType );
+			}
+		}
+		
+		return removed;
+	}
+	
+	public int getSiloCount( String itemType ) {
+		PlayerBackpackSiloData silo = getSilos().get( itemType );
+		
+		return silo == null ? 0 : silo.getCount();
+	}
 
 	public String getPlayerName() {
 		return playerName;
@@ -104,6 +231,13 @@ public class PlayerBackpack {
 		this.inventory = inventory;
 	}
 
+	public List<String> getSerializedInventory() {
+		return serializedInventory;
+	}
+	public void setSerializedInventory(List<String> serializedInventory) {
+		this.serializedInventory = serializedInventory;
+	}
+
 	public int getInventorySize() {
 		return inventorySize;
 	}
@@ -4,8 +4,8 @@ import tech.mcprison.prison.internal.ItemStack;
 
 public class PlayerBackpackSiloData {
 	
-	private String itemType; // key
-	private ItemStack itemSample; // quantity of 1
+	private String itemType; // key: the block's search name
+	private transient ItemStack itemSample; // quantity of 1
 	private int count;
 	private boolean locked; // locks the itemType in to this silo even when count == 0
 	
@@ -13,6 +13,16 @@ public class PlayerBackpackSiloData {
 		super();
 		
 	}
+	
+	public PlayerBackpackSiloData( String itemType ) {
+		this();
+		
+		this.itemType = itemType;
+	}
+	
+	public String toString() {
+		return getItemType() + ": " + getCount() + (isLocked() ? " (locked)" : "");
+	}
 
 	public String getItemType() {
 		return itemType;
@@ -0,0 +1,233 @@
+package tech.mcprison.prison.backups;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>This is the list of all of the files that were in prison's data folder when
+ * an incremental backup was made, and which backup zip file contains each
+ * file's contents.  An incremental backup only stores the files that have
+ * changed, so the unchanged files will point to the older backups within the
+ * chain.  Each incremental backup zip file includes its manifest, so any one
+ * of them can be restored as long as the backups it points to still exist.
+ * </p>
+ *
+ * <p>The manifest is a text file.  The header lines are <code>key: value</code>
+ * and then there is one tab separated line for each file, with the file's
+ * hash, size, last modified time, the backup zip file, and the name of the
+ * entry within that zip file.
+ * </p>
+ *
+ */
+public class PrisonBackupManifest {
+
+	public static final String MANIFEST_ENTRY_NAME = "backup_manifest.txt";
+
+	public static final String HEADER_ARCHIVE = "archive:";
+	public static final String HEADER_PREVIOUS = "previous:";
+	public static final String HEADER_CREATED = "created:";
+	public static final String HEADER_FILES = "files:";
+
+	private String archiveName;
+	private String previousArchiveName;
+	private long created;
+
+	private final Map<String, ManifestEntry> entries;
+
+
+	public static class ManifestEntry {
+		private final String path;
+		private final long size;
+		private final long lastModified;
+		private final String hash;
+		private final String archiveName;
+		private final String zipEntryName;
+
+		public ManifestEntry( String path, long size, long lastModified, String hash,
+					String archiveName, String zipEntryName ) {
+			super();
+
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.hash = hash;
+			this.archiveName = archiveName;
+			this.zipEntryName = zipEntryName;
+		}
+
+		/**
+		 * <p>Returns a copy of this entry, with the new last modified time.  This is
+		 * used when a file was saved without its contents changing.
+		 * </p>
+		 *
+		 * @param lastModified
+		 * @return
+		 */
+		public ManifestEntry withLastModified( long lastModified ) {
+			return new ManifestEntry( path, size, lastModified, hash, archiveName, zipEntryName );
+		}
+
+		public String getPath() {
+			return path;
+		}
+		public long getSize() {
+			return size;
+		}
+		public long getLastModified() {
+			return lastModified;
+		}
+		public String getHash() {
+			return hash;
+		}
+		public String getArchiveName() {
+			return archiveName;
+		}
+		public String getZipEntryName() {
+			return zipEntryName;
+		}
+	}
+
+	public PrisonBackupManifest( String archiveName, String previousArchiveName ) {
+		super();
+
+		this.archiveName = archiveName;
+		this.previousArchiveName = previousArchiveName;
+		this.created = System.currentTimeMillis();
+
+		this.entries = new LinkedHashMap<>();
+	}
+
+	public void addEntry( ManifestEntry entry ) {
+		entries.put( entry.getPath(), entry );
+	}
+
+	public ManifestEntry getEntry( String path ) {
+		return entries.get( path );
+	}
+
+	public Collection<ManifestEntry> getEntries() {
+		return entries.values();
+	}
+
+	/**
+	 * <p>Groups the entries by the backup zip file that contains them, so each
+	 * zip file only needs to be opened once when restoring.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public Map<String, List<ManifestEntry>> getEntriesByArchive() {
+		Map<String, List<ManifestEntry>> results = new TreeMap<>();
+
+		for ( ManifestEntry entry : entries.values() ) {
+
+			List<ManifestEntry> archiveEntries = results.get( entry.getArchiveName() );
+			if ( archiveEntries == null ) {
+				archiveEntries = new ArrayList<>();
+				results.put( entry.getArchiveName(), archiveEntries );
+			}
+
+			archiveEntries.add( entry );
+		}
+
+		return results;
+	}
+
+	public void write( OutputStream out )
+			throws IOException {
+
+		StringBuilder sb = new StringBuilder();
+
+		sb.append( "# Prison incremental backup manifest\n" );
+		sb.append( HEADER_ARCHIVE ).append( " " ).append( archiveName ).append( "\n" );
+		sb.append( HEADER_PREVIOUS ).append( " " )
+			.append( previousArchiveName == null ? "" : previousArchiveName ).append( "\n" );
+		sb.append( HEADER_CREATED ).append( " " ).append( created ).append( "\n" );
+		sb.append( HEADER_FILES ).append( " " ).append( entries.size() ).append( "\n" );
+
+		for ( ManifestEntry entry : entries.values() ) {
+			sb.append( entry.getHash() ).append( "\t" )
+				.append( entry.getSize() ).append( "\t" )
+				.append( entry.getLastModified() ).append( "\t" )
+				.append( entry.getArchiveName() ).append( "\t" )
+				.append( entry.getZipEntryName() ).append( "\t" )
+				.append( entry.getPath() ).append( "\n" );
+		}
+
+		out.write( sb.toString().getBytes( StandardCharsets.UTF_8 ) );
+	}
+
+	public static PrisonBackupManifest read( InputStream in )
+			throws IOException {
+
+		PrisonBackupManifest results = new PrisonBackupManifest( null, null );
+
+		BufferedReader reader = new BufferedReader(
+					new InputStreamReader( in, StandardCharsets.UTF_8 ) );
+
+		String line;
+		while ( (line = reader.readLine()) != null ) {
+
+			if ( line.length() == 0 || line.startsWith( "#" ) ) {
+				continue;
+			}
+			else if ( line.startsWith( HEADER_ARCHIVE ) ) {
+				results.archiveName = line.substring( HEADER_ARCHIVE.length() ).trim();
+			}
+			else if ( line.startsWith( HEADER_PREVIOUS ) ) {
+				String previous = line.substring( HEADER_PREVIOUS.length() ).trim();
+				results.previousArchiveName = previous.length() == 0 ? null : previous;
+			}
+			else if ( line.startsWith( HEADER_CREATED ) ) {
+				results.created = Long.parseLong( line.substring( HEADER_CREATED.length() ).trim() );
+			}
+			else if ( line.startsWith( HEADER_FILES ) ) {
+				// The number of files is only for reference.
+			}
+			else {
+				String[] values = line.split( "\t", 6 );
+
+				if ( values.length != 6 ) {
+					throw new IOException( "Invalid backup manifest line: " + line );
+				}
+
+				try {
+					results.addEntry( new ManifestEntry( values[5],
+							Long.parseLong( values[1] ), Long.parseLong( values[2] ),
+							values[0], values[3], values[4] ) );
+				}
+				catch ( NumberFormatException e ) {
+					throw new IOException( "Invalid backup manifest line: " + line, e );
+				}
+			}
+		}
+
+		return results;
+	}
+
+	public String getArchiveName() {
+		return archiveName;
+	}
+
+	public String getPreviousArchiveName() {
+		return previousArchiveName;
+	}
+
+	public long getCreated() {
+		return created;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+}
@@ -10,11 +10,14 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.cache.CoreCacheFiles;
 import tech.mcprison.prison.file.ZipFileIO;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 import tech.mcprison.prison.util.PrisonStatsUtil;
 
 public class PrisonBackups {
@@ -26,6 +29,13 @@ public class PrisonBackups {
 	public static final String VERSIONS_FILE_VERSION_PREFIX = "New_Prison_Version:";
 	public static final String VERSIONS_FILE_BACKUP_MADE_PREFIX = "Backup:";
 	
+	/**
+	 * <p>Only one backup can run at a time, since the backups delete the temp
+	 * files and update the incremental backup chain.
+	 * </p>
+	 */
+	private static final AtomicBoolean backupRunning = new AtomicBoolean( false );
+	
 	
 	private File backupDirectory = null;
 	private Date backupStartDate;
@@ -36,11 +46,25 @@ public class PrisonBackups {
 	private Path sourceDirectoryPath;
 	private File zipFile;
 	
+	/**
+	 * <p>Set when the backup has finished, if the zip file was written without 
+	 * any errors.  This is volatile since the async backups are checked within 
+	 * their callbacks, which run on the server's thread.
+	 * </p>
+	 */
+	private volatile boolean backupSuccessful = false;
+	
 	private ArrayList<File> filesBackups;
 	private ArrayList<File> filesToBackup;
 	private ArrayList<File> filesToDelete;
 	private ArrayList<File> filesWithErrors;
 	
+	private StringBuilder versionData;
+	private StringBuilder configsData;
+	private StringBuilder ranksData;
+	private StringBuilder minesData;
+	private StringBuilder listenersData;
+	
 	private DecimalFormat dFmt;
 	private SimpleDateFormat sdFmt = new SimpleDateFormat( "yyyy-MM-dd_kk-mm" );
 	private SimpleDateFormat sdsFmt = new SimpleDateFormat( "yyyy-MM-dd kk:mm:ss.SSS" );
@@ -49,7 +73,8 @@ public class PrisonBackups {
 	public enum BackupTypes {
 		upgrade,
 		auto,
-		manual
+		manual,
+		incremental
 	}
 	
 	public PrisonBackups() {
@@ -177,8 +202,96 @@ public class PrisonBackups {
 	}
 
 
+	/**
+	 * <p>Runs the backup on an async thread, so reading and compressing all of the
+	 * files does not block the server.  The support data that is included in the
+	 * backup's stats file is collected before the backup is started, since it
+	 * reads the ranks, mines, and the listeners.  When the backup is finished, the
+	 * callback is ran on the server thread with the backup's status message.
+	 * </p>
+	 * 
+	 * <p>If another backup is already running, then this backup is not started.
+	 * </p>
+	 * 
+	 * @param backupType
+	 * @param notes
+	 * @param callback Optional, can be null.
+	 * @return True if the backup was started.
+	 */
+	public boolean startBackupAsync( BackupTypes backupType, String notes, 
+					Consumer<String> callback ) {
+		
+		if ( !backupRunning.compareAndSet( false, true ) ) {
+			return false;
+		}
+		
+		try {
+			prepareReports();
+			
+			PrisonTaskSubmitter.runTaskLaterAsync( () -> {
+				
+				String message = null;
+				try {
+					message = runBackup( backupType, notes );
+				}
+				catch ( Exception e ) {
+					message = "Prison backup failed: " + e.getMessage();
+					Output.get().logError( message, e );
+				}
+				finally {
+					backupRunning.set( false );
+				}
+				
+				if ( callback != null ) {
+					String msg = message;
+					PrisonTaskSubmitter.runTaskLater( () -> callback.accept( msg ), 0 );
+				}
+			}, 0 );
+		}
+		catch ( RuntimeException e ) {
+			backupRunning.set( false );
+			throw e;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * <p>Runs the backup on the current thread.  This is used when prison is
+	 * starting up, since the backup must be finished before anything is changed.
+	 * </p>
+	 * 
+	 * @param backupType
+	 * @param notes
+	 * @return The backup's status message.
+	 */
 	public String startBackup( BackupTypes backupType, String notes ) {
 		
+		String message = null;
+		
+		if ( !backupRunning.compareAndSet( false, true ) ) {
+			message = "Prison backup was not made since another backup is running.";
+			Output.get().logWarn( message );
+			
+			return message;
+		}
+		
+		try {
+			message = runBackup( backupType, notes );
+		}
+		finally {
+			backupRunning.set( false );
+		}
+		
+		return message;
+	}
+	
+	public static boolean isBackupRunning() {
+		return backupRunning.get();
+	}
+	
+	private String runBackup( BackupTypes backupType, String notes ) {
+		
 		this.backupStartDate = new Date();
 		this.startTimeNanos = System.nanoTime();
 		
@@ -189,6 +302,9 @@ public class PrisonBackups {
 		this.filesToDelete.clear();
 		this.filesWithErrors.clear();
 		
+		this.backupSuccessful = false;
+		boolean zipWritten = false;
+		
 		this.zipFile = getNewBackupFile( backupType, notes );
 		
 		// Gather all files:
@@ -200,12 +316,39 @@ public class PrisonBackups {
 		String zipFilePrefix = "backup_" + sdFmt.format( backupStartDate );
 		this.zipFilePrefix = zipFilePrefix;
 		
-		// Save to zip file:
-		ZipFileIO zipIo = new ZipFileIO();
+		String incrementalStats = "";
 		
-		zipIo.writeToZipFileBackups(  
-				zipFile,
-				this );
+		if ( backupType == BackupTypes.incremental ) {
+			
+			PrisonIncrementalBackups incBackups = new PrisonIncrementalBackups( this );
+			
+			if ( incBackups.writeIncrementalBackup( zipFile ) == null ) {
+				
+				// Do not purge the temp files if they were not backed up:
+				this.filesToDelete.clear();
+			}
+			else {
+				zipWritten = true;
+			}
+			
+			incrementalStats = String.format( 
+					"   stored: %d (%s KB)   unchanged: %d   hashed: %d",
+					incBackups.getFilesStored(),
+					dFmt.format( incBackups.getBytesStored() / 1024.0 ),
+					incBackups.getFilesUnchanged(),
+					incBackups.getFilesHashed() );
+		}
+		else {
+			
+			// Save to zip file:
+			ZipFileIO zipIo = new ZipFileIO();
+			
+			zipIo.writeToZipFileBackups(  
+					zipFile,
+					this );
+			
+			zipWritten = zipFile.exists() && zipFile.length() > 0;
+		}
 		
 		
 		// Print out the list of errors from generating the zip file:
@@ -247,20 +390,93 @@ public class PrisonBackups {
 		double sizeKb = size / 1024.0;
 		
 		String message = String.format( 
-				"Backup status: %s  %s KB   files: %d   temp files purged: %d   errors: %d",
+				"Backup status: %s  %s KB   files: %d   temp files purged: %d   errors: %d%s",
 				zipFile.getAbsolutePath(),
 				dFmt.format( sizeKb ),
 				filesToBackup.size(),
 				filesToDelete.size(),
-				filesWithErrors.size()
+				filesWithErrors.size(),
+				incrementalStats
 				
 				);
 		
 		writeCurrentBackupInfoToVersionsFile( message );
 		
+		this.backupSuccessful = zipWritten && filesWithErrors.size() == 0;
+		
+		return message;
+	}
+	
+	/**
+	 * <p>Returns true if the last backup that was ran by this object wrote the
+	 * zip file without any errors.  For the async backups, this should be
+	 * checked within the callback.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public boolean isBackupSuccessful() {
+		return backupSuccessful;
+	}
+	
+	/**
+	 * <p>Restores the files from an incremental backup in to the directory
+	 * <code>backups/restore_&lt;backup name&gt;/</code>.
+	 * </p>
+	 * 
+	 * @param backupName
+	 * @return
+	 */
+	public String restoreIncrementalBackup( String backupName ) {
+		
+		String message = null;
+		
+		if ( !backupRunning.compareAndSet( false, true ) ) {
+			return "Unable to restore the backup since a backup is running.";
+		}
+		
+		try {
+			message = new PrisonIncrementalBackups( this ).restoreBackup( backupName );
+		}
+		finally {
+			backupRunning.set( false );
+		}
+		
 		return message;
 	}
 	
+	/**
+	 * <p>Returns the names of the incremental backups, oldest first, that can
+	 * be restored.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public List<String> getIncrementalBackups() {
+		List<String> results = new ArrayList<>();
+		
+		for ( String backupName : new PrisonIncrementalBackups( this ).getChain() ) {
+			if ( new File( getBackupDirectoryFile(), backupName ).exists() ) {
+				results.add( backupName );
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Collects the support data that is added to the backup's stats file.  This
+	 * must be called on the server thread if the backup will be ran async.
+	 * </p>
+	 */
+	private void prepareReports() {
+		this.versionData = Prison.get().getPrisonStatsUtil().getSupportSubmitVersionData();
+		this.configsData = Prison.get().getPrisonStatsUtil().getSupportSubmitConfigsData();
+		this.ranksData = Prison.get().getPrisonStatsUtil().getSupportSubmitRanksData();
+		this.minesData = Prison.get().getPrisonStatsUtil().getSupportSubmitMinesData();
+		this.listenersData = Prison.get().getPrisonStatsUtil().getSupportSubmitListenersData( "all" );
+	}
+	
 	
 	public String backupReport01() {
 		
@@ -316,23 +532,28 @@ public class PrisonBackups {
 	
 	
 	public StringBuilder backupReportVersionData() {
-		return Prison.get().getPrisonStatsUtil().getSupportSubmitVersionData();
+		return versionData != null ? versionData :
+				Prison.get().getPrisonStatsUtil().getSupportSubmitVersionData();
 	}
 	
 	public StringBuilder backupReportConfigsData() {
-		return Prison.get().getPrisonStatsUtil().getSupportSubmitConfigsData();
+		return configsData != null ? configsData : 
+				Prison.get().getPrisonStatsUtil().getSupportSubmitConfigsData();
 	}
 	
 	public StringBuilder backupReportRanksData() {
-		return Prison.get().getPrisonStatsUtil().getSupportSubmitRanksData();
+		return ranksData != null ? ranksData : 
+				Prison.get().getPrisonStatsUtil().getSupportSubmitRanksData();
 	}
 	
 	public StringBuilder backupReportMinesData() {
-		return Prison.get().getPrisonStatsUtil().getSupportSubmitMinesData();
+		return minesData != null ? minesData : 
+				Prison.get().getPrisonStatsUtil().getSupportSubmitMinesData();
 	}
 	
 	public StringBuilder backupReportListenersData() {
-		return Prison.get().getPrisonStatsUtil().getSupportSubmitListenersData( "all" );
+		return listenersData != null ? listenersData : 
+				Prison.get().getPrisonStatsUtil().getSupportSubmitListenersData( "all" );
 	}
 	
 	/**
@@ -423,7 +644,11 @@ public class PrisonBackups {
 			
 			if ( file.isDirectory() ) {
 				
-				gatherFiles( file );
+				// Skip the restored backups within the backups directory:
+				if ( !folder.equals( getBackupDirectoryFile() ) ) {
+					
+					gatherFiles( file );
+				}
 			}
 
 			else if ( file.isFile() ) {
@@ -496,10 +721,14 @@ public class PrisonBackups {
 		String fileName = "prison_" + sdFmt.format( new Date() ) + 
 				"_v" + prisonVersion +
 				( backupType == null ? "" : "_" + backupType.name()) + 
-				( notes == null ? "" : notes ) +
-				".zip";
+				( notes == null ? "" : notes );
+		
+		File file = new File( getBackupDirectoryFile(), fileName + ".zip" );
 		
-		File file = new File( getBackupDirectoryFile(), fileName );
+		// More than one backup may be made within the same minute:
+		for ( int i = 2; file.exists(); i++ ) {
+			file = new File( getBackupDirectoryFile(), fileName + "_" + i + ".zip" );
+		}
 		
 		return file;
 	}
@@ -0,0 +1,427 @@
+package tech.mcprison.prison.backups;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import tech.mcprison.prison.backups.PrisonBackupManifest.ManifestEntry;
+import tech.mcprison.prison.file.ZipFileIO;
+import tech.mcprison.prison.output.Output;
+
+/**
+ * <p>This creates the incremental backups, where only the files that have
+ * changed since the last incremental backup are stored in the new zip file.
+ * The manifest within the new zip file lists all of the files, and for the
+ * unchanged files, it points to the older zip files that contain them.
+ * </p>
+ *
+ * <p>To find the changed files, the file's size and last modified time are
+ * first compared to the last manifest.  If they are the same, then the file is
+ * treated as unchanged without reading it.  If only the last modified time is
+ * different, then the file's contents are hashed, and it is only stored if the
+ * hash is different.  The files that are stored have their hash calculated
+ * while they are being written to the zip file, so they are only read once.
+ * </p>
+ *
+ * <p>The chain of incremental backups is listed in the file
+ * <code>backups/incremental_chain.log</code>, which is used to find the last
+ * manifest.  If a backup zip file is deleted, then the next incremental backup
+ * will store the files again that were only within that deleted zip file.
+ * </p>
+ *
+ */
+public class PrisonIncrementalBackups {
+
+	public static final String INCREMENTAL_CHAIN_FILE_NAME = "incremental_chain.log";
+	public static final String RESTORE_DIRECTORY_PREFIX = "restore_";
+
+	public static final String HASH_ALGORITHM = "SHA-256";
+
+	private final PrisonBackups pBackups;
+	private final ZipFileIO zipIo;
+
+	private int filesUnchanged = 0;
+	private int filesHashed = 0;
+	private int filesStored = 0;
+	private long bytesStored = 0;
+
+	public PrisonIncrementalBackups( PrisonBackups pBackups ) {
+		super();
+
+		this.pBackups = pBackups;
+		this.zipIo = new ZipFileIO();
+	}
+
+	/**
+	 * <p>Writes the incremental backup zip file with all of the files that have
+	 * changed since the last incremental backup, and then adds it to the
+	 * chain.
+	 * </p>
+	 *
+	 * @param zipFile
+	 * @return The manifest of the new backup, or null if it failed.
+	 */
+	public PrisonBackupManifest writeIncrementalBackup( File zipFile ) {
+		PrisonBackupManifest results = null;
+
+		MessageDigest digest = getMessageDigest();
+		if ( digest == null ) {
+			return results;
+		}
+
+		PrisonBackupManifest previous = getLastManifest();
+		Set<String> archives = getExistingArchiveNames();
+
+		PrisonBackupManifest manifest = new PrisonBackupManifest( zipFile.getName(),
+				previous == null ? null : previous.getArchiveName() );
+
+		try (
+				final ZipOutputStream out = new ZipOutputStream(new FileOutputStream( zipFile ));
+				) {
+
+			for ( File file : pBackups.getFilesToBackup() ) {
+
+				String path = getRelativePath( file );
+				ManifestEntry prevEntry = previous == null ? null : previous.getEntry( path );
+
+				if ( prevEntry != null && !archives.contains( prevEntry.getArchiveName() ) ) {
+					prevEntry = null;
+				}
+
+				try {
+					ManifestEntry entry = checkUnchanged( file, prevEntry, digest );
+
+					if ( entry == null ) {
+						String zipEntryName = pBackups.getZipFilePrefix() + "/" + path;
+
+						// Read before the file is streamed, so if it is saved while it is being
+						// read, then the next backup will see that it has changed since then:
+						long length = file.length();
+						long lastModified = file.lastModified();
+
+						digest.reset();
+						long size = zipIo.writeFileToZip( out, zipEntryName, file, digest );
+
+						entry = new ManifestEntry( path, length, lastModified,
+								toHex( digest.digest() ), zipFile.getName(), zipEntryName );
+
+						filesStored++;
+						bytesStored += size;
+					}
+
+					manifest.addEntry( entry );
+				}
+				catch ( IOException e ) {
+
+					pBackups.getFilesWithErrors().add( file );
+
+					Output.get().logWarn( String.format(
+							"PrisonIncrementalBackups: Unable to add the file %s to the backup " +
+							"%s  [%s]", path, zipFile.getName(), e.getMessage() ), e );
+				}
+			}
+
+			out.putNextEntry( new ZipEntry( PrisonBackupManifest.MANIFEST_ENTRY_NAME ) );
+			manifest.write( out );
+			out.closeEntry();
+
+			// Add a stats file at the root with backup stats:
+			zipIo.writeBackupStats( out, pBackups );
+
+			results = manifest;
+		}
+		catch ( Exception e ) {
+
+			String message = String.format(
+					"Error trying to build Prison incremental backup file: %s  [%s]",
+						zipFile.getAbsolutePath(),
+						e.getMessage()
+					);
+
+			Output.get().logWarn( message, e );
+		}
+
+		if ( results != null ) {
+			addToChain( zipFile.getName() );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Checks to see if the file is the same as it was in the last backup.  The
+	 * size and last modified time are checked first, then the contents are hashed
+	 * if only the last modified time has changed.
+	 * </p>
+	 *
+	 * @param file
+	 * @param prevEntry
+	 * @param digest
+	 * @return The entry for the file if it has not changed, otherwise null.
+	 * @throws IOException
+	 */
+	private ManifestEntry checkUnchanged( File file, ManifestEntry prevEntry, MessageDigest digest )
+			throws IOException {
+		ManifestEntry results = null;
+
+		if ( prevEntry != null && prevEntry.getSize() == file.length() ) {
+
+			long lastModified = file.lastModified();
+
+			if ( prevEntry.getLastModified() == lastModified ) {
+				results = prevEntry;
+			}
+			else {
+				filesHashed++;
+
+				String hash = toHex( zipIo.hashFile( file, digest ) );
+
+				if ( hash.equals( prevEntry.getHash() ) ) {
+					results = prevEntry.withLastModified( lastModified );
+				}
+			}
+		}
+
+		if ( results != null ) {
+			filesUnchanged++;
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Restores all of the files that were in the given incremental backup.  The
+	 * files are not restored over prison's current files, since that would not be
+	 * safe while the server is running.  They are placed in the directory
+	 * <code>backups/restore_&lt;backup name&gt;/</code> and then they can be copied
+	 * in to place while the server is stopped.
+	 * </p>
+	 *
+	 * @param archiveName
+	 * @return A message with the results of the restore.
+	 */
+	public String restoreBackup( String archiveName ) {
+
+		File backupDir = pBackups.getBackupDirectoryFile();
+		File archiveFile = new File( backupDir, archiveName );
+
+		if ( !archiveFile.exists() ) {
+			return String.format( "Incremental backup %s does not exist.", archiveName );
+		}
+
+		PrisonBackupManifest manifest = readManifest( archiveFile );
+
+		if ( manifest == null ) {
+			return String.format( "Backup %s is not an incremental backup, or its " +
+					"manifest could not be read.", archiveName );
+		}
+
+		File restoreDir = new File( backupDir, RESTORE_DIRECTORY_PREFIX +
+				archiveName.replaceAll( "\\.zip$", "" ) );
+		Path restorePath = restoreDir.toPath().toAbsolutePath().normalize();
+
+		int restored = 0;
+		List<String> errors = new ArrayList<>();
+
+		for ( Map.Entry<String, List<ManifestEntry>> archive : manifest.getEntriesByArchive().entrySet() ) {
+
+			File zFile = new File( backupDir, archive.getKey() );
+
+			if ( !zFile.exists() ) {
+				errors.add( String.format( "Backup %s is missing, so %d files could not be restored.",
+						archive.getKey(), archive.getValue().size() ) );
+				continue;
+			}
+
+			try (
+					ZipFile zip = new ZipFile( zFile );
+					) {
+
+				for ( ManifestEntry entry : archive.getValue() ) {
+
+					ZipEntry zEntry = zip.getEntry( entry.getZipEntryName() );
+					Path target = restorePath.resolve( entry.getPath() ).normalize();
+
+					if ( zEntry == null || !target.startsWith( restorePath ) ) {
+						errors.add( String.format( "Unable to restore %s from %s.",
+								entry.getPath(), archive.getKey() ) );
+						continue;
+					}
+
+					zipIo.extractFromZip( zip, zEntry, target.toFile() );
+					restored++;
+				}
+			}
+			catch ( IOException e ) {
+				errors.add( String.format( "Error reading backup %s: %s",
+						archive.getKey(), e.getMessage() ) );
+			}
+		}
+
+		for ( String error : errors ) {
+			Output.get().logWarn( "PrisonBackups: " + error );
+		}
+
+		return String.format( "Restored %d of %d files from %s in to %s   errors: %d",
+				restored, manifest.size(), archiveName, restoreDir.getAbsolutePath(), errors.size() );
+	}
+
+	/**
+	 * <p>Returns the names of the incremental backups in the chain, oldest first.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public List<String> getChain() {
+		List<String> results = new ArrayList<>();
+
+		File chainFile = new File( pBackups.getBackupDirectoryFile(), INCREMENTAL_CHAIN_FILE_NAME );
+
+		if ( chainFile.exists() ) {
+			try {
+				for ( String line : Files.readAllLines( chainFile.toPath() ) ) {
+					if ( line.trim().length() > 0 ) {
+						results.add( line.trim() );
+					}
+				}
+			}
+			catch ( IOException e ) {
+				Output.get().logError( "PrisonBackups: Unable to read the incremental " +
+						"backup chain: " + chainFile.getAbsolutePath(), e );
+			}
+		}
+
+		return results;
+	}
+
+	private void addToChain( String archiveName ) {
+		File chainFile = new File( pBackups.getBackupDirectoryFile(), INCREMENTAL_CHAIN_FILE_NAME );
+
+		try {
+			Files.write( chainFile.toPath(), (archiveName + "\n").getBytes(),
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND );
+		}
+		catch ( IOException e ) {
+			Output.get().logError( "PrisonBackups: Unable to add the backup to the incremental " +
+					"backup chain: " + chainFile.getAbsolutePath(), e );
+		}
+	}
+
+	/**
+	 * <p>Finds the newest incremental backup in the chain that still exists, and
+	 * reads its manifest.
+	 * </p>
+	 *
+	 * @return The manifest, or null if there are no incremental backups.
+	 */
+	private PrisonBackupManifest getLastManifest() {
+		PrisonBackupManifest results = null;
+
+		List<String> chain = getChain();
+
+		for ( int i = chain.size() - 1; results == null && i >= 0; i-- ) {
+
+			File archiveFile = new File( pBackups.getBackupDirectoryFile(), chain.get( i ) );
+
+			if ( archiveFile.exists() ) {
+				results = readManifest( archiveFile );
+			}
+		}
+
+		return results;
+	}
+
+	private PrisonBackupManifest readManifest( File archiveFile ) {
+		PrisonBackupManifest results = null;
+
+		try (
+				ZipFile zip = new ZipFile( archiveFile );
+				) {
+
+			ZipEntry zEntry = zip.getEntry( PrisonBackupManifest.MANIFEST_ENTRY_NAME );
+
+			if ( zEntry != null ) {
+				try (
+						InputStream in = zip.getInputStream( zEntry );
+						) {
+					results = PrisonBackupManifest.read( in );
+				}
+			}
+		}
+		catch ( IOException e ) {
+			Output.get().logWarn( "PrisonBackups: Unable to read the manifest from " +
+					archiveFile.getAbsolutePath() + "  [" + e.getMessage() + "]" );
+		}
+
+		return results;
+	}
+
+	private Set<String> getExistingArchiveNames() {
+		Set<String> results = new HashSet<>();
+
+		for ( File file : pBackups.getFilesBackups() ) {
+			results.add( file.getName() );
+		}
+
+		return results;
+	}
+
+	private String getRelativePath( File file ) {
+		return pBackups.getSourceDirectoryPath().relativize( file.toPath() )
+					.toString().replace( File.separatorChar, '/' );
+	}
+
+	private MessageDigest getMessageDigest() {
+		MessageDigest results = null;
+
+		try {
+			results = MessageDigest.getInstance( HASH_ALGORITHM );
+		}
+		catch ( NoSuchAlgorithmException e ) {
+			Output.get().logError( "PrisonBackups: Unable to create an incremental backup since " +
+					HASH_ALGORITHM + " is not available.", e );
+		}
+
+		return results;
+	}
+
+	private static String toHex( byte[] bytes ) {
+		StringBuilder sb = new StringBuilder( bytes.length * 2 );
+
+		for ( byte b : bytes ) {
+			sb.append( String.format( "%02x", b ) );
+		}
+
+		return sb.toString();
+	}
+
+	public int getFilesUnchanged() {
+		return filesUnchanged;
+	}
+
+	public int getFilesHashed() {
+		return filesHashed;
+	}
+
+	public int getFilesStored() {
+		return filesStored;
+	}
+
+	public long getBytesStored() {
+		return bytesStored;
+	}
+}
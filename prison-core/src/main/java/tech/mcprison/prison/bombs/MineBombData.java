@@ -124,6 +124,15 @@ public class MineBombData {
 	
 	private String explosionShape;
 	
+	/**
+	 * <p>The precomputed block offsets for the explosion, which only depend upon 
+	 * the explosionShape, radius, and radiusInner.  This is built when the bombs
+	 * are loaded, and is shared with the bomb's clones.  Changing any of those 
+	 * settings will clear it, so it will be rebuilt when it is needed.
+	 * </p>
+	 */
+	private transient volatile MineBombShape shapeTemplate;
+	
 	
 	private String toolInHandName;
 	
@@ -337,6 +346,9 @@ public class MineBombData {
 		
 		cloned.setApplyToPlayersBlockCount( isApplyToPlayersBlockCount() );
 		
+		// The shape does not change, so the clone can share it:
+		cloned.setShapeTemplate( getShapeTemplate() );
+		
 		for ( MineBombEffectsData soundEffect : getSoundEffects() ) 
 		{
 			cloned.getSoundEffects().add( soundEffect.clone() );
@@ -416,6 +428,7 @@ public class MineBombData {
 	}
 	public void setRadius( int radius ) {
 		this.radius = radius;
+		this.shapeTemplate = null;
 	}
 
 	public int getRadiusInner() {
@@ -423,6 +436,7 @@ public class MineBombData {
 	}
 	public void setRadiusInner( int radiusInner ) {
 		this.radiusInner = radiusInner;
+		this.shapeTemplate = null;
 	}
 
 	public int getHeight() {
@@ -451,6 +465,27 @@ public class MineBombData {
 	}
 	public void setExplosionShape( String explosionShape ) {
 		this.explosionShape = explosionShape;
+		this.shapeTemplate = null;
+	}
+
+	/**
+	 * <p>Returns the precomputed shape of the explosion, and builds it if it has
+	 * not been built yet, or if the bomb's shape settings have changed.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public MineBombShape getShapeTemplate() {
+		MineBombShape template = shapeTemplate;
+		
+		if ( template == null || !template.matches( this ) ) {
+			template = MineBombShape.fromBomb( this );
+			shapeTemplate = template;
+		}
+		return template;
+	}
+	public void setShapeTemplate( MineBombShape shapeTemplate ) {
+		this.shapeTemplate = shapeTemplate;
 	}
 
 	public String getToolInHandName() {
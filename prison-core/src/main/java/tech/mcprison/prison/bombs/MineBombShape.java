@@ -0,0 +1,359 @@
+package tech.mcprison.prison.bombs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import tech.mcprison.prison.bombs.MineBombs.ExplosionOrientation;
+import tech.mcprison.prison.bombs.MineBombs.ExplosionShape;
+import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>This is a precomputed explosion shape for a mine bomb.  The shape of an
+ * explosion only depends upon the bomb's shape, radius, and inner radius, so the
+ * block offsets, relative to the center of the explosion, are calculated once
+ * when the bombs are loaded, and then are translated to where the bomb explodes.
+ * The offsets are stored in one int array, with three ints for each block, so
+ * there is no distance math, and no Location objects, when the bomb explodes.
+ * </p>
+ *
+ * <p>The offsets are sorted so the blocks within the same 16 x 16 column are
+ * together, then by x, z, and y.  Since the explosion's center is not aligned
+ * with the chunks, each column may span up to four chunks, but the blocks for
+ * each chunk are still grouped together so the chunks are not visited over
+ * and over.
+ * </p>
+ *
+ * <p>The shapes are the same as the ones that were calculated with
+ * <code>MineBombs.calculateSphere()</code> and <code>MineBombs.calculateCube()</code>.
+ * </p>
+ *
+ */
+public class MineBombShape
+{
+	/**
+	 * <p>Receives each block within the explosion, after it has been translated
+	 * to where the bomb exploded.
+	 * </p>
+	 */
+	public interface ShapeBlockVisitor {
+		public void visit( int x, int y, int z );
+	}
+
+	private final ExplosionShape shape;
+	private final int radius;
+	private final int radiusInner;
+
+	/**
+	 * <p>The x, y, and z offsets for each block.
+	 * </p>
+	 */
+	private final int[] offsets;
+
+	/**
+	 * <p>The smallest box that contains all of the offsets, as
+	 * xMin, yMin, zMin, xMax, yMax, zMax.
+	 * </p>
+	 */
+	private final int[] extents;
+
+	private MineBombShape( ExplosionShape shape, int radius, int radiusInner, int[] offsets ) {
+		super();
+
+		this.shape = shape;
+		this.radius = radius;
+		this.radiusInner = radiusInner;
+
+		this.offsets = offsets;
+
+		this.extents = new int[] { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+				Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE };
+
+		for ( int i = 0; i < offsets.length; i++ ) {
+			int axis = i % 3;
+			extents[axis] = Math.min( extents[axis], offsets[i] );
+			extents[axis + 3] = Math.max( extents[axis + 3], offsets[i] );
+		}
+	}
+
+	/**
+	 * <p>Builds the shape for the bomb.
+	 * </p>
+	 *
+	 * @param bomb
+	 * @return
+	 */
+	public static MineBombShape fromBomb( MineBombData bomb ) {
+		return build( ExplosionShape.fromString( bomb.getExplosionShape() ),
+						bomb.getRadius(), bomb.getRadiusInner() );
+	}
+
+	public static MineBombShape build( ExplosionShape shape, int radius, int radiusInner ) {
+		List<int[]> blocks = new ArrayList<>();
+
+		switch ( shape )
+		{
+			case cube:
+				addCube( blocks, radius );
+				break;
+
+			case ring_x:
+				addSphere( blocks, radius, true, radiusInner, ExplosionOrientation.x_axis );
+				break;
+			case ring_y:
+				addSphere( blocks, radius, true, radiusInner, ExplosionOrientation.y_axis );
+				break;
+			case ring_z:
+				addSphere( blocks, radius, true, radiusInner, ExplosionOrientation.z_axis );
+				break;
+
+			case disk_x:
+				addSphere( blocks, radius, false, 0, ExplosionOrientation.x_axis );
+				break;
+			case disk_y:
+				addSphere( blocks, radius, false, 0, ExplosionOrientation.y_axis );
+				break;
+			case disk_z:
+				addSphere( blocks, radius, false, 0, ExplosionOrientation.z_axis );
+				break;
+
+			case sphereHollow:
+				addSphere( blocks, radius, true, radiusInner, ExplosionOrientation.full );
+				break;
+
+			case sphere:
+			default:
+				addSphere( blocks, radius, false, 0, ExplosionOrientation.full );
+				break;
+		}
+
+		// Group the blocks by 16 x 16 columns, then x, z, and y:
+		blocks.sort( Comparator
+				.comparingInt( (int[] b) -> b[0] >> 4 )
+				.thenComparingInt( b -> b[2] >> 4 )
+				.thenComparingInt( b -> b[0] )
+				.thenComparingInt( b -> b[2] )
+				.thenComparingInt( b -> b[1] ) );
+
+		int[] offsets = new int[ blocks.size() * 3 ];
+		int i = 0;
+		for ( int[] block : blocks ) {
+			offsets[i++] = block[0];
+			offsets[i++] = block[1];
+			offsets[i++] = block[2];
+		}
+
+		return new MineBombShape( shape, radius, radiusInner, offsets );
+	}
+
+	private static void addSphere( List<int[]> blocks, int radius, boolean hollow,
+				int radiusInner, ExplosionOrientation explosionOrientation ) {
+
+		if ( radius <= 0 ) {
+			return;
+		}
+
+		boolean xOri = explosionOrientation == ExplosionOrientation.x_axis;
+		boolean yOri = explosionOrientation == ExplosionOrientation.y_axis;
+		boolean zOri = explosionOrientation == ExplosionOrientation.z_axis;
+
+		int radiusSqr = radius * radius;
+
+		// If the radiusInner is not specified (== 0), then subtract one from radius.
+		int radiusHSqr = radiusInner == 0 ?
+								((radius - 1) * (radius - 1)) :
+									(radiusInner * radiusInner);
+
+		for ( int x = (xOri ? 0 : -radius) ; x <= (xOri ? 0 : radius) ; x++ ) {
+			for ( int y = (yOri ? 0 : -radius) ; y <= (yOri ? 0 : radius) ; y++ ) {
+				for ( int z = (zOri ? 0 : -radius) ; z <= (zOri ? 0 : radius) ; z++ ) {
+
+					int distSqr = x * x + y * y + z * z;
+
+					if ( distSqr <= radiusSqr &&
+							(!hollow || distSqr >= radiusHSqr) ) {
+
+						blocks.add( new int[] { x, y, z } );
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>The cube starts one block above the center, and goes down.
+	 * </p>
+	 */
+	private static void addCube( List<int[]> blocks, int radius ) {
+
+		if ( radius <= 0 ) {
+			return;
+		}
+
+		for ( int x = -radius ; x <= radius ; x++ ) {
+			for ( int y = 1; y >= 1 - (radius * 2) ; y-- ) {
+				for ( int z = -radius ; z <= radius ; z++ ) {
+					blocks.add( new int[] { x, y, z } );
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Returns true if this shape was built with the same settings that the
+	 * bomb has now.
+	 * </p>
+	 *
+	 * @param bomb
+	 * @return
+	 */
+	public boolean matches( MineBombData bomb ) {
+		return shape == ExplosionShape.fromString( bomb.getExplosionShape() ) &&
+				radius == bomb.getRadius() &&
+				radiusInner == bomb.getRadiusInner();
+	}
+
+	/**
+	 * <p>Visits each block of the explosion, translated to the center.
+	 * </p>
+	 *
+	 * @param centerX
+	 * @param centerY
+	 * @param centerZ
+	 * @param visitor
+	 */
+	public void forEachBlock( int centerX, int centerY, int centerZ, ShapeBlockVisitor visitor ) {
+		for ( int i = 0; i < offsets.length; i += 3 ) {
+			visitor.visit( centerX + offsets[i], centerY + offsets[i + 1], centerZ + offsets[i + 2] );
+		}
+	}
+
+	/**
+	 * <p>Visits each block of the explosion, translated to the center, that is
+	 * not below the world's minimum height.  The cube goes down twice its radius,
+	 * so a bomb near the bottom of the world would otherwise reach past it.
+	 * </p>
+	 *
+	 * @param centerX
+	 * @param centerY
+	 * @param centerZ
+	 * @param worldMinY The lowest y of the world, such as 0, or -64 for 1.18 and newer.
+	 * @param visitor
+	 */
+	public void forEachBlock( int centerX, int centerY, int centerZ, int worldMinY, 
+					ShapeBlockVisitor visitor ) {
+		int dyMin = worldMinY - centerY;
+		
+		for ( int i = 0; i < offsets.length; i += 3 ) {
+			if ( offsets[i + 1] >= dyMin ) {
+				visitor.visit( centerX + offsets[i], centerY + offsets[i + 1], centerZ + offsets[i + 2] );
+			}
+		}
+	}
+
+	/**
+	 * <p>Visits each block of the explosion, translated to the center, that is
+	 * within the box, including the min and max values.  This is used to clip
+	 * the explosion to a mine's bounds before any blocks are read from the
+	 * world.  If the explosion does not reach the box, then no blocks are
+	 * visited.  Nothing below the world's minimum height is visited, even if
+	 * the box extends below it.
+	 * </p>
+	 *
+	 * @param worldMinY The lowest y of the world, such as 0, or -64 for 1.18 and newer.
+	 * @return The number of blocks that were visited.
+	 */
+	public int forEachBlockWithin( int centerX, int centerY, int centerZ,
+					int xMin, int yMin, int zMin, int xMax, int yMax, int zMax,
+					int worldMinY, ShapeBlockVisitor visitor ) {
+		int count = 0;
+
+		yMin = Math.max( yMin, worldMinY );
+
+		// Move the box so it is relative to the center, then it can be compared
+		// directly to the offsets:
+		int dxMin = xMin - centerX;
+		int dyMin = yMin - centerY;
+		int dzMin = zMin - centerZ;
+		int dxMax = xMax - centerX;
+		int dyMax = yMax - centerY;
+		int dzMax = zMax - centerZ;
+
+		if ( size() == 0 ||
+				extents[3] < dxMin || extents[0] > dxMax ||
+				extents[4] < dyMin || extents[1] > dyMax ||
+				extents[5] < dzMin || extents[2] > dzMax ) {
+			return count;
+		}
+
+		for ( int i = 0; i < offsets.length; i += 3 ) {
+			int x = offsets[i];
+			int y = offsets[i + 1];
+			int z = offsets[i + 2];
+
+			if ( x >= dxMin && x <= dxMax &&
+					y >= dyMin && y <= dyMax &&
+					z >= dzMin && z <= dzMax ) {
+
+				visitor.visit( centerX + x, centerY + y, centerZ + z );
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * <p>Returns the locations of all of the blocks, translated to the given
+	 * location.  This creates a Location for each block, so it should only be
+	 * used when the list is needed.
+	 * </p>
+	 *
+	 * @param loc
+	 * @return
+	 */
+	public List<Location> getLocations( Location loc ) {
+		List<Location> results = new ArrayList<>( size() );
+
+		World world = loc.getWorld();
+
+		forEachBlock( loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+				(x, y, z) -> results.add( new Location( world, x, y, z ) ) );
+
+		return results;
+	}
+
+	public int size() {
+		return offsets.length / 3;
+	}
+
+	/**
+	 * <p>Returns a copy of the offsets, three for each block.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public int[] getOffsets() {
+		return Arrays.copyOf( offsets, offsets.length );
+	}
+
+	public ExplosionShape getShape() {
+		return shape;
+	}
+
+	public int getRadius() {
+		return radius;
+	}
+
+	public int getRadiusInner() {
+		return radiusInner;
+	}
+
+	@Override
+	public String toString() {
+		return String.format( "MineBombShape: %s radius=%d radiusInner=%d blocks=%d",
+				shape.name(), radius, radiusInner, size() );
+	}
+}
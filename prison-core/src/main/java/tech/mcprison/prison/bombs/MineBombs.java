@@ -218,7 +218,21 @@ public class MineBombs
 		
 		Output.get().logInfo( sbMsg.toString() );
 		
+		buildShapeTemplates();
 		
+		
+	}
+	
+	/**
+	 * <p>Precomputes the explosion shapes for all of the bombs, so they do not
+	 * have to be calculated when a bomb explodes.
+	 * </p>
+	 */
+	public void buildShapeTemplates() {
+		
+		for ( MineBombData bomb : getConfigData().getBombs().values() ) {
+			bomb.getShapeTemplate();
+		}
 	}
 	
 	/**
@@ -3,7 +3,6 @@ package tech.mcprison.prison.cache;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -15,6 +14,7 @@ import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 
 import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.file.AtomicJsonFileWriter;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.output.Output;
 
@@ -30,6 +30,7 @@ public abstract class CoreCacheFiles {
 	private File cacheDirectory = null;
 	
 	private Gson gson = null;
+	private Gson gsonCompact = null;
 	private TreeMap<String, File> playerFiles;
 
 	
@@ -56,6 +57,24 @@ public abstract class CoreCacheFiles {
 		}
 		return gson;
 	}
+	
+	/**
+	 * <p>This is the Gson engine that is used when saving the cache files.  It 
+	 * will only use pretty printing if <code>storage.file.pretty-print</code> 
+	 * is enabled.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	protected Gson getGsonSave() {
+		if ( !AtomicJsonFileWriter.isPrettyPrint() ) {
+			if ( gsonCompact == null ) {
+				gsonCompact = new GsonBuilder().create();
+			}
+			return gsonCompact;
+		}
+		return getGson();
+	}
 
 	protected void renamePlayerFileToBU(File playerFile) {
 		String buFileName = FILE_PREFIX_BACKUP + 
@@ -168,7 +187,7 @@ public abstract class CoreCacheFiles {
 
 		// New player and file does not exist so create it.
 		if ( results == null ) {
-			results = new PlayerCachePlayerData( player, playerFile );
+			results = createCacheData( player, playerFile );
 			
 			// Then save it:
 			toJsonFile( results );
@@ -176,6 +195,21 @@ public abstract class CoreCacheFiles {
 		
 		return results;
 	}
+	
+	/**
+	 * <p>Creates the cache data object for a new player, which does not have a 
+	 * cache file yet.  Caches that store a different type of data object must
+	 * override this, otherwise the wrong type would be returned from 
+	 * <code>fromJson()</code>.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param playerFile
+	 * @return
+	 */
+	protected CoreCacheData createCacheData( Player player, File playerFile ) {
+		return new PlayerCachePlayerData( player, playerFile );
+	}
 
 	
 	/**
@@ -201,9 +235,9 @@ public abstract class CoreCacheFiles {
 	 * file upon loading in to the cache the next time they are activated.
 	 * </p>
 	 * 
-	 * <p>This function first saves the new player data to a temp file.  If that 
-	 * was successful, then it deletes the original file, and renames the temp
-	 * file back to the original name.
+	 * <p>This function first streams the new player data to a temp file, which is
+	 * forced to disk.  If that was successful, then the temp file is atomically
+	 * moved over the original file.
 	 * </p>
 	 * 
 	 * @param player
@@ -221,14 +255,12 @@ public abstract class CoreCacheFiles {
 			
 			boolean success = false;
 			
-			try (
-					FileWriter fw = new FileWriter( outTemp );
-					){
-				getGson().toJson( cacheData, fw );
+			try {
+				AtomicJsonFileWriter.writeTempFile( outTemp, getGsonSave(), cacheData );
 				
 				success = true;
 			}
-			catch ( JsonIOException | IOException e ) {
+			catch ( IOException e ) {
 				e.printStackTrace();
 			}
 			
@@ -236,20 +268,32 @@ public abstract class CoreCacheFiles {
 			// old, then rename it to a backup and keep it.  If it is smaller, then something went wrong
 			// because player cache data should always increase, with the only exception being 
 			// the player cache.
-			if ( playerFile.exists() ) {
+			if ( success && playerFile.exists() ) {
 				long pfSize = playerFile.length();
 				long tmpSize = outTemp.length();
 				
-				if ( tmpSize < pfSize ) {
+				// Compact files are always smaller than pretty printed files, so skip
+				// the size check only on the first save after pretty printing was
+				// turned off, when the old file is still pretty printed:
+				boolean switchedToCompact = !AtomicJsonFileWriter.isPrettyPrint() && 
+								AtomicJsonFileWriter.isPrettyPrinted( playerFile );
+				
+				if ( tmpSize < pfSize && !switchedToCompact ) {
 					 
 					renamePlayerFileToBU( playerFile );
 				}
 			}
 			
-			if ( success && ( !playerFile.exists() || playerFile.delete()) ) {
-				outTemp.renameTo( playerFile );
+			if ( success ) {
+				try {
+					AtomicJsonFileWriter.replace( outTemp, playerFile );
+				}
+				catch ( IOException e ) {
+					success = false;
+				}
 			}
-			else {
+			
+			if ( !success ) {
 				
 				boolean removed = false;
 				if ( outTemp.exists() ) {
@@ -0,0 +1,170 @@
+package tech.mcprison.prison.file;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+
+import tech.mcprison.prison.Prison;
+
+/**
+ * <p>This streams an object to a json file without first building the whole
+ * json document as a String.  Gson writes directly to a buffered writer that
+ * is backed by the temp file's channel, and the temp file is forced to disk
+ * before it is moved over the target file with an atomic move.  So either
+ * the original file remains, or the complete new file replaces it.
+ * </p>
+ *
+ * <p>Pretty printing is controlled by the config setting
+ * <code>storage.file.pretty-print</code>, which defaults to true so the
+ * files remain human readable.
+ * </p>
+ *
+ */
+public class AtomicJsonFileWriter
+{
+	public static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+	private AtomicJsonFileWriter() {
+		super();
+	}
+
+	/**
+	 * <p>Returns the config setting <code>storage.file.pretty-print</code>, which
+	 * defaults to true if it has not been set, or if the platform is not available.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public static boolean isPrettyPrint() {
+		boolean results = true;
+
+		if ( Prison.get().getPlatform() != null ) {
+			results = Prison.get().getPlatform().getConfigBooleanTrue( "storage.file.pretty-print" );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Checks if the existing json file was pretty printed, which is when the
+	 * opening brace is followed by a line break.  This is used to identify the
+	 * first save after pretty printing has been turned off, since that file will
+	 * be smaller than the original even though nothing was lost.
+	 * </p>
+	 *
+	 * @param file
+	 * @return False if the file is compact, or if it cannot be read.
+	 */
+	public static boolean isPrettyPrinted( File file ) {
+		boolean results = false;
+
+		try ( InputStream in = Files.newInputStream( file.toPath() ) ) {
+			byte[] start = new byte[2];
+			int len = in.read( start );
+
+			results = len == 2 && start[0] == '{' &&
+					( start[1] == '\n' || start[1] == '\r' );
+		}
+		catch ( IOException e ) {
+			// Cannot read it, so treat it as compact so the size is still checked.
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Writes the data to the temp file, then atomically moves the temp file
+	 * over the target file.
+	 * </p>
+	 *
+	 * @param target The final file.
+	 * @param tempFile The temp file, which must be in the same directory as the target.
+	 * @param gson
+	 * @param data
+	 * @throws IOException
+	 */
+	public static void writeJson( File target, File tempFile, Gson gson, Object data )
+			throws IOException {
+
+		writeTempFile( tempFile, gson, data );
+
+		replace( tempFile, target );
+	}
+
+	/**
+	 * <p>Streams the json data in to the temp file, and then forces the contents
+	 * to disk before returning.  If anything fails, then the temp file is removed.
+	 * </p>
+	 *
+	 * @param tempFile
+	 * @param gson
+	 * @param data
+	 * @throws IOException
+	 */
+	public static void writeTempFile( File tempFile, Gson gson, Object data )
+			throws IOException {
+
+		boolean success = false;
+
+		try ( FileChannel channel = FileChannel.open( tempFile.toPath(),
+							StandardOpenOption.CREATE,
+							StandardOpenOption.TRUNCATE_EXISTING,
+							StandardOpenOption.WRITE ) ) {
+
+			// Do not close the writer before the channel has been forced, since
+			// closing the writer will close the channel:
+			Writer writer = new BufferedWriter(
+					Channels.newWriter( channel, StandardCharsets.UTF_8.newEncoder(), -1 ),
+					WRITE_BUFFER_SIZE );
+
+			gson.toJson( data, writer );
+			writer.flush();
+
+			channel.force( true );
+
+			success = true;
+		}
+		catch ( JsonIOException e ) {
+			throw new IOException( e.getMessage(), e );
+		}
+		finally {
+			if ( !success ) {
+				Files.deleteIfExists( tempFile.toPath() );
+			}
+		}
+	}
+
+	/**
+	 * <p>Moves the temp file over the target.  If the file system does not
+	 * support atomic moves, then it falls back to a normal replace.
+	 * </p>
+	 *
+	 * @param tempFile
+	 * @param target
+	 * @throws IOException
+	 */
+	public static void replace( File tempFile, File target )
+			throws IOException {
+
+		try {
+			Files.move( tempFile.toPath(), target.toPath(),
+					StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+		}
+		catch ( AtomicMoveNotSupportedException e ) {
+			Files.move( tempFile.toPath(), target.toPath(),
+					StandardCopyOption.REPLACE_EXISTING );
+		}
+	}
+}
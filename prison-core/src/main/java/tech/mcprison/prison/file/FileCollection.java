@@ -1,10 +1,17 @@
 package tech.mcprison.prison.file;
 
 import java.io.File;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
+import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.store.Collection;
 import tech.mcprison.prison.store.Document;
@@ -19,6 +26,15 @@ public class FileCollection
 	extends JsonFileIO
 	implements Collection 
 {
+	/**
+	 * <p>Collections with fewer files than this are always loaded on the calling
+	 * thread since the overhead of the pool is not worth it.
+	 * </p>
+	 */
+	public static final int PARALLEL_LOAD_MIN_FILES = 16;
+	
+	private static ForkJoinPool loaderPool;
+	
     private File collDir;
     
     public FileCollection(File collDir) {
@@ -55,17 +71,69 @@ public class FileCollection
     public List<Document> getAll() {
     	List<Document> allDocs = new ArrayList<>();
     	
+    	long start = System.nanoTime();
+    	
     	// Each folder in the root directory is its own database.
     	// We'll initialize each of them here.
     	File[] collectionFiles = this.collDir.listFiles((dir, name) -> name.endsWith(".json"));
+    	
+    	int fileCount = 0;
+    	int deletedCount = 0;
+    	int threads = 1;
+    	
     	if (collectionFiles != null) {
+    		
+    		// Sort so the load order is stable no matter how the files are read:
+    		Arrays.sort( collectionFiles );
+    		fileCount = collectionFiles.length;
+    		
+    		List<File> dbFiles = new ArrayList<>();
+    		
     		for (File dbFile : collectionFiles) {
     			if ( isDeleted( dbFile ) ) {
     				String message = "FileCollection.getAll skipping logically deleted FileDocument: " + 
     							dbFile.getAbsolutePath();
     				Output.get().logInfo( message );
+    				deletedCount++;
     			} else {
-    				Document doc = (Document) readJsonFile(dbFile, new Document());
+    				dbFiles.add( dbFile );
+    			}
+    		}
+    		
+    		ForkJoinPool pool = dbFiles.size() >= PARALLEL_LOAD_MIN_FILES ? 
+    										getLoaderPool() : null;
+    		
+    		if ( pool != null ) {
+    			threads = pool.getParallelism();
+    			
+    			try {
+    				// The parallel stream is ordered, so the results are in the same 
+    				// order as the sorted files.  Running it within the pool limits
+    				// the number of threads to the pool's parallelism.
+    				List<Document> docs = pool.submit( () -> 
+    							dbFiles.parallelStream()
+    								.map( this::readJsonDocument )
+    								.collect( Collectors.toList() ) ).get();
+    				
+    				for ( Document doc : docs ) {
+    					if ( doc != null ) {
+    						allDocs.add( doc );
+    					}
+    				}
+    			}
+    			catch ( Exception e ) {
+    				Output.get().logWarn( "FileCollection.getAll: parallel load failed for " + 
+    						getName() + ". Loading serially. Error: " + e.getMessage() );
+    				
+    				allDocs.clear();
+    				pool = null;
+    				threads = 1;
+    			}
+    		}
+    		
+    		if ( pool == null ) {
+    			for (File dbFile : dbFiles) {
+    				Document doc = readJsonDocument( dbFile );
     				if ( doc != null )
     				{
     					allDocs.add( doc );
@@ -74,9 +142,87 @@ public class FileCollection
     		}
     	}
     	
+    	long nanos = System.nanoTime() - start;
+    	
+    	FileCollectionLoadStats.record( new FileCollectionLoadStats( 
+    			getStatsName(), fileCount, allDocs.size(), deletedCount, threads, nanos ) );
+    	
     	return allDocs;
     }
     
+    /**
+     * <p>Reads the document directly from the file through a UTF-8 reader, so 
+     * gson can parse it without first building the whole file as a String.
+     * This is thread safe since Gson is thread safe.
+     * </p>
+     * 
+     * <p>This mirrors readJsonFile(): If the file is empty, then null is returned,
+     * and if the file cannot be parsed, then an empty Document is returned.
+     * </p>
+     * 
+     * @param dbFile
+     * @return
+     */
+    private Document readJsonDocument( File dbFile ) {
+    	Document results = new Document();
+    	
+    	try ( Reader reader = Files.newBufferedReader( dbFile.toPath(), StandardCharsets.UTF_8 ) ) {
+    		
+    		results = getGson().fromJson( reader, Document.class );
+    	}
+    	catch ( Exception e ) {
+    		
+    		String message = String.format( 
+    				"FileCollection.readJsonDocument: JsonParse failure: file: [%s] " +
+    				"error: [%s]", 
+    				dbFile.getAbsoluteFile(), e.getMessage() );
+    		
+    		Output.get().logError( message );
+    	}
+    	
+    	return results;
+    }
+    
+    private String getStatsName() {
+    	File dbDir = collDir.getParentFile();
+    	return (dbDir == null ? "" : dbDir.getName() + "/") + getName();
+    }
+    
+    /**
+     * <p>The shared pool that is used to load collections.  It is bounded by the 
+     * config setting <code>storage.file.parallel-load.threads</code>, which defaults
+     * to the number of cores, up to a max of 4.  If 
+     * <code>storage.file.parallel-load.enabled</code> is set to false, then this
+     * returns null and all collections are loaded serially.
+     * </p>
+     * 
+     * @return
+     */
+    private static synchronized ForkJoinPool getLoaderPool() {
+    	
+    	if ( loaderPool == null ) {
+    		
+    		int cores = Runtime.getRuntime().availableProcessors();
+    		int threads = Math.min( 4, cores );
+    		boolean enabled = true;
+    		
+    		if ( Prison.get().getPlatform() != null ) {
+    			enabled = Prison.get().getPlatform().getConfigBooleanTrue( 
+    					"storage.file.parallel-load.enabled" );
+    			threads = Prison.get().getPlatform().getConfigInt( 
+    					"storage.file.parallel-load.threads", threads );
+    		}
+    		
+    		if ( !enabled || threads <= 1 ) {
+    			return null;
+    		}
+    		
+    		loaderPool = new ForkJoinPool( threads );
+    	}
+    	
+    	return loaderPool;
+    }
+    
 
     @Override 
     public Optional<Document> get(String key) {
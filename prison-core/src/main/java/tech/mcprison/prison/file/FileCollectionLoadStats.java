@@ -0,0 +1,119 @@
+package tech.mcprison.prison.file;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.output.ChatDisplay;
+
+/**
+ * <p>This tracks how long it took to load each FileCollection the last time
+ * its getAll() was called.  This is reported within <code>/prison version</code>
+ * so it's easy to identify which collections are slow to load on startup.
+ * </p>
+ *
+ */
+public class FileCollectionLoadStats
+{
+	private static final Map<String, FileCollectionLoadStats> loadStats =
+							new ConcurrentSkipListMap<>();
+
+	private final String collectionName;
+
+	private final int fileCount;
+	private final int documentCount;
+	private final int deletedCount;
+
+	private final int threads;
+	private final long nanos;
+
+	public FileCollectionLoadStats( String collectionName, int fileCount, int documentCount,
+						int deletedCount, int threads, long nanos ) {
+		super();
+
+		this.collectionName = collectionName;
+
+		this.fileCount = fileCount;
+		this.documentCount = documentCount;
+		this.deletedCount = deletedCount;
+
+		this.threads = threads;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * <p>Records the stats, replacing any prior stats for the same collection.
+	 * </p>
+	 *
+	 * @param stats
+	 */
+	public static void record( FileCollectionLoadStats stats ) {
+		loadStats.put( stats.getCollectionName(), stats );
+	}
+
+	public static List<FileCollectionLoadStats> getLoadStats() {
+		return new ArrayList<>( loadStats.values() );
+	}
+
+	/**
+	 * <p>Adds one line per collection to the display.  If no collections have been
+	 * loaded yet, then nothing is added.
+	 * </p>
+	 *
+	 * @param display
+	 */
+	public static void displayLoadStats( ChatDisplay display ) {
+
+		List<FileCollectionLoadStats> stats = getLoadStats();
+
+		if ( stats.size() > 0 ) {
+			DecimalFormat iFmt = Prison.get().getDecimalFormatInt();
+			DecimalFormat dFmt = Prison.get().getDecimalFormatDouble();
+
+			display.addText( "&7Storage Collection Load Times:" );
+
+			for ( FileCollectionLoadStats stat : stats ) {
+
+				display.addText( "&7  %s  files: %s  docs: %s  deleted: %s  threads: %s  %s ms",
+						stat.getCollectionName(),
+						iFmt.format( stat.getFileCount() ),
+						iFmt.format( stat.getDocumentCount() ),
+						iFmt.format( stat.getDeletedCount() ),
+						iFmt.format( stat.getThreads() ),
+						dFmt.format( stat.getMillis() )
+						);
+			}
+		}
+	}
+
+	public String getCollectionName() {
+		return collectionName;
+	}
+
+	public int getFileCount() {
+		return fileCount;
+	}
+
+	public int getDocumentCount() {
+		return documentCount;
+	}
+
+	public int getDeletedCount() {
+		return deletedCount;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	public double getMillis() {
+		return nanos / 1_000_000.0d;
+	}
+}
@@ -10,6 +10,8 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
+import com.google.gson.Gson;
+
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.error.Error;
 import tech.mcprison.prison.error.ErrorManager;
@@ -172,6 +174,48 @@ public abstract class FileIO
 		}
 	}
 
+	/**
+	 * <p>This streams the data object directly to the file as json, without building
+	 * the whole json document as a String.  The temp file is forced to disk, then 
+	 * it is atomically moved over the original file.
+	 * </p>
+	 * 
+	 * <p>If <code>storage.file.disable-advanced-saves.enabled</code> is true, then 
+	 * this falls back to generating the json String and using saveFile().
+	 * </p>
+	 * 
+	 * @param file
+	 * @param gson
+	 * @param data
+	 */
+	protected void saveFileJson( File file, Gson gson, Object data ) 
+	{
+		if ( file != null && data != null )
+		{
+			boolean disableAdvancedSaves = 
+					Prison.get().getPlatform().getConfigBooleanFalse( 
+							"storage.file.disable-advanced-saves.enabled" );
+			
+			if ( disableAdvancedSaves ) {
+				
+				saveFile( file, gson.toJson( data ) );
+			}
+			else {
+				
+				File tempFile = getTempFile( file );
+				
+				try
+				{
+					AtomicJsonFileWriter.writeJson( file, tempFile, gson, data );
+				}
+				catch ( IOException e )
+				{
+					logException( "Failed to create file", file, e );
+				}
+			}
+		}
+	}
+
 	protected String readFile( File file )
 	{
 		StringBuilder results = new StringBuilder();
@@ -20,6 +20,7 @@ public class JsonFileIO
 	public static final String FILE_TIMESTAMP_FORMAT = "_yyyy-MM-dd_HH-mm-ss";
 
 	private final Gson gson;
+	private final Gson gsonCompact;
 	
 	/**
 	 * 
@@ -31,6 +32,7 @@ public class JsonFileIO
 		super(errorManager, status);
 		
 		this.gson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+		this.gsonCompact = new GsonBuilder().disableHtmlEscaping().create();
 	}
 
 	public JsonFileIO() {
@@ -42,13 +44,34 @@ public class JsonFileIO
 		return gson;
 	}
 	
+	/**
+	 * <p>The Gson engine that is used when saving files.  It will only use
+	 * pretty printing if <code>storage.file.pretty-print</code> is enabled.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public Gson getGsonSave()
+	{
+		return AtomicJsonFileWriter.isPrettyPrint() ? gson : gsonCompact;
+	}
+	
 	public Gson getGsonExposed()
 	{
-		return  new GsonBuilder()
+		return getGsonExposed( true );
+	}
+	
+	public Gson getGsonExposed( boolean prettyPrint )
+	{
+		GsonBuilder builder = new GsonBuilder()
 				.excludeFieldsWithoutExposeAnnotation()
-				.disableHtmlEscaping()
-				.setPrettyPrinting()
-				.create();
+				.disableHtmlEscaping();
+		
+		if ( prettyPrint ) {
+			builder.setPrettyPrinting();
+		}
+		
+		return builder.create();
 	}
 	
 	
@@ -104,6 +127,10 @@ public class JsonFileIO
 	 * either the original file will remain, or the new file will saved under the 
 	 * *.tmp suffix, or both.  Should not reach a condition where both files disappear.
 	 * 
+	 * <p>The json is streamed directly to the temp file, which is forced to disk
+	 * before it is atomically moved over the original file.
+	 * </p>
+	 * 
 	 * @param file
 	 * @param data
 	 */
@@ -111,9 +138,7 @@ public class JsonFileIO
 	{
 		if ( file != null && data != null )
 		{
-			String json = getGson().toJson( data );
-
-			saveFile( file, json );	
+			saveFileJson( file, getGsonSave(), data );
 		}
 	}
 	
@@ -121,9 +146,9 @@ public class JsonFileIO
 	{
 		if ( file != null && data != null )
 		{
-			String json = getGsonExposed().toJson( data );
+			Gson gsonExposed = getGsonExposed( AtomicJsonFileWriter.isPrettyPrint() );
 			
-			saveFile( file, json );	
+			saveFileJson( file, gsonExposed, data );
 		}
 	}
 	
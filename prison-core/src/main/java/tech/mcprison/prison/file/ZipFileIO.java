@@ -1,11 +1,15 @@
 package tech.mcprison.prison.file;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
 import tech.mcprison.prison.backups.PrisonBackups;
@@ -14,6 +18,22 @@ import tech.mcprison.prison.util.Text;
 
 public class ZipFileIO {
 
+	/**
+	 * <p>The size of the buffer that is used to copy the files in to, and out of,
+	 * the zip files.  The files are streamed through this buffer so large files
+	 * do not have to be read in to memory all at once.
+	 * </p>
+	 */
+	public static final int BUFFER_SIZE = 64 * 1024;
+	
+	private final byte[] buffer;
+	
+	public ZipFileIO() {
+		super();
+		
+		this.buffer = new byte[BUFFER_SIZE];
+	}
+	
 	
 	public void writeToZipFileBackups( 
 			File zipFile, 
@@ -30,13 +50,7 @@ public class ZipFileIO {
 					
 					String zipEntryName =  pBackups.getZipFilePrefix() + "/" + targetFile.toString();
 					
-					ZipEntry zEntry = new ZipEntry( zipEntryName );
-					out.putNextEntry( zEntry );
-					
-					
-					byte[] bytes = Files.readAllBytes(file.toPath());
-					out.write(bytes, 0, bytes.length);
-					out.closeEntry();
+					writeFileToZip( out, zipEntryName, file, null );
 				} 
 				catch (IOException e) {
 					
@@ -47,38 +61,8 @@ public class ZipFileIO {
 				
 			}
 			
-//			// Add a stats file at the root with backup stats:
-			try {
-				String statsFileName = pBackups.getZipFilePrefix() + "_stats.txt";
-				
-				ZipEntry zEntry = new ZipEntry( statsFileName );
-				out.putNextEntry( zEntry );
-
-				// Basic backup stats:
-				writeOutput( out, pBackups.backupReport01() );
-				
-				// Prison version:
-				writeOutput( out, pBackups.backupReportVersionData().toString() );
-				
-				// List of backup files that had errors or are temporary and will be removed:
-				writeOutput( out, pBackups.backupReportListTemporalFiles() );
-				
-				
-				writeOutput( out, pBackups.backupReportConfigsData().toString() );
-				
-				writeOutput( out, pBackups.backupReportRanksData().toString() );
-				
-				writeOutput( out, pBackups.backupReportMinesData().toString() );
-				
-				writeOutput( out, pBackups.backupReportListenersData().toString() );
-
-				
-				out.closeEntry();
-			} 
-			catch (IOException e) {
-				
-				e.printStackTrace();
-			}
+			// Add a stats file at the root with backup stats:
+			writeBackupStats( out, pBackups );
 			
 		}
 		catch ( Exception e ) {
@@ -95,6 +79,167 @@ public class ZipFileIO {
 
 	}
 	
+	/**
+	 * <p>Adds a stats file at the root of the zip file, with the backup stats and
+	 * the support data for prison's settings.
+	 * </p>
+	 * 
+	 * @param out
+	 * @param pBackups
+	 */
+	public void writeBackupStats( ZipOutputStream out, PrisonBackups pBackups ) {
+		try {
+			String statsFileName = pBackups.getZipFilePrefix() + "_stats.txt";
+			
+			ZipEntry zEntry = new ZipEntry( statsFileName );
+			out.putNextEntry( zEntry );
+
+			// Basic backup stats:
+			writeOutput( out, pBackups.backupReport01() );
+			
+			// Prison version:
+			writeOutput( out, pBackups.backupReportVersionData().toString() );
+			
+			// List of backup files that had errors or are temporary and will be removed:
+			writeOutput( out, pBackups.backupReportListTemporalFiles() );
+			
+			
+			writeOutput( out, pBackups.backupReportConfigsData().toString() );
+			
+			writeOutput( out, pBackups.backupReportRanksData().toString() );
+			
+			writeOutput( out, pBackups.backupReportMinesData().toString() );
+			
+			writeOutput( out, pBackups.backupReportListenersData().toString() );
+
+			
+			out.closeEntry();
+		} 
+		catch (IOException e) {
+			
+			String message = String.format( 
+					"Error trying to add the backup stats file to the backup: %s  [%s]", 
+						pBackups.getZipFilePrefix(), 
+						e.getMessage()
+					);
+			
+			Output.get().logWarn( message, e );
+		}
+	}
+	
+	/**
+	 * <p>Adds the file to the zip file by streaming it through the buffer.  If a
+	 * digest is provided, then it is updated with the file's contents so the
+	 * file's hash is calculated without having to read it a second time.
+	 * </p>
+	 * 
+	 * @param out
+	 * @param zipEntryName
+	 * @param file
+	 * @param digest Optional, can be null.
+	 * @return The number of bytes that were added.
+	 * @throws IOException
+	 */
+	public long writeFileToZip( ZipOutputStream out, String zipEntryName, File file, 
+					MessageDigest digest ) 
+			throws IOException {
+		
+		long results = 0;
+		
+		ZipEntry zEntry = new ZipEntry( zipEntryName );
+		zEntry.setTime( file.lastModified() );
+		out.putNextEntry( zEntry );
+		
+		try ( 
+				InputStream in = new FileInputStream( file );
+				) {
+			results = copy( in, out, digest );
+		}
+		
+		out.closeEntry();
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Calculates the hash of the file's contents by streaming it through the
+	 * buffer.
+	 * </p>
+	 * 
+	 * @param file
+	 * @param digest
+	 * @return
+	 * @throws IOException
+	 */
+	public byte[] hashFile( File file, MessageDigest digest ) 
+			throws IOException {
+		
+		digest.reset();
+		
+		try ( 
+				InputStream in = new FileInputStream( file );
+				) {
+			copy( in, null, digest );
+		}
+		
+		return digest.digest();
+	}
+	
+	/**
+	 * <p>Extracts the zip entry to the target file.  If the target's directories
+	 * do not exist, then they will be created.
+	 * </p>
+	 * 
+	 * @param zip
+	 * @param zEntry
+	 * @param target
+	 * @return The number of bytes that were extracted.
+	 * @throws IOException
+	 */
+	public long extractFromZip( ZipFile zip, ZipEntry zEntry, File target ) 
+			throws IOException {
+		
+		long results = 0;
+		
+		if ( target.getParentFile() != null ) {
+			target.getParentFile().mkdirs();
+		}
+		
+		try ( 
+				InputStream in = zip.getInputStream( zEntry );
+				OutputStream out = new FileOutputStream( target );
+				) {
+			results = copy( in, out, null );
+		}
+		
+		if ( zEntry.getTime() != -1 ) {
+			target.setLastModified( zEntry.getTime() );
+		}
+		
+		return results;
+	}
+	
+	private long copy( InputStream in, OutputStream out, MessageDigest digest ) 
+			throws IOException {
+		
+		long results = 0;
+		
+		int len;
+		while ( (len = in.read( buffer )) != -1 ) {
+			
+			if ( out != null ) {
+				out.write( buffer, 0, len );
+			}
+			if ( digest != null ) {
+				digest.update( buffer, 0, len );
+			}
+			
+			results += len;
+		}
+		
+		return results;
+	}
+	
 	private void writeOutput(ZipOutputStream out, String message) {
 
 		byte[] bytes = Text.stripColor( message ).getBytes();
@@ -0,0 +1,180 @@
+package tech.mcprison.prison.integration;
+
+import tech.mcprison.prison.internal.Player;
+
+/**
+ * <p>This is the cached balance for one player, for one currency, which is
+ * managed by the {@link EconomyFacade}.  The player's balance is the confirmed
+ * balance, which is what the economy plugin had at the last refresh, plus the
+ * pending amount, which are the deposits and withdrawals that have not been
+ * written to the economy plugin yet, plus the in flight amount, which is being
+ * written to the economy plugin right now.
+ * </p>
+ *
+ * <p>The balance and the pending amount are guarded by this object's monitor,
+ * which is only held for a few instructions.  The writeLock is held while
+ * the economy plugin is being called for this account, so the refreshes and the
+ * writes for an account are never mixed.
+ * </p>
+ *
+ */
+public class EconomyAccount {
+
+	private final Player player;
+	private final String currency;
+	private final EconomyIntegration economy;
+
+	private final Object writeLock = new Object();
+
+	private double confirmedBalance = 0;
+	private double pendingAmount = 0;
+	private double inFlightAmount = 0;
+
+	private boolean loaded = false;
+	private boolean queued = false;
+
+	private volatile long refreshedTimestamp = 0;
+	private volatile long accessedTimestamp;
+
+	public EconomyAccount( Player player, String currency, EconomyIntegration economy ) {
+		super();
+
+		this.player = player;
+		this.currency = currency;
+		this.economy = economy;
+
+		this.accessedTimestamp = System.currentTimeMillis();
+	}
+
+	public synchronized double getBalance() {
+		return confirmedBalance + pendingAmount + inFlightAmount;
+	}
+
+	/**
+	 * <p>Adds the amount to the pending amount.  A negative amount is a
+	 * withdrawal.
+	 * </p>
+	 *
+	 * @param amount
+	 * @return True if the account needs to be added to the write queue.
+	 */
+	public synchronized boolean addPending( double amount ) {
+		pendingAmount += amount;
+
+		boolean results = !queued;
+		queued = true;
+
+		return results;
+	}
+
+	/**
+	 * <p>Marks the account as no longer within the write queue, so the next
+	 * pending amount will queue it again.  This must only be called by the
+	 * queue's writer, after it removed the account from the queue, and before
+	 * it takes the pending amount.
+	 * </p>
+	 */
+	public synchronized void dequeued() {
+		queued = false;
+	}
+
+	/**
+	 * <p>Moves the pending amount to the in flight amount so it can be written to
+	 * the economy plugin.  It is still included in the balance until
+	 * {@link #pendingApplied(double, boolean)} is called.  This must be called
+	 * while holding the writeLock.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public synchronized double takePending() {
+		double results = pendingAmount;
+
+		inFlightAmount += results;
+		pendingAmount = 0;
+
+		return results;
+	}
+
+	/**
+	 * <p>Records the results of writing the amount that was taken with
+	 * {@link #takePending()}, and removes it from the in flight amount.
+	 * </p>
+	 *
+	 * @param amount
+	 * @param success
+	 */
+	public synchronized void pendingApplied( double amount, boolean success ) {
+		inFlightAmount -= amount;
+
+		applied( amount, success );
+	}
+
+	/**
+	 * <p>Records the results of writing the amount to the economy plugin.  If it
+	 * failed, then the amount is not added to the confirmed balance, and the
+	 * account is marked so it will be refreshed.
+	 * </p>
+	 *
+	 * @param amount
+	 * @param success
+	 */
+	public synchronized void applied( double amount, boolean success ) {
+		if ( success ) {
+			confirmedBalance += amount;
+		}
+		else {
+			refreshedTimestamp = 0;
+		}
+	}
+
+	/**
+	 * <p>Sets the confirmed balance to what the economy plugin has.  This must be
+	 * called while holding the writeLock so the balance does not include a
+	 * write that is in progress.
+	 * </p>
+	 *
+	 * @param balance
+	 */
+	public synchronized void refreshed( double balance ) {
+		confirmedBalance = balance;
+		loaded = true;
+		refreshedTimestamp = System.currentTimeMillis();
+	}
+
+	public synchronized boolean isLoaded() {
+		return loaded;
+	}
+
+	public synchronized boolean hasPending() {
+		return queued || pendingAmount != 0 || inFlightAmount != 0;
+	}
+
+	public void touch() {
+		accessedTimestamp = System.currentTimeMillis();
+	}
+
+	public Player getPlayer() {
+		return player;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public EconomyIntegration getEconomy() {
+		return economy;
+	}
+
+	public Object getWriteLock() {
+		return writeLock;
+	}
+
+	public long getRefreshedTimestamp() {
+		return refreshedTimestamp;
+	}
+
+	public long getAccessedTimestamp() {
+		return accessedTimestamp;
+	}
+}
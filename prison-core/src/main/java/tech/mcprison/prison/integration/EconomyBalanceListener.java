@@ -0,0 +1,22 @@
+package tech.mcprison.prison.integration;
+
+import tech.mcprison.prison.internal.Player;
+
+/**
+ * <p>Is notified by the {@link EconomyFacade} when a player's balance may have
+ * increased, which is after a deposit, or after the balance has been refreshed
+ * from the economy plugin.  This may be called from any thread, and is called
+ * often while players are mining, so it must return quickly.
+ * </p>
+ *
+ */
+public interface EconomyBalanceListener {
+
+	/**
+	 * @param player
+	 * @param currency An empty String for the default currency.
+	 * @param balance The player's new cached balance.
+	 */
+	public void balanceIncreased( Player player, String currency, double balance );
+
+}
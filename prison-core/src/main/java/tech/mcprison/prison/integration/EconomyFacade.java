@@ -0,0 +1,757 @@
+package tech.mcprison.prison.integration;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.PrisonAPI;
+import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.output.ChatDisplay;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonRunnable;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+import tech.mcprison.prison.util.PrisonTimingHistogram;
+
+/**
+ * <p>All of the player balances that prison uses go through this facade, which
+ * sits in front of the economy integrations, such as Vault, Essentials,
+ * GemsEconomy, and CoinsEngine.  It keeps a cached balance for each player and
+ * currency, so the balance checks for the auto rankups, the rank scores, and
+ * the placeholders do not call the economy plugin.
+ * </p>
+ *
+ * <p>The deposits and withdrawals are added to the cached balance right away,
+ * and then they are queued and written to the economy plugin in batches by an
+ * async task.  Each economy plugin has its own queue, and the accounts are
+ * written in the order that they were first changed.  All of the changes to
+ * the same account that are waiting in the queue are written as one
+ * transaction.  The rankups still need to know if the economy plugin accepted
+ * the transaction, so they use depositNow() and withdrawNow(), which first
+ * write what is waiting for the account, then write the transaction.  They
+ * also check the balance with getBalanceNow(), which reads the balance from the
+ * economy plugin, so a payment that was just made by another plugin is seen.
+ * </p>
+ *
+ * <p>The same async task also refreshes the cached balances of the players that
+ * are active, so changes that are made by other plugins will be seen.  A
+ * cached balance that is older than MAX_BALANCE_AGE_MS will be refreshed when
+ * it is read, which is mostly for offline players.  The time that each economy
+ * plugin takes is recorded, and can be shown with <code>/prison stats
+ * economy</code>.
+ * </p>
+ *
+ * <p>The EconomyBalanceListeners are notified after every deposit and refresh,
+ * so features such as the forced auto rankups do not have to poll the player's
+ * balance.
+ * </p>
+ *
+ * <p>The settings are:
+ * </p>
+ *
+ * <ul>
+ *   <li><b>ranks.player-economy-cache-update-delay-ticks</b> - default 60 ticks.
+ *   		How often the queued transactions are written.</li>
+ *   <li><b>prison-economy.refresh-interval-seconds</b> - default 15 seconds.</li>
+ *   <li><b>prison-economy.refresh-batch-size</b> - default 50 accounts per
+ *   		refresh.</li>
+ * </ul>
+ *
+ */
+public class EconomyFacade
+	implements PrisonRunnable
+{
+	public static final String DEFAULT_CURRENCY = "";
+
+	public static final long WRITE_INTERVAL_TICKS_DEFAULT = 20 * 3;
+	public static final int REFRESH_INTERVAL_SECONDS_DEFAULT = 15;
+	public static final int REFRESH_BATCH_SIZE_DEFAULT = 50;
+
+	/**
+	 * <p>If a cached balance is older than this when it is read, then it will be
+	 * refreshed before it is returned.
+	 * </p>
+	 */
+	public static final long MAX_BALANCE_AGE_MS = 60000;
+
+	/**
+	 * <p>Accounts that have not been used for this long, and have nothing waiting
+	 * to be written, are removed from the cache.
+	 * </p>
+	 */
+	public static final long IDLE_ACCOUNT_MS = 10 * 60000;
+
+	private static EconomyFacade instance;
+
+	private final Map<String, EconomyAccount> accounts;
+	private final Map<String, Queue<EconomyAccount>> writeQueues;
+	private final Map<String, EconomyProviderStats> providerStats;
+
+	private final List<EconomyBalanceListener> balanceListeners;
+
+	private long writeIntervalTicks = -1;
+	private long refreshIntervalMs = -1;
+	private int refreshBatchSize = -1;
+
+	private long lastRefresh = 0;
+	private int taskId = -1;
+
+
+	/**
+	 * <p>The times that an economy plugin takes to get balances and to write
+	 * transactions.
+	 * </p>
+	 */
+	public static class EconomyProviderStats {
+		private final String providerName;
+
+		private final PrisonTimingHistogram reads;
+		private final PrisonTimingHistogram writes;
+
+		private final LongAdder errors;
+		private final LongAdder queuedTransactions;
+		private final LongAdder batches;
+
+		public EconomyProviderStats( String providerName ) {
+			super();
+
+			this.providerName = providerName;
+
+			this.reads = new PrisonTimingHistogram( providerName + " reads" );
+			this.writes = new PrisonTimingHistogram( providerName + " writes" );
+
+			this.errors = new LongAdder();
+			this.queuedTransactions = new LongAdder();
+			this.batches = new LongAdder();
+		}
+
+		public String getProviderName() {
+			return providerName;
+		}
+		public PrisonTimingHistogram getReads() {
+			return reads;
+		}
+		public PrisonTimingHistogram getWrites() {
+			return writes;
+		}
+		public long getErrors() {
+			return errors.sum();
+		}
+		public long getQueuedTransactions() {
+			return queuedTransactions.sum();
+		}
+		public long getBatches() {
+			return batches.sum();
+		}
+
+		public void reset() {
+			reads.reset();
+			writes.reset();
+			errors.reset();
+			queuedTransactions.reset();
+			batches.reset();
+		}
+	}
+
+
+	private EconomyFacade() {
+		super();
+
+		this.accounts = new ConcurrentHashMap<>();
+		this.writeQueues = new ConcurrentHashMap<>();
+		this.providerStats = new ConcurrentHashMap<>();
+
+		this.balanceListeners = new CopyOnWriteArrayList<>();
+	}
+
+	public static EconomyFacade getInstance() {
+		if ( instance == null ) {
+			synchronized ( EconomyFacade.class ) {
+				if ( instance == null ) {
+					instance = new EconomyFacade();
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * <p>Starts the async task that writes the queued transactions and refreshes
+	 * the balances.  This should be called once when prison is starting up.
+	 * </p>
+	 */
+	public synchronized void start() {
+		if ( taskId == -1 ) {
+			long ticks = getWriteIntervalTicks();
+
+			taskId = PrisonTaskSubmitter.runTaskTimerAsync( this, ticks, ticks );
+		}
+	}
+
+	/**
+	 * <p>Stops the async task, and writes all of the queued transactions.  This
+	 * should be called when prison is shutting down, before the economy plugins
+	 * are disabled.
+	 * </p>
+	 */
+	public synchronized void shutdown() {
+		if ( taskId != -1 ) {
+			PrisonTaskSubmitter.cancelTask( taskId );
+			taskId = -1;
+		}
+
+		writeQueuedTransactions();
+	}
+
+	@Override
+	public void run() {
+		writeQueuedTransactions();
+
+		long now = System.currentTimeMillis();
+		if ( now - lastRefresh >= getRefreshIntervalMs() ) {
+			lastRefresh = now;
+
+			refreshActiveAccounts( now );
+			removeIdleAccounts( now );
+		}
+	}
+
+	/**
+	 * <p>Returns the player's balance from the cache.  If the player's balance has
+	 * not been loaded, or is too old, then it will be read from the economy plugin
+	 * first.
+	 * </p>
+	 *
+	 * @param player
+	 * @param currency Null or empty for the default currency.
+	 * @return The balance, or zero if there is no economy for the currency.
+	 */
+	public double getBalance( Player player, String currency ) {
+		double results = 0;
+
+		EconomyAccount account = getAccount( player, currency );
+
+		if ( account != null ) {
+
+			if ( !account.isLoaded() ||
+					System.currentTimeMillis() - account.getRefreshedTimestamp() > MAX_BALANCE_AGE_MS ) {
+				refreshAccount( account );
+			}
+
+			results = account.getBalance();
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns the player's balance from the economy plugin.  Any transactions
+	 * for this account that are waiting in the queue are written first, then the
+	 * balance is read, so it includes the changes that were made by other
+	 * plugins, such as <code>/pay</code>.  This should be used when the player
+	 * is about to be charged, such as for a rankup.
+	 * </p>
+	 *
+	 * @param player
+	 * @param currency Null or empty for the default currency.
+	 * @return The balance, or zero if there is no economy for the currency.
+	 */
+	public double getBalanceNow( Player player, String currency ) {
+		double results = 0;
+
+		EconomyAccount account = getAccount( player, currency );
+
+		if ( account != null ) {
+
+			synchronized ( account.getWriteLock() ) {
+
+				writeAccount( account );
+				readBalance( account );
+			}
+
+			notifyBalanceIncreased( account );
+
+			results = account.getBalance();
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns true if there is an economy for the currency.
+	 * </p>
+	 *
+	 * @param currency Null or empty for the default currency.
+	 * @return
+	 */
+	public boolean hasEconomy( String currency ) {
+		return getEconomy( currency ) != null;
+	}
+
+	/**
+	 * <p>Adds the amount to the player's cached balance, and queues it to be written
+	 * to the economy plugin.  A negative amount is a withdrawal.
+	 * </p>
+	 *
+	 * @param player
+	 * @param currency Null or empty for the default currency.
+	 * @param amount
+	 * @return False if there is no economy for the currency.
+	 */
+	public boolean deposit( Player player, String currency, double amount ) {
+		boolean results = false;
+
+		EconomyAccount account = getAccount( player, currency );
+
+		if ( account != null ) {
+
+			if ( account.addPending( amount ) ) {
+				getWriteQueue( account.getEconomy() ).add( account );
+			}
+
+			getProviderStats( account.getEconomy() ).queuedTransactions.increment();
+
+			if ( amount > 0 ) {
+				notifyBalanceIncreased( account );
+			}
+
+			results = true;
+		}
+
+		return results;
+	}
+
+	public boolean withdraw( Player player, String currency, double amount ) {
+		return deposit( player, currency, -1 * amount );
+	}
+
+	/**
+	 * <p>Sets the player's balance by writing the difference from the player's
+	 * current balance to the economy plugin now.  The queued transactions are
+	 * written, and the balance is read from the economy plugin, while holding the
+	 * account's writeLock, so the difference is not based upon a stale balance.
+	 * </p>
+	 *
+	 * @param player
+	 * @param currency Null or empty for the default currency.
+	 * @param amount
+	 * @return False if there is no economy for the currency, or if the economy
+	 * 			plugin did not accept the transaction.
+	 */
+	public boolean setBalance( Player player, String currency, double amount ) {
+		boolean results = false;
+
+		EconomyAccount account = getAccount( player, currency );
+
+		if ( account != null ) {
+
+			double difference = 0;
+
+			synchronized ( account.getWriteLock() ) {
+
+				writeAccount( account );
+
+				if ( readBalance( account ) ) {
+
+					difference = amount - account.getBalance();
+
+					results = difference == 0 || write( account, difference );
+
+					if ( difference != 0 ) {
+						account.applied( difference, results );
+					}
+				}
+			}
+
+			if ( results && difference > 0 ) {
+				notifyBalanceIncreased( account );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Writes the amount to the economy plugin now, and returns true if the
+	 * economy plugin accepted it.  Any transactions for this account that are
+	 * waiting in the queue are written first, so they stay in order.  A negative
+	 * amount is a withdrawal.
+	 * </p>
+	 *
+	 * @param player
+	 * @param currency Null or empty for the default currency.
+	 * @param amount
+	 * @return
+	 */
+	public boolean depositNow( Player player, String currency, double amount ) {
+		boolean results = false;
+
+		EconomyAccount account = getAccount( player, currency );
+
+		if ( account != null ) {
+
+			synchronized ( account.getWriteLock() ) {
+
+				writeAccount( account );
+
+				results = write( account, amount );
+				account.applied( amount, results );
+			}
+
+			if ( results && amount > 0 ) {
+				notifyBalanceIncreased( account );
+			}
+		}
+
+		return results;
+	}
+
+	public boolean withdrawNow( Player player, String currency, double amount ) {
+		return depositNow( player, currency, -1 * amount );
+	}
+
+	/**
+	 * <p>Writes all of the queued transactions, one batch for each economy
+	 * plugin.
+	 * </p>
+	 */
+	protected void writeQueuedTransactions() {
+		for ( Map.Entry<String, Queue<EconomyAccount>> queue : writeQueues.entrySet() ) {
+
+			int batchSize = queue.getValue().size();
+
+			if ( batchSize > 0 ) {
+
+				// Only write what was in the queue when the batch started:
+				for ( int i = 0; i < batchSize; i++ ) {
+					EconomyAccount account = queue.getValue().poll();
+
+					if ( account == null ) {
+						break;
+					}
+
+					synchronized ( account.getWriteLock() ) {
+						account.dequeued();
+						writeAccount( account );
+					}
+				}
+
+				getProviderStats( queue.getKey() ).batches.increment();
+			}
+		}
+	}
+
+	/**
+	 * <p>Writes the pending amount for the account.  The writeLock must be held.
+	 * </p>
+	 *
+	 * @param account
+	 */
+	private void writeAccount( EconomyAccount account ) {
+		double amount = account.takePending();
+
+		if ( amount != 0 ) {
+			boolean success = write( account, amount );
+
+			account.pendingApplied( amount, success );
+
+			if ( !success ) {
+				Output.get().logWarn( String.format(
+						"EconomyFacade: %s did not accept a transaction of %s for %s. " +
+						"The player's balance will be refreshed.",
+						account.getEconomy().getDisplayName(),
+						Double.toString( amount ),
+						account.getPlayer().getName() ) );
+			}
+		}
+	}
+
+	private boolean write( EconomyAccount account, double amount ) {
+		boolean results = false;
+
+		EconomyIntegration economy = account.getEconomy();
+		EconomyProviderStats stats = getProviderStats( economy );
+
+		String currency = account.getCurrency();
+		Player player = account.getPlayer();
+
+		long start = System.nanoTime();
+		try {
+			if ( DEFAULT_CURRENCY.equals( currency ) ) {
+				results = amount >= 0 ?
+						economy.addBalance( player, amount ) :
+						economy.removeBalance( player, -1 * amount );
+			}
+			else {
+				EconomyCurrencyIntegration currencyEcon = (EconomyCurrencyIntegration) economy;
+
+				results = amount >= 0 ?
+						currencyEcon.addBalance( player, amount, currency ) :
+						currencyEcon.removeBalance( player, -1 * amount, currency );
+			}
+		}
+		catch ( Exception e ) {
+			Output.get().logError( "EconomyFacade: Failed to update the balance for " +
+					player.getName() + " with " + economy.getDisplayName(), e );
+		}
+		finally {
+			stats.writes.recordNanos( System.nanoTime() - start );
+		}
+
+		if ( !results ) {
+			stats.errors.increment();
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Reads the balance from the economy plugin.  The writeLock is held so
+	 * the balance will not include a transaction that is being written.
+	 * </p>
+	 *
+	 * @param account
+	 */
+	private void refreshAccount( EconomyAccount account ) {
+
+		synchronized ( account.getWriteLock() ) {
+
+			readBalance( account );
+		}
+
+		notifyBalanceIncreased( account );
+	}
+
+	/**
+	 * <p>Reads the balance from the economy plugin, and sets it as the account's
+	 * confirmed balance.  The writeLock must be held.
+	 * </p>
+	 *
+	 * @param account
+	 * @return True if the balance was read.
+	 */
+	private boolean readBalance( EconomyAccount account ) {
+		boolean results = false;
+
+		EconomyIntegration economy = account.getEconomy();
+		EconomyProviderStats stats = getProviderStats( economy );
+
+		String currency = account.getCurrency();
+		Player player = account.getPlayer();
+
+		long start = System.nanoTime();
+		try {
+			double balance = DEFAULT_CURRENCY.equals( currency ) ?
+					economy.getBalance( player ) :
+					((EconomyCurrencyIntegration) economy).getBalance( player, currency );
+
+			account.refreshed( balance );
+			results = true;
+		}
+		catch ( Exception e ) {
+			stats.errors.increment();
+
+			Output.get().logError( "EconomyFacade: Failed to get the balance for " +
+					player.getName() + " from " + economy.getDisplayName(), e );
+		}
+		finally {
+			stats.reads.recordNanos( System.nanoTime() - start );
+		}
+
+		return results;
+	}
+
+	public void addBalanceListener( EconomyBalanceListener listener ) {
+		if ( !balanceListeners.contains( listener ) ) {
+			balanceListeners.add( listener );
+		}
+	}
+
+	public void removeBalanceListener( EconomyBalanceListener listener ) {
+		balanceListeners.remove( listener );
+	}
+
+	private void notifyBalanceIncreased( EconomyAccount account ) {
+		if ( balanceListeners.size() > 0 ) {
+
+			double balance = account.getBalance();
+
+			for ( EconomyBalanceListener listener : balanceListeners ) {
+				try {
+					listener.balanceIncreased( account.getPlayer(), account.getCurrency(), balance );
+				}
+				catch ( Exception e ) {
+					Output.get().logError( "EconomyFacade: A balance listener failed.", e );
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Refreshes the accounts that have been used recently, with the oldest
+	 * balances first, up to the batch size.
+	 * </p>
+	 *
+	 * @param now
+	 */
+	private void refreshActiveAccounts( long now ) {
+		List<EconomyAccount> refresh = new ArrayList<>();
+
+		for ( EconomyAccount account : accounts.values() ) {
+			if ( now - account.getAccessedTimestamp() < IDLE_ACCOUNT_MS &&
+					now - account.getRefreshedTimestamp() >= getRefreshIntervalMs() ) {
+				refresh.add( account );
+			}
+		}
+
+		refresh.sort( Comparator.comparingLong( EconomyAccount::getRefreshedTimestamp ) );
+
+		int count = Math.min( refresh.size(), getRefreshBatchSize() );
+		for ( int i = 0; i < count; i++ ) {
+			refreshAccount( refresh.get( i ) );
+		}
+	}
+
+	private void removeIdleAccounts( long now ) {
+		accounts.values().removeIf( account ->
+				now - account.getAccessedTimestamp() >= IDLE_ACCOUNT_MS &&
+				!account.hasPending() );
+	}
+
+	private EconomyAccount getAccount( Player player, String currency ) {
+		EconomyAccount results = null;
+
+		String cur = currency == null || "default".equalsIgnoreCase( currency.trim() ) ?
+				DEFAULT_CURRENCY : currency.trim();
+
+		EconomyIntegration economy = getEconomy( cur );
+
+		if ( player != null && economy != null ) {
+
+			String key = player.getUUID().toString() + ":" + cur;
+
+			results = accounts.computeIfAbsent( key,
+					k -> new EconomyAccount( player, cur, economy ) );
+
+			results.touch();
+		}
+
+		return results;
+	}
+
+	private EconomyIntegration getEconomy( String currency ) {
+		return currency == null || currency.trim().isEmpty() ?
+				PrisonAPI.getIntegrationManager().getEconomy() :
+				PrisonAPI.getIntegrationManager().getEconomyForCurrency( currency.trim() );
+	}
+
+	private Queue<EconomyAccount> getWriteQueue( EconomyIntegration economy ) {
+		return writeQueues.computeIfAbsent( economy.getKeyName(),
+				k -> new ConcurrentLinkedQueue<>() );
+	}
+
+	private EconomyProviderStats getProviderStats( EconomyIntegration economy ) {
+		return getProviderStats( economy.getKeyName() );
+	}
+
+	private EconomyProviderStats getProviderStats( String keyName ) {
+		return providerStats.computeIfAbsent( keyName, k -> new EconomyProviderStats( k ) );
+	}
+
+	public int getQueuedAccounts() {
+		int results = 0;
+
+		for ( Queue<EconomyAccount> queue : writeQueues.values() ) {
+			results += queue.size();
+		}
+
+		return results;
+	}
+
+	public int getCachedAccounts() {
+		return accounts.size();
+	}
+
+	public void resetStats() {
+		for ( EconomyProviderStats stats : providerStats.values() ) {
+			stats.reset();
+		}
+	}
+
+	/**
+	 * <p>Adds the report to the display, with the times for each economy plugin.
+	 * </p>
+	 *
+	 * @param display
+	 */
+	public void displayStats( ChatDisplay display ) {
+		DecimalFormat iFmt = Prison.get().getDecimalFormatInt();
+		DecimalFormat dFmt = Prison.get().getDecimalFormat( "#,##0.000" );
+
+		display.addText( "&7Cached balances: &3%s  &7Accounts waiting to be written: &3%s",
+				iFmt.format( getCachedAccounts() ),
+				iFmt.format( getQueuedAccounts() ) );
+		display.addText( "&7All times are in ms." );
+
+		for ( EconomyProviderStats stats : providerStats.values() ) {
+
+			display.addText( "&3%s:  &7queued transactions: %s  write batches: %s  errors: %s",
+					stats.getProviderName(),
+					iFmt.format( stats.getQueuedTransactions() ),
+					iFmt.format( stats.getBatches() ),
+					iFmt.format( stats.getErrors() ) );
+
+			for ( PrisonTimingHistogram histogram :
+						new PrisonTimingHistogram[] { stats.getReads(), stats.getWrites() } ) {
+
+				display.addText( "&7    %s: %s  avg: %s  p50: %s  p99: %s  max: %s",
+						histogram == stats.getReads() ? "reads" : "writes",
+						iFmt.format( histogram.getCount() ),
+						dFmt.format( histogram.getAverageMs() ),
+						dFmt.format( histogram.getPercentileMs( 50 ) ),
+						dFmt.format( histogram.getPercentileMs( 99 ) ),
+						dFmt.format( histogram.getMaxMicros() / 1000d ) );
+			}
+		}
+	}
+
+	public long getWriteIntervalTicks() {
+		if ( writeIntervalTicks == -1 ) {
+			writeIntervalTicks = Prison.get().getPlatform() == null ?
+					WRITE_INTERVAL_TICKS_DEFAULT :
+					Math.max( 1, Prison.get().getPlatform().getConfigLong(
+							"ranks.player-economy-cache-update-delay-ticks",
+							WRITE_INTERVAL_TICKS_DEFAULT ) );
+		}
+		return writeIntervalTicks;
+	}
+
+	public long getRefreshIntervalMs() {
+		if ( refreshIntervalMs == -1 ) {
+			refreshIntervalMs = 1000L * (Prison.get().getPlatform() == null ?
+					REFRESH_INTERVAL_SECONDS_DEFAULT :
+					Math.max( 1, Prison.get().getPlatform().getConfigInt(
+							"prison-economy.refresh-interval-seconds",
+							REFRESH_INTERVAL_SECONDS_DEFAULT ) ));
+		}
+		return refreshIntervalMs;
+	}
+
+	public int getRefreshBatchSize() {
+		if ( refreshBatchSize == -1 ) {
+			refreshBatchSize = Prison.get().getPlatform() == null ?
+					REFRESH_BATCH_SIZE_DEFAULT :
+					Math.max( 1, Prison.get().getPlatform().getConfigInt(
+							"prison-economy.refresh-batch-size",
+							REFRESH_BATCH_SIZE_DEFAULT ) );
+		}
+		return refreshBatchSize;
+	}
+}
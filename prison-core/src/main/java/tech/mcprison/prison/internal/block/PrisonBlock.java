@@ -119,6 +119,8 @@ public class PrisonBlock
 		this.block = clonable.isBlock();
 		this.legacyBlock = clonable.isLegacyBlock();
 		
+		setBlockId( clonable.getBlockId() );
+		
 		
 		this.location = clonable == null || clonable.getLocation() == null ? null : 
 									new Location( clonable.getLocation() );
@@ -135,6 +137,7 @@ public class PrisonBlock
 	}
 	public void setBlockType( PrisonBlockType blockType ) {
 		this.blockType = blockType;
+		setBlockId( 0 );
 	}
 
 //	public String getBlockName() {
@@ -358,7 +361,15 @@ public class PrisonBlock
 		boolean results = false;
 
 		if ( block != null && block instanceof PrisonBlock) {
-			results = getBlockNameFormal().equalsIgnoreCase( ((PrisonBlock) block).getBlockNameFormal() );
+			PrisonBlock pBlock = (PrisonBlock) block;
+			
+			// The ids are only the same if the formal names are the same:
+			if ( getBlockId() > 0 && pBlock.getBlockId() > 0 ) {
+				results = getBlockId() == pBlock.getBlockId();
+			}
+			else {
+				results = getBlockNameFormal().equalsIgnoreCase( pBlock.getBlockNameFormal() );
+			}
 		}
 		
 		return results;
@@ -391,7 +402,9 @@ public class PrisonBlock
 	
 	@Override
 	public boolean isAir() {
-		return compareTo( AIR ) == 0;
+		return getBlockId() > 0 && AIR.getBlockId() > 0 ? 
+				getBlockId() == AIR.getBlockId() :
+				compareTo( AIR ) == 0;
 	}
 	@Override
 	public Block getRelative( BlockFace face )
@@ -50,6 +50,16 @@ public abstract class PrisonBlockStatusData {
 	private transient int altCountVirtual;
 	private transient int altCountPhysical;
 	
+	/**
+	 * <p>The dense id that was assigned by PrisonBlockTypes when the block types
+	 * were loaded.  Two blocks with the same id are the same block type, so the
+	 * blocks can be compared without comparing their names.  A value of 0 means
+	 * that this block has not been assigned an id, such as when it was created
+	 * from a block name that was not a known block type.
+	 * </p>
+	 */
+	private transient int blockId = 0;
+	
 	
 	public PrisonBlockStatusData( 
 			PrisonBlockType blockType, String blockName, String displayName,
@@ -109,8 +119,7 @@ public abstract class PrisonBlockStatusData {
 		if ( obj instanceof PrisonBlockStatusData ) {
 			PrisonBlockStatusData pbsBlock = (PrisonBlockStatusData) obj;
 			
-			results = getBlockType() == getBlockType() &&
-					getBlockName().equalsIgnoreCase( pbsBlock.getBlockName() );
+			results = isSameBlockName( pbsBlock );
 			
 			if ( results ) {
 				
@@ -125,6 +134,32 @@ public abstract class PrisonBlockStatusData {
 
 
 
+	/**
+	 * <p>Checks to see if both blocks are the same block type.  If both blocks 
+	 * have been assigned an id by PrisonBlockTypes, then only the ids are 
+	 * compared, otherwise the block names are compared.
+	 * </p>
+	 * 
+	 * @param pbsBlock
+	 * @return
+	 */
+	public boolean isSameBlockName( PrisonBlockStatusData pbsBlock ) {
+		boolean results = false;
+		
+		if ( pbsBlock != null ) {
+			
+			if ( getBlockId() > 0 && pbsBlock.getBlockId() > 0 ) {
+				results = getBlockId() == pbsBlock.getBlockId();
+			}
+			else {
+				results = getBlockType() == pbsBlock.getBlockType() &&
+						getBlockName().equalsIgnoreCase( pbsBlock.getBlockName() );
+			}
+		}
+		
+		return results;
+	}
+	
 	public void resetAfterSave() {
 		blockCountUnsaved = 0;
 	}
@@ -440,6 +475,9 @@ public abstract class PrisonBlockStatusData {
 	}
 	public void setBlockName( String blockName ) {
 		this.blockName = blockName;
+		
+		// The id no longer matches this block's name:
+		this.blockId = 0;
 	}
 
 	public String getDisplayName() {
@@ -454,6 +492,14 @@ public abstract class PrisonBlockStatusData {
 	}
 	public void setBlockType( PrisonBlockType blockType ) {
 		this.blockType = blockType;
+		this.blockId = 0;
+	}
+
+	public int getBlockId() {
+		return blockId;
+	}
+	public void setBlockId( int blockId ) {
+		this.blockId = blockId;
 	}
 
 	public double getChance() {
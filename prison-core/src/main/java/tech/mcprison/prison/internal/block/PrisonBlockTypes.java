@@ -1,7 +1,9 @@
 package tech.mcprison.prison.internal.block;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
 
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
@@ -10,6 +12,14 @@ import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
  * <p>This class is a new way of dealing with blocks within prison.
  * All blocks will be stored and used as string values.
  * </p>
+ * 
+ * <p>Each block type is also given a dense integer id when it is added, 
+ * starting with 1, which is stored in the block.  Since the blocks that 
+ * are returned from getBlockTypesByName() are clones, they keep their
+ * id, so the blocks within the mines, and the blocks that are broken, can
+ * be compared by their ids instead of by their names.  Blocks with the 
+ * same formal name, such as <code>minecraft:air</code>, are given the same id.
+ * </p>
  *
  */
 public class PrisonBlockTypes {
@@ -17,6 +27,10 @@ public class PrisonBlockTypes {
 	private List<PrisonBlock> blockTypes;
 	private TreeMap<String, PrisonBlock> blockTypesByName;
 	
+	// The index is the block id, so index 0 is always null:
+	private List<PrisonBlock> blockTypesById;
+	private Map<String, Integer> blockIdsByFormalName;
+	
 	public enum InternalBlockTypes {
 		AIR,
 		GLASS,
@@ -34,6 +48,9 @@ public class PrisonBlockTypes {
 		
 		this.blockTypesByName = new TreeMap<>();
 		
+		this.blockTypesById = new ArrayList<>();
+		this.blockIdsByFormalName = new HashMap<>();
+		
 		initializeBlockTypes();
 	}
 	
@@ -55,6 +72,16 @@ public class PrisonBlockTypes {
 		// First clear the blockTypes:
 		getBlockTypes().clear();
 		
+		blockTypesById.clear();
+		blockIdsByFormalName.clear();
+		
+		// Id 0 is reserved for blocks that have not been assigned an id:
+		blockTypesById.add( null );
+		
+		// AIR is not listed as a block type, but it needs an id since it is
+		// checked for every block in a mine:
+		assignBlockId( PrisonBlock.AIR );
+		
 		
 		// Add in prison's internal block types here:
 		getBlockTypes().add( PrisonBlock.IGNORE );
@@ -64,7 +91,30 @@ public class PrisonBlockTypes {
 		// Map all available blocks to the blockTypesByName map:
 		for ( PrisonBlock pb : getBlockTypes() ) {
 			getBlockTypesByName().put( pb.getBlockName().toLowerCase(), pb );
+			assignBlockId( pb );
+		}
+	}
+	
+	/**
+	 * <p>Assigns the block the next id, unless a block with the same formal 
+	 * name already has an id, then that id is used.
+	 * </p>
+	 * 
+	 * @param pb
+	 */
+	private void assignBlockId( PrisonBlock pb ) {
+		
+		String formalName = pb.getBlockNameFormal().toLowerCase();
+		Integer id = blockIdsByFormalName.get( formalName );
+		
+		if ( id == null ) {
+			id = blockTypesById.size();
+			
+			blockTypesById.add( pb );
+			blockIdsByFormalName.put( formalName, id );
 		}
+		
+		pb.setBlockId( id );
 	}
 	
 	/**
@@ -96,6 +146,7 @@ public class PrisonBlockTypes {
 			
 			getBlockTypesByName().put( pb.getBlockName().toLowerCase(), pb );
 			getBlockTypes().add( pb );
+			assignBlockId( pb );
 			
 			if ( pb.getBlockType() != PrisonBlockType.minecraft ) {
 				
@@ -154,6 +205,55 @@ public class PrisonBlockTypes {
 		return results;
 	}
 	
+	/**
+	 * <p>Gets the block type that was assigned the block id.  The block that is 
+	 * returned is not cloned, so it must not be changed.
+	 * </p>
+	 * 
+	 * @param blockId
+	 * @return The block type, or null if the id was not assigned.
+	 */
+	public PrisonBlock getBlockTypeById( int blockId ) {
+		return blockId > 0 && blockId < blockTypesById.size() ? 
+				blockTypesById.get( blockId ) : null;
+	}
+	
+	/**
+	 * <p>Gets the block type by name, without cloning it, so the block's id
+	 * can be used as a key.  The block that is returned must not be changed.
+	 * </p>
+	 * 
+	 * @param blockName
+	 * @return
+	 */
+	public PrisonBlock getBlockTypeByNameNoClone( String blockName ) {
+		PrisonBlock results = null;
+		
+		if ( blockName != null ) {
+			
+			blockName = blockName.toLowerCase();
+			if ( blockName.startsWith( PrisonBlockType.minecraft.name() + ":" )) {
+				blockName = blockName.substring( PrisonBlockType.minecraft.name().length() + 1 );
+			}
+			
+			results = "air".equals( blockName ) ? PrisonBlock.AIR : 
+								searchBlockTypesByName( blockName );
+		}
+		return results;
+	}
+	
+	/**
+	 * <p>The number of block ids that have been assigned, plus one, since 
+	 * the id 0 is not used.  This can be used to size tables that are indexed
+	 * by the block ids.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public int getBlockIdCount() {
+		return blockTypesById.size();
+	}
+	
 	private PrisonBlock searchBlockTypesByName( String blockName ) {
 		PrisonBlock block = blockTypesByName.get( blockName );
 		
@@ -0,0 +1,38 @@
+package tech.mcprison.prison.internal.events.player;
+
+import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>Platform-independent event, which is posted when a player moves in to a
+ * different block, teleports, or respawns.  Moves within the same block are not
+ * posted, so this is only posted a few times a second for a walking player.
+ * </p>
+ *
+ */
+public class PlayerBlockMoveEvent {
+
+    private Player player;
+    private Location to;
+
+    public PlayerBlockMoveEvent( Player player, Location to ) {
+    	this.player = player;
+    	this.to = to;
+    }
+
+	public Player getPlayer() {
+		return player;
+	}
+
+	/**
+	 * <p>The player's new location.  The player's own location may not be
+	 * updated yet when this event is posted.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public Location getTo() {
+		return to;
+	}
+
+}
@@ -57,6 +57,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -128,6 +129,21 @@ public class LocaleManager {
 
     private final PluginEntity module;
     private HashMap<String, Properties> configs = new HashMap<>();
+    
+    /**
+     * <p>The precompiled messages for each locale, which are rebuilt from the
+     * configs whenever the locales are reloaded.  The maps are never changed 
+     * after they are built, so they can be read from any thread.
+     * </p>
+     */
+    private volatile Map<String, Map<String, LocaleMessageTemplate>> templates = new HashMap<>();
+    
+    /**
+     * <p>The resolved list of locales to try for each requested locale, including
+     * the alternate dialects and the default locale.
+     * </p>
+     */
+    private final Map<String, String[]> fallbackChains = new ConcurrentHashMap<>();
     private String defaultLocale = DEFAULT_LOCALE;
     private String internalPath;
     
@@ -182,6 +198,112 @@ public class LocaleManager {
         // Then any custom locales will override and replace the internal locales:
         loadCustomLocales(); // custom locales will override
 
+        
+        // Compile all of the messages so they do not have to be parsed when used:
+        compileTemplates();
+    }
+    
+    /**
+     * <p>Builds the message templates for all of the loaded locales, and clears
+     * the cached fallback chains since the available locales may have changed.
+     * </p>
+     */
+    private void compileTemplates() {
+    	Map<String, Map<String, LocaleMessageTemplate>> compiled = new HashMap<>();
+    	
+    	for ( Map.Entry<String, Properties> config : configs.entrySet() ) {
+    		
+    		Map<String, LocaleMessageTemplate> messages = new HashMap<>();
+    		
+    		for ( String key : config.getValue().stringPropertyNames() ) {
+    			messages.put( key, new LocaleMessageTemplate( config.getValue().getProperty( key ) ) );
+    		}
+    		
+    		compiled.put( config.getKey(), messages );
+    	}
+    	
+    	this.templates = compiled;
+    	fallbackChains.clear();
+    }
+    
+    /**
+     * <p>Returns the compiled message for the key within the locale, or null if
+     * the locale has not been loaded, or if the key does not exist in it.
+     * </p>
+     * 
+     * @param locale
+     * @param key
+     * @return
+     */
+    LocaleMessageTemplate getTemplate( String locale, String key ) {
+    	Map<String, LocaleMessageTemplate> messages = templates.get( locale );
+    	return messages == null ? null : messages.get( key );
+    }
+    
+    /**
+     * <p>Returns the locales to try, in order, when localizing a message in the
+     * given locale.  This is resolved once for each locale.
+     * </p>
+     * 
+     * @param locale
+     * @return
+     */
+    String[] getFallbackChain( String locale ) {
+    	String[] results = fallbackChains.get( locale );
+    	
+    	if ( results == null ) {
+    		results = buildFallbackChain( locale, getDefaultLocale() );
+    		fallbackChains.put( locale, results );
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Builds the list of locales to try in order.  The requested locale is first,
+     * followed by its alternate dialects, then the fallbacks with their alternate
+     * dialects injected after each of them, and finally the default locale if it
+     * is not already in the list.
+     * </p>
+     * 
+     * @param locale
+     * @param defaultLocale
+     * @param fallbacks
+     * @return
+     */
+    static String[] buildFallbackChain( String locale, String defaultLocale, String... fallbacks ) {
+    	
+    	List<String> fbList = new ArrayList<>( Arrays.asList( fallbacks ) );
+    	
+    	for ( int i = 0; i < fbList.size(); i++ ) {
+    		String fb = fbList.get( i );
+    		if ( ALTERNATIVES.containsKey( fb ) ) {
+    			for ( String alt : ALTERNATIVES.get( fb ) ) {
+    				// inject alternate dialects after the current fallback entry:
+    				if ( !fbList.contains( alt ) ) {
+    					fbList.add( ++i, alt );
+    				}
+    			}
+    		}
+    	}
+    	
+    	if ( ALTERNATIVES.containsKey( locale ) ) {
+    		for ( String alt : ALTERNATIVES.get( locale ) ) {
+    			// inject alternate dialects at the start of the list:
+    			if ( !fbList.contains( alt ) ) {
+    				fbList.add( 0, alt );
+    			}
+    		}
+    	}
+    	
+    	fbList.add( 0, locale );
+    	
+    	// The default locale is the last resort, if it has not already been tried:
+    	if ( !fbList.contains( defaultLocale ) ) {
+    		fbList.add( defaultLocale );
+    	}
+    	
+    	return fbList.toArray( new String[ fbList.size() ] );
     }
     
     
@@ -782,6 +904,7 @@ public class LocaleManager {
      */
     public void setDefaultLocale(String locale) {
         this.defaultLocale = locale;
+        fallbackChains.clear();
     }
 
     /**
@@ -823,6 +946,7 @@ public class LocaleManager {
 	}
 	public void setConfigs( HashMap<String, Properties> configs ) {
 		this.configs = configs;
+		compileTemplates();
 	}
 
 }
@@ -0,0 +1,144 @@
+package tech.mcprison.prison.localization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>This is an immutable, precompiled version of one message from a locale's
+ * properties file.  The message is split in to the literal text segments and
+ * the positional placeholders <code>%1</code> through <code>%9</code>, so it
+ * can be rendered with one pass over a StringBuilder, instead of running a
+ * <code>String.replaceAll()</code>, which compiles a new regex, for each
+ * replacement.
+ * </p>
+ *
+ * <p>A placeholder is a percent sign followed by a single digit, from 1 to 9,
+ * which matches how the messages were previously processed since <code>%1</code>
+ * would always be replaced before <code>%10</code> could be.  If a placeholder
+ * does not have a replacement value, then it is left as is within the message.
+ * </p>
+ *
+ * <p>The templates are built by the LocaleManager when the locales are loaded,
+ * or reloaded.
+ * </p>
+ *
+ */
+public class LocaleMessageTemplate
+{
+	private final String message;
+
+	/**
+	 * <p>If true, the message was either empty or marked with "*none*", so
+	 * it should always produce an empty String.
+	 * </p>
+	 */
+	private final boolean noMessage;
+
+	/**
+	 * <p>There is always one more literal than placeholders. The literal at
+	 * position i is before the placeholder at position i.
+	 * </p>
+	 */
+	private final String[] literals;
+	private final int[] placeholders;
+
+	private final int literalLength;
+
+	public LocaleMessageTemplate( String message ) {
+		super();
+
+		this.message = message == null ? "" : message;
+
+		this.noMessage = this.message.length() == 0 ||
+				LocaleManager.IGNORE_TEXT_NO_MESSAGE_INTENDED.equalsIgnoreCase( this.message );
+
+		List<String> literalList = new ArrayList<>();
+		List<Integer> placeholderList = new ArrayList<>();
+
+		int length = 0;
+		int start = 0;
+		int len = this.message.length();
+
+		for ( int i = 0; i < len - 1; i++ ) {
+			char c = this.message.charAt( i );
+			char next = this.message.charAt( i + 1 );
+
+			if ( c == '%' && next >= '1' && next <= '9' ) {
+				String literal = this.message.substring( start, i );
+
+				literalList.add( literal );
+				placeholderList.add( next - '1' );
+				length += literal.length();
+
+				start = i + 2;
+				i++;
+			}
+		}
+
+		String literal = this.message.substring( start );
+		literalList.add( literal );
+		length += literal.length();
+
+		this.literals = literalList.toArray( new String[ literalList.size() ] );
+		this.placeholders = new int[ placeholderList.size() ];
+		for ( int i = 0; i < placeholders.length; i++ ) {
+			placeholders[i] = placeholderList.get( i );
+		}
+
+		this.literalLength = length;
+	}
+
+	/**
+	 * <p>Builds the message with the replacements applied, and with the prefix and
+	 * suffix added.  If this is a "no message" template, then an empty String is
+	 * always returned.
+	 * </p>
+	 *
+	 * @param prefix
+	 * @param replacements Can be null, which leaves all placeholders unchanged.
+	 * @param suffix
+	 * @return
+	 */
+	public String render( String prefix, String[] replacements, String suffix ) {
+
+		if ( noMessage ) {
+			return "";
+		}
+
+		int size = literalLength + prefix.length() + suffix.length() +
+							placeholders.length * 16;
+
+		StringBuilder sb = new StringBuilder( size );
+
+		sb.append( prefix ).append( literals[0] );
+
+		for ( int i = 0; i < placeholders.length; i++ ) {
+			int idx = placeholders[i];
+
+			if ( replacements != null && idx < replacements.length ) {
+				sb.append( replacements[idx] );
+			}
+			else {
+				sb.append( '%' ).append( idx + 1 );
+			}
+
+			sb.append( literals[i + 1] );
+		}
+
+		sb.append( suffix );
+
+		return sb.toString();
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public boolean isNoMessage() {
+		return noMessage;
+	}
+
+	public int getPlaceholderCount() {
+		return placeholders.length;
+	}
+}
@@ -18,9 +18,11 @@
 
 package tech.mcprison.prison.output;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.FormatFlagsConversionMismatchException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.MissingFormatArgumentException;
 import java.util.Set;
 import java.util.TreeSet;
@@ -42,6 +44,7 @@ public class Output
 	public static final String PERCENT_ENCODING = "&percnt;";
 	public static final String PERCENT_DECODING = "%";
 	public static final String LINE_SPLITING = "\\{br\\}";
+	public static final String LINE_BREAK = "{br}";
 //	public static final String LINE_SPLITING = "\n";
 
     private static Output instance;
@@ -68,6 +71,9 @@ public class Output
     private int debugCountDown = -1;
     
     private String debugPlayerName = null;
+    
+    private volatile OutputAsyncLogger asyncLogger;
+    private volatile boolean asyncLoggerInitialized = false;
 
     public enum DebugTarget {
     	all,
@@ -282,24 +288,22 @@ public class Output
     	else {
     		try {
     			
+    			// Format only once, then the lines are either queued for the logger
+    			// thread, or logged here if async logging is not running.  Without
+    			// args the message is not formatted, so any escaped %% must still
+    			// be turned in to a single %:
     			String msg = args == null || args.length == 0 ?
-    					message : 
+    					message.replace( "%%", "%" ) : 
     						String.format(message, args);
     			
     			msg = decodePercentEncoding( msg );
-//    			if ( msg.contains( PERCENT_ENCODING ) ) {
-//    				msg = msg.replace( PERCENT_ENCODING, PERCENT_DECODING );
-//    			}
     			
-        		String msgRaw = String.format(msg, args);
-        		boolean includePrefix = true;
-        		for (String  msgSplit : msgRaw.split( LINE_SPLITING )) {
-    				
-        			Prison.get().getPlatform().log(
-        					(includePrefix ? (prefixTemplatePrison + " ") : "") +
-        							getLogColorCode(level) +
-        							msgSplit);
-        			includePrefix = false;
+    			String[] lines = splitLogLines( prefixTemplatePrison + " ", 
+    					getLogColorCode(level), msg );
+    			
+    			OutputAsyncLogger logger = getAsyncLogger();
+    			if ( logger == null || !logger.submit( lines ) ) {
+    				OutputAsyncLogger.write( lines );
     			}
     			
 			}
@@ -344,6 +348,88 @@ public class Output
     	}
     }
 
+    /**
+     * <p>Splits the formatted message on the line breaks, <code>{br}</code>, and
+     * adds the prefix to the first line and the color code to every line.  Since
+     * the platform will apply a String.format() to each line, any percent signs
+     * are escaped.
+     * </p>
+     * 
+     * @param prefix
+     * @param colorCode
+     * @param msg
+     * @return
+     */
+    private String[] splitLogLines( String prefix, String colorCode, String msg ) {
+    	
+    	List<String> lines = new ArrayList<>();
+    	
+    	int start = 0;
+    	int idx;
+    	while ( (idx = msg.indexOf( LINE_BREAK, start )) != -1 ) {
+    		lines.add( msg.substring( start, idx ) );
+    		start = idx + LINE_BREAK.length();
+    	}
+    	lines.add( msg.substring( start ) );
+    	
+    	String[] results = new String[ lines.size() ];
+    	for ( int i = 0; i < results.length; i++ ) {
+    		String line = lines.get( i );
+    		
+    		if ( line.indexOf( '%' ) != -1 ) {
+    			line = line.replace( "%", "%%" );
+    		}
+    		
+    		results[i] = (i == 0 ? prefix + colorCode : colorCode) + line;
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Returns the async logger, starting it the first time this is called after
+     * the platform is available, if it's enabled.  Returns null if it is not
+     * enabled.
+     * </p>
+     * 
+     * @return
+     */
+    private OutputAsyncLogger getAsyncLogger() {
+    	if ( !asyncLoggerInitialized ) {
+    		synchronized ( this ) {
+    			if ( !asyncLoggerInitialized ) {
+    				asyncLoggerInitialized = true;
+    				
+    				try {
+    					asyncLogger = OutputAsyncLogger.startIfEnabled();
+    				}
+    				catch ( Exception e ) {
+    					// The config is not available so log synchronously:
+    					asyncLogger = null;
+    				}
+    			}
+    		}
+    	}
+    	return asyncLogger;
+    }
+    
+    /**
+     * <p>Stops the async logger and writes all of the messages that are waiting
+     * to be logged.  All messages after this will be logged synchronously.  This
+     * should be called when prison is shutting down.
+     * </p>
+     */
+    public void shutdownAsyncLogging() {
+    	synchronized ( this ) {
+    		asyncLoggerInitialized = true;
+    	}
+    	
+    	OutputAsyncLogger logger = asyncLogger;
+    	if ( logger != null ) {
+    		logger.shutdown();
+    	}
+    }
+
     /**
      * Log an informational message to the console.
      *
@@ -0,0 +1,224 @@
+package tech.mcprison.prison.output;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import tech.mcprison.prison.Prison;
+
+/**
+ * <p>This moves the writing of log messages off of the calling thread, which is
+ * usually the server's main thread during mine resets and block breaks.  The
+ * messages are fully formatted by the caller, then added to a bounded buffer
+ * that is drained by one logger thread, which sends them to the platform's
+ * console in the same order they were added.
+ * </p>
+ *
+ * <p>The buffer never blocks the caller.  If it is full, then the message is
+ * dropped and counted, and the number of dropped messages is logged once
+ * there is room again.  If the logger is not running, or when it's shutting
+ * down, the messages are logged synchronously on the caller's thread.  If the
+ * platform fails to log a message from the logger thread, then it is written
+ * to System.err so it is not lost.
+ * </p>
+ *
+ * <p>Settings within config.yml:
+ * </p>
+ * <ul>
+ *   <li><code>prison-output.async-logging.enabled</code> - Default true.</li>
+ *   <li><code>prison-output.async-logging.buffer-size</code> - Default 8192 messages.</li>
+ * </ul>
+ *
+ */
+public class OutputAsyncLogger
+	implements Runnable
+{
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	public static final int DRAIN_BATCH_SIZE = 256;
+
+	private final ArrayBlockingQueue<String[]> buffer;
+
+	private final Thread thread;
+	private volatile boolean running = false;
+
+	private final AtomicLong submitted;
+	private final AtomicLong dropped;
+	private long droppedReported = 0;
+
+	public OutputAsyncLogger( int bufferSize ) {
+		super();
+
+		this.buffer = new ArrayBlockingQueue<>( Math.max( 64, bufferSize ) );
+
+		this.submitted = new AtomicLong();
+		this.dropped = new AtomicLong();
+
+		this.thread = new Thread( this, "Prison-Logger" );
+		this.thread.setDaemon( true );
+	}
+
+	/**
+	 * <p>Creates and starts the async logger if it is enabled in the config.yml,
+	 * otherwise returns null.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public static OutputAsyncLogger startIfEnabled() {
+		OutputAsyncLogger results = null;
+
+		if ( Prison.get().getPlatform() != null &&
+				Prison.get().getPlatform().getConfigBooleanTrue( "prison-output.async-logging.enabled" ) ) {
+
+			int bufferSize = Prison.get().getPlatform().getConfigInt(
+									"prison-output.async-logging.buffer-size", DEFAULT_BUFFER_SIZE );
+
+			results = new OutputAsyncLogger( bufferSize );
+			results.start();
+		}
+
+		return results;
+	}
+
+	public void start() {
+		running = true;
+		thread.start();
+	}
+
+	/**
+	 * <p>Adds the lines of one message to the buffer.  They will always be
+	 * written together.  If the buffer is full, then the message is dropped.
+	 * </p>
+	 *
+	 * @param lines
+	 * @return False if the logger is not running, so the caller must log
+	 * 			the message itself.
+	 */
+	public boolean submit( String[] lines ) {
+
+		if ( !running ) {
+			return false;
+		}
+
+		submitted.incrementAndGet();
+
+		if ( !buffer.offer( lines ) ) {
+			dropped.incrementAndGet();
+		}
+		else if ( !running ) {
+			// Shutdown started after the check above, so make sure this message
+			// is not left behind in the buffer:
+			drain();
+		}
+
+		return true;
+	}
+
+	@Override
+	public void run() {
+
+		List<String[]> batch = new ArrayList<>( DRAIN_BATCH_SIZE );
+
+		while ( running ) {
+			try {
+				String[] lines = buffer.poll( 250, TimeUnit.MILLISECONDS );
+
+				if ( lines != null ) {
+					batch.add( lines );
+					buffer.drainTo( batch, DRAIN_BATCH_SIZE - 1 );
+
+					for ( String[] entry : batch ) {
+						write( entry );
+					}
+					batch.clear();
+				}
+
+				reportDropped();
+			}
+			catch ( InterruptedException e ) {
+				// Shutting down.
+			}
+		}
+	}
+
+	/**
+	 * <p>Stops the logger thread, and then writes any messages that are still in
+	 * the buffer on the calling thread.  After this, all messages are logged
+	 * synchronously.
+	 * </p>
+	 */
+	public void shutdown() {
+
+		running = false;
+
+		thread.interrupt();
+
+		try {
+			thread.join( 5000 );
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+
+		drain();
+	}
+
+	private synchronized void drain() {
+		String[] lines;
+
+		while ( (lines = buffer.poll()) != null ) {
+			write( lines );
+		}
+
+		reportDropped();
+	}
+
+	private synchronized void reportDropped() {
+		long droppedCount = dropped.get();
+
+		if ( droppedCount > droppedReported ) {
+
+			write( new String[] { String.format( "Prison Logger: %d log messages were dropped " +
+					"because the log buffer was full.", droppedCount - droppedReported ) } );
+
+			droppedReported = droppedCount;
+		}
+	}
+
+	/**
+	 * <p>The lines must already be formatted, and must not contain any format
+	 * sequences other than the escaped percent, <code>%%</code>.
+	 * </p>
+	 *
+	 * @param lines
+	 */
+	protected static void write( String[] lines ) {
+		for ( String line : lines ) {
+			try {
+				Prison.get().getPlatform().log( line );
+			}
+			catch ( Exception e ) {
+				System.err.println( line );
+			}
+		}
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	public int getQueued() {
+		return buffer.size();
+	}
+
+	public long getSubmitted() {
+		return submitted.get();
+	}
+
+	public long getDropped() {
+		return dropped.get();
+	}
+}
@@ -1,22 +1,31 @@
 package tech.mcprison.prison.placeholders;
 
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>The stats for one placeholder identifier.  The placeholders are translated
+ * from both the server's thread and the async chat threads, so the counters are
+ * LongAdders which can be updated from many threads without locking.
+ * </p>
+ *
+ */
 public class PlaceholderStatsData {
 	
 	private String placeholderId;
 	
-	private PlaceHolderKey placeholderKey;
+	private volatile PlaceHolderKey placeholderKey;
 //	private PrisonPlaceHolders placeholder;
 	
-	private int hits = 0;
-	private int failHits = 0;
+	private final LongAdder hits;
+	private final LongAdder failHits;
 	
-	private long totalDurationNanos = 0L;
+	private final LongAdder totalDurationNanos;
 	
 	/**
 	 * A failedMatch will be identified if a placeholder key cannot be located for
 	 * the placeholder pattern.
 	 */
-	private boolean failedMatch;
+	private volatile boolean failedMatch;
 	
 	private transient final Object lock;
 	
@@ -27,6 +36,10 @@ public class PlaceholderStatsData {
 		
 		this.placeholderId = placeholderId;
 		
+		this.hits = new LongAdder();
+		this.failHits = new LongAdder();
+		this.totalDurationNanos = new LongAdder();
+		
 		this.failedMatch = false;
 	}
 
@@ -58,8 +71,8 @@ public class PlaceholderStatsData {
 	 * @param nanoStart
 	 * @param nanoEnd
 	 */
-	public void updateStats(PlaceholderIdentifier pId, long nanoStart, long nanoEnd) {
-
+	public boolean updateStats(PlaceholderIdentifier pId, long nanoStart, long nanoEnd) {
+		boolean results = false;
 
 		// If the stats placeholderKey is null, and one has been identified with the pId,
 		// then set the placeholderKey.
@@ -72,7 +85,7 @@ public class PlaceholderStatsData {
 		// Associated with the stats and identifier, it will not become a perm failure.
 		if ( !pId.isFoundAMatch() ) {
 
-			logFailedHit(nanoStart, nanoEnd);
+			results = logFailedHit(nanoStart, nanoEnd);
 		}
 		else {
 			
@@ -80,6 +93,7 @@ public class PlaceholderStatsData {
 			logHit( nanoStart, nanoEnd );
 		}
 		
+		return results;
 	}
 
 	
@@ -93,10 +107,8 @@ public class PlaceholderStatsData {
 	private void logHit( long nanoStart, long nanoEnd ) {
 		long durationNano = nanoEnd - nanoStart;
 		
-		synchronized ( lock ) {
-			hits++;
-			totalDurationNanos += durationNano;
-		}
+		hits.increment();
+		totalDurationNanos.add( durationNano );
 	}
 	
 	/**
@@ -111,23 +123,33 @@ public class PlaceholderStatsData {
 	 * an associated player is not valid within prison.
 	 * </p>
 	 * 
+	 * @return True if this placeholder was just marked as a failed match.
 	 */
-	private void logFailedHit( long nanoStart, long nanoEnd ) {
+	private boolean logFailedHit( long nanoStart, long nanoEnd ) {
+		boolean results = false;
 		long durationNano = nanoEnd - nanoStart;
 		
-		synchronized ( lock ) {
-			failHits++;
-			totalDurationNanos += durationNano;
-
-			if ( placeholderKey == null && !failedMatch ) {
-				failedMatch = true;
+		failHits.increment();
+		totalDurationNanos.add( durationNano );
+		
+		if ( placeholderKey == null && !failedMatch ) {
+			
+			// Only one thread can mark it as failed:
+			synchronized ( lock ) {
+				if ( placeholderKey == null && !failedMatch ) {
+					failedMatch = true;
+					results = true;
+				}
 			}
 		}
+		
+		return results;
 	}
 	
 	
 	public double getAverageDurationMs() {
-		double avgMs = totalDurationNanos / hits / 1000000.0d;
+		long hitCount = hits.sum();
+		double avgMs = hitCount == 0 ? 0 : totalDurationNanos.sum() / hitCount / 1000000.0d;
 		
 		return avgMs;
 	}
@@ -147,24 +169,25 @@ public class PlaceholderStatsData {
 	}
 
 	public int getHits() {
-		return hits;
+		return (int) hits.sum();
 	}
 //	private void setHits(int hits) {
 //		this.hits = hits;
 //	}
 
 	public int getFailHits() {
-		return failHits;
+		return (int) failHits.sum();
 	}
 //	private void setFailHits(int failHits) {
 //		this.failHits = failHits;
 //	}
 
 	public long getTotalDurationNanos() {
-		return totalDurationNanos;
+		return totalDurationNanos.sum();
 	}
 	public void setTotalDurationNanos(long totalDurationNanos) {
-		this.totalDurationNanos = totalDurationNanos;
+		this.totalDurationNanos.reset();
+		this.totalDurationNanos.add( totalDurationNanos );
 	}
 
 
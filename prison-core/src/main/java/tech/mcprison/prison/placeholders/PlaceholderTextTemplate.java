@@ -0,0 +1,233 @@
+package tech.mcprison.prison.placeholders;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>This is a text that may contain placeholders, that has been split in to
+ * the literal text, and the placeholder slots.  The same text, such as a chat
+ * format, is translated many times, so it is only parsed once and then cached.
+ * Translating the text then only needs to evaluate the placeholder slots.
+ * </p>
+ *
+ * <p>The text is parsed the same way the placeholders were replaced before;
+ * first the <code>%placeholder%</code> slots are found, then the
+ * <code>{placeholder}</code> slots are found within the remaining text.
+ * If a <code>%placeholder%</code> is not a prison placeholder, then it is
+ * kept as is, other than any <code>{placeholder}</code> within it.
+ * </p>
+ *
+ * <p>The templates are cached by the raw text, with the least recently used
+ * templates removed when there are more than MAX_CACHED_TEMPLATES.
+ * </p>
+ *
+ */
+public class PlaceholderTextTemplate
+{
+	public static final int MAX_CACHED_TEMPLATES = 500;
+
+	// We want to include the placeholder escape characters in group 1:
+	public static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("([%]([^%]+)[%])");
+	public static final Pattern BRACKET_PLACEHOLDER_PATTERN = Pattern.compile("([{]([^{}]+)[}])");
+
+	private static final Map<String, PlaceholderTextTemplate> templateCache =
+			Collections.synchronizedMap( new LinkedHashMap<String, PlaceholderTextTemplate>( 64, 0.75f, true ) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry( Map.Entry<String, PlaceholderTextTemplate> eldest ) {
+					return size() > MAX_CACHED_TEMPLATES;
+				}
+			});
+
+
+	private final String rawText;
+	private final List<Segment> segments;
+	private final boolean placeholders;
+
+
+	/**
+	 * <p>A part of the text.  If placeholder is null, then it is literal text.
+	 * Otherwise the text is the placeholder, including the escape characters,
+	 * and the fallback is what is used if the placeholder is not found.
+	 * </p>
+	 */
+	private static class Segment {
+		private final String text;
+		private final boolean placeholder;
+		private final boolean percent;
+		private final List<Segment> fallback;
+
+		private Segment( String text, boolean placeholder, boolean percent, List<Segment> fallback ) {
+			this.text = text;
+			this.placeholder = placeholder;
+			this.percent = percent;
+			this.fallback = fallback;
+		}
+	}
+
+
+	private PlaceholderTextTemplate( String rawText ) {
+		super();
+
+		this.rawText = rawText;
+		this.segments = parse( rawText );
+
+		boolean hasPlaceholders = false;
+		for ( Segment segment : segments ) {
+			if ( segment.placeholder ) {
+				hasPlaceholders = true;
+				break;
+			}
+		}
+		this.placeholders = hasPlaceholders;
+	}
+
+	/**
+	 * <p>Returns the template for the text, from the cache if it has already
+	 * been parsed.
+	 * </p>
+	 *
+	 * @param rawText
+	 * @return
+	 */
+	public static PlaceholderTextTemplate getTemplate( String rawText ) {
+		String key = rawText == null ? "" : rawText;
+
+		PlaceholderTextTemplate results = templateCache.get( key );
+
+		if ( results == null ) {
+			results = new PlaceholderTextTemplate( key );
+			templateCache.put( key, results );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns true if the text has anything that looks like a placeholder.
+	 * </p>
+	 *
+	 * @param rawText
+	 * @return
+	 */
+	public static boolean hasPlaceholders( String rawText ) {
+		return rawText != null && getTemplate( rawText ).hasPlaceholders();
+	}
+
+	public static int getCacheSize() {
+		return templateCache.size();
+	}
+
+	public static void clearCache() {
+		templateCache.clear();
+	}
+
+	private static List<Segment> parse( String text ) {
+		List<Segment> results = new ArrayList<>();
+
+		Matcher matcher = PLACEHOLDER_PATTERN.matcher( text );
+
+		int position = 0;
+		while ( matcher.find() ) {
+			results.addAll( parseBrackets( text.substring( position, matcher.start() ) ) );
+
+			String placeholder = matcher.group( 1 );
+			results.add( new Segment( placeholder, true, true, parseBrackets( placeholder ) ) );
+
+			position = matcher.end();
+		}
+		results.addAll( parseBrackets( text.substring( position ) ) );
+
+		return results;
+	}
+
+	private static List<Segment> parseBrackets( String text ) {
+		List<Segment> results = new ArrayList<>();
+
+		Matcher matcher = BRACKET_PLACEHOLDER_PATTERN.matcher( text );
+
+		int position = 0;
+		while ( matcher.find() ) {
+			if ( matcher.start() > position ) {
+				results.add( new Segment( text.substring( position, matcher.start() ), false, false, null ) );
+			}
+
+			results.add( new Segment( matcher.group( 1 ), true, false, null ) );
+
+			position = matcher.end();
+		}
+		if ( position < text.length() ) {
+			results.add( new Segment( text.substring( position ), false, false, null ) );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Builds the text, with each of the placeholders replaced by the value
+	 * that the resolver returns for it.  The resolver is given the placeholder
+	 * with its escape characters, and must return null if the placeholder was
+	 * not found, which will then keep the placeholder within the text.
+	 * </p>
+	 *
+	 * <p>Like before, the values of the <code>%placeholder%</code> slots are
+	 * checked for <code>{placeholder}</code> too.
+	 * </p>
+	 *
+	 * @param resolver
+	 * @return
+	 */
+	public String render( Function<String, String> resolver ) {
+		if ( !placeholders ) {
+			return rawText;
+		}
+
+		StringBuilder sb = new StringBuilder( rawText.length() + 32 );
+		render( segments, resolver, sb );
+
+		return sb.toString();
+	}
+
+	private static void render( List<Segment> segments, Function<String, String> resolver,
+					StringBuilder sb ) {
+
+		for ( Segment segment : segments ) {
+			if ( !segment.placeholder ) {
+				sb.append( segment.text );
+				continue;
+			}
+
+			String value = resolver.apply( segment.text );
+
+			if ( value == null ) {
+				if ( segment.fallback != null ) {
+					render( segment.fallback, resolver, sb );
+				}
+				else {
+					sb.append( segment.text );
+				}
+			}
+			else if ( segment.percent && value.indexOf( '{' ) != -1 ) {
+				render( parseBrackets( value ), resolver, sb );
+			}
+			else {
+				sb.append( value );
+			}
+		}
+	}
+
+	public String getRawText() {
+		return rawText;
+	}
+
+	public boolean hasPlaceholders() {
+		return placeholders;
+	}
+}
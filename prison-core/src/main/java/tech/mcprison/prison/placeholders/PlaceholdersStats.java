@@ -2,27 +2,93 @@ package tech.mcprison.prison.placeholders;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonRunnable;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 
+/**
+ * <p>This keeps the stats for every placeholder identifier that has been requested,
+ * and also serves as the placeholder cache, since the stats hold the placeholder
+ * key that was found for the identifier.  Placeholders are requested from both
+ * the server's thread and the async chat threads, so the cache is a 
+ * ConcurrentHashMap.
+ * </p>
+ * 
+ * <p>The identifiers that do not match a prison placeholder are kept so they can
+ * be bypassed the next time, but other plugins may request any number of
+ * different identifiers, so only the newest MAX_FAILED_PLACEHOLDERS of them are kept.
+ * </p>
+ * 
+ * <p>A snapshot of the hits is taken every minute, so the stats report can show
+ * how many hits each placeholder had recently.
+ * </p>
+ *
+ */
 public class PlaceholdersStats {
 
+	public static final int MAX_FAILED_PLACEHOLDERS = 1000;
+	
+	public static final long SNAPSHOT_INTERVAL_TICKS = 20 * 60;
+	
 	private static PlaceholdersStats stats; 
 	
-	private TreeMap<String, PlaceholderStatsData> placeholders;
+	private final ConcurrentHashMap<String, PlaceholderStatsData> placeholders;
+	
+	private final ConcurrentLinkedQueue<String> failedPlaceholders;
+	private final AtomicInteger failedPlaceholderCount;
+	
+	private final AtomicInteger invalidWorldCount;
+	
+	private volatile PlaceholdersStatsSnapshot snapshot;
+	private int snapshotTaskId = -1;
 	
-	private int invalidWorldCount = 0;
+	
+	/**
+	 * <p>A copy of the stats at one point in time.
+	 * </p>
+	 */
+	public static class PlaceholdersStatsSnapshot {
+		private final long timestamp;
+		private final TreeMap<String, Long> hits;
+		
+		private PlaceholdersStatsSnapshot( Map<String, PlaceholderStatsData> placeholders ) {
+			this.timestamp = System.currentTimeMillis();
+			this.hits = new TreeMap<>();
+			
+			for ( Map.Entry<String, PlaceholderStatsData> entry : placeholders.entrySet() ) {
+				hits.put( entry.getKey(), Long.valueOf( entry.getValue().getHits() ) );
+			}
+		}
+		
+		public long getTimestamp() {
+			return timestamp;
+		}
+		
+		public long getHits( String key ) {
+			Long results = hits.get( key );
+			return results == null ? 0 : results.longValue();
+		}
+	}
 	
 	
 	private PlaceholdersStats() {
 		super();
 		
 		
-		this.placeholders = new TreeMap<>();
+		this.placeholders = new ConcurrentHashMap<>();
+		
+		this.failedPlaceholders = new ConcurrentLinkedQueue<>();
+		this.failedPlaceholderCount = new AtomicInteger( 0 );
+		
+		this.invalidWorldCount = new AtomicInteger( 0 );
 	}
 	
 	public static PlaceholdersStats getInstance() {
@@ -38,6 +104,28 @@ public class PlaceholdersStats {
 		return stats;
 	}
 	
+	/**
+	 * <p>Starts the async task that takes a snapshot of the stats every minute.
+	 * </p>
+	 */
+	public synchronized void startSnapshotTask() {
+		
+		if ( snapshotTaskId == -1 ) {
+			PrisonRunnable snapshotTask = () -> takeSnapshot();
+			
+			snapshotTaskId = PrisonTaskSubmitter.runTaskTimerAsync( snapshotTask, 
+					SNAPSHOT_INTERVAL_TICKS, SNAPSHOT_INTERVAL_TICKS );
+		}
+	}
+	
+	public PlaceholdersStatsSnapshot takeSnapshot() {
+		PlaceholdersStatsSnapshot results = new PlaceholdersStatsSnapshot( getPlaceholders() );
+		
+		this.snapshot = results;
+		
+		return results;
+	}
+	
 	
 	/**
 	 * <p>This function will take the initial PlaceholderIdentifier, which has not yet been
@@ -59,29 +147,16 @@ public class PlaceholdersStats {
 		if ( pId != null ) {
 			String key = pId.getIdentifier();
 			
-			// If there is a placeholder cache entry, then get it from the cache:
-			if ( getPlaceholders().containsKey(key) ) {
-				results = getPlaceholders().get( key );
-
-				// NOTE: the results may have a placeholderKey assigned, if it does, then 
-				//       assign to the pId:
-				if ( results != null && results.getPlaceholderKey() != null ) {
-					pId.setPlaceholderKey( results.getPlaceholderKey() );
-				}
-			}
-			else {
-				// Else create a new cache entry:
-				
-				results = new PlaceholderStatsData( key );
-//				getPlaceholders().put( key, results );
-				
-				// Store this new stats object in the cache.  If there is a placeholder fail, then
-				// this will help prevent going through all of the calculations for future
-				// hits.
-				getPlaceholders().put( key, results );
-			}
-			
+			// Get the placeholder cache entry, or create and store a new one.  If there 
+			// is a placeholder fail, then this will help prevent going through all of 
+			// the calculations for future hits.
+			results = getPlaceholders().computeIfAbsent( key, k -> new PlaceholderStatsData( k ) );
 			
+			// NOTE: the results may have a placeholderKey assigned, if it does, then 
+			//       assign to the pId:
+			if ( results.getPlaceholderKey() != null ) {
+				pId.setPlaceholderKey( results.getPlaceholderKey() );
+			}
 		}
 		
 		return results;
@@ -111,39 +186,82 @@ public class PlaceholdersStats {
 		if ( pId != null && stats != null ) {
 			
 			// Update all of the stats details, including if it should mark the stats as a failure.
-			stats.updateStats( pId, nanoStart, nanoEnd );
+			if ( stats.updateStats( pId, nanoStart, nanoEnd ) ) {
+				
+				addFailedPlaceholder( stats.getPlaceholderId() );
+			}
 		}
 		
 		return results;
 	}
 	
 	
+	/**
+	 * <p>Keeps track of the placeholders that failed to match, and if there are too 
+	 * many, then the oldest ones are removed from the cache.
+	 * </p>
+	 * 
+	 * @param key
+	 */
+	private void addFailedPlaceholder( String key ) {
+		failedPlaceholders.add( key );
+		
+		int count = failedPlaceholderCount.incrementAndGet();
+		
+		while ( count > MAX_FAILED_PLACEHOLDERS ) {
+			String oldest = failedPlaceholders.poll();
+			
+			if ( oldest == null ) {
+				failedPlaceholderCount.set( 0 );
+				break;
+			}
+			
+			// Only remove it if it's still a failed match:
+			getPlaceholders().computeIfPresent( oldest, 
+					(k, v) -> v.isFailedMatch() ? null : v );
+			
+			count = failedPlaceholderCount.decrementAndGet();
+		}
+	}
+	
 	public ArrayList<String> generatePlaceholderReport() {
 		ArrayList<String> results = new ArrayList<>();
 		
 		DecimalFormat iFmt = Prison.get().getDecimalFormatInt();
 		DecimalFormat dFmt = Prison.get().getDecimalFormat( "#,##0.0000" );
+		DecimalFormat rFmt = Prison.get().getDecimalFormat( "#,##0.0" );
 		
 		results.add( 
-				"&7 &n     Hits&r  &n    Fails&r  &nAvg/Hit ms&r  &nPlaceholder used:internal           &r" );
+				"&7 &n     Hits&r  &n    Fails&r  &nAvg/Hit ms&r  &n Hits/min&r  &nPlaceholder used:internal           &r" );
 		
-		ArrayList<String> keys = new ArrayList<>( getPlaceholders().keySet() );
-		Collections.sort( keys );
-		for (String key : keys) {
-			PlaceholderStatsData stats = getPlaceholders().get(key);
+		// The recent hits are compared to the last snapshot, which is taken every minute:
+		PlaceholdersStatsSnapshot lastSnapshot = snapshot;
+		double minutes = lastSnapshot == null ? 0 :
+				(System.currentTimeMillis() - lastSnapshot.getTimestamp()) / 60000d;
+		
+		// Sorted copy of the stats:
+		TreeMap<String, PlaceholderStatsData> sorted = new TreeMap<>( getPlaceholders() );
+		
+		for (String key : sorted.keySet()) {
+			PlaceholderStatsData stats = sorted.get(key);
 			
 			int hits = stats.getHits();
 			int fails = stats.getFailHits();
 			long totalDurationNano = stats.getTotalDurationNanos();
-			double avgMs = totalDurationNano / (double) (hits + fails) / 1000000d;
+			double avgMs = hits + fails == 0 ? 0 : 
+							totalDurationNano / (double) (hits + fails) / 1000000d;
+			
+			String hitsPerMinute = minutes < 0.05 ? "" : 
+							rFmt.format( Math.max( 0, hits - lastSnapshot.getHits( key ) ) / minutes );
 			
 			boolean valid = stats.getPlaceholderKey() != null;
 			
 			String message = String.format( 
-					"&3%10s %10s  %10s  &2%s%s &c%s",
+					"&3%10s %10s  %10s %10s  &2%s%s &c%s",
 					iFmt.format( hits ),
 					iFmt.format( fails ),
 					dFmt.format( avgMs ),
+					hitsPerMinute,
 					key,
 					stats.getPlaceholderKey() == null ? 
 						"" : 
@@ -157,6 +275,11 @@ public class PlaceholdersStats {
 			
 		}
 		
+		results.add( 
+				String.format( "&7Invalid placeholders cached: &3%s  &7(Limit %s)", 
+						iFmt.format( failedPlaceholderCount.get() ),
+						iFmt.format( MAX_FAILED_PLACEHOLDERS ) ));
+		
 		
 		results.add( 
 				String.format( "&7Invalid World Usage Total: &3%10s  &b(Placeholders replaced with banks)", 
@@ -184,6 +307,11 @@ public class PlaceholdersStats {
 			getPlaceholders().remove( key );
 		}
 		
+		if ( resetCache || removeErrors ) {
+			failedPlaceholders.clear();
+			failedPlaceholderCount.set( 0 );
+		}
+		
 		setInvalidWorldCount( 0 );
 		
 		Output.get().logInfo( "PlaceholderStats: Cache was purged of %s placeholders. Removed: %s ", 
@@ -195,21 +323,18 @@ public class PlaceholdersStats {
 	}
 	
 
-	public TreeMap<String, PlaceholderStatsData> getPlaceholders() {
+	public ConcurrentHashMap<String, PlaceholderStatsData> getPlaceholders() {
 		return placeholders;
 	}
-	public void setPlaceholders(TreeMap<String, PlaceholderStatsData> placeholders) {
-		this.placeholders = placeholders;
-	}
 
 	public int incrementInvalidWorldCount() {
-		return invalidWorldCount++;
+		return invalidWorldCount.getAndIncrement();
 	}
 	public int getInvalidWorldCount() {
-		return invalidWorldCount;
+		return invalidWorldCount.get();
 	}
 	public void setInvalidWorldCount(int invalidWorldCount) {
-		this.invalidWorldCount = invalidWorldCount;
+		this.invalidWorldCount.set( invalidWorldCount );
 	}
 	
 }
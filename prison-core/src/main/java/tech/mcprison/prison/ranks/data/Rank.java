@@ -476,6 +476,8 @@ public class Rank
 	}
 	public void setRawRankCost( double cost ) {
 		this.cost = cost;
+		
+		invalidateLadderCostTable();
 	}
 	
 	protected double getCost() {
@@ -483,6 +485,8 @@ public class Rank
 	}
 	protected void setCost( double cost ) {
 		this.cost = cost;
+		
+		invalidateLadderCostTable();
 	}
 
 	public String getCurrency() {
@@ -490,6 +494,14 @@ public class Rank
 	}
 	public void setCurrency( String currency ) {
 		this.currency = currency;
+		
+		invalidateLadderCostTable();
+	}
+	
+	private void invalidateLadderCostTable() {
+		if ( getLadder() != null ) {
+			getLadder().invalidateCostTable();
+		}
 	}
 
 	public List<String> getRankUpCommands() {
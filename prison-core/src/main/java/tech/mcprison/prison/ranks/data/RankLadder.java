@@ -56,6 +56,8 @@ public class RankLadder
     private boolean applyRankCostMultiplierToLadder = true;
     
     private boolean dirty = false;
+    
+    private transient volatile RankLadderCostTable costTable = null;
 
 
     public RankLadder() {
@@ -372,6 +374,8 @@ public class RankLadder
      */
     private void connectRanks() {
     	
+    	invalidateCostTable();
+    	
     	Rank rankLast = null;
     	
     	// The inserted rank may not be at the end of ranks, so go through all ranks and
@@ -555,6 +559,8 @@ public class RankLadder
 	}
 	public void setRankCostMultiplierPerRank( double rankCostMultiplierPerRank ) {
 		this.rankCostMultiplierPerRank = rankCostMultiplierPerRank;
+		
+		invalidateCostTable();
 	}
 
 	public boolean isApplyRankCostMultiplierToLadder() {
@@ -562,6 +568,35 @@ public class RankLadder
 	}
 	public void setApplyRankCostMultiplierToLadder(boolean applyRankCostMultiplierToLadder) {
 		this.applyRankCostMultiplierToLadder = applyRankCostMultiplierToLadder;
+		
+		invalidateCostTable();
+	}
+	
+	/**
+	 * <p>Returns the precomputed rank cost table for this ladder.  It is built
+	 * on first use, and then reused until a rank or the ladder is changed.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public RankLadderCostTable getCostTable() {
+		RankLadderCostTable results = costTable;
+		
+		if ( results == null ) {
+			results = new RankLadderCostTable( this );
+			costTable = results;
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>This must be called whenever anything changes that would change the
+	 * rank costs on this ladder, so the cost table will be rebuilt.
+	 * </p>
+	 */
+	public void invalidateCostTable() {
+		costTable = null;
 	}
 
 	public boolean isDirty() {
@@ -0,0 +1,226 @@
+package tech.mcprison.prison.ranks.data;
+
+import java.util.List;
+
+/**
+ * <p>This is an immutable table of the rank costs for one ladder, so the rank
+ * costs, cumulative rank costs, and the number of ranks a balance can afford,
+ * can be found with array reads instead of rebuilding PlayerRanks.  It is
+ * built by the RankLadder the first time it's needed, and it is discarded
+ * whenever a rank or the ladder is changed.
+ * </p>
+ *
+ * <p>A player's cost for a rank is based upon the rank's raw cost and the
+ * total rank multiplier, which is the sum of the ladder multipliers for each
+ * of the player's ladders.  For a rank on this ladder, the total multiplier
+ * is this ladder's multiplier for the rank plus the multipliers from all
+ * of the player's other ladders (such as prestiges), so the cost is:
+ * </p>
+ *
+ * <pre>cost = rawCost * (1 + otherMultiplier + ladderMultiplier[position])</pre>
+ *
+ * <p>Which is linear in the otherMultiplier, so the cumulative costs are stored
+ * as two prefix sums, one of the raw costs and one of the raw costs weighted by
+ * this ladder's multipliers, and can be combined with any otherMultiplier.
+ * If the ladder does not apply the rank cost multiplier, then the cost is
+ * always the raw cost.
+ * </p>
+ *
+ */
+public class RankLadderCostTable
+{
+	private final boolean applyMultiplier;
+
+	private final double[] rawCosts;
+	private final double[] ladderMultipliers;
+
+	/**
+	 * <p>Prefix sums, so cumulativeRawCosts[i] is the sum of the raw costs of
+	 * the ranks before position i.  The length is one more than the number
+	 * of ranks.
+	 * </p>
+	 */
+	private final double[] cumulativeRawCosts;
+	private final double[] cumulativeWeightedCosts;
+
+	/**
+	 * <p>For each position, the last position that has the same currency,
+	 * without a change in currency in between.
+	 * </p>
+	 */
+	private final int[] currencyRunEnd;
+
+
+	public RankLadderCostTable( RankLadder ladder ) {
+		super();
+
+		List<Rank> ranks = ladder.getRanks();
+		int size = ranks == null ? 0 : ranks.size();
+
+		this.applyMultiplier = ladder.isApplyRankCostMultiplierToLadder();
+
+		this.rawCosts = new double[size];
+		this.ladderMultipliers = new double[size];
+		this.cumulativeRawCosts = new double[size + 1];
+		this.cumulativeWeightedCosts = new double[size + 1];
+		this.currencyRunEnd = new int[size];
+
+		double ladderMultiplier = ladder.getRankCostMultiplierPerRank();
+
+		for ( int i = 0; i < size; i++ ) {
+			Rank rank = ranks.get( i );
+
+			rawCosts[i] = rank.getRawRankCost();
+
+			// Because it's zero based... so add a 1
+			ladderMultipliers[i] = ladderMultiplier * (1 + i);
+
+			cumulativeRawCosts[i + 1] = cumulativeRawCosts[i] + rawCosts[i];
+			cumulativeWeightedCosts[i + 1] = cumulativeWeightedCosts[i] +
+											rawCosts[i] * ladderMultipliers[i];
+		}
+
+		for ( int i = size - 1; i >= 0; i-- ) {
+
+			boolean sameAsNext = i + 1 < size &&
+					isSameCurrency( ranks.get( i ).getCurrency(), ranks.get( i + 1 ).getCurrency() );
+
+			currencyRunEnd[i] = sameAsNext ? currencyRunEnd[i + 1] : i;
+		}
+	}
+
+	private static boolean isSameCurrency( String currency1, String currency2 ) {
+		String c1 = currency1 == null ? "" : currency1.trim();
+		String c2 = currency2 == null ? "" : currency2.trim();
+
+		return c1.equalsIgnoreCase( c2 );
+	}
+
+	public int size() {
+		return rawCosts.length;
+	}
+
+	public boolean isApplyMultiplier() {
+		return applyMultiplier;
+	}
+
+	/**
+	 * <p>This ladder's contribution to a player's total rank multiplier when
+	 * the player has the rank at the given position.
+	 * </p>
+	 *
+	 * @param position
+	 * @return
+	 */
+	public double getLadderMultiplier( int position ) {
+		return position < 0 || position >= size() ? 0d : ladderMultipliers[position];
+	}
+
+	public double getRawCost( int position ) {
+		return rawCosts[position];
+	}
+
+	/**
+	 * <p>The player's cost for the rank at the given position.
+	 * </p>
+	 *
+	 * @param position
+	 * @param otherMultiplier The sum of the multipliers from the player's other ladders.
+	 * @return
+	 */
+	public double getRankCost( int position, double otherMultiplier ) {
+
+		return !applyMultiplier ? rawCosts[position] :
+			rawCosts[position] * (1.0 + otherMultiplier + ladderMultipliers[position]);
+	}
+
+	/**
+	 * <p>The total cost to rankup from the rank at the position fromPosition,
+	 * through the rank at toPosition. Use a fromPosition of -1 to include the
+	 * first rank.
+	 * </p>
+	 *
+	 * @param fromPosition The current rank, which is not included.
+	 * @param toPosition The target rank, which is included.
+	 * @param otherMultiplier
+	 * @return
+	 */
+	public double getCumulativeCost( int fromPosition, int toPosition, double otherMultiplier ) {
+		double results = 0d;
+
+		if ( toPosition > fromPosition ) {
+			int start = fromPosition + 1;
+			int end = toPosition + 1;
+
+			double raw = cumulativeRawCosts[end] - cumulativeRawCosts[start];
+
+			results = !applyMultiplier ? raw :
+					raw * (1.0 + otherMultiplier) +
+					(cumulativeWeightedCosts[end] - cumulativeWeightedCosts[start]);
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Finds the highest rank position that the player can rankup to, from their
+	 * current position, with the given balance. This uses a binary search on the
+	 * cumulative costs.  If the player cannot afford the next rank, then the
+	 * current position is returned.
+	 * </p>
+	 *
+	 * @param currentPosition The player's current rank position, or -1 if none.
+	 * @param otherMultiplier
+	 * @param balance
+	 * @param sameCurrency If true, then the result will not go past a change in currency.
+	 * @return
+	 */
+	public int getAffordablePosition( int currentPosition, double otherMultiplier,
+						double balance, boolean sameCurrency ) {
+
+		int low = currentPosition;
+		int high = size() - 1;
+
+		if ( sameCurrency && currentPosition + 1 < size() ) {
+			high = currencyRunEnd[ currentPosition + 1 ];
+		}
+
+		// Invariant: low is affordable, and anything above high is not:
+		while ( low < high ) {
+			int mid = (low + high + 1) >>> 1;
+
+			if ( getCumulativeCost( currentPosition, mid, otherMultiplier ) <= balance ) {
+				low = mid;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * <p>The percentage of the next rank's cost that the balance covers,
+	 * from 0 to 100.
+	 * </p>
+	 *
+	 * @param currentPosition
+	 * @param otherMultiplier
+	 * @param balance
+	 * @return
+	 */
+	public double getProgressPercent( int currentPosition, double otherMultiplier, double balance ) {
+		double results = 100d;
+
+		int next = currentPosition + 1;
+		if ( next < size() ) {
+			double cost = getRankCost( next, otherMultiplier );
+
+			results = cost <= 0 ? 100d :
+						Math.max( 0d, Math.min( 100d, balance / cost * 100d ) );
+		}
+
+		return results;
+	}
+}
@@ -21,6 +21,7 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
@@ -31,8 +32,7 @@ import tech.mcprison.prison.PrisonAPI;
 import tech.mcprison.prison.cache.PlayerCache;
 import tech.mcprison.prison.cache.PlayerCachePlayerData;
 import tech.mcprison.prison.file.JsonFileIO;
-import tech.mcprison.prison.integration.EconomyCurrencyIntegration;
-import tech.mcprison.prison.integration.EconomyIntegration;
+import tech.mcprison.prison.integration.EconomyFacade;
 import tech.mcprison.prison.internal.ItemStack;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.block.Block;
@@ -54,8 +54,6 @@ public class RankPlayer
 		extends RankPlayerMessages
 			implements Player, PlaceholderStringCoverter {
 
-	public static final long DELAY_THREE_SECONDS = 20 * 3; // 3 seconds in ticks
-	
 	// The cooldown time for when the rank score will be recalculated
 //	public static final long RANK_SCORE_COOLDOWN_MS = 1000 * 60 * 5; // 5 minutes
 //	public static final double RANK_SCORE_BALANCE_THRESHOLD_PERCENT = 0.05d; // 5%
@@ -92,11 +90,6 @@ public class RankPlayer
 
 
     
-    private EconomyIntegration economy = null;
-    private double unsavedBalance = 0;
-    private Object unsavedBalanceLock = new Object();
-    private int ubTaskId = 0;
-    
 //    private HashMap<String, EconomyIntegration> economyCustom = new HashMap<>();;
     
     
@@ -117,9 +110,6 @@ public class RankPlayer
 //	private long rankScoreCooldown = 0L;
     
     
-    private long economyCacheUpdateDelayTicks = -1;
-    
-
     public RankPlayer() {
     	super();
     	
@@ -535,29 +525,14 @@ public class RankPlayer
 
     		// Need to get the targetRank's ladder.  Not all ranks have ladders.
     		RankLadder targetLadder = targetRank.getLadder();
-
-    		// Create a new PlayerRank object for this target rank. 
-    		// Ignore rank cost multipliers since that will be applied later.
-    		targetPlayerRank = new PlayerRank( targetRank );
-    		
-    		// Create a new temp targetLadderRanks TreeMap:
-    		TreeMap<RankLadder, PlayerRank> targetLadderRanks = new TreeMap<>();
-    				
-    		// Copy the player's actual ladderRanks to the targetLadderRanks:
-    		Set<RankLadder> keys = getLadderRanks().keySet();
-    		for (RankLadder key : keys) {
-    			PlayerRank pRank = getLadderRanks().get( key );
-    			
-    			targetLadderRanks.put( key, pRank );
-    		}		
-    	
-    		// Now add our targetPlayerRank to the targetLadderRanks:
-    		targetLadderRanks.put( targetLadder, targetPlayerRank );
     		
+    		// The total multiplier is the multipliers from all of the player's other
+    		// ladders, plus the target rank's multiplier, which are read from the 
+    		// ladders' precomputed cost tables:
+    		double multiplier = getRankMultiplierExcludingLadder( targetLadder ) + 
+    				targetLadder.getCostTable().getLadderMultiplier( targetRank.getPosition() );
     		
-    		// Now recalculate all multipliers and the rank costs for the targetPlayerRank:
-    		recalculateRankMultipliers( targetLadderRanks );
-
+    		targetPlayerRank = new PlayerRank( targetRank, multiplier );
     	}
     	
     	// The targetPlayerRank now has the correct total multiplier from all 
@@ -567,6 +542,80 @@ public class RankPlayer
     	return targetPlayerRank;
     }
     
+    /**
+     * <p>The player's cost for the target rank, which is the same as 
+     * <code>calculateTargetPlayerRank( targetRank ).getRankCost()</code>, but it is 
+     * read from the target rank's ladder's cost table without creating a PlayerRank.
+     * This is used by the placeholders, the rank scores, and the topN.
+     * </p>
+     * 
+     * @param targetRank
+     * @return The cost, or -1 if the rank is null or does not have a ladder.
+     */
+    public double getTargetRankCost( Rank targetRank ) {
+    	double results = -1;
+    	
+    	if ( targetRank != null && targetRank.getLadder() != null ) {
+    		RankLadder targetLadder = targetRank.getLadder();
+    		
+    		results = targetLadder.getCostTable().getRankCost( targetRank.getPosition(), 
+    								getRankMultiplierExcludingLadder( targetLadder ) );
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>The percentage, from 0 to 100, of the player's cost for the target rank 
+     * that the balance covers, which is read from the target rank's ladder's 
+     * cost table.
+     * </p>
+     * 
+     * @param targetRank
+     * @param balance
+     * @return The percentage, or 100 if the rank is null or does not have a ladder.
+     */
+    public double getTargetRankProgressPercent( Rank targetRank, double balance ) {
+    	double results = 100d;
+    	
+    	if ( targetRank != null && targetRank.getLadder() != null ) {
+    		RankLadder targetLadder = targetRank.getLadder();
+    		
+    		// The progress is for the rank after the currentPosition:
+    		results = targetLadder.getCostTable().getProgressPercent( targetRank.getPosition() - 1, 
+    								getRankMultiplierExcludingLadder( targetLadder ), balance );
+    	}
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Returns the sum of the rank multipliers for all of the player's ladders, 
+     * except for the given ladder.  This is the otherMultiplier that is used with
+     * the ladder's RankLadderCostTable.
+     * </p>
+     * 
+     * @param excludeLadder
+     * @return
+     */
+    public double getRankMultiplierExcludingLadder( RankLadder excludeLadder ) {
+    	double multiplier = 0;
+    	
+    	for ( Map.Entry<RankLadder, PlayerRank> entry : getLadderRanks().entrySet() ) {
+    		
+    		if ( excludeLadder == null || entry.getKey().compareTo( excludeLadder ) != 0 ) {
+    			
+    			Rank rank = entry.getValue().getRank();
+    			
+    			if ( rank != null && rank.getLadder() != null ) {
+    				multiplier += rank.getLadder().getCostTable().getLadderMultiplier( rank.getPosition() );
+    			}
+    		}
+    	}
+    	
+    	return multiplier;
+    }
+    
     /**
      * Remove a rank from this player.
      * This will also remove the ladder from this player.
@@ -1179,132 +1228,68 @@ public class RankPlayer
 		return balance;
 	}
 
+	/**
+	 * <p>The player's balances are cached by the EconomyFacade, and the deposits
+	 * and withdrawals are written to the economy plugins in batches.  The
+	 * functions that end with BypassCache write the transaction to the economy
+	 * plugin now, so they can return if it was accepted.
+	 * </p>
+	 * 
+	 * @return
+	 */
 	public double getBalance() {
-		double results = 0;
-		
-		EconomyIntegration economy = getEconomy();
-		
-		if ( economy != null ) {
-			
-			results = economy.getBalance( this );
-			
-			synchronized ( unsavedBalanceLock )
-			{
-				results += getBalanceUnsaved();
-			}
-			
-			setCachedRankPlayerBalance( null, results );
-		}
-		
-		return results;
+		return getBalance( null );
 	}
 	
-	public double getBalanceUnsaved() {
-		return unsavedBalance;
-	}
-	
-	
 	public long getEconomyCacheUpdateDelayTicks() {
-	
-		if ( this.economyCacheUpdateDelayTicks == -1 ) {
-			
-			this.economyCacheUpdateDelayTicks = 
-					Prison.get().getPlatform().getConfigLong( 
-							"ranks.player-economy-cache-update-delay-ticks", DELAY_THREE_SECONDS );
-		}
-
-		return this.economyCacheUpdateDelayTicks;
+		return EconomyFacade.getInstance().getWriteIntervalTicks();
 	}
 	
 	public void addBalance( double amount ) {
-		
-		synchronized ( unsavedBalanceLock )
-		{
-			unsavedBalance += amount;
-			
-			if ( ubTaskId == 0 ) {
-				
-				ubTaskId = PrisonAPI.getScheduler().runTaskLaterAsync( 
-						() -> {
-							double tempBalance = 0;
-							synchronized ( unsavedBalanceLock )
-							{
-								tempBalance = unsavedBalance;
-
-								addBalanceEconomy( tempBalance );
-								
-								unsavedBalance = 0;
-								ubTaskId = 0;
-							}
-						}, getEconomyCacheUpdateDelayTicks() );
-			}
-		}
-		
-	
-	}
-	
-	private boolean addBalanceEconomy( double amount ) {
-		boolean results = false;
-		
-		EconomyIntegration economy = getEconomy();
-		
-		if ( economy != null ) {
-			results = economy.addBalance( this, amount );
-			addCachedRankPlayerBalance( null, amount );
-		}
-		return results;
+		addBalance( null, amount );
 	}
 	
 	public void removeBalance( double amount ) {
-		
-		double targetAmount = -1 * amount;
-		addBalance( targetAmount );
-		addCachedRankPlayerBalance( null, targetAmount );
-		
-//		EconomyIntegration economy = getEconomy();
-//		
-//		if ( economy != null ) {
-//			economy.removeBalance( this, amount );
-//			addCachedRankPlayerBalance( null, -1 * amount );
-//		}
+		removeBalance( null, amount );
 	}
 	
 	public void setBalance( double amount ) {
-		
-		// First subtract current balance:
-		double targetAmount = -1 * getBalance();
-		
-		// add current amount which will result in the correct "ajustment":
-		targetAmount += amount;
-		
-		addBalance( targetAmount );
-		addCachedRankPlayerBalance( null, targetAmount );
-		
-//		EconomyIntegration economy = getEconomy();
-//		
-//		if ( economy != null ) {
-//			economy.setBalance( this, amount );
-//			setCachedRankPlayerBalance( null, amount );
-//		}
+		setBalance( null, amount );
 	}
 	
 	
 	public double getBalance( String currency ) {
 		double results = 0;
 		
-		if ( currency == null || currency.trim().isEmpty() ) {
-			// No currency specified, so use the default currency:
-			results = getBalance();
+		EconomyFacade economy = EconomyFacade.getInstance();
+		
+		if ( economy.hasEconomy( currency ) ) {
+			
+			results = economy.getBalance( this, currency );
+			setCachedRankPlayerBalance( currency, results );
 		}
-		else {
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Reads the player's balance from the economy plugin, after writing any
+	 * transactions that are waiting.  This is slower than getBalance(), so it
+	 * should only be used before charging the player, such as for a rankup.
+	 * </p>
+	 * 
+	 * @param currency
+	 * @return
+	 */
+	public double getBalanceNow( String currency ) {
+		double results = 0;
+		
+		EconomyFacade economy = EconomyFacade.getInstance();
+		
+		if ( economy.hasEconomy( currency ) ) {
 			
-			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-					.getEconomyForCurrency( currency );
-			if ( currencyEcon != null ) {
-				
-				results = currencyEcon.getBalance( this, currency );
-				setCachedRankPlayerBalance( currency, results );
-			}
+			results = economy.getBalanceNow( this, currency );
+			setCachedRankPlayerBalance( currency, results );
 		}
 		
 		return results;
@@ -1312,143 +1297,53 @@ public class RankPlayer
 	
 	public void addBalance( String currency, double amount ) {
 
-		if ( currency == null || currency.trim().isEmpty() || "default".equalsIgnoreCase( currency ) ) {
-			// No currency specified, so use the default currency:
-			
-//			double pre = getBalance();
-			addBalance( amount );
-//			double post = getBalance();
-//			Output.get().logInfo( "###  RankPlayer.addBalance() amount= %s  pre= %s  post= %s", 
-//					Double.toString( amount ), Double.toString( pre ), Double.toString( post ));
-		}
-		else {
-			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-					.getEconomyForCurrency(currency );
-			
-			if ( currencyEcon != null ) {
-				currencyEcon.addBalance( this, amount, currency );
-				addCachedRankPlayerBalance( currency, amount );
-			}
+		if ( EconomyFacade.getInstance().deposit( this, currency, amount ) ) {
+			addCachedRankPlayerBalance( currency, amount );
 		}
 	}
 	
 	
 	public boolean addBalanceBypassCache( double amount ) {
-		boolean results = false;
-		
-		synchronized ( unsavedBalanceLock ) {
-			
-			results = addBalanceEconomy( amount );
-		}
-		
-		return results;
+		return addBalanceBypassCache( null, amount );
 	}
 	
 	public boolean addBalanceBypassCache( String currency, double amount ) {
-		boolean results = false;
+		boolean results = EconomyFacade.getInstance().depositNow( this, currency, amount );
 		
-		if ( currency == null || currency.trim().isEmpty() || "default".equalsIgnoreCase( currency ) ) {
-			
-			results = addBalanceBypassCache( amount );
-		}
-		else {
-			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-					.getEconomyForCurrency(currency );
-			
-			if ( currencyEcon != null ) {
-				
-				synchronized ( unsavedBalanceLock ) {
-					results = currencyEcon.addBalance( this, amount, currency );
-				}
-				addCachedRankPlayerBalance( currency, amount );
-			}
+		if ( results ) {
+			addCachedRankPlayerBalance( currency, amount );
 		}
 		
 		return results;
 	}
 	
 	public boolean removeBalanceBypassCache( double amount ) {
-		boolean results = false;
-		
-		double targetAmount = -1 * amount;
-		results = addBalanceBypassCache( targetAmount );
-		addCachedRankPlayerBalance( null, targetAmount );
-		
-		return results;
+		return removeBalanceBypassCache( null, amount );
 	}
 
 	public boolean removeBalanceBypassCache( String currency, double amount ) {
-		boolean results = false;
+		boolean results = EconomyFacade.getInstance().withdrawNow( this, currency, amount );
 		
-		if ( currency == null || currency.trim().isEmpty() ) {
-			// No currency specified, so use the default currency:
-			results = removeBalanceBypassCache( amount );
-		}
-		else {
-			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-					.getEconomyForCurrency(currency );
-			
-			if ( currencyEcon != null ) {
-				
-				synchronized ( unsavedBalanceLock ) {
-					results = currencyEcon.removeBalance( this, amount, currency );
-				}
-				addCachedRankPlayerBalance( currency, -1 * amount );
-			}
+		if ( results ) {
+			addCachedRankPlayerBalance( currency, -1 * amount );
 		}
+		
 		return results;
 	}
 	
 	public void removeBalance( String currency, double amount ) {
 		
-		if ( currency == null || currency.trim().isEmpty() ) {
-			// No currency specified, so use the default currency:
-			removeBalance( amount );
-		}
-		else {
-			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-					.getEconomyForCurrency(currency );
-			
-			if ( currencyEcon != null ) {
-				
-				synchronized ( unsavedBalanceLock ) {
-					currencyEcon.removeBalance( this, amount, currency );
-				}
-				addCachedRankPlayerBalance( currency, -1 * amount );
-			}
+		if ( EconomyFacade.getInstance().withdraw( this, currency, amount ) ) {
+			addCachedRankPlayerBalance( currency, -1 * amount );
 		}
 	}
 	
 	public void setBalance( String currency, double amount ) {
 		
-		if ( currency == null || currency.trim().isEmpty() ) {
-			// No currency specified, so use the default currency:
-			setBalance( amount );
-		}
-		else {
-			
-			EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
-					.getEconomyForCurrency(currency );
-			
-			if ( currencyEcon != null ) {
-				currencyEcon.setBalance( this, amount, currency );
-				setCachedRankPlayerBalance( currency, amount );
-			}
+		if ( EconomyFacade.getInstance().setBalance( this, currency, amount ) ) {
+			setCachedRankPlayerBalance( currency, amount );
 		}
 	}
-	
-	/**
-	 * addBalance: original t3: 2.19 1.34 1.37 1.37 1.24 0.81 1.49 2.05 1.17 0.98 1.0 0.62
-	 * addBalance: opt Econ-localVar t3: 3.46 1.21 0.88 0.84 1.48 1.3 0.6 1.09 1.62 0.72 0.64 0.67 1.02 0.63 0.97 1.8
-	 * addBalance: cached t3: 0.0322 0.0011 0.0016 0.0012 0.0111 0.0012 0.0012 0.0018 0.0011 0.0102 0.0010 0.0013 0.0015 0.0011 
-	 * @return
-	 */
-	private EconomyIntegration getEconomy() {
-		if ( economy == null ) {
-			economy = PrisonAPI.getIntegrationManager().getEconomy();
-		}
-		return economy;
-	}
 
 	@Override
 	public List<String> getPermissionsIntegrations( boolean detailed ) {
@@ -1511,6 +1406,23 @@ public class RankPlayer
 	 * @return
 	 */
 	public PlayerRank getNextPlayerRank() {
+		
+		PlayerRank pRankNext = calculateTargetPlayerRank( getNextRank() );
+//		PlayerRank pRankNext = rankCurrent.getTargetPlayerRankForPlayer( this, nRank );
+
+		return pRankNext;
+	}
+	
+	/**
+	 * <p>Returns the player's next rank on the default ladder, or if they are at 
+	 * the top rank, then their next prestige rank.  This does not calculate the 
+	 * player's cost for the rank, so use getTargetRankCost() or 
+	 * getNextPlayerRank() for that.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public Rank getNextRank() {
 		PlayerRank rankCurrent = getPlayerRankDefault();
 		
 		// If player does not have a default rank, then assign them one:
@@ -1560,10 +1472,7 @@ public class RankPlayer
 			
 		}
 		
-		PlayerRank pRankNext = calculateTargetPlayerRank( nRank );
-//		PlayerRank pRankNext = rankCurrent.getTargetPlayerRankForPlayer( this, nRank );
-
-		return pRankNext;
+		return nRank;
 	}
 	
 	/**
@@ -1574,11 +1483,14 @@ public class RankPlayer
 	 */
 	public void calculateRankScore() {
 
-		PlayerRank pRankNext = getNextPlayerRank();
+		// The cost is read from the ladder's cost table, without creating a PlayerRank:
+		Rank rankNext = getNextRank();
 		
-		String rankNextCurrency = pRankNext == null ? "" : pRankNext.getCurrency();
+		String rankNextCurrency = rankNext == null || rankNext.getLadder() == null ? "" : 
+								rankNext.getCurrency();
 		
-		double cost = pRankNext == null ? 0d : pRankNext.getRankCost();
+		double cost = rankNext == null || rankNext.getLadder() == null ? 0d : 
+								getTargetRankCost( rankNext );
 		
 		double balance = getBalance( rankNextCurrency );
 		
@@ -43,12 +43,12 @@ public class StatsRankPlayerBalanceData
 			
 			if ( rank.getRankNext() != null ) {
 				
-				// This calculates the target rank, and takes in to consideration the player's existing rank:
-				PlayerRank pRankNext = player.calculateTargetPlayerRank( rank.getRankNext() );
+				// The next rank's cost is read from the ladder's cost table, and takes in to 
+				// consideration the player's existing ranks:
 //				PlayerRank pRankNext = pRank.getTargetPlayerRankForPlayer( player, rank.getRankNext() );
 				
 				//PlayerRank pRankNext = new PlayerRank( rank.getRankNext(), pRank.getRankMultiplier() );
-				cost = pRankNext.getRankCost();
+				cost = player.getTargetRankCost( rank.getRankNext() );
 			}
 //		double cost = rank.getRankNext() == null ? rank.getCost() : rank.getRankNext().getCost();
 			double penalty = 0d;
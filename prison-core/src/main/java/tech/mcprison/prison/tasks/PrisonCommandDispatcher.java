@@ -0,0 +1,550 @@
+package tech.mcprison.prison.tasks;
+
+import java.text.DecimalFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.output.ChatDisplay;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.util.PrisonTickStats;
+import tech.mcprison.prison.util.PrisonTickStats.TickSubsystem;
+
+/**
+ * <p>This is the one dispatcher for all of the commands that are submitted through
+ * PrisonCommandTasks, such as block event commands, rankup commands, and mine
+ * reset commands.  Instead of each submission starting its own chain of tasks
+ * that runs one command per tick, all of the pending commands are held here and
+ * a single sync task runs as many of them as will fit within the per-tick time
+ * budget.  At least one command is always ran per tick so the queue can never
+ * stall.  When the queue is empty, the sync task is cancelled, and it is started
+ * again upon the next submission.
+ * </p>
+ *
+ * <p>The commands for each player are held in their own lane, and the commands
+ * within a lane are always ran in the order they were submitted.  The lanes are
+ * ordered by the priority of the command at the head of the lane, and then by
+ * the order in which that command was submitted.  So a player's rankup commands
+ * can get ahead of another player's block event commands, but they can never
+ * get ahead of the same player's earlier commands.  All console commands share
+ * one lane.
+ * </p>
+ *
+ * <p>If a collapse window is set, then a command that is identical to a command
+ * that was submitted for the same player within that window, including all of
+ * its custom placeholder values, is dropped.  This is disabled by default.
+ * </p>
+ *
+ * <p>Settings within config.yml:
+ * </p>
+ * <ul>
+ *   <li><code>prisonCommandDispatcher.enabled</code> - Default true. If false, then
+ *   	PrisonCommandTasks will use its own task chains.</li>
+ *   <li><code>prisonCommandDispatcher.tick-budget-ms</code> - Default 5 ms.</li>
+ *   <li><code>prisonCommandDispatcher.collapse-window-ms</code> - Default 0, disabled.</li>
+ * </ul>
+ *
+ */
+public class PrisonCommandDispatcher
+	implements PrisonRunnable
+{
+	public static final long DEFAULT_TICK_BUDGET_MS = 5;
+
+	public static final int LATENCY_SAMPLE_SIZE = 2048;
+
+	private static final String CONSOLE_LANE = "*console*";
+
+	private static volatile PrisonCommandDispatcher instance;
+
+	public enum CommandPriority {
+		high,
+		normal,
+		low;
+	}
+
+	private final long tickBudgetNanos;
+	private final long collapseWindowNanos;
+
+	private final Map<String, CommandLane> lanes;
+	private final PriorityQueue<CommandLane> readyLanes;
+
+	/**
+	 * <p>The last time each collapse key was submitted. Only used if the
+	 * collapse window is enabled.
+	 * </p>
+	 */
+	private final Map<String, Long> recentCommands;
+
+	private long sequence = 0;
+	private int queueDepth = 0;
+	private int taskId = -1;
+
+	// Stats:
+	private int maxQueueDepth = 0;
+	private long commandsSubmitted = 0;
+	private long commandsRan = 0;
+	private long commandsCollapsed = 0;
+	private long ticks = 0;
+	private long ticksBacklogged = 0;
+
+	private final long[] latencySamples;
+	private int latencySampleCount = 0;
+	private int latencySamplePosition = 0;
+
+
+	private PrisonCommandDispatcher() {
+		this( getConfigMs( "prisonCommandDispatcher.tick-budget-ms", DEFAULT_TICK_BUDGET_MS ),
+				getConfigMs( "prisonCommandDispatcher.collapse-window-ms", 0 ) );
+	}
+
+	protected PrisonCommandDispatcher( long tickBudgetMs, long collapseWindowMs ) {
+		super();
+
+		this.tickBudgetNanos = Math.max( 0, tickBudgetMs ) * 1_000_000L;
+		this.collapseWindowNanos = Math.max( 0, collapseWindowMs ) * 1_000_000L;
+
+		this.lanes = new HashMap<>();
+		this.readyLanes = new PriorityQueue<>();
+		this.recentCommands = new HashMap<>();
+
+		this.latencySamples = new long[LATENCY_SAMPLE_SIZE];
+	}
+
+	public static PrisonCommandDispatcher getInstance() {
+		if ( instance == null ) {
+			synchronized ( PrisonCommandDispatcher.class ) {
+				if ( instance == null ) {
+					instance = new PrisonCommandDispatcher();
+				}
+			}
+		}
+		return instance;
+	}
+
+	public static boolean isEnabled() {
+		return Prison.get().getPlatform() == null ||
+				Prison.get().getPlatform().getConfigBooleanTrue( "prisonCommandDispatcher.enabled" );
+	}
+
+	private static long getConfigMs( String key, long defaultValue ) {
+		return Prison.get().getPlatform() == null ? defaultValue :
+				Prison.get().getPlatform().getConfigLong( key, defaultValue );
+	}
+
+	/**
+	 * <p>Queues the commands to run in the given order. If the player is null, then
+	 * they are queued in the console lane.  This may be called from any thread.
+	 * </p>
+	 *
+	 * @param player
+	 * @param cmdTasks
+	 * @param priority
+	 */
+	public void submit( Player player, List<PrisonCommandTaskData> cmdTasks,
+						CommandPriority priority ) {
+
+		if ( cmdTasks == null || cmdTasks.size() == 0 ) {
+			return;
+		}
+
+		boolean startTask = false;
+
+		synchronized ( this ) {
+			if ( enqueue( player, cmdTasks, priority, System.nanoTime() ) && taskId == -1 ) {
+				taskId = 0;
+				startTask = true;
+			}
+		}
+
+		if ( startTask ) {
+			int id = PrisonTaskSubmitter.runTaskTimer( this, 1, 1 );
+
+			synchronized ( this ) {
+				taskId = id;
+			}
+		}
+	}
+
+	/**
+	 * <p>Adds the commands to the player's lane.  Must be called while
+	 * synchronized on this dispatcher.
+	 * </p>
+	 *
+	 * @return True if any commands were queued.
+	 */
+	protected boolean enqueue( Player player, List<PrisonCommandTaskData> cmdTasks,
+						CommandPriority priority, long nanos ) {
+
+		String laneKey = player == null ? CONSOLE_LANE : player.getUUID().toString();
+
+		CommandBatch batch = new CommandBatch( player, priority, nanos );
+
+		for ( PrisonCommandTaskData cmdTask : cmdTasks ) {
+			commandsSubmitted++;
+
+			if ( collapseWindowNanos > 0 ) {
+				String collapseKey = getCollapseKey( laneKey, cmdTask );
+				Long lastNanos = recentCommands.get( collapseKey );
+
+				if ( lastNanos != null && nanos - lastNanos.longValue() < collapseWindowNanos ) {
+					commandsCollapsed++;
+					continue;
+				}
+				recentCommands.put( collapseKey, Long.valueOf( nanos ) );
+			}
+
+			batch.getCmdTasks().add( cmdTask );
+		}
+
+		boolean queued = batch.getCmdTasks().size() > 0;
+
+		if ( queued ) {
+			batch.setSequence( sequence++ );
+
+			CommandLane lane = lanes.get( laneKey );
+			if ( lane == null ) {
+				lane = new CommandLane( laneKey );
+				lanes.put( laneKey, lane );
+			}
+
+			boolean wasIdle = lane.getBatches().isEmpty();
+			lane.getBatches().add( batch );
+
+			if ( wasIdle ) {
+				readyLanes.add( lane );
+			}
+
+			queueDepth += batch.getCmdTasks().size();
+			maxQueueDepth = Math.max( maxQueueDepth, queueDepth );
+		}
+
+		return queued;
+	}
+
+	private String getCollapseKey( String laneKey, PrisonCommandTaskData cmdTask ) {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append( laneKey ).append( '|' ).append( cmdTask.getCmd() );
+
+		if ( cmdTask.getCustomPlaceholders() != null ) {
+			for ( PrisonCommandTaskPlaceholderData cph : cmdTask.getCustomPlaceholders() ) {
+				sb.append( '|' ).append( cph.getPlaceholder().name() )
+					.append( '=' ).append( cph.getValue() );
+			}
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * <p>Removes the next command to run, or returns null if the queue is empty.
+	 * </p>
+	 *
+	 * @param nanos The current time, used for the queue latency.
+	 * @return
+	 */
+	protected synchronized PendingCommand pollNext( long nanos ) {
+		PendingCommand results = null;
+
+		CommandLane lane = readyLanes.poll();
+
+		if ( lane != null ) {
+			CommandBatch batch = lane.getBatches().peek();
+
+			PrisonCommandTaskData cmdTask = batch.getCmdTasks().get( batch.getPosition() );
+			batch.setPosition( batch.getPosition() + 1 );
+
+			boolean batchDone = batch.getPosition() >= batch.getCmdTasks().size();
+			if ( batchDone ) {
+				lane.getBatches().poll();
+			}
+
+			if ( lane.getBatches().isEmpty() ) {
+				lanes.remove( lane.getLaneKey() );
+			}
+			else {
+				readyLanes.add( lane );
+			}
+
+			queueDepth--;
+			commandsRan++;
+			recordLatency( nanos - batch.getSubmitNanos() );
+
+			results = new PendingCommand( batch, cmdTask, batchDone );
+		}
+
+		return results;
+	}
+
+	@Override
+	public void run() {
+
+		long start = System.nanoTime();
+		long budgetEnd = start + tickBudgetNanos;
+
+		int count = 0;
+		PendingCommand pending;
+
+		// Always run at least one command, then as many as will fit in the budget:
+		while ( (count == 0 || System.nanoTime() < budgetEnd) &&
+				(pending = pollNext( System.nanoTime() )) != null ) {
+
+			count++;
+
+			pending.getCmdTask().runCommandTask( pending.getBatch().getPlayer() );
+
+			if ( pending.isBatchDone() ) {
+				logDebugDetails( pending.getBatch() );
+			}
+		}
+
+		PrisonTickStats.record( TickSubsystem.commandTasks, start );
+
+		synchronized ( this ) {
+			ticks++;
+
+			if ( queueDepth > 0 ) {
+				ticksBacklogged++;
+			}
+			else if ( taskId > 0 ) {
+				PrisonTaskSubmitter.cancelTask( taskId );
+				taskId = -1;
+			}
+
+			if ( collapseWindowNanos > 0 && ticks % 20 == 0 ) {
+				purgeRecentCommands( System.nanoTime() );
+			}
+		}
+	}
+
+	private void purgeRecentCommands( long nanos ) {
+		Iterator<Long> itr = recentCommands.values().iterator();
+		while ( itr.hasNext() ) {
+			if ( nanos - itr.next().longValue() >= collapseWindowNanos ) {
+				itr.remove();
+			}
+		}
+	}
+
+	private void logDebugDetails( CommandBatch batch ) {
+
+		if ( Output.get().isDebug() ) {
+
+			String playerName = batch.getPlayer() != null ? batch.getPlayer().getName() : null;
+
+			String message = String.format( "Prison Command Debug Details: %d",
+								batch.getCmdTasks().size() );
+			Output.get().logDebug( message, playerName );
+
+			for ( PrisonCommandTaskData cmdTask : batch.getCmdTasks() ) {
+
+				Output.get().logDebug( cmdTask.getDebugDetails(), playerName );
+			}
+		}
+	}
+
+	private void recordLatency( long latencyNanos ) {
+		latencySamples[latencySamplePosition] = latencyNanos;
+		latencySamplePosition = (latencySamplePosition + 1) % latencySamples.length;
+
+		if ( latencySampleCount < latencySamples.length ) {
+			latencySampleCount++;
+		}
+	}
+
+	/**
+	 * <p>Returns the latency percentiles, in nanos, from the most recent
+	 * samples.  The percentiles are values from 0 to 100.  If there are no
+	 * samples, then all values are zero.
+	 * </p>
+	 *
+	 * @param percentiles
+	 * @return
+	 */
+	public synchronized long[] getLatencyPercentiles( double... percentiles ) {
+		long[] results = new long[percentiles.length];
+
+		if ( latencySampleCount > 0 ) {
+			long[] samples = Arrays.copyOf( latencySamples, latencySampleCount );
+			Arrays.sort( samples );
+
+			for ( int i = 0; i < percentiles.length; i++ ) {
+				int idx = (int) Math.ceil( percentiles[i] / 100d * samples.length ) - 1;
+				results[i] = samples[ Math.max( 0, Math.min( samples.length - 1, idx ) ) ];
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Adds the dispatcher's queue depth and latency stats to the display.
+	 * </p>
+	 *
+	 * @param display
+	 */
+	public static void displayStats( ChatDisplay display ) {
+
+		PrisonCommandDispatcher dispatcher = instance;
+
+		if ( dispatcher != null ) {
+			DecimalFormat iFmt = Prison.get().getDecimalFormatInt();
+			DecimalFormat dFmt = Prison.get().getDecimalFormatDouble();
+
+			long[] latency = dispatcher.getLatencyPercentiles( 50, 90, 99, 100 );
+
+			synchronized ( dispatcher ) {
+				display.addText( "&7Prison Command Dispatcher: queued: %s  max queued: %s  " +
+						"lanes: %s  budget: %s ms",
+						iFmt.format( dispatcher.queueDepth ),
+						iFmt.format( dispatcher.maxQueueDepth ),
+						iFmt.format( dispatcher.lanes.size() ),
+						dFmt.format( dispatcher.tickBudgetNanos / 1_000_000d ) );
+
+				display.addText( "&7  submitted: %s  ran: %s  collapsed: %s  " +
+						"ticks: %s  backlogged: %s",
+						iFmt.format( dispatcher.commandsSubmitted ),
+						iFmt.format( dispatcher.commandsRan ),
+						iFmt.format( dispatcher.commandsCollapsed ),
+						iFmt.format( dispatcher.ticks ),
+						iFmt.format( dispatcher.ticksBacklogged ) );
+			}
+
+			display.addText( "&7  queue latency ms:  p50: %s  p90: %s  p99: %s  max: %s",
+					dFmt.format( latency[0] / 1_000_000d ),
+					dFmt.format( latency[1] / 1_000_000d ),
+					dFmt.format( latency[2] / 1_000_000d ),
+					dFmt.format( latency[3] / 1_000_000d ) );
+		}
+	}
+
+	public synchronized int getQueueDepth() {
+		return queueDepth;
+	}
+
+	public synchronized long getCommandsCollapsed() {
+		return commandsCollapsed;
+	}
+
+
+	/**
+	 * <p>The commands from one submission.
+	 * </p>
+	 */
+	protected static class CommandBatch {
+		private final Player player;
+		private final CommandPriority priority;
+		private final long submitNanos;
+		private final List<PrisonCommandTaskData> cmdTasks;
+
+		private long sequence;
+		private int position = 0;
+
+		public CommandBatch( Player player, CommandPriority priority, long submitNanos ) {
+			super();
+
+			this.player = player;
+			this.priority = priority == null ? CommandPriority.normal : priority;
+			this.submitNanos = submitNanos;
+			this.cmdTasks = new ArrayList<>();
+		}
+
+		public Player getPlayer() {
+			return player;
+		}
+		public CommandPriority getPriority() {
+			return priority;
+		}
+		public long getSubmitNanos() {
+			return submitNanos;
+		}
+		public List<PrisonCommandTaskData> getCmdTasks() {
+			return cmdTasks;
+		}
+
+		public long getSequence() {
+			return sequence;
+		}
+		public void setSequence( long sequence ) {
+			this.sequence = sequence;
+		}
+
+		public int getPosition() {
+			return position;
+		}
+		public void setPosition( int position ) {
+			this.position = position;
+		}
+	}
+
+	/**
+	 * <p>The pending batches for one player, which are ordered by the priority
+	 * and sequence of their first batch.
+	 * </p>
+	 */
+	protected static class CommandLane
+		implements Comparable<CommandLane> {
+
+		private final String laneKey;
+		private final ArrayDeque<CommandBatch> batches;
+
+		public CommandLane( String laneKey ) {
+			super();
+
+			this.laneKey = laneKey;
+			this.batches = new ArrayDeque<>();
+		}
+
+		@Override
+		public int compareTo( CommandLane other ) {
+			CommandBatch b1 = batches.peek();
+			CommandBatch b2 = other.batches.peek();
+
+			int results = b1.getPriority().compareTo( b2.getPriority() );
+
+			if ( results == 0 ) {
+				results = Long.compare( b1.getSequence(), b2.getSequence() );
+			}
+
+			return results;
+		}
+
+		public String getLaneKey() {
+			return laneKey;
+		}
+		public ArrayDeque<CommandBatch> getBatches() {
+			return batches;
+		}
+	}
+
+	protected static class PendingCommand {
+		private final CommandBatch batch;
+		private final PrisonCommandTaskData cmdTask;
+		private final boolean batchDone;
+
+		public PendingCommand( CommandBatch batch, PrisonCommandTaskData cmdTask, boolean batchDone ) {
+			super();
+
+			this.batch = batch;
+			this.cmdTask = cmdTask;
+			this.batchDone = batchDone;
+		}
+
+		public CommandBatch getBatch() {
+			return batch;
+		}
+		public PrisonCommandTaskData getCmdTask() {
+			return cmdTask;
+		}
+		public boolean isBatchDone() {
+			return batchDone;
+		}
+	}
+}
@@ -5,6 +5,9 @@ import java.util.List;
 
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonCommandDispatcher.CommandPriority;
+import tech.mcprison.prison.util.PrisonTickStats;
+import tech.mcprison.prison.util.PrisonTickStats.TickSubsystem;
 
 public class PrisonCommandTasks
 	implements PrisonRunnable
@@ -39,8 +42,28 @@ public class PrisonCommandTasks
 	}
 	
 	public static void submitTasks( Player player, List<PrisonCommandTaskData> cmdTasks ) {
+		submitTasks( player, cmdTasks, CommandPriority.normal );
+	}
+	
+	/**
+	 * <p>Submits the commands to the PrisonCommandDispatcher, which runs them
+	 * in order, within its per-tick time budget.  If the dispatcher has been 
+	 * disabled within the config.yml, then the commands are ran within their 
+	 * own task chain, with one command per tick.
+	 * </p>
+	 * 
+	 * @param player
+	 * @param cmdTasks
+	 * @param priority
+	 */
+	public static void submitTasks( Player player, List<PrisonCommandTaskData> cmdTasks,
+						CommandPriority priority ) {
 		
-		if ( cmdTasks.size() > 0 ) {
+		if ( cmdTasks.size() > 0 && PrisonCommandDispatcher.isEnabled() ) {
+			
+			PrisonCommandDispatcher.getInstance().submit( player, cmdTasks, priority );
+		}
+		else if ( cmdTasks.size() > 0 ) {
 			
 			PrisonCommandTasks rcTask = new PrisonCommandTasks();
 			rcTask.setPlayer( player );
@@ -62,8 +85,12 @@ public class PrisonCommandTasks
 			
 			PrisonCommandTaskData task = cmdTasks.get( cmTasksPosition++ );
 			
+			long start = System.nanoTime();
+			
 			task.runCommandTask( getPlayer() );
 			
+			PrisonTickStats.record( TickSubsystem.commandTasks, start );
+			
 			resubmitTask();
 		}
 		else if ( Output.get().isDebug() && cmTasksPosition > 0 ) {
@@ -0,0 +1,382 @@
+package tech.mcprison.prison.tasks;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.output.ChatDisplay;
+import tech.mcprison.prison.output.Output;
+
+/**
+ * <p>This runs prison's startup as a graph of stages, where each stage lists
+ * the stages that must finish before it can start.  The stages that only load
+ * files or build tables are ran on a small pool of worker threads, and the
+ * stages that touch the worlds, the commands, or the other plugins are ran on
+ * the server's thread.  While the workers are busy, the server's thread runs
+ * any of its stages that are ready, so the two overlap.
+ * </p>
+ *
+ * <p>The run() function must be called from the server's thread, and it does
+ * not return until all of the stages have finished.  If a stage fails, then
+ * all of the stages that depend upon it are skipped.  The time for each stage
+ * is logged when finished, and the last startup is shown in
+ * <code>/prison version</code>.
+ * </p>
+ *
+ * <p>The number of worker threads is set with
+ * <code>prison-startup.worker-threads</code>, which defaults to the number of
+ * cores, up to a max of 4.  If it is set to 0, then all of the stages are ran
+ * on the server's thread in the order that they were added.
+ * </p>
+ *
+ */
+public class PrisonStartupTasks {
+
+	private static List<StartupStage> lastStartupStages = new ArrayList<>();
+	private static long lastStartupNanos = 0;
+
+	private final String name;
+	private final Map<String, StartupStage> stages;
+
+	private long startNanos = 0;
+
+	public enum StageStatus {
+		waiting,
+		running,
+		finished,
+		failed,
+		skipped;
+	}
+
+	public static class StartupStage {
+		private final String name;
+		private final boolean mainThread;
+		private final Runnable task;
+		private final List<String> dependsOn;
+
+		// These are set by the worker threads:
+		private volatile StageStatus status = StageStatus.waiting;
+		private volatile String threadName;
+		private volatile long startOffsetNanos = 0;
+		private volatile long nanos = 0;
+
+		public StartupStage( String name, boolean mainThread, Runnable task, String... dependsOn ) {
+			super();
+
+			this.name = name;
+			this.mainThread = mainThread;
+			this.task = task;
+			this.dependsOn = Arrays.asList( dependsOn );
+		}
+
+		public String getName() {
+			return name;
+		}
+		public boolean isMainThread() {
+			return mainThread;
+		}
+		public List<String> getDependsOn() {
+			return dependsOn;
+		}
+		public StageStatus getStatus() {
+			return status;
+		}
+		public String getThreadName() {
+			return threadName;
+		}
+		public double getStartOffsetMillis() {
+			return startOffsetNanos / 1_000_000.0d;
+		}
+		public double getMillis() {
+			return nanos / 1_000_000.0d;
+		}
+	}
+
+	public PrisonStartupTasks( String name ) {
+		super();
+
+		this.name = name;
+		this.stages = new LinkedHashMap<>();
+	}
+
+	/**
+	 * <p>Adds a stage that will be ran on a worker thread.  It must not use the
+	 * worlds, the players, or register anything with the server.
+	 * </p>
+	 *
+	 * @param stageName
+	 * @param task
+	 * @param dependsOn The names of the stages that must finish first.
+	 * @return
+	 */
+	public PrisonStartupTasks addAsync( String stageName, Runnable task, String... dependsOn ) {
+		stages.put( stageName, new StartupStage( stageName, false, task, dependsOn ) );
+		return this;
+	}
+
+	/**
+	 * <p>Adds a stage that will be ran on the server's thread.
+	 * </p>
+	 *
+	 * @param stageName
+	 * @param task
+	 * @param dependsOn The names of the stages that must finish first.
+	 * @return
+	 */
+	public PrisonStartupTasks addSync( String stageName, Runnable task, String... dependsOn ) {
+		stages.put( stageName, new StartupStage( stageName, true, task, dependsOn ) );
+		return this;
+	}
+
+	/**
+	 * <p>Runs all of the stages, and returns when they have all finished, failed,
+	 * or have been skipped.  This must be called from the server's thread.
+	 * </p>
+	 */
+	public void run() {
+
+		startNanos = System.nanoTime();
+
+		for ( StartupStage stage : stages.values() ) {
+			for ( String dep : stage.getDependsOn() ) {
+				if ( !stages.containsKey( dep ) ) {
+					Output.get().logError( String.format( "Startup %s: stage %s depends upon " +
+							"an unknown stage %s. It will be skipped.", name, stage.getName(), dep ) );
+					stage.status = StageStatus.skipped;
+				}
+			}
+		}
+
+		int threads = getWorkerThreads();
+		ExecutorService workers = threads <= 0 ? null :
+				Executors.newFixedThreadPool( threads, new StartupThreadFactory() );
+
+		// The workers put their stages on this queue when they are done:
+		BlockingQueue<StartupStage> completed = new LinkedBlockingQueue<>();
+		int running = 0;
+
+		try {
+			boolean progress = true;
+
+			while ( progress ) {
+				progress = false;
+
+				skipStagesWithFailedDependencies();
+
+				for ( StartupStage stage : stages.values() ) {
+
+					if ( stage.status == StageStatus.waiting && isReady( stage ) ) {
+						progress = true;
+
+						if ( stage.isMainThread() || workers == null ) {
+							runStage( stage );
+						}
+						else {
+							stage.status = StageStatus.running;
+							running++;
+
+							workers.execute( () -> {
+								runStage( stage );
+								completed.add( stage );
+							});
+						}
+
+						// Check for newly ready stages after each main thread stage, so
+						// the workers are given their stages as soon as possible:
+						break;
+					}
+				}
+
+				if ( !progress && running > 0 ) {
+
+					// Nothing is ready on this thread, so wait for a worker:
+					completed.take();
+					running--;
+					progress = true;
+				}
+
+				while ( completed.poll() != null ) {
+					running--;
+				}
+			}
+		}
+		catch ( InterruptedException e ) {
+			Output.get().logError( "Startup " + name + ": interrupted while waiting for the " +
+					"startup stages.", e );
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			if ( workers != null ) {
+				workers.shutdown();
+			}
+		}
+
+		// Any stage that is still waiting is part of a cycle:
+		for ( StartupStage stage : stages.values() ) {
+			if ( stage.status == StageStatus.waiting ) {
+				Output.get().logError( String.format( "Startup %s: stage %s was never ran since " +
+						"its dependencies could not be satisfied.", name, stage.getName() ) );
+				stage.status = StageStatus.skipped;
+			}
+		}
+
+		long totalNanos = System.nanoTime() - startNanos;
+
+		logStages( totalNanos, threads );
+
+		synchronized ( PrisonStartupTasks.class ) {
+			lastStartupStages = new ArrayList<>( stages.values() );
+			lastStartupNanos = totalNanos;
+		}
+	}
+
+	private void runStage( StartupStage stage ) {
+		stage.status = StageStatus.running;
+		stage.threadName = stage.isMainThread() ? "main" : Thread.currentThread().getName();
+
+		long start = System.nanoTime();
+		stage.startOffsetNanos = start - startNanos;
+
+		try {
+			stage.task.run();
+			stage.status = StageStatus.finished;
+		}
+		catch ( Exception e ) {
+			stage.status = StageStatus.failed;
+
+			Output.get().logError( String.format( "Startup %s: stage %s failed: %s",
+					name, stage.getName(), e.getMessage() ), e );
+		}
+		finally {
+			stage.nanos = System.nanoTime() - start;
+		}
+	}
+
+	private boolean isReady( StartupStage stage ) {
+		boolean results = true;
+
+		for ( String dep : stage.getDependsOn() ) {
+			if ( stages.get( dep ).status != StageStatus.finished ) {
+				results = false;
+				break;
+			}
+		}
+
+		return results;
+	}
+
+	private void skipStagesWithFailedDependencies() {
+		boolean changed = true;
+
+		while ( changed ) {
+			changed = false;
+
+			for ( StartupStage stage : stages.values() ) {
+
+				if ( stage.status == StageStatus.waiting ) {
+
+					for ( String dep : stage.getDependsOn() ) {
+						StageStatus depStatus = stages.get( dep ).status;
+
+						if ( depStatus == StageStatus.failed || depStatus == StageStatus.skipped ) {
+							Output.get().logWarn( String.format( "Startup %s: skipping stage %s " +
+									"since stage %s %s.", name, stage.getName(), dep, depStatus ) );
+
+							stage.status = StageStatus.skipped;
+							changed = true;
+							break;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void logStages( long totalNanos, int threads ) {
+		DecimalFormat dFmt = Prison.get().getDecimalFormatDouble();
+
+		double stagesMs = 0;
+
+		for ( StartupStage stage : stages.values() ) {
+			stagesMs += stage.getMillis();
+
+			Output.get().logInfo( "Startup %s: %-22s %-8s %-10s start: %10s ms  elapsed: %10s ms",
+					name, stage.getName(), stage.getStatus().name(),
+					( stage.getThreadName() == null ? "" : stage.getThreadName() ),
+					dFmt.format( stage.getStartOffsetMillis() ),
+					dFmt.format( stage.getMillis() ) );
+		}
+
+		Output.get().logInfo( "Startup %s: %d stages finished in %s ms with %d workers. " +
+				"The stages took %s ms in total.",
+				name, stages.size(), dFmt.format( totalNanos / 1_000_000.0d ), threads,
+				dFmt.format( stagesMs ) );
+	}
+
+	private int getWorkerThreads() {
+		int threads = Math.min( 4, Runtime.getRuntime().availableProcessors() );
+
+		if ( Prison.get().getPlatform() != null ) {
+			threads = Prison.get().getPlatform().getConfigInt(
+					"prison-startup.worker-threads", threads );
+		}
+
+		return threads;
+	}
+
+	/**
+	 * <p>Adds one line per stage from the last startup to the display.  If prison
+	 * has not used the startup stages, then nothing is added.
+	 * </p>
+	 *
+	 * @param display
+	 */
+	public static void displayStartupStats( ChatDisplay display ) {
+		List<StartupStage> stages;
+		long nanos;
+
+		synchronized ( PrisonStartupTasks.class ) {
+			stages = lastStartupStages;
+			nanos = lastStartupNanos;
+		}
+
+		if ( stages.size() > 0 ) {
+			DecimalFormat dFmt = Prison.get().getDecimalFormatDouble();
+
+			display.addText( "&7Startup Stages: &3%s ms", dFmt.format( nanos / 1_000_000.0d ) );
+
+			for ( StartupStage stage : stages ) {
+
+				display.addText( "&7  %s  %s  %s  start: %s ms  elapsed: %s ms",
+						stage.getName(),
+						stage.getStatus().name(),
+						( stage.isMainThread() ? "main" : "async" ),
+						dFmt.format( stage.getStartOffsetMillis() ),
+						dFmt.format( stage.getMillis() ) );
+			}
+		}
+	}
+
+	private static class StartupThreadFactory
+		implements ThreadFactory
+	{
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread( Runnable r ) {
+			Thread thread = new Thread( r, "Prison-Startup-" + count.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package tech.mcprison.prison.util;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import tech.mcprison.prison.tasks.PrisonRunnable;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>This tracks per-player cooldowns, such as the mine bomb cooldowns, and the
+ * sellall delay.  Each cooldown is stored as the time that it expires, so there
+ * is nothing to count down, and no task needs to be submitted for each player.
+ * When a cooldown is checked, it is compared to the current time, and if it has
+ * expired, then it is removed.
+ * </p>
+ *
+ * <p>All of the trackers are registered, and one async sweeper task removes the
+ * expired cooldowns that are never checked again, such as when the player logs
+ * off.  The sweeper is started once when prison starts up.
+ * </p>
+ *
+ * <p>The times are based upon <code>System.nanoTime()</code> so they are not
+ * changed by the system clock.  Ticks are converted at 50 ms each, so when the
+ * server is lagging, a cooldown given in ticks may expire a little sooner than
+ * the same number of server ticks.
+ * </p>
+ *
+ */
+public class PrisonCooldownTracker
+{
+	public static final long NANOS_PER_TICK = 50L * 1000000L;
+
+	public static final long SWEEPER_INTERVAL_TICKS = 20 * 60;
+
+	private static final List<PrisonCooldownTracker> trackers = new CopyOnWriteArrayList<>();
+
+	private static int sweeperTaskId = -1;
+
+	private final String name;
+
+	private final ConcurrentHashMap<String, Long> expirations;
+
+	public PrisonCooldownTracker( String name ) {
+		super();
+
+		this.name = name;
+		this.expirations = new ConcurrentHashMap<>();
+
+		trackers.add( this );
+	}
+
+	/**
+	 * <p>Starts the async task that removes the expired cooldowns from all of
+	 * the trackers.  This should be called once when prison is starting up.
+	 * </p>
+	 */
+	public static synchronized void startSweeperTask() {
+
+		if ( sweeperTaskId == -1 ) {
+			PrisonRunnable sweeper = () -> sweepAll();
+
+			sweeperTaskId = PrisonTaskSubmitter.runTaskTimerAsync( sweeper,
+							SWEEPER_INTERVAL_TICKS, SWEEPER_INTERVAL_TICKS );
+		}
+	}
+
+	/**
+	 * <p>Removes the expired cooldowns from all of the trackers.
+	 * </p>
+	 *
+	 * @return The number of cooldowns that were removed.
+	 */
+	public static int sweepAll() {
+		int removed = 0;
+
+		for ( PrisonCooldownTracker tracker : trackers ) {
+			removed += tracker.sweep();
+		}
+
+		return removed;
+	}
+
+	/**
+	 * <p>If the key does not have a cooldown, or if it has expired, then this
+	 * starts a new cooldown and returns true.  If the cooldown is still active,
+	 * then it is not changed, and this returns false.  This is atomic, so if
+	 * two threads try to start the same cooldown, only one will succeed.
+	 * </p>
+	 *
+	 * @param key
+	 * @param durationNanos
+	 * @return
+	 */
+	public boolean tryStart( String key, long durationNanos ) {
+		boolean[] results = { false };
+
+		if ( durationNanos <= 0 ) {
+			return true;
+		}
+
+		long now = System.nanoTime();
+
+		expirations.compute( key, (k, expires) -> {
+			if ( expires == null || expires - now <= 0 ) {
+				results[0] = true;
+				return now + durationNanos;
+			}
+			return expires;
+		});
+
+		return results[0];
+	}
+
+	public boolean tryStartTicks( String key, long ticks ) {
+		return tryStart( key, ticks * NANOS_PER_TICK );
+	}
+
+	public boolean tryStartSeconds( String key, long seconds ) {
+		return tryStart( key, seconds * 20 * NANOS_PER_TICK );
+	}
+
+	/**
+	 * <p>Returns the nanos that remain for the key's cooldown, or zero if it
+	 * does not have one.  If the cooldown has expired, it is removed.
+	 * </p>
+	 *
+	 * @param key
+	 * @return
+	 */
+	public long getRemainingNanos( String key ) {
+		long results = 0;
+
+		Long expires = expirations.get( key );
+
+		if ( expires != null ) {
+			results = expires - System.nanoTime();
+
+			if ( results <= 0 ) {
+				// Only remove it if it was not restarted by another thread:
+				expirations.remove( key, expires );
+				results = 0;
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns the ticks that remain for the key's cooldown, rounded up, so
+	 * an active cooldown never returns zero.
+	 * </p>
+	 *
+	 * @param key
+	 * @return
+	 */
+	public int getRemainingTicks( String key ) {
+		long nanos = getRemainingNanos( key );
+
+		return (int) ((nanos + NANOS_PER_TICK - 1) / NANOS_PER_TICK);
+	}
+
+	public boolean isActive( String key ) {
+		return getRemainingNanos( key ) > 0;
+	}
+
+	public void remove( String key ) {
+		expirations.remove( key );
+	}
+
+	public void clear() {
+		expirations.clear();
+	}
+
+	/**
+	 * <p>Removes all of the expired cooldowns.
+	 * </p>
+	 *
+	 * @return The number of cooldowns that were removed.
+	 */
+	public int sweep() {
+		int removed = 0;
+
+		long now = System.nanoTime();
+
+		Iterator<Entry<String, Long>> iterator = expirations.entrySet().iterator();
+		while ( iterator.hasNext() ) {
+			Entry<String, Long> entry = iterator.next();
+
+			if ( entry.getValue() - now <= 0 &&
+					expirations.remove( entry.getKey(), entry.getValue() ) ) {
+				removed++;
+			}
+		}
+
+		return removed;
+	}
+
+	/**
+	 * <p>The number of cooldowns that are stored, which may include some that
+	 * have expired, but have not been removed yet.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public int size() {
+		return expirations.size();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return String.format( "PrisonCooldownTracker: %s cooldowns=%d", name, size() );
+	}
+}
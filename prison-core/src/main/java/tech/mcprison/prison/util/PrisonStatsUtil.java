@@ -16,9 +16,12 @@ import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.backups.PrisonBackups;
 import tech.mcprison.prison.commands.RegisteredCommand;
 import tech.mcprison.prison.discord.PrisonPasteChat;
+import tech.mcprison.prison.file.FileCollectionLoadStats;
 import tech.mcprison.prison.file.JsonFileIO;
 import tech.mcprison.prison.output.ChatDisplay;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonCommandDispatcher;
+import tech.mcprison.prison.tasks.PrisonStartupTasks;
 
 public class PrisonStatsUtil {
 	
@@ -125,6 +128,12 @@ public class PrisonStatsUtil {
 
 		Prison.get().displaySystemTPS(display);
 
+		PrisonStartupTasks.displayStartupStats(display);
+
+		FileCollectionLoadStats.displayLoadStats(display);
+
+		PrisonCommandDispatcher.displayStats(display);
+
 		display.addText("");
 
 		// This generates the module listing, the autoFeatures overview,
@@ -0,0 +1,228 @@
+package tech.mcprison.prison.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.output.ChatDisplay;
+import tech.mcprison.prison.tasks.PrisonRunnable;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>This records how much time the server's main thread spends within each of
+ * prison's subsystems, along with the duration of every server tick, so lag
+ * spikes can be matched up with the prison work that caused them. Each
+ * subsystem has its own PrisonTimingHistogram, so the percentiles can be
+ * reported, and not just the averages.
+ * </p>
+ *
+ * <p>The probes are simple: take a <code>System.nanoTime()</code> before the work,
+ * then call <code>PrisonTickStats.record( subsystem, start )</code> after it.  Only
+ * work on the main thread is recorded, since async work does not hold up the
+ * server's ticks.  Use <code>/prison stats ticks</code> to view the report.
+ * </p>
+ *
+ * <p>This can be disabled with the config.yml setting
+ * <code>prison-tick-stats.enabled</code>.
+ * </p>
+ *
+ */
+public class PrisonTickStats
+	implements PrisonRunnable
+{
+	public enum TickSubsystem {
+		serverTick( "Server tick duration" ),
+		mineReset( "Mine reset block placement" ),
+		blockBreak( "Block break handling" ),
+		autosell( "Autosell" ),
+		placeholders( "Placeholder evaluation" ),
+		commandTasks( "Command tasks" );
+
+		private final String description;
+
+		private TickSubsystem( String description ) {
+			this.description = description;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+	}
+
+	public static final double[] REPORT_PERCENTILES = { 50, 90, 99, 99.9 };
+
+	private static final Map<TickSubsystem, PrisonTimingHistogram> histograms;
+
+	private static volatile boolean enabled = true;
+
+	private static PrisonTickStats tickTask;
+
+	private long lastTickNanos = 0;
+	private int taskId = -1;
+
+	static {
+		histograms = new EnumMap<>( TickSubsystem.class );
+
+		for ( TickSubsystem subsystem : TickSubsystem.values() ) {
+			histograms.put( subsystem, new PrisonTimingHistogram( subsystem.name() ) );
+		}
+	}
+
+	private PrisonTickStats() {
+		super();
+	}
+
+	/**
+	 * <p>Reads the config setting and if enabled, starts the sync task that
+	 * records the duration of each server tick.  This should be called once
+	 * when prison is starting up.
+	 * </p>
+	 */
+	public static synchronized void startTickTask() {
+
+		enabled = Prison.get().getPlatform() == null ||
+				Prison.get().getPlatform().getConfigBooleanTrue( "prison-tick-stats.enabled" );
+
+		if ( enabled && tickTask == null ) {
+			tickTask = new PrisonTickStats();
+			tickTask.taskId = PrisonTaskSubmitter.runTaskTimer( tickTask, 1, 1 );
+		}
+	}
+
+	/**
+	 * <p>Records the nanos since the start for the subsystem, if the current thread
+	 * is the main thread.
+	 * </p>
+	 *
+	 * @param subsystem
+	 * @param startNanos The value of System.nanoTime() when the work started.
+	 */
+	public static void record( TickSubsystem subsystem, long startNanos ) {
+		if ( enabled ) {
+			recordNanos( subsystem, System.nanoTime() - startNanos );
+		}
+	}
+
+	public static void recordNanos( TickSubsystem subsystem, long elapsedNanos ) {
+		if ( enabled && PrisonTaskSubmitter.isPrimaryThread() ) {
+			histograms.get( subsystem ).recordNanos( elapsedNanos );
+		}
+	}
+
+	@Override
+	public void run() {
+		long now = System.nanoTime();
+
+		if ( lastTickNanos != 0 ) {
+			histograms.get( TickSubsystem.serverTick ).recordNanos( now - lastTickNanos );
+		}
+
+		lastTickNanos = now;
+	}
+
+	public static PrisonTimingHistogram getHistogram( TickSubsystem subsystem ) {
+		return histograms.get( subsystem );
+	}
+
+	public static void reset() {
+		for ( PrisonTimingHistogram histogram : histograms.values() ) {
+			histogram.reset();
+		}
+	}
+
+	/**
+	 * <p>Adds the report to the display, one line for each subsystem.
+	 * </p>
+	 *
+	 * @param display
+	 */
+	public static void displayStats( ChatDisplay display ) {
+		DecimalFormat iFmt = Prison.get().getDecimalFormatInt();
+		DecimalFormat dFmt = Prison.get().getDecimalFormat( "#,##0.000" );
+
+		if ( !enabled ) {
+			display.addText( "&7Tick stats are disabled. Enable them with the " +
+					"config.yml setting &3prison-tick-stats.enabled&7." );
+		}
+
+		display.addText( "&7All times are in ms. Only work on the main thread is included." );
+
+		for ( TickSubsystem subsystem : TickSubsystem.values() ) {
+			PrisonTimingHistogram histogram = histograms.get( subsystem );
+
+			display.addText( "&3%s:", subsystem.getDescription() );
+			display.addText( "&7    count: %s  avg: %s  p50: %s  p90: %s  p99: %s  p99.9: %s  max: %s",
+					iFmt.format( histogram.getCount() ),
+					dFmt.format( histogram.getAverageMs() ),
+					dFmt.format( histogram.getPercentileMs( 50 ) ),
+					dFmt.format( histogram.getPercentileMs( 90 ) ),
+					dFmt.format( histogram.getPercentileMs( 99 ) ),
+					dFmt.format( histogram.getPercentileMs( 99.9 ) ),
+					dFmt.format( histogram.getMaxMicros() / 1000d ) );
+		}
+	}
+
+	/**
+	 * <p>Writes the percentiles for each subsystem to a csv file within the
+	 * prison's data folder, under <code>stats/</code>.
+	 * </p>
+	 *
+	 * @return The file that was written.
+	 * @throws IOException
+	 */
+	public static File exportStats() throws IOException {
+
+		File statsFolder = new File( Prison.get().getDataFolder(), "stats" );
+		if ( !statsFolder.exists() ) {
+			statsFolder.mkdirs();
+		}
+
+		SimpleDateFormat sdf = new SimpleDateFormat( "yyyy-MM-dd_HH-mm-ss" );
+		File exportFile = new File( statsFolder, "tick_stats_" + sdf.format( new Date() ) + ".csv" );
+
+		List<String> lines = new ArrayList<>();
+
+		StringBuilder header = new StringBuilder( "subsystem,count,avg_ms,max_ms" );
+		for ( double percentile : REPORT_PERCENTILES ) {
+			header.append( ",p" ).append( percentile ).append( "_ms" );
+		}
+		lines.add( header.toString() );
+
+		for ( TickSubsystem subsystem : TickSubsystem.values() ) {
+			PrisonTimingHistogram histogram = histograms.get( subsystem );
+
+			StringBuilder sb = new StringBuilder();
+			sb.append( subsystem.name() )
+				.append( ',' ).append( histogram.getCount() )
+				.append( ',' ).append( histogram.getAverageMs() )
+				.append( ',' ).append( histogram.getMaxMicros() / 1000d );
+
+			for ( double percentile : REPORT_PERCENTILES ) {
+				sb.append( ',' ).append( histogram.getPercentileMs( percentile ) );
+			}
+
+			lines.add( sb.toString() );
+		}
+
+		Files.write( exportFile.toPath(), lines, StandardCharsets.UTF_8 );
+
+		return exportFile;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public int getTaskId() {
+		return taskId;
+	}
+}
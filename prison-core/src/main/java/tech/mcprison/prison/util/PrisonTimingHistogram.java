@@ -0,0 +1,185 @@
+package tech.mcprison.prison.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>This is a fixed size histogram of durations, which is based upon the layout
+ * that HdrHistogram uses.  The values are recorded in microseconds.  Values less
+ * than 32 microseconds have their own buckets, and above that, every power of two
+ * is split in to 16 buckets, so any recorded value is within about 6% of the
+ * value that is reported for its bucket.  Recording a value never allocates
+ * and never locks, so it can be used on the server's main thread.
+ * </p>
+ *
+ * <p>The largest value that can be recorded is 2^40 microseconds, which is
+ * about 12 days.  Larger values are recorded in the last bucket.
+ * </p>
+ *
+ */
+public class PrisonTimingHistogram
+{
+	private static final int LINEAR_BITS = 5;
+	private static final int LINEAR_COUNT = 1 << LINEAR_BITS; // 32
+	private static final int SUB_BUCKET_COUNT = LINEAR_COUNT / 2; // 16
+
+	private static final int MAX_MAGNITUDE = 40;
+
+	public static final int BUCKET_COUNT =
+			LINEAR_COUNT + (MAX_MAGNITUDE - LINEAR_BITS + 1) * SUB_BUCKET_COUNT;
+
+	private final String name;
+
+	private final AtomicLongArray counts;
+	private final LongAdder totalCount;
+	private final LongAdder totalMicros;
+	private final AtomicLong maxMicros;
+
+	public PrisonTimingHistogram( String name ) {
+		super();
+
+		this.name = name;
+
+		this.counts = new AtomicLongArray( BUCKET_COUNT );
+		this.totalCount = new LongAdder();
+		this.totalMicros = new LongAdder();
+		this.maxMicros = new AtomicLong();
+	}
+
+	/**
+	 * <p>Returns the bucket for the value.
+	 * </p>
+	 *
+	 * @param micros
+	 * @return
+	 */
+	protected static int getBucketIndex( long micros ) {
+		int results;
+
+		if ( micros < LINEAR_COUNT ) {
+			results = (int) Math.max( 0, micros );
+		}
+		else {
+			int magnitude = Math.min( MAX_MAGNITUDE, 63 - Long.numberOfLeadingZeros( micros ) );
+			int shift = magnitude - (LINEAR_BITS - 1);
+
+			long top = Math.min( micros >> shift, LINEAR_COUNT - 1 );
+
+			results = LINEAR_COUNT + (shift - 1) * SUB_BUCKET_COUNT +
+							(int) (top - SUB_BUCKET_COUNT);
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns the highest value that would be recorded in the bucket.
+	 * </p>
+	 *
+	 * @param index
+	 * @return
+	 */
+	protected static long getBucketHighValue( int index ) {
+		long results;
+
+		if ( index < LINEAR_COUNT ) {
+			results = index;
+		}
+		else {
+			int k = index - LINEAR_COUNT;
+			int shift = k / SUB_BUCKET_COUNT + 1;
+			long top = k % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+			results = ((top + 1) << shift) - 1;
+		}
+
+		return results;
+	}
+
+	public void recordNanos( long nanos ) {
+		recordMicros( nanos / 1000L );
+	}
+
+	public void recordMicros( long micros ) {
+		counts.incrementAndGet( getBucketIndex( micros ) );
+		totalCount.increment();
+		totalMicros.add( micros );
+
+		long max = maxMicros.get();
+		while ( micros > max && !maxMicros.compareAndSet( max, micros ) ) {
+			max = maxMicros.get();
+		}
+	}
+
+	/**
+	 * <p>Returns the value, in microseconds, at the given percentile, which is
+	 * from 0 to 100.  The value reported is the highest value of the bucket that
+	 * contains the percentile, but never more than the largest recorded value.
+	 * </p>
+	 *
+	 * @param percentile
+	 * @return
+	 */
+	public long getPercentileMicros( double percentile ) {
+		long results = 0;
+
+		long[] snapshot = new long[BUCKET_COUNT];
+		long total = 0;
+		for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+			snapshot[i] = counts.get( i );
+			total += snapshot[i];
+		}
+
+		if ( total > 0 ) {
+			long target = (long) Math.ceil( Math.max( 0d, Math.min( 100d, percentile ) ) / 100d * total );
+			target = Math.max( 1, target );
+
+			long running = 0;
+			for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+				running += snapshot[i];
+
+				if ( running >= target ) {
+					results = Math.min( getBucketHighValue( i ), getMaxMicros() );
+					break;
+				}
+			}
+		}
+
+		return results;
+	}
+
+	public double getPercentileMs( double percentile ) {
+		return getPercentileMicros( percentile ) / 1000d;
+	}
+
+	public void reset() {
+		for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+			counts.set( i, 0 );
+		}
+		totalCount.reset();
+		totalMicros.reset();
+		maxMicros.set( 0 );
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return totalCount.sum();
+	}
+
+	public long getTotalMicros() {
+		return totalMicros.sum();
+	}
+
+	public long getMaxMicros() {
+		return maxMicros.get();
+	}
+
+	public double getAverageMs() {
+		long count = getCount();
+		return count == 0 ? 0d : getTotalMicros() / (double) count / 1000d;
+	}
+}
@@ -0,0 +1,82 @@
+package tech.mcprison.prison.backpacks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.backpacks.BackpackEnums.BackpackType;
+
+public class PlayerBackpackTest
+{
+
+	private PlayerBackpack getBackpack( int maxSiloSlots, int maxSiloSize, int maxTotalSize ) {
+		PlayerBackpack backpack = new PlayerBackpack( "player", "uuid",
+						BackpackType.silo, "silo", "CHEST" );
+
+		backpack.setMaxSiloSlots( maxSiloSlots );
+		backpack.setMaxSiloSize( maxSiloSize );
+		backpack.setMaxTotalSize( maxTotalSize );
+
+		return backpack;
+	}
+
+	@Test
+	public void testSiloLimits()
+	{
+		PlayerBackpack backpack = getBackpack( 2, 100, 150 );
+
+		assertEquals( 0, backpack.addSiloItems( "cobblestone", 64 ) );
+		assertEquals( 0, backpack.addSiloItems( "cobblestone", 36 ) );
+		assertEquals( 10, backpack.addSiloItems( "cobblestone", 10 ) );
+		assertTrue( backpack.isSiloFull( "cobblestone" ) );
+
+		// The total size limits the second silo:
+		assertEquals( 50, backpack.getSiloCapacity( "stone" ) );
+		assertEquals( 14, backpack.addSiloItems( "stone", 64 ) );
+
+		// No more silo slots, and all are full:
+		assertTrue( backpack.isSiloFull( "dirt" ) );
+		assertEquals( 5, backpack.addSiloItems( "dirt", 5 ) );
+		assertFalse( backpack.getSilos().containsKey( "dirt" ) );
+
+		assertEquals( 150, backpack.getSiloTotalCount() );
+	}
+
+	@Test
+	public void testSiloRemove()
+	{
+		PlayerBackpack backpack = getBackpack( 1, 0, 0 );
+
+		assertEquals( 0, backpack.addSiloItems( "coal_ore", 1000 ) );
+		assertEquals( 0, backpack.getSiloCapacity( "iron_ore" ) );
+
+		assertEquals( 400, backpack.removeSiloItems( "coal_ore", 400 ) );
+		assertEquals( 600, backpack.getSiloCount( "coal_ore" ) );
+
+		// Empty silos are removed so the slot can be reused, unless locked:
+		assertEquals( 600, backpack.removeSiloItems( "coal_ore", 1000 ) );
+		assertFalse( backpack.getSilos().containsKey( "coal_ore" ) );
+		assertEquals( 0, backpack.addSiloItems( "iron_ore", 10 ) );
+
+		backpack.getSilos().get( "iron_ore" ).setLocked( true );
+		assertEquals( 10, backpack.removeSiloItems( "iron_ore", 10 ) );
+		assertTrue( backpack.getSilos().containsKey( "iron_ore" ) );
+		assertEquals( 0, backpack.removeSiloItems( "missing", 10 ) );
+	}
+
+	@Test
+	public void testSiloWithoutLimitsDoesNotOverflow()
+	{
+		PlayerBackpack backpack = getBackpack( 0, 0, 0 );
+
+		assertEquals( 0, backpack.addSiloItems( "stone", 1000 ) );
+		assertEquals( Integer.MAX_VALUE - 1000, backpack.getSiloCapacity( "stone" ) );
+
+		assertEquals( 1000, backpack.addSiloItems( "stone", Integer.MAX_VALUE ) );
+		assertEquals( Integer.MAX_VALUE, backpack.getSiloCount( "stone" ) );
+		assertTrue( backpack.isSiloFull( "stone" ) );
+	}
+
+}
@@ -0,0 +1,69 @@
+package tech.mcprison.prison.backups;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.backups.PrisonBackupManifest.ManifestEntry;
+
+public class PrisonBackupManifestTest
+{
+
+	@Test
+	public void testWriteAndRead()
+			throws IOException
+	{
+		PrisonBackupManifest manifest = new PrisonBackupManifest( "b2.zip", "b1.zip" );
+
+		manifest.addEntry( new ManifestEntry( "config.yml", 120, 1000L, "aa11",
+				"b1.zip", "backup_1/config.yml" ) );
+		manifest.addEntry( new ManifestEntry( "data/player file.json", 64, 2000L, "bb22",
+				"b2.zip", "backup_2/data/player file.json" ) );
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		manifest.write( out );
+
+		PrisonBackupManifest results = PrisonBackupManifest.read(
+				new ByteArrayInputStream( out.toByteArray() ) );
+
+		assertEquals( "b2.zip", results.getArchiveName() );
+		assertEquals( "b1.zip", results.getPreviousArchiveName() );
+		assertEquals( manifest.getCreated(), results.getCreated() );
+		assertEquals( 2, results.size() );
+
+		ManifestEntry entry = results.getEntry( "data/player file.json" );
+		assertEquals( 64, entry.getSize() );
+		assertEquals( 2000L, entry.getLastModified() );
+		assertEquals( "bb22", entry.getHash() );
+		assertEquals( "b2.zip", entry.getArchiveName() );
+		assertEquals( "backup_2/data/player file.json", entry.getZipEntryName() );
+
+		Map<String, List<ManifestEntry>> byArchive = results.getEntriesByArchive();
+		assertEquals( 1, byArchive.get( "b1.zip" ).size() );
+		assertEquals( 1, byArchive.get( "b2.zip" ).size() );
+	}
+
+	@Test
+	public void testFirstInChain()
+			throws IOException
+	{
+		PrisonBackupManifest manifest = new PrisonBackupManifest( "b1.zip", null );
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		manifest.write( out );
+
+		PrisonBackupManifest results = PrisonBackupManifest.read(
+				new ByteArrayInputStream( out.toByteArray() ) );
+
+		assertEquals( "b1.zip", results.getArchiveName() );
+		assertNull( results.getPreviousArchiveName() );
+		assertEquals( 0, results.size() );
+	}
+}
@@ -0,0 +1,117 @@
+package tech.mcprison.prison.bombs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.bombs.MineBombs.ExplosionShape;
+
+public class MineBombShapeTest
+{
+
+	@Test
+	public void testShapeSizes()
+	{
+		// The center block, plus one on each side:
+		assertEquals( 7, MineBombShape.build( ExplosionShape.sphere, 1, 0 ).size() );
+
+		assertEquals( 27, MineBombShape.build( ExplosionShape.cube, 1, 0 ).size() );
+
+		// A disk with a radius of 2 has 13 blocks:
+		assertEquals( 13, MineBombShape.build( ExplosionShape.disk_y, 2, 0 ).size() );
+
+		// The hollow sphere excludes the blocks within the inner radius:
+		MineBombShape sphere = MineBombShape.build( ExplosionShape.sphere, 5, 0 );
+		MineBombShape hollow = MineBombShape.build( ExplosionShape.sphereHollow, 5, 3 );
+		assertTrue( hollow.size() < sphere.size() );
+
+		assertEquals( 0, MineBombShape.build( ExplosionShape.sphere, 0, 0 ).size() );
+	}
+
+	@Test
+	public void testOffsets()
+	{
+		int[] offsets = MineBombShape.build( ExplosionShape.disk_x, 3, 0 ).getOffsets();
+
+		for ( int i = 0; i < offsets.length; i += 3 ) {
+			// The disk is on the x axis, so x never changes:
+			assertEquals( 0, offsets[i] );
+			assertTrue( offsets[i + 1] * offsets[i + 1] + offsets[i + 2] * offsets[i + 2] <= 9 );
+		}
+
+		// The cube starts one block above the center and goes down:
+		offsets = MineBombShape.build( ExplosionShape.cube, 2, 0 ).getOffsets();
+		int minY = 0;
+		int maxY = 0;
+		for ( int i = 0; i < offsets.length; i += 3 ) {
+			minY = Math.min( minY, offsets[i + 1] );
+			maxY = Math.max( maxY, offsets[i + 1] );
+		}
+		assertEquals( 1, maxY );
+		assertEquals( -3, minY );
+	}
+
+	@Test
+	public void testForEachBlock()
+	{
+		MineBombShape shape = MineBombShape.build( ExplosionShape.ring_y, 4, 2 );
+
+		int[] count = new int[1];
+		shape.forEachBlock( 100, 64, -200, (x, y, z) -> {
+			assertEquals( 64, y );
+
+			int distSqr = (x - 100) * (x - 100) + (z + 200) * (z + 200);
+			assertTrue( distSqr <= 16 && distSqr >= 4 );
+
+			count[0]++;
+		});
+
+		assertEquals( shape.size(), count[0] );
+	}
+
+	@Test
+	public void testForEachBlockWithin()
+	{
+		MineBombShape shape = MineBombShape.build( ExplosionShape.cube, 2, 0 );
+
+		// The bomb is on the mine's east wall, so only the 3 columns of x inside the mine are used:
+		int[] count = new int[1];
+		int visited = shape.forEachBlockWithin( 10, 50, 10, 0, 0, 0, 10, 100, 100, 0, (x, y, z) -> {
+			assertTrue( x <= 10 );
+			count[0]++;
+		});
+
+		assertEquals( 3 * 5 * 5, visited );
+		assertEquals( visited, count[0] );
+
+		// Outside of the mine, nothing is visited:
+		assertEquals( 0, shape.forEachBlockWithin( 100, 50, 10, 0, 0, 0, 10, 100, 100, 0,
+				(x, y, z) -> count[0]++ ) );
+	}
+
+	@Test
+	public void testWorldMinHeight()
+	{
+		MineBombShape shape = MineBombShape.build( ExplosionShape.cube, 2, 0 );
+
+		// The cube goes from y 3 down to y -1, but the world stops at y 0:
+		int visited = shape.forEachBlockWithin( 0, 2, 0, -10, -10, -10, 10, 10, 10, 0, (x, y, z) -> {
+			assertTrue( y >= 0 );
+		});
+		assertEquals( 4 * 5 * 5, visited );
+
+		// 1.18 worlds go down to -64:
+		assertEquals( 5 * 5 * 5, shape.forEachBlockWithin( 0, 2, 0, -10, -10, -10, 10, 10, 10, -64,
+				(x, y, z) -> {} ) );
+
+		// Without a mine, the world's min height still applies:
+		int[] count = new int[1];
+		shape.forEachBlock( 0, 2, 0, 0, (x, y, z) -> {
+			assertTrue( y >= 0 );
+			count[0]++;
+		});
+		assertEquals( 4 * 5 * 5, count[0] );
+	}
+
+}
@@ -0,0 +1,267 @@
+package tech.mcprison.prison.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.TestPlatform;
+import tech.mcprison.prison.TestPlayer;
+import tech.mcprison.prison.internal.Player;
+
+public class EconomyFacadeTest
+{
+
+	/**
+	 * <p>An economy that keeps the balances in memory, and counts the calls.  It
+	 * does not allow a balance to become negative.
+	 * </p>
+	 */
+	private static class TestEconomy
+		extends EconomyIntegration
+	{
+		private final Map<UUID, Double> balances = new HashMap<>();
+
+		private int reads = 0;
+		private int writes = 0;
+
+		// Runs while a write is in progress:
+		private Runnable duringWrite = null;
+
+		public TestEconomy() {
+			super( "TestEconomy", "TestEconomy" );
+		}
+
+		@Override
+		public boolean hasIntegrated() {
+			return true;
+		}
+
+		@Override
+		public boolean hasAccount( Player player ) {
+			return true;
+		}
+
+		@Override
+		public double getBalance( Player player ) {
+			reads++;
+			return balances.getOrDefault( player.getUUID(), 0d );
+		}
+
+		@Override
+		public boolean setBalance( Player player, double amount ) {
+			balances.put( player.getUUID(), amount );
+			return true;
+		}
+
+		@Override
+		public boolean addBalance( Player player, double amount ) {
+			writes++;
+			if ( duringWrite != null ) {
+				duringWrite.run();
+			}
+			balances.put( player.getUUID(), balances.getOrDefault( player.getUUID(), 0d ) + amount );
+			return true;
+		}
+
+		@Override
+		public boolean removeBalance( Player player, double amount ) {
+			writes++;
+			if ( !canAfford( player, amount ) ) {
+				return false;
+			}
+			balances.put( player.getUUID(), balances.get( player.getUUID() ) - amount );
+			return true;
+		}
+
+		@Override
+		public boolean canAfford( Player player, double amount ) {
+			return balances.getOrDefault( player.getUUID(), 0d ) >= amount;
+		}
+
+		@Override
+		public String getPluginSourceURL() {
+			return null;
+		}
+	}
+
+	private TestEconomy setup()
+			throws IOException
+	{
+		File folder = Files.createTempDirectory( "prison-economy" ).toFile();
+
+		Prison.get().init( new TestPlatform( folder, true ), "1.13.X-test.1" );
+		Prison.get().init( new File( folder, "plugins/Prison" ) );
+
+		TestEconomy economy = new TestEconomy();
+		Prison.get().getIntegrationManager().register( economy );
+
+		return economy;
+	}
+
+	private Player createPlayer() {
+		UUID uuid = UUID.randomUUID();
+
+		return new TestPlayer() {
+			@Override
+			public UUID getUUID() {
+				return uuid;
+			}
+		};
+	}
+
+	@Test
+	public void testDepositsAreWrittenInOneBatch()
+			throws IOException
+	{
+		TestEconomy economy = setup();
+		EconomyFacade facade = EconomyFacade.getInstance();
+
+		Player player = createPlayer();
+		economy.setBalance( player, 100 );
+
+		assertEquals( 100, facade.getBalance( player, null ), 0.001 );
+		assertEquals( 1, economy.reads );
+
+		for ( int i = 0; i < 5; i++ ) {
+			facade.deposit( player, null, 10 );
+		}
+
+		// The cached balance is updated right away, without calling the economy:
+		assertEquals( 150, facade.getBalance( player, null ), 0.001 );
+		assertEquals( 1, economy.reads );
+		assertEquals( 0, economy.writes );
+
+		facade.writeQueuedTransactions();
+
+		assertEquals( 1, economy.writes );
+		assertEquals( 150, economy.getBalance( player ), 0.001 );
+	}
+
+	/**
+	 * <p>A write now must first write the queued transactions, so they are
+	 * applied to the economy in the same order that they were made.
+	 * </p>
+	 */
+	@Test
+	public void testWriteNowKeepsOrder()
+			throws IOException
+	{
+		TestEconomy economy = setup();
+		EconomyFacade facade = EconomyFacade.getInstance();
+
+		Player player = createPlayer();
+		economy.setBalance( player, 100 );
+
+		facade.deposit( player, null, 50 );
+
+		assertTrue( facade.withdrawNow( player, null, 120 ) );
+		assertEquals( 30, economy.getBalance( player ), 0.001 );
+		assertEquals( 30, facade.getBalance( player, null ), 0.001 );
+
+		assertFalse( facade.withdrawNow( player, null, 100 ) );
+		assertEquals( 30, facade.getBalance( player, null ), 0.001 );
+	}
+
+	/**
+	 * <p>A payment from another plugin is not in the cached balance, so the
+	 * rankups must use getBalanceNow(), and setBalance() must not use the cached
+	 * balance to find the difference.
+	 * </p>
+	 */
+	@Test
+	public void testBalanceNowSeesOtherPlugins()
+			throws IOException
+	{
+		TestEconomy economy = setup();
+		EconomyFacade facade = EconomyFacade.getInstance();
+
+		Player player = createPlayer();
+		economy.setBalance( player, 100 );
+
+		assertEquals( 100, facade.getBalance( player, null ), 0.001 );
+
+		facade.deposit( player, null, 10 );
+
+		// Another plugin pays the player:
+		economy.addBalance( player, 500 );
+
+		assertEquals( 110, facade.getBalance( player, null ), 0.001 );
+		assertEquals( 610, facade.getBalanceNow( player, null ), 0.001 );
+		assertEquals( 610, economy.getBalance( player ), 0.001 );
+
+		// Another plugin pays the player again, then the balance is reset:
+		economy.addBalance( player, 50 );
+
+		assertTrue( facade.setBalance( player, null, 0 ) );
+		assertEquals( 0, economy.getBalance( player ), 0.001 );
+		assertEquals( 0, facade.getBalance( player, null ), 0.001 );
+	}
+
+	@Test
+	public void testBalanceIncludesWriteInProgress()
+			throws IOException
+	{
+		TestEconomy economy = setup();
+		EconomyFacade facade = EconomyFacade.getInstance();
+
+		Player player = createPlayer();
+		economy.setBalance( player, 100 );
+
+		assertEquals( 100, facade.getBalance( player, null ), 0.001 );
+
+		facade.deposit( player, null, 25 );
+
+		double[] balanceDuringWrite = new double[1];
+		economy.duringWrite = () -> balanceDuringWrite[0] = facade.getBalance( player, null );
+
+		facade.writeQueuedTransactions();
+
+		assertEquals( 125, balanceDuringWrite[0], 0.001 );
+		assertEquals( 125, facade.getBalance( player, null ), 0.001 );
+	}
+
+	/**
+	 * <p>Writing an account's pending amount outside of the queue must not allow
+	 * the account to be added to the queue a second time.
+	 * </p>
+	 */
+	@Test
+	public void testAccountIsOnlyQueuedOnce()
+			throws IOException
+	{
+		TestEconomy economy = setup();
+		EconomyFacade facade = EconomyFacade.getInstance();
+		facade.writeQueuedTransactions();
+
+		Player player = createPlayer();
+		economy.setBalance( player, 100 );
+
+		facade.deposit( player, null, 10 );
+		assertEquals( 1, facade.getQueuedAccounts() );
+
+		// Writes the pending amount while the account is still in the queue:
+		assertTrue( facade.depositNow( player, null, 5 ) );
+
+		facade.deposit( player, null, 10 );
+		assertEquals( 1, facade.getQueuedAccounts() );
+
+		facade.writeQueuedTransactions();
+		assertEquals( 0, facade.getQueuedAccounts() );
+		assertEquals( 125, economy.getBalance( player ), 0.001 );
+
+		// Once written, the next deposit queues it again:
+		facade.deposit( player, null, 10 );
+		assertEquals( 1, facade.getQueuedAccounts() );
+		facade.writeQueuedTransactions();
+	}
+}
@@ -0,0 +1,77 @@
+package tech.mcprison.prison.internal.block;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
+
+public class PrisonBlockTypesTest
+{
+
+	private PrisonBlockTypes setup() {
+		List<PrisonBlock> blocks = new ArrayList<>();
+		blocks.add( new PrisonBlock( "stone" ) );
+		blocks.add( new PrisonBlock( "cobblestone" ) );
+		blocks.add( new PrisonBlock( "air" ) );
+		blocks.add( new PrisonBlock( PrisonBlockType.CustomItems, "ruby_ore" ) );
+
+		PrisonBlockTypes pbTypes = new PrisonBlockTypes();
+		pbTypes.addBlockTypes( blocks );
+
+		return pbTypes;
+	}
+
+	@Test
+	public void testBlockIdsAreDense()
+			throws Exception
+	{
+		PrisonBlockTypes pbTypes = setup();
+
+		// AIR, IGNORE, stone, cobblestone, and the custom ore, plus the unused 0:
+		assertEquals( 6, pbTypes.getBlockIdCount() );
+		assertNull( pbTypes.getBlockTypeById( 0 ) );
+
+		for ( int id = 1; id < pbTypes.getBlockIdCount(); id++ ) {
+			assertEquals( id, pbTypes.getBlockTypeById( id ).getBlockId() );
+		}
+
+		// The air block that was added shares the id with PrisonBlock.AIR:
+		PrisonBlock air = pbTypes.getBlockTypeByNameNoClone( "minecraft:air" );
+		assertEquals( PrisonBlock.AIR.getBlockId(), air.getBlockId() );
+		assertTrue( new PrisonBlock( "air" ).isAir() );
+	}
+
+	@Test
+	public void testClonesAreMatchedById()
+			throws Exception
+	{
+		PrisonBlockTypes pbTypes = setup();
+
+		PrisonBlock stone1 = pbTypes.getBlockTypesByName( "stone" );
+		PrisonBlock stone2 = pbTypes.getBlockTypesByName( "minecraft:stone" );
+		PrisonBlock customOre = pbTypes.getBlockTypesByName( "CustomItems:ruby_ore" );
+
+		assertTrue( stone1.getBlockId() > 0 );
+		assertEquals( stone1.getBlockId(), stone2.getBlockId() );
+		assertTrue( stone1.getBlockId() != customOre.getBlockId() );
+
+		assertTrue( stone1.equals( stone2 ) );
+		assertTrue( stone1.isSameBlockName( stone2 ) );
+		assertFalse( stone1.equals( customOre ) );
+
+		// A block without an id is still matched by its name:
+		assertTrue( stone1.isSameBlockName( new PrisonBlock( "STONE" ) ) );
+
+		// Changing the name removes the id:
+		stone2.setBlockName( "cobblestone" );
+		assertEquals( 0, stone2.getBlockId() );
+		assertFalse( stone1.equals( stone2 ) );
+	}
+}
@@ -0,0 +1,80 @@
+package tech.mcprison.prison.localization;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.Matcher;
+
+import org.junit.Test;
+
+public class LocaleMessageTemplateTest
+{
+
+	/**
+	 * <p>This is how the messages were processed before they were precompiled.
+	 * </p>
+	 */
+	private String legacyRender( String message, String... replacements ) {
+		for ( int i = 0; i < replacements.length; i++ ) {
+			message = message.replaceAll( "%" + (i + 1), Matcher.quoteReplacement( replacements[i] ) );
+		}
+		return message;
+	}
+
+	@Test
+	public void testMatchesLegacyReplacements()
+	{
+		String[] messages = {
+				"&7You ranked up to %1 for &3$%2&7. Your balance is %3.",
+				"%3 %2 %1",
+				"No placeholders at all.",
+				"Unmatched %4 and %0 and 100% done %",
+				"%1%2%1",
+				"",
+		};
+
+		String[] replacements = { "A$\\1", "b", "%c" };
+
+		for ( String message : messages ) {
+			LocaleMessageTemplate template = new LocaleMessageTemplate( message );
+
+			String expected = "[" + legacyRender( message, replacements ) + "]";
+
+			if ( !template.isNoMessage() ) {
+				assertEquals( expected, template.render( "[", replacements, "]" ) );
+			}
+		}
+	}
+
+	@Test
+	public void testNoMessageAndMissingValues()
+	{
+		assertTrue( new LocaleMessageTemplate( "" ).isNoMessage() );
+		assertTrue( new LocaleMessageTemplate( "*NONE*" ).isNoMessage() );
+		assertEquals( "", new LocaleMessageTemplate( "*none*" ).render( "p", null, "s" ) );
+
+		LocaleMessageTemplate template = new LocaleMessageTemplate( "%1 and %2" );
+
+		assertEquals( 2, template.getPlaceholderCount() );
+		assertEquals( "x and %2", template.render( "", new String[] { "x" }, "" ) );
+		assertEquals( "%1 and %2", template.render( "", null, "" ) );
+	}
+
+	@Test
+	public void testFallbackChain()
+	{
+		assertArrayEquals( new String[] { "en_US", "en_AU", "en_GB", "en_CA" },
+				LocaleManager.buildFallbackChain( "en_US", "en_US" ) );
+
+		assertArrayEquals( new String[] { "fr_FR", "en_US", "fr_CA" },
+				LocaleManager.buildFallbackChain( "fr_FR", "fr_FR" ) );
+
+		assertArrayEquals( new String[] { "de_DE", "fr_FR", "fr_CA", "en_US" },
+				LocaleManager.buildFallbackChain( "de_DE", "de_DE", "fr_FR" ) );
+
+		assertArrayEquals( new String[] { "xx_XX", "en_US" },
+				LocaleManager.buildFallbackChain( "xx_XX", "en_US" ) );
+	}
+
+}
@@ -0,0 +1,61 @@
+package tech.mcprison.prison.placeholders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class PlaceholderTextTemplateTest
+{
+	/**
+	 * <p>Only prison_rank and prison_mine are known placeholders.
+	 * </p>
+	 */
+	private final Function<String, String> resolver = placeholder -> {
+		String name = placeholder.substring( 1, placeholder.length() - 1 );
+
+		return "prison_rank".equals( name ) ? "A" :
+				"prison_mine".equals( name ) ? "{prison_rank}mine" : null;
+	};
+
+	@Test
+	public void testNoPlaceholders()
+	{
+		PlaceholderTextTemplate template = PlaceholderTextTemplate.getTemplate( "Hello world" );
+
+		assertFalse( template.hasPlaceholders() );
+		assertEquals( "Hello world", template.render( resolver ) );
+
+		assertSame( template, PlaceholderTextTemplate.getTemplate( "Hello world" ) );
+	}
+
+	@Test
+	public void testRender()
+	{
+		PlaceholderTextTemplate template = PlaceholderTextTemplate.getTemplate(
+				"[%prison_rank%] {prison_rank} %other% {other} done" );
+
+		assertTrue( template.hasPlaceholders() );
+		assertEquals( "[A] A %other% {other} done", template.render( resolver ) );
+	}
+
+	/**
+	 * <p>If a %placeholder% is not found, then the {placeholders} within it are
+	 * still translated, and the value of a %placeholder% is checked for
+	 * {placeholders}, which is the same as running both passes over the text.
+	 * </p>
+	 */
+	@Test
+	public void testNestedPlaceholders()
+	{
+		assertEquals( "50% off A%",
+				PlaceholderTextTemplate.getTemplate( "50% off {prison_rank}%" ).render( resolver ) );
+
+		assertEquals( "Amine",
+				PlaceholderTextTemplate.getTemplate( "%prison_mine%" ).render( resolver ) );
+	}
+}
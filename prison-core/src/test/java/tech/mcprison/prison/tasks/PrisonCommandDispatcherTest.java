@@ -0,0 +1,91 @@
+package tech.mcprison.prison.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.TestPlayer;
+import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.tasks.PrisonCommandDispatcher.CommandPriority;
+
+public class PrisonCommandDispatcherTest
+{
+
+	private Player createPlayer() {
+		UUID uuid = UUID.randomUUID();
+
+		return new TestPlayer() {
+			@Override
+			public UUID getUUID() {
+				return uuid;
+			}
+		};
+	}
+
+	private List<PrisonCommandTaskData> createTasks( String... commands ) {
+		List<PrisonCommandTaskData> results = new ArrayList<>();
+
+		int row = 0;
+		for ( String command : commands ) {
+			results.add( new PrisonCommandTaskData( "test", command, ++row ) );
+		}
+
+		return results;
+	}
+
+	private String pollCmd( PrisonCommandDispatcher dispatcher ) {
+		return dispatcher.pollNext( 0 ).getCmdTask().getCmd();
+	}
+
+	@Test
+	public void testPriorityAndPlayerOrdering()
+	{
+		PrisonCommandDispatcher dispatcher = new PrisonCommandDispatcher( 5, 0 );
+
+		Player p1 = createPlayer();
+		Player p2 = createPlayer();
+
+		dispatcher.enqueue( p1, createTasks( "p1-a", "p1-b" ), CommandPriority.low, 0 );
+		dispatcher.enqueue( p2, createTasks( "p2-a" ), CommandPriority.low, 0 );
+		dispatcher.enqueue( p2, createTasks( "p2-b" ), CommandPriority.high, 0 );
+		dispatcher.enqueue( null, createTasks( "console" ), CommandPriority.high, 0 );
+
+		assertEquals( 5, dispatcher.getQueueDepth() );
+
+		// The high priority commands can go ahead of other players, but not
+		// ahead of p2's earlier low priority command:
+		assertEquals( "console", pollCmd( dispatcher ) );
+		assertEquals( "p1-a", pollCmd( dispatcher ) );
+		assertEquals( "p1-b", pollCmd( dispatcher ) );
+		assertEquals( "p2-a", pollCmd( dispatcher ) );
+		assertEquals( "p2-b", pollCmd( dispatcher ) );
+
+		assertNull( dispatcher.pollNext( 0 ) );
+		assertEquals( 0, dispatcher.getQueueDepth() );
+	}
+
+	@Test
+	public void testCollapseWindow()
+	{
+		PrisonCommandDispatcher dispatcher = new PrisonCommandDispatcher( 5, 100 );
+
+		Player p1 = createPlayer();
+		Player p2 = createPlayer();
+
+		long ms = 1_000_000L;
+
+		dispatcher.enqueue( p1, createTasks( "cmd" ), CommandPriority.normal, 0 );
+		dispatcher.enqueue( p1, createTasks( "cmd" ), CommandPriority.normal, 50 * ms );
+		dispatcher.enqueue( p2, createTasks( "cmd" ), CommandPriority.normal, 50 * ms );
+		dispatcher.enqueue( p1, createTasks( "cmd" ), CommandPriority.normal, 150 * ms );
+
+		assertEquals( 3, dispatcher.getQueueDepth() );
+		assertEquals( 1, dispatcher.getCommandsCollapsed() );
+	}
+
+}
@@ -0,0 +1,82 @@
+package tech.mcprison.prison.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.TestPlatform;
+
+public class PrisonStartupTasksTest
+{
+
+	private void setup()
+			throws IOException
+	{
+		File folder = Files.createTempDirectory( "prison-startup" ).toFile();
+
+		Prison.get().init( new TestPlatform( folder, true ), "1.13.X-test.1" );
+	}
+
+	@Test
+	public void testStagesRunAfterTheirDependencies()
+			throws IOException
+	{
+		setup();
+
+		List<String> order = new CopyOnWriteArrayList<>();
+		Thread mainThread = Thread.currentThread();
+		List<Thread> syncThreads = new CopyOnWriteArrayList<>();
+
+		PrisonStartupTasks startup = new PrisonStartupTasks( "test" );
+
+		startup.addAsync( "configs", () -> order.add( "configs" ) );
+		startup.addAsync( "blocks", () -> order.add( "blocks" ) );
+		startup.addSync( "modules", () -> {
+					order.add( "modules" );
+					syncThreads.add( Thread.currentThread() );
+				}, "configs", "blocks" );
+		startup.addSync( "listeners", () -> {
+					order.add( "listeners" );
+					syncThreads.add( Thread.currentThread() );
+				}, "modules" );
+
+		startup.run();
+
+		assertEquals( 4, order.size() );
+		assertTrue( order.indexOf( "modules" ) > order.indexOf( "configs" ) );
+		assertTrue( order.indexOf( "modules" ) > order.indexOf( "blocks" ) );
+		assertEquals( "listeners", order.get( 3 ) );
+
+		for ( Thread thread : syncThreads ) {
+			assertEquals( mainThread, thread );
+		}
+	}
+
+	@Test
+	public void testFailedStageSkipsDependents()
+			throws IOException
+	{
+		setup();
+
+		List<String> order = new CopyOnWriteArrayList<>();
+
+		PrisonStartupTasks startup = new PrisonStartupTasks( "test" );
+
+		startup.addAsync( "configs", () -> { throw new IllegalStateException( "test failure" ); } );
+		startup.addSync( "modules", () -> order.add( "modules" ), "configs" );
+		startup.addSync( "integrations", () -> order.add( "integrations" ) );
+
+		startup.run();
+
+		assertEquals( 1, order.size() );
+		assertEquals( "integrations", order.get( 0 ) );
+	}
+}
@@ -0,0 +1,57 @@
+package tech.mcprison.prison.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PrisonCooldownTrackerTest
+{
+
+	@Test
+	public void testCooldowns()
+	{
+		PrisonCooldownTracker tracker = new PrisonCooldownTracker( "test" );
+
+		assertEquals( 0, tracker.getRemainingTicks( "player" ) );
+
+		assertTrue( tracker.tryStartTicks( "player", 100 ) );
+		assertFalse( tracker.tryStartTicks( "player", 100 ) );
+		assertTrue( tracker.isActive( "player" ) );
+
+		int ticks = tracker.getRemainingTicks( "player" );
+		assertTrue( ticks > 0 && ticks <= 100 );
+
+		tracker.remove( "player" );
+		assertFalse( tracker.isActive( "player" ) );
+		assertTrue( tracker.tryStartSeconds( "player", 5 ) );
+	}
+
+	@Test
+	public void testExpired()
+	{
+		PrisonCooldownTracker tracker = new PrisonCooldownTracker( "test" );
+
+		// An expired cooldown is removed when it is checked:
+		assertTrue( tracker.tryStart( "a", 1 ) );
+		assertTrue( tracker.tryStart( "b", 1 ) );
+		assertTrue( tracker.tryStartTicks( "c", 1000 ) );
+
+		long start = System.nanoTime();
+		while ( System.nanoTime() - start < 1000 ) {
+			// wait for the cooldowns to expire
+		}
+
+		assertEquals( 0, tracker.getRemainingNanos( "a" ) );
+		assertEquals( 2, tracker.size() );
+
+		// The sweep removes the rest of the expired cooldowns:
+		assertEquals( 1, tracker.sweep() );
+		assertEquals( 1, tracker.size() );
+		assertTrue( tracker.isActive( "c" ) );
+
+		assertTrue( tracker.tryStart( "a", 1000000000L ) );
+	}
+
+}
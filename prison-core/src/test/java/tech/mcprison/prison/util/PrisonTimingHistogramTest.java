@@ -0,0 +1,57 @@
+package tech.mcprison.prison.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PrisonTimingHistogramTest
+{
+
+	@Test
+	public void testBucketBoundaries()
+	{
+		for ( long value = 0; value < 5_000_000; value += 997 ) {
+			int idx = PrisonTimingHistogram.getBucketIndex( value );
+			long high = PrisonTimingHistogram.getBucketHighValue( idx );
+
+			assertTrue( idx < PrisonTimingHistogram.BUCKET_COUNT );
+			assertTrue( value <= high );
+
+			// Within about 6% of the reported value:
+			assertTrue( high - value <= Math.max( 1, value / 16 ) );
+		}
+
+		assertEquals( PrisonTimingHistogram.BUCKET_COUNT - 1,
+				PrisonTimingHistogram.getBucketIndex( Long.MAX_VALUE ) );
+	}
+
+	@Test
+	public void testPercentiles()
+	{
+		PrisonTimingHistogram histogram = new PrisonTimingHistogram( "test" );
+
+		assertEquals( 0, histogram.getPercentileMicros( 50 ) );
+
+		for ( int i = 1; i <= 100; i++ ) {
+			histogram.recordMicros( i * 1000 );
+		}
+
+		assertEquals( 100, histogram.getCount() );
+		assertEquals( 100_000, histogram.getMaxMicros() );
+		assertEquals( 100_000, histogram.getPercentileMicros( 100 ) );
+
+		long p50 = histogram.getPercentileMicros( 50 );
+		assertTrue( p50 >= 50_000 && p50 <= 50_000 + 50_000 / 16 );
+
+		long p99 = histogram.getPercentileMicros( 99 );
+		assertTrue( p99 >= 99_000 && p99 <= 100_000 );
+
+		assertEquals( 50.5, histogram.getAverageMs(), 0.000001 );
+
+		histogram.reset();
+		assertEquals( 0, histogram.getCount() );
+		assertEquals( 0, histogram.getPercentileMicros( 99 ) );
+	}
+
+}
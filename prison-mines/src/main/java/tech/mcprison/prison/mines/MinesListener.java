@@ -4,6 +4,9 @@ import com.google.common.eventbus.Subscribe;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.internal.events.player.PlayerBlockMoveEvent;
+import tech.mcprison.prison.internal.events.player.PlayerJoinEvent;
+import tech.mcprison.prison.internal.events.player.PlayerQuitEvent;
 import tech.mcprison.prison.internal.events.player.PlayerSuffocationEvent;
 import tech.mcprison.prison.internal.events.world.PrisonWorldLoadEvent;
 import tech.mcprison.prison.mines.data.Mine;
@@ -35,6 +38,29 @@ public class MinesListener {
     }
     
     
+    /**
+     * <p>Keeps the mine occupancy up to date as players move between blocks,
+     * teleport, and respawn.
+     * </p>
+     * @param e
+     */
+    @Subscribe
+    public void onPlayerBlockMove( PlayerBlockMoveEvent e ) {
+    	PrisonMines.getInstance().getOccupancyTracker().update( e.getPlayer(), e.getTo() );
+    }
+    
+    @Subscribe
+    public void onPlayerJoin( PlayerJoinEvent e ) {
+    	Player player = e.getPlayer();
+    	PrisonMines.getInstance().getOccupancyTracker().update( player, player.getLocation() );
+    }
+    
+    @Subscribe
+    public void onPlayerQuit( PlayerQuitEvent e ) {
+    	PrisonMines.getInstance().getOccupancyTracker().remove( e.getPlayer() );
+    }
+    
+    
     /**
      * <p>If a player is suffocating, and if they are within a mine, then based upon the config
      * settings, the play may not experience suffocation, and they may be teleported to
@@ -36,6 +36,9 @@ import tech.mcprison.prison.mines.data.MineScheduler.MineResetScheduleType;
 import tech.mcprison.prison.mines.data.MinesConfig;
 import tech.mcprison.prison.mines.data.PrisonSortableResults;
 import tech.mcprison.prison.mines.managers.MineManager;
+import tech.mcprison.prison.mines.managers.MineOccupancyTracker;
+import tech.mcprison.prison.mines.tasks.MineJobScheduler;
+import tech.mcprison.prison.mines.tasks.MineResetCoordinator;
 import tech.mcprison.prison.mines.managers.MineManager.MineSortOrder;
 import tech.mcprison.prison.modules.Module;
 import tech.mcprison.prison.modules.ModuleManager;
@@ -80,12 +83,20 @@ public class PrisonMines extends Module {
      */
 	private final TreeMap<Long, Mine> playerCache;
 
+	private final MineOccupancyTracker occupancyTracker;
+	
+	private final MineJobScheduler jobScheduler;
+	
+	private final MineResetCoordinator resetCoordinator;
 	
     
     public PrisonMines(String version) {
         super(MODULE_NAME, version, 3);
 
     	this.playerCache = new TreeMap<>();
+    	this.occupancyTracker = new MineOccupancyTracker();
+    	this.jobScheduler = new MineJobScheduler();
+    	this.resetCoordinator = new MineResetCoordinator();
     }
 
     public static PrisonMines getInstance() {
@@ -162,6 +173,9 @@ public class PrisonMines extends Module {
     	
     	// Shutdown the mines by saving any unsaved block stats:
     	getMineManager().saveMinesIfUnsavedBlockCounts();
+    	
+    	getJobScheduler().stop();
+    	getResetCoordinator().clearQueue();
     }
 	
 	
@@ -233,6 +247,50 @@ public class PrisonMines extends Module {
 		return playerCache;
 	}
 	
+	/**
+	 * <p>The players that are within each mine, which is updated as the players move.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public MineOccupancyTracker getOccupancyTracker() {
+		return occupancyTracker;
+	}
+	
+	/**
+	 * <p>All of the mines' jobs, such as reset messages and resets, are scheduled 
+	 * through this one scheduler.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public MineJobScheduler getJobScheduler() {
+		return jobScheduler;
+	}
+	
+	/**
+	 * <p>All of the mine resets are started through this coordinator, which limits
+	 * how many resets can be placing blocks at the same time.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public MineResetCoordinator getResetCoordinator() {
+		return resetCoordinator;
+	}
+	
+	/**
+	 * <p>When a mine is added, removed, or its bounds have changed, then the mine 
+	 * occupancy must be rebuilt.  This does nothing if the mines module has not been
+	 * enabled yet, since there are no players being tracked.
+	 * </p>
+	 */
+	public static void invalidateOccupancy() {
+		if ( i != null ) {
+			i.getOccupancyTracker().invalidate();
+		}
+	}
+
 	public Mine findMineLocation( Player player ) {
 		Mine results = null;
 		
@@ -53,6 +53,9 @@ import tech.mcprison.prison.mines.features.MineLinerBuilder.LinerPatterns;
 import tech.mcprison.prison.mines.features.MineLinerData.LadderType;
 import tech.mcprison.prison.mines.managers.MineManager;
 import tech.mcprison.prison.mines.managers.MineManager.MineSortOrder;
+import tech.mcprison.prison.mines.tasks.MineJobScheduler;
+import tech.mcprison.prison.mines.tasks.MineJobScheduler.ScheduledMineJob;
+import tech.mcprison.prison.mines.tasks.MineResetCoordinator;
 import tech.mcprison.prison.mines.tasks.MineTeleportWarmUpTask;
 import tech.mcprison.prison.modules.ModuleElementType;
 import tech.mcprison.prison.output.BulletedListComponent;
@@ -1502,6 +1505,62 @@ public class MinesCommands
     }
 
 
+    @Command(identifier = "mines schedule", permissions = "mines.schedule", onlyPlayers = false,
+    		description = "Lists the upcoming mine jobs, such as reset messages and resets, " +
+    				"in the order they will run.  Resets of large mines are staggered so they " +
+    				"will not start at the same time.")
+    public void scheduleCommand(CommandSender sender, 
+    		@Arg(name = "page", def = "1", 
+    				description = "Page of search results (optional) [1-n, ALL]") String page 
+    		) {
+    	
+    	MineJobScheduler scheduler = PrisonMines.getInstance().getJobScheduler();
+    	List<ScheduledMineJob> jobs = scheduler.getScheduledJobs();
+    	
+    	ChatDisplay display = new ChatDisplay("Mine Schedule");
+    	
+    	DecimalFormat dFmt = Prison.get().getDecimalFormatInt();
+    	DecimalFormat fFmt = Prison.get().getDecimalFormat("#,##0.00");
+    	
+    	display.addText( "&3  Scheduled jobs: &7%s   &3Jitter: &7%s ticks   &3Stagger: &7%s ticks",
+    			dFmt.format( jobs.size() ), 
+    			dFmt.format( scheduler.getJitterTicks() ),
+    			dFmt.format( scheduler.getStaggerTicks() ) );
+    	display.addText( "&3  Large mines have at least &7%s &3blocks.",
+    			dFmt.format( scheduler.getLargeMineBlockCount() ) );
+    	
+    	MineResetCoordinator coordinator = PrisonMines.getInstance().getResetCoordinator();
+    	display.addText( "&3  Resets active: &7%s &3of &7%s   &3Queued: &7%s   " +
+    			"&3Blocks in flight: &7%s &3of &7%s",
+    			dFmt.format( coordinator.getActiveCount() ),
+    			dFmt.format( coordinator.getMaxConcurrentResets() ),
+    			dFmt.format( coordinator.getQueuedCount() ),
+    			dFmt.format( coordinator.getBlocksInFlight() ),
+    			dFmt.format( coordinator.getMaxBlocksInFlight() ) );
+    	
+    	CommandPagedData cmdPageData = new CommandPagedData(
+    			"/mines schedule", jobs.size(), 0, page, 14 );
+    	
+    	long currentTick = scheduler.getCurrentTick();
+    	
+    	int count = 0;
+    	for ( ScheduledMineJob job : jobs ) {
+    		if ( count++ >= cmdPageData.getPageStart() && count <= cmdPageData.getPageEnd() ) {
+    			
+    			double seconds = (job.getDueTick() - currentTick) / 20.0d;
+    			
+    			display.addText( "&7  %s &3%s &7in &b%s &7sec%s", 
+    					job.getMineName(), job.getDescription(), 
+    					fFmt.format( seconds ),
+    					( job.isLargeMine() ? " &d(large)" : "" ) );
+    		}
+    	}
+    	
+    	cmdPageData.generatePagedCommandFooter( display );
+    	
+    	display.send(sender);
+    }
+
     @Command(identifier = "mines list", permissions = "mines.list", onlyPlayers = false)
     public void listCommand(CommandSender sender, 
     		@Arg(name = "sort", def = "sortOrder",
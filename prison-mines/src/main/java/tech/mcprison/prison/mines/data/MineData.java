@@ -14,6 +14,7 @@ import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
+import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.data.Mine.MineType;
 import tech.mcprison.prison.mines.features.MineBlockEvent;
 import tech.mcprison.prison.mines.features.MineLinerData;
@@ -477,6 +478,8 @@ public abstract class MineData
     	// in the document loader under Mine.loadFromDocument as the first field
     	// that is set when restoring from the file.
     	//this.worldName = bounds.getMin().getWorld().getName();
+    	
+    	PrisonMines.invalidateOccupancy();
     }
 
     
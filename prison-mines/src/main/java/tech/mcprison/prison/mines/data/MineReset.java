@@ -19,6 +19,7 @@ import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
 import tech.mcprison.prison.mines.PrisonMines;
+import tech.mcprison.prison.mines.managers.MineManager;
 import tech.mcprison.prison.mines.data.MineScheduler.MineJob;
 import tech.mcprison.prison.mines.data.MineScheduler.MineResetActions;
 import tech.mcprison.prison.mines.events.MineResetEvent;
@@ -159,10 +160,13 @@ public abstract class MineReset
 	protected void initialize() {
     	super.initialize();
     	
-    	if ( !isVirtual() ) {
+    	if ( !isVirtual() && getBounds() != null ) {
     		
     		// Once the mine has been loaded, MUST get a count of all air blocks.
-    		refreshBlockBreakCountUponStartup( 0 );
+    		// On startup, the mines are counted one after another:
+    		MineManager mm = PrisonMines.getInstance().getMineManager();
+    		
+    		refreshBlockBreakCountUponStartup( mm == null ? 0 : mm.nextStartupValidationDelay() );
     	}
     }
     
@@ -486,15 +490,7 @@ public abstract class MineReset
 		
 		if ( !isVirtual() && isEnabled() ) {
 
-			World world = getWorld().get();
-			
-			List<Player> players = (world.getPlayers() != null ? world.getPlayers() : 
-				Prison.get().getPlatform().getOnlinePlayers());
-			for (Player player : players) {
-				if ( getBounds().withinIncludeTopBottomOfMine(player.getLocation()) ) {
-					count++;
-				}
-			}
+			count = PrisonMines.getInstance().getOccupancyTracker().getPlayerCount( (Mine) this );
 		}
 		
 		return count;
@@ -1805,18 +1801,13 @@ public abstract class MineReset
 						else {
 							
 							
-							String targetBlockName = tpBlock.getBlockName();
-							
-							
-							if ( pBlock.getBlockName().equalsIgnoreCase( targetBlockName) ) {
+							// Compares the block ids when both blocks have them:
+							if ( pBlock.isSameBlockName( tpBlock ) ) {
 								targetBlock.setCheckSame( true );
 							}
 							else if ( pBlock.isAir() ) {
 								targetBlock.setCheckAir( true );
 							}
-							else if ( pBlock.getBlockName().equalsIgnoreCase( targetBlockName) ) {
-								targetBlock.setCheckSame( true );
-							}
 							else {
 								targetBlock.setCheckSame( false );
 								
@@ -2215,8 +2206,7 @@ public abstract class MineReset
     				if ( targetBlock != null && 
     						targetBlock.getPrisonBlock().getConstraintMin() == 0 &&
     						targetBlock.getPrisonBlock().getConstraintMax() == 0 &&
-    						!targetBlock.getPrisonBlock().getBlockName().equalsIgnoreCase( 
-    								block.getBlockName() ) ) {
+    						!targetBlock.getPrisonBlock().isSameBlockName( block ) ) {
     					
     					// decrement the block count on the block being removed:
     					if ( targetBlock.getPrisonBlock().isAir() ) {
@@ -5,8 +5,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 import java.util.Stack;
+import java.util.concurrent.ThreadLocalRandom;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
@@ -18,12 +18,13 @@ import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
 import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.features.MineBlockEvent;
 import tech.mcprison.prison.mines.features.MineBlockEvent.BlockEventType;
+import tech.mcprison.prison.mines.tasks.MineJobScheduler.ScheduledMineJob;
 import tech.mcprison.prison.mines.tasks.MinePagedResetAsyncTask;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonCommandDispatcher.CommandPriority;
 import tech.mcprison.prison.tasks.PrisonCommandTaskData;
 import tech.mcprison.prison.tasks.PrisonCommandTaskData.CustomPlaceholders;
 import tech.mcprison.prison.tasks.PrisonRunnable;
-import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 import tech.mcprison.prison.tasks.PrisonCommandTasks;
 import tech.mcprison.prison.util.Location;
 
@@ -47,7 +48,7 @@ public abstract class MineScheduler
 	private List<MineJob> jobWorkflow;
 	private Stack<MineJob> jobStack;
 //	private MineJob currentJob;
-	private Integer taskId = null;
+	private ScheduledMineJob scheduledJob = null;
 	
 	private transient long mineResetStartTimestamp;
 	
@@ -485,17 +486,29 @@ public abstract class MineScheduler
 	 */
 	private void submitTask() {
 		if ( getCurrentJob() != null ) {
-			// Need to set the targetRestTime when the job is first submitted since that is the ideal time:
-			long targetResetTime = System.currentTimeMillis() + 
-									Math.round(getCurrentJob().getJobSubmitResetInSec() * 1000.0d);
-			setTargetResetTime( targetResetTime );
+			long now = System.currentTimeMillis();
 			
 			long ticksToWait = Math.round( getCurrentJob().getDelayActionSec() * 20.0d);
 			
+			MineJobAction action = getCurrentJob().getAction();
+			MineResetScheduleType resetType = getCurrentJob().getResetType();
+			
+			boolean reset = action == MineJobAction.RESET_ASYNC || action == MineJobAction.RESET_SYNC;
+			long blockCount = isVirtual() || getBounds() == null ? 0 : getBounds().getTotalBlockCount();
 			
 			// Submit currentJob using delay in the job. Must be a one time run, no repeats.
-			int taskId = PrisonTaskSubmitter.runTaskLater(this, ticksToWait);
-			setTaskId( taskId );
+			// The job scheduler may add a few ticks to a reset to spread them out.
+			ScheduledMineJob job = PrisonMines.getInstance().getJobScheduler().schedule( 
+					getName(), action.name() + " " + resetType.name(), this, ticksToWait, 
+					reset, reset && resetType == MineResetScheduleType.NORMAL, blockCount );
+			setScheduledJob( job );
+			
+			long addedMs = Math.max( 0, job.getDueTimestamp() - (now + ticksToWait * 50) );
+			
+			// Need to set the targetRestTime when the job is first submitted since that is the ideal time:
+			long targetResetTime = now + addedMs +
+									Math.round(getCurrentJob().getJobSubmitResetInSec() * 1000.0d);
+			setTargetResetTime( targetResetTime );
 		} 
 		else {
 			Output.get().logError("Mine " + getName() +
@@ -517,9 +530,14 @@ public abstract class MineScheduler
 		
 		getJobStack().clear();
 	
-		int taskId = getTaskId();
-		
-		PrisonTaskSubmitter.cancelTask( taskId );
+		cancelScheduledJob();
+	}
+	
+	private void cancelScheduledJob() {
+		if ( getScheduledJob() != null ) {
+			PrisonMines.getInstance().getJobScheduler().cancel( getScheduledJob() );
+			setScheduledJob( null );
+		}
 	}
 	
 	public void submit( double offsetSeconds ) {
@@ -565,7 +583,7 @@ public abstract class MineScheduler
 			
 			List<PrisonCommandTaskData> cmdTasks = new ArrayList<>();
 			
-			Random random = new Random();
+			ThreadLocalRandom random = ThreadLocalRandom.current();
 			
 			int row = 0;
 			for ( MineBlockEvent blockEvent : getBlockEvents() ) {
@@ -577,7 +595,8 @@ public abstract class MineScheduler
 			}
 			
 			
-			PrisonCommandTasks.submitTasks( player, cmdTasks );
+			// Block events have a lower priority than rankup and mine reset commands:
+			PrisonCommandTasks.submitTasks( player, cmdTasks, CommandPriority.low );
 		}
 	}
 
@@ -847,9 +866,9 @@ public abstract class MineScheduler
 			}
 
 			
-			getMineStateMutex().setMineStateResetStart();
-			
-			setMineResetStartTimestamp( System.currentTimeMillis() );
+			// The mutex is not locked here, since the reset may have to wait in the
+			// MineResetCoordinator's queue, and the mine should remain minable while it 
+			// waits.  The MinePagedResetAsyncTask locks it when the reset is started.
 
 			
 //			// Lock the mine's mutex if it's still minable.  Otherwise skip it since the
@@ -880,9 +899,7 @@ public abstract class MineScheduler
 			
 			
 			// cancel existing job:
-			if ( getTaskId() != null ) {
-				PrisonTaskSubmitter.cancelTask( getTaskId() );
-			}
+			cancelScheduledJob();
 			
 			// Clear jobStack and set currentJob to run the RESET with zero delay:
 			getJobStack().clear();
@@ -921,13 +938,13 @@ public abstract class MineScheduler
 		this.jobStack = jobStack;
 	}
 
-	public Integer getTaskId()
+	public ScheduledMineJob getScheduledJob()
 	{
-		return taskId;
+		return scheduledJob;
 	}
-	public void setTaskId( Integer taskId )
+	public void setScheduledJob( ScheduledMineJob scheduledJob )
 	{
-		this.taskId = taskId;
+		this.scheduledJob = scheduledJob;
 	}
 
 	public long getMineResetStartTimestamp() {
@@ -102,13 +102,12 @@ public abstract class MineTasks
 
     	try {
     		if ( isEnabled() && world != null ) {
-    			List<Player> players = (world.getPlayers() != null ? world.getPlayers() : 
-    				Prison.get().getPlatform().getOnlinePlayers());
+    			// The occupancy tracker returns a copy of the players, so teleporting 
+    			// them out will not change the list:
+    			List<Player> players = PrisonMines.getInstance().getOccupancyTracker()
+    											.getPlayers( (Mine) this );
     			for (Player player : players) {
-    				if ( getBounds().withinIncludeTopBottomOfMine(player.getLocation()) ) {
-    					
-    					teleportPlayerOut(player);
-    				}
+    				teleportPlayerOut(player);
     			}
     		}
     		
@@ -253,6 +252,29 @@ public abstract class MineTasks
 	
 
 	
+	/**
+	 * <p>Returns the players that may need to receive the mine's notifications.  
+	 * If the notification mode is within the mine, then only the players that are 
+	 * tracked as being within the mine are returned, otherwise all of the players 
+	 * within the world are returned and they must be checked for the radius.
+	 * </p>
+	 * 
+	 * @param world
+	 * @return
+	 */
+	private List<Player> getNotificationPlayers( World world ) {
+		List<Player> results = null;
+		
+		if ( getNotificationMode() == MineNotificationMode.within ) {
+			results = PrisonMines.getInstance().getOccupancyTracker().getPlayers( (Mine) this );
+		}
+		else {
+			results = (world.getPlayers() != null ? world.getPlayers() : 
+				Prison.get().getPlatform().getOnlinePlayers());
+		}
+		
+		return results;
+	}
 	
 	@Override
     protected void broadcastResetMessageToAllPlayersWithRadius() {
@@ -266,8 +288,7 @@ public abstract class MineTasks
     		World world = getBounds().getCenter().getWorld();
     		
     		if ( world != null ) {
-    			List<Player> players = (world.getPlayers() != null ? world.getPlayers() : 
-    				Prison.get().getPlatform().getOnlinePlayers());
+    			List<Player> players = getNotificationPlayers( world );
     			for (Player player : players) {
     				
     				// Check for either mode: Within the mine, or by radius from mines center:
@@ -317,8 +338,7 @@ public abstract class MineTasks
 				World world = getBounds().getCenter().getWorld();
 				
 				if ( world != null ) {
-					List<Player> players = (world.getPlayers() != null ? world.getPlayers() : 
-						Prison.get().getPlatform().getOnlinePlayers());
+					List<Player> players = getNotificationPlayers( world );
 					for (Player player : players) {
 						
 						// Check for either mode: Within the mine, or by radius from mines center:
@@ -361,8 +381,7 @@ public abstract class MineTasks
     		World world = getBounds().getCenter().getWorld();
     		
     		if ( world != null ) {
-    			List<Player> players = (world.getPlayers() != null ? world.getPlayers() : 
-    				Prison.get().getPlatform().getOnlinePlayers());
+    			List<Player> players = getNotificationPlayers( world );
     			for (Player player : players) {
     				// Check for either mode: Within the mine, or by radius from mines center:
     				if ( getNotificationMode() == MineNotificationMode.within && 
@@ -80,6 +80,16 @@ public class MineManager
     private List<String> mineResetCommands;
     private int mineResetCommandsCurrentTaskId = 0;
     private List<MineResetActions> mineResetActions;
+    
+    /**
+     * <p>While the mines are being loaded on startup, each mine's block count
+     * validation is delayed by this many more ticks than the mine before it, 
+     * so the mines are validated one after another instead of all at once.
+     * Set with <code>prison-mines.startup-validation-gap-ticks</code>.
+     * </p>
+     */
+    private long startupValidationGapTicks = -1;
+    private long startupValidationDelay = -1;
 
     // private Pattern simpleNumberPattern = Pattern.compile("([0-9]+)");
 
@@ -316,6 +326,8 @@ public class MineManager
             results = getMines().add(mine);
             getMinesByName().put( mine.getName().toLowerCase(), mine );
             
+            PrisonMines.invalidateOccupancy();
+            
             // Start its scheduling:
             mine.submit( offsetTimingMs / 1000d );
         }
@@ -341,15 +353,36 @@ public class MineManager
     		coll.delete( mine.getName() );
     		getMinesByName().remove(mine.getName().toLowerCase());
     		success = getMines().remove(mine);
+    		
+    		PrisonMines.invalidateOccupancy();
     	}
 	    return success;
     }
 
 
 
+    /**
+     * <p>The mine documents are read by the FileCollection, which uses its worker
+     * pool when there are many mines.  The mines are then created on the server's
+     * thread since they need to find their worlds.  Counting the blocks within 
+     * each mine is the slow part, so that is submitted with an increasing delay 
+     * for each mine, which allows the startup to finish and the mines to be 
+     * validated one at a time after that.
+     * </p>
+     * 
+     * @param offsetTimingMs
+     */
     private void loadMines( long offsetTimingMs ) {
+    	long start = System.nanoTime();
+    	
         List<Document> mineDocuments = coll.getAll();
+        
+        long docsNanos = System.nanoTime() - start;
 
+        startupValidationGapTicks = Prison.get().getPlatform()
+        				.getConfigLong( "prison-mines.startup-validation-gap-ticks", 2 );
+        startupValidationDelay = 0;
+        
         int offsetMs = 0;
         for (Document document : mineDocuments) {
             try {
@@ -363,6 +396,38 @@ public class MineManager
             }
         }
         
+        long validationTicks = startupValidationDelay;
+        
+        // Mines that are created after startup are validated right away:
+        startupValidationDelay = -1;
+        
+        DecimalFormat dFmt = Prison.get().getDecimalFormatDouble();
+        
+        Output.get().logInfo( "Mines: read %d mine files in %s ms, and created the mines in %s ms. " +
+        		"The mines will be validated over the next %d ticks.", 
+        		mineDocuments.size(),
+        		dFmt.format( docsNanos / 1_000_000.0d ),
+        		dFmt.format( (System.nanoTime() - start - docsNanos) / 1_000_000.0d ),
+        		validationTicks );
+    }
+    
+    /**
+     * <p>Returns the delay, in ticks, to use for a mine's startup block count 
+     * validation.  While the mines are being loaded, each call returns a longer
+     * delay, otherwise it returns zero.
+     * </p>
+     * 
+     * @return
+     */
+    public long nextStartupValidationDelay() {
+    	long results = 0;
+    	
+    	if ( startupValidationDelay >= 0 ) {
+    		results = startupValidationDelay;
+    		startupValidationDelay += startupValidationGapTicks;
+    	}
+    	
+    	return results;
     }
 
     /**
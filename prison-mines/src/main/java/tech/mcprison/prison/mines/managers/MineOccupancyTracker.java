@@ -0,0 +1,291 @@
+package tech.mcprison.prison.mines.managers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.mines.PrisonMines;
+import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.util.Bounds;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>This keeps track of which players are within each mine, so the player
+ * counts, the reset notifications, and teleporting players out of a mine
+ * before a reset, do not need to check every player in the world for every
+ * mine.  It is updated when players join, quit, teleport, and move in to a
+ * different block.  A player is within a mine if they are within the mine's
+ * bounds, including one block above and below, which is the same as
+ * <code>Bounds.withinIncludeTopBottomOfMine()</code>.
+ * </p>
+ *
+ * <p>To find the mine for a location, the mines are indexed by the 16 x 16
+ * chunk columns that they cover, so only the few mines within that column
+ * are checked.  When a mine is added, removed, or its bounds change, the index
+ * is invalidated, then rebuilt, and all of the online players are checked
+ * again the next time it is used.
+ * </p>
+ *
+ */
+public class MineOccupancyTracker
+{
+	private final Map<UUID, Mine> mineByPlayer;
+	private final Map<String, Map<UUID, Player>> playersByMine;
+
+	/**
+	 * <p>The mines within each world, by chunk column.  The world names are in
+	 * lower case.
+	 * </p>
+	 */
+	private volatile Map<String, Map<Long, Mine[]>> index;
+
+	private volatile boolean refreshPlayers = true;
+
+	public MineOccupancyTracker() {
+		super();
+
+		this.mineByPlayer = new ConcurrentHashMap<>();
+		this.playersByMine = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * <p>This must be called when a mine is added, removed, or its bounds have
+	 * changed.
+	 * </p>
+	 */
+	public void invalidate() {
+		index = null;
+		refreshPlayers = true;
+	}
+
+	/**
+	 * <p>Updates the mine that the player is in, based upon the player's new
+	 * location.
+	 * </p>
+	 *
+	 * @param player
+	 * @param location
+	 */
+	public void update( Player player, Location location ) {
+		if ( player == null || player.getUUID() == null ) {
+			return;
+		}
+
+		refreshIfNeeded();
+
+		UUID uuid = player.getUUID();
+		Mine current = mineByPlayer.get( uuid );
+
+		// Most moves are within the same mine, or not within any mine:
+		if ( current != null && isInMine( current, location ) ) {
+			return;
+		}
+
+		Mine mine = findMine( location );
+
+		if ( mine != current ) {
+			if ( current != null ) {
+				getPlayersMap( current ).remove( uuid );
+			}
+
+			if ( mine == null ) {
+				mineByPlayer.remove( uuid );
+			}
+			else {
+				mineByPlayer.put( uuid, mine );
+				getPlayersMap( mine ).put( uuid, player );
+			}
+		}
+		else if ( mine != null ) {
+			// Keep the latest player object:
+			getPlayersMap( mine ).put( uuid, player );
+		}
+	}
+
+	/**
+	 * <p>Removes the player when they leave the server.
+	 * </p>
+	 *
+	 * @param player
+	 */
+	public void remove( Player player ) {
+		if ( player == null || player.getUUID() == null ) {
+			return;
+		}
+
+		Mine mine = mineByPlayer.remove( player.getUUID() );
+
+		if ( mine != null ) {
+			getPlayersMap( mine ).remove( player.getUUID() );
+		}
+	}
+
+	/**
+	 * <p>Returns the mine that the player is within, or null if they are not
+	 * within a mine.
+	 * </p>
+	 *
+	 * @param player
+	 * @return
+	 */
+	public Mine getMine( Player player ) {
+		refreshIfNeeded();
+
+		return player == null || player.getUUID() == null ? null :
+					mineByPlayer.get( player.getUUID() );
+	}
+
+	/**
+	 * <p>Returns a copy of the players that are within the mine, so the players
+	 * can be teleported without changing the list.
+	 * </p>
+	 *
+	 * @param mine
+	 * @return
+	 */
+	public List<Player> getPlayers( Mine mine ) {
+		refreshIfNeeded();
+
+		Map<UUID, Player> players = playersByMine.get( mine.getName() );
+
+		return players == null || players.size() == 0 ?
+					Collections.emptyList() : new ArrayList<>( players.values() );
+	}
+
+	public int getPlayerCount( Mine mine ) {
+		refreshIfNeeded();
+
+		Map<UUID, Player> players = playersByMine.get( mine.getName() );
+
+		return players == null ? 0 : players.size();
+	}
+
+	private Map<UUID, Player> getPlayersMap( Mine mine ) {
+		return playersByMine.computeIfAbsent( mine.getName(), k -> new ConcurrentHashMap<>() );
+	}
+
+	/**
+	 * <p>After the mines have changed, all of the online players are checked again
+	 * so the players that did not move are still within the right mine.
+	 * </p>
+	 */
+	private void refreshIfNeeded() {
+		if ( refreshPlayers ) {
+			synchronized ( this ) {
+				if ( refreshPlayers ) {
+					refreshPlayers = false;
+
+					mineByPlayer.clear();
+					playersByMine.clear();
+
+					if ( Prison.get().getPlatform() != null ) {
+						for ( Player player : Prison.get().getPlatform().getOnlinePlayers() ) {
+							update( player, player.getLocation() );
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private boolean isInMine( Mine mine, Location location ) {
+		return !mine.isVirtual() && mine.getBounds() != null &&
+				mine.getBounds().withinIncludeTopBottomOfMine( location );
+	}
+
+	/**
+	 * <p>Finds the first mine that contains the location, by only checking the mines
+	 * within the location's chunk column.
+	 * </p>
+	 *
+	 * @param location
+	 * @return
+	 */
+	public Mine findMine( Location location ) {
+		Mine results = null;
+
+		if ( location != null && location.getWorld() != null ) {
+
+			Map<Long, Mine[]> worldIndex = getIndex().get( location.getWorld().getName().toLowerCase() );
+
+			if ( worldIndex != null ) {
+				Mine[] mines = worldIndex.get(
+						getChunkKey( location.getBlockX() >> 4, location.getBlockZ() >> 4 ) );
+
+				if ( mines != null ) {
+					for ( Mine mine : mines ) {
+						if ( isInMine( mine, location ) ) {
+							results = mine;
+							break;
+						}
+					}
+				}
+			}
+		}
+
+		return results;
+	}
+
+	private Map<String, Map<Long, Mine[]>> getIndex() {
+		Map<String, Map<Long, Mine[]>> results = index;
+
+		if ( results == null ) {
+			results = buildIndex();
+			index = results;
+		}
+
+		return results;
+	}
+
+	private Map<String, Map<Long, Mine[]>> buildIndex() {
+		Map<String, Map<Long, List<Mine>>> temp = new HashMap<>();
+
+		PrisonMines pMines = PrisonMines.getInstance();
+		List<Mine> mines = pMines.getMineManager() == null ?
+						Collections.emptyList() : pMines.getMines();
+
+		// Keep the mines in the same order as the mine manager, so overlapping
+		// mines are found in the same order as before:
+		for ( Mine mine : mines ) {
+			Bounds bounds = mine.getBounds();
+
+			if ( mine.isVirtual() || bounds == null || bounds.getCenter() == null ||
+					bounds.getCenter().getWorld() == null ) {
+				continue;
+			}
+
+			Map<Long, List<Mine>> worldIndex = temp.computeIfAbsent(
+					bounds.getCenter().getWorld().getName().toLowerCase(), k -> new HashMap<>() );
+
+			for ( int cx = bounds.getxBlockMin() >> 4; cx <= bounds.getxBlockMax() >> 4; cx++ ) {
+				for ( int cz = bounds.getzBlockMin() >> 4; cz <= bounds.getzBlockMax() >> 4; cz++ ) {
+					worldIndex.computeIfAbsent( getChunkKey( cx, cz ), k -> new ArrayList<>() ).add( mine );
+				}
+			}
+		}
+
+		Map<String, Map<Long, Mine[]>> results = new HashMap<>();
+
+		for ( Map.Entry<String, Map<Long, List<Mine>>> world : temp.entrySet() ) {
+			Map<Long, Mine[]> worldIndex = new HashMap<>();
+
+			for ( Map.Entry<Long, List<Mine>> column : world.getValue().entrySet() ) {
+				worldIndex.put( column.getKey(), column.getValue().toArray( new Mine[0] ) );
+			}
+
+			results.put( world.getKey(), worldIndex );
+		}
+
+		return results;
+	}
+
+	private static long getChunkKey( int chunkX, int chunkZ ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xffffffffL);
+	}
+}
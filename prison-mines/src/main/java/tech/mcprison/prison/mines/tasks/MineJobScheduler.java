@@ -0,0 +1,434 @@
+package tech.mcprison.prison.mines.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>This is the one scheduler that runs all of the mine jobs; the reset
+ * warning messages, the timed resets, and the zero block resets.  Instead of
+ * each mine submitting its own task to the platform's scheduler, the jobs are
+ * placed within a hierarchical timing wheel that is advanced by one task that
+ * runs every tick.
+ * </p>
+ *
+ * <p>The first wheel has one slot for each of the next 256 ticks, and each of
+ * the next three wheels have 64 slots that each cover all of the slots of the
+ * prior wheel.  When a wheel completes a full turn, the jobs within the next
+ * slot of the outer wheel are moved to the inner wheels, so adding, canceling,
+ * and running a job never has to look at the other jobs.
+ * </p>
+ *
+ * <p>To prevent the mine resets from all landing on the same ticks, such as
+ * after a restart, the timed resets are given a random jitter, and the resets
+ * of the large mines are staggered so no two large mines will start to reset
+ * within the stagger ticks of each other.  The settings are:
+ * </p>
+ *
+ * <ul>
+ *   <li><b>prison-mines.reset-scheduler.jitter-ticks</b> - default 40 ticks.
+ *   		The timed resets are delayed by a random 0 to this number of ticks.</li>
+ *   <li><b>prison-mines.reset-scheduler.stagger-ticks</b> - default 20 ticks.
+ *   		The minimum number of ticks between the resets of large mines.</li>
+ *   <li><b>prison-mines.reset-scheduler.large-mine-block-count</b> - default
+ *   		50,000 blocks. Mines with this many blocks are large mines.</li>
+ * </ul>
+ *
+ */
+public class MineJobScheduler
+	implements Runnable
+{
+	public static final int JITTER_TICKS_DEFAULT = 40;
+	public static final int STAGGER_TICKS_DEFAULT = 20;
+	public static final int LARGE_MINE_BLOCK_COUNT_DEFAULT = 50000;
+
+	private static final int[] WHEEL_BITS = { 8, 6, 6, 6 };
+	private static final int[] WHEEL_SHIFT = { 0, 8, 14, 20 };
+	private static final int WHEELS = WHEEL_BITS.length;
+
+	private final List<List<ScheduledMineJob>> wheels;
+
+	/**
+	 * <p>The ticks that the large mines are scheduled to start their resets,
+	 * with the job that will start the reset.
+	 * </p>
+	 */
+	private final TreeMap<Long, ScheduledMineJob> largeResetTicks;
+
+	private long currentTick = 0;
+
+	private int jitterTicks;
+	private int staggerTicks;
+	private int largeMineBlockCount;
+
+	private Integer taskId = null;
+
+
+	/**
+	 * <p>A job that has been placed within the timing wheel.  A job is canceled
+	 * by marking it as canceled, and it is then dropped when its slot is reached.
+	 * </p>
+	 *
+	 */
+	public static class ScheduledMineJob {
+		private final String mineName;
+		private final String description;
+		private final Runnable task;
+		private final boolean reset;
+		private final boolean largeMine;
+
+		private long dueTick;
+		private long dueTimestamp;
+		private volatile boolean canceled = false;
+
+		protected ScheduledMineJob( String mineName, String description, Runnable task,
+						boolean reset, boolean largeMine ) {
+			super();
+
+			this.mineName = mineName;
+			this.description = description;
+			this.task = task;
+			this.reset = reset;
+			this.largeMine = largeMine;
+		}
+
+		public String getMineName() {
+			return mineName;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public boolean isReset() {
+			return reset;
+		}
+
+		public boolean isLargeMine() {
+			return largeMine;
+		}
+
+		public long getDueTick() {
+			return dueTick;
+		}
+
+		/**
+		 * <p>The estimated time when this job will run, based upon when it was
+		 * scheduled.  If the server is lagging, it will run later.
+		 * </p>
+		 *
+		 * @return
+		 */
+		public long getDueTimestamp() {
+			return dueTimestamp;
+		}
+
+		public boolean isCanceled() {
+			return canceled;
+		}
+	}
+
+
+	public MineJobScheduler() {
+		super();
+
+		this.wheels = new ArrayList<>();
+		for ( int w = 0; w < WHEELS; w++ ) {
+			for ( int s = 0; s < (1 << WHEEL_BITS[w]); s++ ) {
+				this.wheels.add( new ArrayList<>() );
+			}
+		}
+
+		this.largeResetTicks = new TreeMap<>();
+
+		this.jitterTicks = JITTER_TICKS_DEFAULT;
+		this.staggerTicks = STAGGER_TICKS_DEFAULT;
+		this.largeMineBlockCount = LARGE_MINE_BLOCK_COUNT_DEFAULT;
+	}
+
+	/**
+	 * <p>Loads the settings from the config.yml file, and starts the task that
+	 * advances the wheel, if it has not been started yet.
+	 * </p>
+	 */
+	public synchronized void start() {
+		if ( taskId == null && Prison.get().getPlatform() != null ) {
+
+			jitterTicks = Math.max( 0, Prison.get().getPlatform().getConfigInt(
+					"prison-mines.reset-scheduler.jitter-ticks", JITTER_TICKS_DEFAULT ) );
+			staggerTicks = Math.max( 1, Prison.get().getPlatform().getConfigInt(
+					"prison-mines.reset-scheduler.stagger-ticks", STAGGER_TICKS_DEFAULT ) );
+			largeMineBlockCount = Math.max( 0, Prison.get().getPlatform().getConfigInt(
+					"prison-mines.reset-scheduler.large-mine-block-count",
+					LARGE_MINE_BLOCK_COUNT_DEFAULT ) );
+
+			taskId = PrisonTaskSubmitter.runTaskTimer( this, 1, 1 );
+		}
+	}
+
+	public synchronized void stop() {
+		if ( taskId != null ) {
+			PrisonTaskSubmitter.cancelTask( taskId );
+			taskId = null;
+		}
+	}
+
+	/**
+	 * <p>Schedules a job to run in the given number of ticks.  If this is a timed
+	 * reset, then the jitter is added.  If this is the reset of a large mine,
+	 * then it will be delayed until it is at least the stagger ticks away from the
+	 * other large mine resets.  The job's task is ran in the server's thread.
+	 * </p>
+	 *
+	 * @param mineName
+	 * @param description What the job will do, for the /mines schedule listing.
+	 * @param task
+	 * @param delayTicks
+	 * @param reset True if this job will start a reset.
+	 * @param timedReset True if this is a timed reset, so jitter can be added.
+	 * @param blockCount The number of blocks within the mine.
+	 * @return The scheduled job, which can be used to cancel it.
+	 */
+	public ScheduledMineJob schedule( String mineName, String description, Runnable task,
+					long delayTicks, boolean reset, boolean timedReset, long blockCount ) {
+
+		start();
+
+		boolean largeMine = reset && blockCount >= largeMineBlockCount;
+
+		ScheduledMineJob job = new ScheduledMineJob( mineName, description, task,
+									reset, largeMine );
+
+		long delay = Math.max( 1, delayTicks );
+		if ( timedReset && jitterTicks > 0 ) {
+			delay += ThreadLocalRandom.current().nextInt( jitterTicks + 1 );
+		}
+
+		synchronized ( this ) {
+			long dueTick = currentTick + delay;
+
+			if ( largeMine ) {
+				dueTick = findStaggeredTick( dueTick );
+				largeResetTicks.put( dueTick, job );
+			}
+
+			job.dueTick = dueTick;
+			job.dueTimestamp = System.currentTimeMillis() + (dueTick - currentTick) * 50;
+
+			insert( job );
+		}
+
+		return job;
+	}
+
+	/**
+	 * <p>Finds the first tick, at or after the given tick, that is at least the
+	 * stagger ticks away from all of the other large mine resets.
+	 * </p>
+	 *
+	 * @param tick
+	 * @return
+	 */
+	private long findStaggeredTick( long tick ) {
+		long results = tick;
+
+		boolean moved = true;
+		while ( moved ) {
+			moved = false;
+
+			Long lower = largeResetTicks.floorKey( results );
+			if ( lower != null && results - lower < staggerTicks ) {
+				results = lower + staggerTicks;
+				moved = true;
+			}
+
+			Long higher = largeResetTicks.ceilingKey( results );
+			if ( higher != null && higher - results < staggerTicks ) {
+				results = higher + staggerTicks;
+				moved = true;
+			}
+		}
+
+		return results;
+	}
+
+	public void cancel( ScheduledMineJob job ) {
+		if ( job != null ) {
+			job.canceled = true;
+
+			if ( job.isLargeMine() ) {
+				synchronized ( this ) {
+					largeResetTicks.remove( job.getDueTick(), job );
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Places the job within the innermost wheel that can hold it.  When a job is
+	 * moved down from an outer wheel, it may be due on the current tick, so it is
+	 * placed in the current slot, which is about to be ran.
+	 * </p>
+	 *
+	 * @param job
+	 */
+	private void insert( ScheduledMineJob job ) {
+		long delta = Math.max( 0, job.getDueTick() - currentTick );
+		long dueTick = currentTick + delta;
+
+		int offset = 0;
+		for ( int w = 0; w < WHEELS; w++ ) {
+			int bits = WHEEL_BITS[w];
+			int shift = WHEEL_SHIFT[w];
+
+			if ( delta < (1L << (shift + bits)) ) {
+				int slot = (int) ((dueTick >> shift) & ((1 << bits) - 1));
+				wheels.get( offset + slot ).add( job );
+				return;
+			}
+			offset += 1 << bits;
+		}
+
+		// Beyond the outer wheel, so place it in the outer wheel's last slot
+		// and it will be placed again when that slot is reached:
+		int w = WHEELS - 1;
+		int mask = (1 << WHEEL_BITS[w]) - 1;
+		int slot = (int) (((currentTick >> WHEEL_SHIFT[w]) + mask) & mask);
+		wheels.get( offset - (1 << WHEEL_BITS[w]) + slot ).add( job );
+	}
+
+	/**
+	 * <p>Advances the wheel by one tick and runs all of the jobs that are due.
+	 * </p>
+	 */
+	@Override
+	public void run() {
+		List<ScheduledMineJob> due = tick();
+
+		for ( ScheduledMineJob job : due ) {
+			try {
+				job.task.run();
+			}
+			catch ( Exception e ) {
+				Output.get().logError( "MineJobScheduler: Failed to run the job for mine " +
+						job.getMineName() + ": " + job.getDescription(), e );
+			}
+		}
+	}
+
+	/**
+	 * <p>Advances the wheel by one tick and returns the jobs that are due, which
+	 * are removed from the wheel.
+	 * </p>
+	 *
+	 * @return
+	 */
+	protected synchronized List<ScheduledMineJob> tick() {
+		currentTick++;
+
+		// Move the jobs down from the outer wheels, starting with the outermost
+		// wheel that completed a turn:
+		int cascade = 0;
+		while ( cascade + 1 < WHEELS &&
+				(currentTick & ((1L << WHEEL_SHIFT[cascade + 1]) - 1)) == 0 ) {
+			cascade++;
+		}
+		for ( int w = cascade; w > 0; w-- ) {
+			List<ScheduledMineJob> slot = getSlot( w, currentTick );
+			List<ScheduledMineJob> jobs = new ArrayList<>( slot );
+			slot.clear();
+
+			for ( ScheduledMineJob job : jobs ) {
+				if ( !job.isCanceled() ) {
+					insert( job );
+				}
+			}
+		}
+
+		List<ScheduledMineJob> results = new ArrayList<>();
+
+		List<ScheduledMineJob> slot = getSlot( 0, currentTick );
+		for ( ScheduledMineJob job : new ArrayList<>( slot ) ) {
+			if ( job.isCanceled() ) {
+				slot.remove( job );
+			}
+			else if ( job.getDueTick() <= currentTick ) {
+				slot.remove( job );
+				results.add( job );
+
+				if ( job.isLargeMine() ) {
+					largeResetTicks.remove( job.getDueTick(), job );
+				}
+			}
+		}
+
+		return results;
+	}
+
+	private List<ScheduledMineJob> getSlot( int wheel, long tick ) {
+		int offset = 0;
+		for ( int w = 0; w < wheel; w++ ) {
+			offset += 1 << WHEEL_BITS[w];
+		}
+
+		int slot = (int) ((tick >> WHEEL_SHIFT[wheel]) & ((1 << WHEEL_BITS[wheel]) - 1));
+		return wheels.get( offset + slot );
+	}
+
+	/**
+	 * <p>Returns all of the jobs that have not been canceled, in the order that
+	 * they will run.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public synchronized List<ScheduledMineJob> getScheduledJobs() {
+		TreeMap<Long, List<ScheduledMineJob>> sorted = new TreeMap<>();
+
+		for ( List<ScheduledMineJob> slot : wheels ) {
+			for ( ScheduledMineJob job : slot ) {
+				if ( !job.isCanceled() ) {
+					sorted.computeIfAbsent( job.getDueTick(), k -> new ArrayList<>() ).add( job );
+				}
+			}
+		}
+
+		List<ScheduledMineJob> results = new ArrayList<>();
+		for ( Map.Entry<Long, List<ScheduledMineJob>> entry : sorted.entrySet() ) {
+			results.addAll( entry.getValue() );
+		}
+
+		return results;
+	}
+
+	public synchronized long getCurrentTick() {
+		return currentTick;
+	}
+
+	public int getJitterTicks() {
+		return jitterTicks;
+	}
+	public void setJitterTicks( int jitterTicks ) {
+		this.jitterTicks = jitterTicks;
+	}
+
+	public int getStaggerTicks() {
+		return staggerTicks;
+	}
+	public void setStaggerTicks( int staggerTicks ) {
+		this.staggerTicks = staggerTicks;
+	}
+
+	public int getLargeMineBlockCount() {
+		return largeMineBlockCount;
+	}
+	public void setLargeMineBlockCount( int largeMineBlockCount ) {
+		this.largeMineBlockCount = largeMineBlockCount;
+	}
+}
@@ -45,6 +45,12 @@ public class MinePagedResetAsyncTask
 	private List<MineResetActions> resetActions;
 	
 	
+	// Used by the MineResetCoordinator:
+	private final long blockCount;
+	private long queuedTimestamp = 0;
+	private long startedTimestamp = 0;
+	
+	
 	
 	public MinePagedResetAsyncTask( Mine mine, MineResetType resetType, 
 					List<MineResetActions> resetActions,
@@ -65,6 +71,9 @@ public class MinePagedResetAsyncTask
 												getConfigAsyncResetPageSize()) + 1;
 		
 		this.resetActions = resetActions;
+		
+		this.blockCount = mine.isVirtual() || mine.getBounds() == null ? 0 :
+								mine.getBounds().getTotalBlockCount();
 	}
 	
 	
@@ -72,6 +81,25 @@ public class MinePagedResetAsyncTask
 		this( mine, resetType, null, MineResetScheduleType.NORMAL );
 	}
 	
+	/**
+	 * <p>This constructor should ONLY be used in unit tests of the 
+	 * MineResetCoordinator, since it does not read any of the settings
+	 * and the reset cannot be ran.
+	 * </p>
+	 * 
+	 * @param mine
+	 * @param blockCount
+	 */
+	MinePagedResetAsyncTask( Mine mine, long blockCount ) {
+		super();
+		
+		this.mine = mine;
+		this.resetType = MineResetType.normal;
+		this.resetScheduleType = MineResetScheduleType.NORMAL;
+		
+		this.blockCount = blockCount;
+	}
+	
 	
 //	public void submitTaskSync() {
 //		submitTaskAsync();
@@ -91,12 +119,9 @@ public class MinePagedResetAsyncTask
 				mine.getBounds().getTotalBlockCount() > 25
 						) ) {
 			
-			if ( !mine.getMineStateMutex().isMinable() ) {
-				
-				// Canceling reset, so cancel mutex if it was blocking mining.
-				mine.getMineStateMutex().setMineStateResetFinishedForced();
-			}
-			
+			// The mutex is not locked until the reset is started, so there is nothing 
+			// to unlock here.  If the mutex is locked, then it belongs to a reset that
+			// is running.
 			
 			// cannot reset quicker than every 5 seconds:
 			return;
@@ -105,6 +130,30 @@ public class MinePagedResetAsyncTask
 		mine.setLastResetTimeLong( System.currentTimeMillis() );
 		
 		
+		// The reset coordinator will start this reset when there is room for it:
+		PrisonMines.getInstance().getResetCoordinator().submit( this );
+	}
+	
+	/**
+	 * <p>This is called by the MineResetCoordinator when this reset is allowed 
+	 * to start placing blocks.
+	 * </p>
+	 */
+	protected void start() {
+		
+		// Lock the mine now that the reset is allowed to start, and not when it was 
+		// submitted, so the mines that are waiting in the queue can still be mined:
+		synchronized ( mine.getMineStateMutex() ) {
+			
+			if ( mine.getMineStateMutex().isMinable() ) {
+				
+				// Set the MineStateMutex to a state of starting a mine reset:
+				mine.getMineStateMutex().setMineStateResetStart();
+			}
+			
+			mine.setMineResetStartTimestamp( System.currentTimeMillis() );
+		}
+		
 		submitTaskAsyncInternalNextPage();
 	}
 
@@ -241,12 +290,7 @@ public class MinePagedResetAsyncTask
 	private boolean runSetupCancelAutoResets() {
 		boolean cancel = false;
 		
-		// If it makes it this far and the mutex is not locked, then lock it:
-		if ( mine.getMineStateMutex().isMinable() ) {
-			
-			// Set the MineStateMutex to a state of starting a mine reset:
-			mine.getMineStateMutex().setMineStateResetStart();
-		}
+		// The mutex was locked in start() when the coordinator started this reset.
  
     	mine.generateBlockListAsync();
 		
@@ -269,6 +313,10 @@ public class MinePagedResetAsyncTask
 			mine.getMineStateMutex().setMineStateResetFinishedForced();
 		}
 		
+		if ( cancel ) {
+			PrisonMines.getInstance().getResetCoordinator().finished( this );
+		}
+		
 		return cancel;
 	}
 	
@@ -282,6 +330,9 @@ public class MinePagedResetAsyncTask
 		mine.getMineStateMutex().setMineStateResetFinishedForced();
 
 		
+		// Allow the next reset to start placing blocks:
+		PrisonMines.getInstance().getResetCoordinator().finished( this );
+		
 		// Run items such as post-mine-reset commands:
 		mine.asynchronouslyResetFinalize( getResetActions() );
  
@@ -289,6 +340,28 @@ public class MinePagedResetAsyncTask
 	}
 
 	
+	public Mine getMine() {
+		return mine;
+	}
+
+	public long getBlockCount() {
+		return blockCount;
+	}
+
+	public long getQueuedTimestamp() {
+		return queuedTimestamp;
+	}
+	public void setQueuedTimestamp( long queuedTimestamp ) {
+		this.queuedTimestamp = queuedTimestamp;
+	}
+
+	public long getStartedTimestamp() {
+		return startedTimestamp;
+	}
+	public void setStartedTimestamp( long startedTimestamp ) {
+		this.startedTimestamp = startedTimestamp;
+	}
+
 	public PrisonStatsElapsedTimeNanos getNanos() {
 		return nanos;
 	}
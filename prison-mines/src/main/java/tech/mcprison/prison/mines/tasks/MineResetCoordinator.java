@@ -0,0 +1,298 @@
+package tech.mcprison.prison.mines.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.output.Output;
+
+/**
+ * <p>This limits how many mine resets can be placing blocks at the same time.
+ * The timed resets, the zero block resets, and the manual resets are all
+ * submitted to this coordinator, and they are started when there is room for
+ * them.  Otherwise they wait in the queue.
+ * </p>
+ *
+ * <p>A reset is started if there are fewer than the maximum number of active
+ * resets, and if its blocks will fit within the blocks in flight budget.  A
+ * reset that is larger than the whole budget can still run, but only when no
+ * other reset is running.  When picking the next reset from the queue, the
+ * mines with players in them are picked first, then the resets that have been
+ * waiting the longest.
+ * </p>
+ *
+ * <p>The settings are:
+ * </p>
+ *
+ * <ul>
+ *   <li><b>prison-mines.reset-coordinator.max-concurrent-resets</b> - default 2.</li>
+ *   <li><b>prison-mines.reset-coordinator.max-blocks-in-flight</b> - default 500,000
+ *   		blocks.</li>
+ * </ul>
+ *
+ */
+public class MineResetCoordinator
+{
+	public static final int MAX_CONCURRENT_RESETS_DEFAULT = 2;
+	public static final int MAX_BLOCKS_IN_FLIGHT_DEFAULT = 500000;
+
+	/**
+	 * <p>If a reset has not finished within this time, then it is assumed that it
+	 * failed, and it is no longer counted as being active.  This is the same time
+	 * limit that is used to unlock a mine's mutex when a reset appears to have failed.
+	 * </p>
+	 */
+	public static final long ACTIVE_RESET_TIMEOUT_MS = 3 * 60000;
+
+	private final List<MinePagedResetAsyncTask> queue;
+	private final List<MinePagedResetAsyncTask> active;
+
+	private int maxConcurrentResets = -1;
+	private long maxBlocksInFlight = -1;
+
+	private long blocksInFlight = 0;
+
+	public MineResetCoordinator() {
+		super();
+
+		this.queue = new ArrayList<>();
+		this.active = new ArrayList<>();
+	}
+
+	/**
+	 * <p>Submits the reset.  It will be started now if there is room for it,
+	 * otherwise it will be started when other resets finish.  If the same mine
+	 * is already waiting in the queue, then the new reset replaces it, but keeps
+	 * its place in the queue.
+	 * </p>
+	 *
+	 * @param resetTask
+	 */
+	public void submit( MinePagedResetAsyncTask resetTask ) {
+		List<MinePagedResetAsyncTask> released;
+		List<MinePagedResetAsyncTask> start;
+
+		synchronized ( this ) {
+			resetTask.setQueuedTimestamp( System.currentTimeMillis() );
+
+			boolean replaced = false;
+			for ( int i = 0; i < queue.size(); i++ ) {
+				if ( queue.get( i ).getMine() == resetTask.getMine() ) {
+					resetTask.setQueuedTimestamp( queue.get( i ).getQueuedTimestamp() );
+					queue.set( i, resetTask );
+					replaced = true;
+					break;
+				}
+			}
+
+			if ( !replaced ) {
+				queue.add( resetTask );
+			}
+
+			released = releaseTimedOutResets();
+			start = admit();
+		}
+
+		logReleasedResets( released );
+		startResets( start );
+	}
+
+	/**
+	 * <p>This must be called when a reset is finished, or canceled, so the next
+	 * resets can be started.
+	 * </p>
+	 *
+	 * @param resetTask
+	 */
+	public void finished( MinePagedResetAsyncTask resetTask ) {
+		List<MinePagedResetAsyncTask> released;
+		List<MinePagedResetAsyncTask> start;
+
+		synchronized ( this ) {
+			if ( active.remove( resetTask ) ) {
+				blocksInFlight -= resetTask.getBlockCount();
+			}
+
+			released = releaseTimedOutResets();
+			start = admit();
+		}
+
+		logReleasedResets( released );
+		startResets( start );
+	}
+
+	/**
+	 * <p>Removes the resets that have been waiting in the queue, such as when
+	 * the server is shutting down.
+	 * </p>
+	 *
+	 * @return The number of resets that were removed.
+	 */
+	public synchronized int clearQueue() {
+		int results = queue.size();
+
+		queue.clear();
+
+		return results;
+	}
+
+	/**
+	 * <p>Moves as many resets from the queue to active as there is room for.
+	 * This must be called while synchronized, and after releaseTimedOutResets().
+	 * </p>
+	 *
+	 * @return The resets that need to be started.
+	 */
+	List<MinePagedResetAsyncTask> admit() {
+		List<MinePagedResetAsyncTask> results = new ArrayList<>();
+
+		while ( queue.size() > 0 && active.size() < getMaxConcurrentResets() ) {
+
+			MinePagedResetAsyncTask next = nextInQueue();
+
+			if ( next == null ||
+					active.size() > 0 &&
+					blocksInFlight + next.getBlockCount() > getMaxBlocksInFlight() ) {
+				break;
+			}
+
+			queue.remove( next );
+			active.add( next );
+			blocksInFlight += next.getBlockCount();
+
+			next.setStartedTimestamp( System.currentTimeMillis() );
+
+			results.add( next );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Finds the reset that should be started next.  Mines with players are first,
+	 * then the resets that have been waiting the longest.  A mine that is already
+	 * resetting must wait until that reset is finished.
+	 * </p>
+	 *
+	 * @return
+	 */
+	MinePagedResetAsyncTask nextInQueue() {
+		MinePagedResetAsyncTask results = null;
+		boolean resultsOccupied = false;
+
+		for ( MinePagedResetAsyncTask resetTask : queue ) {
+
+			if ( isActive( resetTask.getMine() ) ) {
+				continue;
+			}
+
+			boolean occupied = resetTask.getMine().getPlayerCount() > 0;
+
+			if ( results == null ||
+					occupied && !resultsOccupied ||
+					occupied == resultsOccupied &&
+					resetTask.getQueuedTimestamp() < results.getQueuedTimestamp() ) {
+				results = resetTask;
+				resultsOccupied = occupied;
+			}
+		}
+
+		return results;
+	}
+
+	private boolean isActive( Mine mine ) {
+		boolean results = false;
+
+		for ( MinePagedResetAsyncTask resetTask : active ) {
+			if ( resetTask.getMine() == mine ) {
+				results = true;
+				break;
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Stops counting the resets that have been active for longer than the 
+	 * timeout, so they do not block the queue forever.  This must be called 
+	 * while synchronized.
+	 * </p>
+	 *
+	 * @return The resets that were released, which should be logged after 
+	 * 			leaving the synchronized block.
+	 */
+	List<MinePagedResetAsyncTask> releaseTimedOutResets() {
+		List<MinePagedResetAsyncTask> results = new ArrayList<>();
+		long now = System.currentTimeMillis();
+
+		for ( MinePagedResetAsyncTask resetTask : new ArrayList<>( active ) ) {
+			if ( now - resetTask.getStartedTimestamp() > ACTIVE_RESET_TIMEOUT_MS ) {
+
+				active.remove( resetTask );
+				blocksInFlight -= resetTask.getBlockCount();
+
+				results.add( resetTask );
+			}
+		}
+
+		return results;
+	}
+
+	private void logReleasedResets( List<MinePagedResetAsyncTask> resetTasks ) {
+		for ( MinePagedResetAsyncTask resetTask : resetTasks ) {
+
+			Output.get().logWarn( "MineResetCoordinator: The reset of mine " +
+					resetTask.getMine().getName() + " did not finish within " +
+					(ACTIVE_RESET_TIMEOUT_MS / 1000) + " seconds, so it is no " +
+					"longer counted as an active reset." );
+		}
+	}
+
+	private void startResets( List<MinePagedResetAsyncTask> resetTasks ) {
+		for ( MinePagedResetAsyncTask resetTask : resetTasks ) {
+			resetTask.start();
+		}
+	}
+
+	public synchronized int getActiveCount() {
+		return active.size();
+	}
+
+	public synchronized int getQueuedCount() {
+		return queue.size();
+	}
+
+	public synchronized long getBlocksInFlight() {
+		return blocksInFlight;
+	}
+
+	public int getMaxConcurrentResets() {
+		if ( maxConcurrentResets == -1 ) {
+			maxConcurrentResets = Prison.get().getPlatform() == null ?
+					MAX_CONCURRENT_RESETS_DEFAULT :
+					Math.max( 1, Prison.get().getPlatform().getConfigInt(
+							"prison-mines.reset-coordinator.max-concurrent-resets",
+							MAX_CONCURRENT_RESETS_DEFAULT ) );
+		}
+		return maxConcurrentResets;
+	}
+	public void setMaxConcurrentResets( int maxConcurrentResets ) {
+		this.maxConcurrentResets = maxConcurrentResets;
+	}
+
+	public long getMaxBlocksInFlight() {
+		if ( maxBlocksInFlight == -1 ) {
+			maxBlocksInFlight = Prison.get().getPlatform() == null ?
+					MAX_BLOCKS_IN_FLIGHT_DEFAULT :
+					Math.max( 1, Prison.get().getPlatform().getConfigInt(
+							"prison-mines.reset-coordinator.max-blocks-in-flight",
+							MAX_BLOCKS_IN_FLIGHT_DEFAULT ) );
+		}
+		return maxBlocksInFlight;
+	}
+	public void setMaxBlocksInFlight( long maxBlocksInFlight ) {
+		this.maxBlocksInFlight = maxBlocksInFlight;
+	}
+}
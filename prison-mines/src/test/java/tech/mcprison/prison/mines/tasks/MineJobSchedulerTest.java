@@ -0,0 +1,118 @@
+package tech.mcprison.prison.mines.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.mines.tasks.MineJobScheduler.ScheduledMineJob;
+
+public class MineJobSchedulerTest
+{
+
+	private MineJobScheduler getScheduler() {
+		MineJobScheduler scheduler = new MineJobScheduler();
+		scheduler.setJitterTicks( 0 );
+		scheduler.setStaggerTicks( 20 );
+		scheduler.setLargeMineBlockCount( 1000 );
+
+		return scheduler;
+	}
+
+	private List<Long> runTicks( MineJobScheduler scheduler, long ticks ) {
+		List<Long> results = new ArrayList<>();
+
+		for ( long i = 0; i < ticks; i++ ) {
+			for ( ScheduledMineJob job : scheduler.tick() ) {
+
+				// The job must run on the tick it is due:
+				assertEquals( job.getDueTick(), scheduler.getCurrentTick() );
+				results.add( job.getDueTick() );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Jobs must run on the tick that they are due, no matter which wheel they
+	 * were placed in.
+	 * </p>
+	 */
+	@Test
+	public void testJobsRunWhenDue()
+	{
+		MineJobScheduler scheduler = getScheduler();
+
+		long[] delays = { 1, 2, 255, 256, 257, 300, 16383, 16384, 20000, 1048576, 1100000 };
+
+		for ( long delay : delays ) {
+			scheduler.schedule( "mine" + delay, "MESSAGE", () -> {}, delay, false, false, 0 );
+		}
+
+		List<Long> ran = runTicks( scheduler, 1100001 );
+
+		assertEquals( delays.length, ran.size() );
+		for ( int i = 0; i < delays.length; i++ ) {
+			assertEquals( delays[i], ran.get( i ).longValue() );
+		}
+
+		assertEquals( 0, scheduler.getScheduledJobs().size() );
+	}
+
+	@Test
+	public void testCanceledJobsDoNotRun()
+	{
+		MineJobScheduler scheduler = getScheduler();
+
+		ScheduledMineJob job = scheduler.schedule( "a", "RESET", () -> {}, 500, true, true, 5000 );
+		scheduler.schedule( "b", "RESET", () -> {}, 600, true, true, 5000 );
+
+		scheduler.cancel( job );
+
+		assertEquals( 1, scheduler.getScheduledJobs().size() );
+
+		List<Long> ran = runTicks( scheduler, 1000 );
+		assertEquals( 1, ran.size() );
+		assertEquals( 600L, ran.get( 0 ).longValue() );
+	}
+
+	/**
+	 * <p>Large mines that are due at the same time must be spread out by the
+	 * stagger ticks, but small mines are not moved.
+	 * </p>
+	 */
+	@Test
+	public void testLargeMineResetsAreStaggered()
+	{
+		MineJobScheduler scheduler = getScheduler();
+
+		for ( int i = 0; i < 5; i++ ) {
+			scheduler.schedule( "large" + i, "RESET", () -> {}, 100, true, true, 5000 );
+			scheduler.schedule( "small" + i, "RESET", () -> {}, 100, true, true, 10 );
+		}
+
+		List<Long> large = new ArrayList<>();
+		int small = 0;
+		for ( ScheduledMineJob job : scheduler.getScheduledJobs() ) {
+			if ( job.isLargeMine() ) {
+				large.add( job.getDueTick() );
+			}
+			else {
+				assertEquals( 100L, job.getDueTick() );
+				small++;
+			}
+		}
+
+		assertEquals( 5, small );
+		assertEquals( 5, large.size() );
+		for ( int i = 1; i < large.size(); i++ ) {
+			assertTrue( large.get( i ) - large.get( i - 1 ) >= 20 );
+		}
+
+		assertEquals( 10, runTicks( scheduler, 200 ).size() );
+	}
+}
@@ -0,0 +1,237 @@
+package tech.mcprison.prison.mines.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.mines.data.Mine.MineUnitTestUsage;
+
+public class MineResetCoordinatorTest
+{
+
+	/**
+	 * <p>A mine that does not need PrisonMines to get its player count.
+	 * </p>
+	 */
+	private static class StubMine
+			extends Mine
+	{
+		private int playerCount = 0;
+
+		public StubMine( String mineName, int playerCount ) {
+			super( MineUnitTestUsage.TRUE, mineName );
+
+			this.playerCount = playerCount;
+		}
+
+		@Override
+		public int getPlayerCount() {
+			return playerCount;
+		}
+	}
+
+	private MineResetCoordinator getCoordinator( int maxConcurrentResets, long maxBlocksInFlight ) {
+		MineResetCoordinator coordinator = new MineResetCoordinator();
+		coordinator.setMaxConcurrentResets( maxConcurrentResets );
+		coordinator.setMaxBlocksInFlight( maxBlocksInFlight );
+
+		return coordinator;
+	}
+
+	/**
+	 * <p>Queues the resets without starting them, since a max of zero concurrent
+	 * resets will not admit anything.
+	 * </p>
+	 */
+	private void queue( MineResetCoordinator coordinator, MinePagedResetAsyncTask... resetTasks ) {
+		int maxConcurrentResets = coordinator.getMaxConcurrentResets();
+		coordinator.setMaxConcurrentResets( 0 );
+
+		for ( MinePagedResetAsyncTask resetTask : resetTasks ) {
+			coordinator.submit( resetTask );
+		}
+
+		coordinator.setMaxConcurrentResets( maxConcurrentResets );
+	}
+
+	private MinePagedResetAsyncTask task( String mineName, int playerCount, long blockCount ) {
+		return new MinePagedResetAsyncTask( new StubMine( mineName, playerCount ), blockCount );
+	}
+
+	@Test
+	public void testConcurrencyCap()
+	{
+		MineResetCoordinator coordinator = getCoordinator( 2, 1000000 );
+
+		queue( coordinator, task( "a", 0, 100 ), task( "b", 0, 100 ), task( "c", 0, 100 ) );
+
+		List<MinePagedResetAsyncTask> started;
+		synchronized ( coordinator ) {
+			started = coordinator.admit();
+		}
+
+		assertEquals( 2, started.size() );
+		assertEquals( 2, coordinator.getActiveCount() );
+		assertEquals( 1, coordinator.getQueuedCount() );
+		assertEquals( 200, coordinator.getBlocksInFlight() );
+	}
+
+	@Test
+	public void testBlocksInFlightBudget()
+	{
+		MineResetCoordinator coordinator = getCoordinator( 5, 1000 );
+
+		MinePagedResetAsyncTask a = task( "a", 0, 600 );
+		MinePagedResetAsyncTask b = task( "b", 0, 600 );
+		MinePagedResetAsyncTask huge = task( "huge", 0, 5000 );
+
+		queue( coordinator, a, b );
+
+		List<MinePagedResetAsyncTask> started;
+		synchronized ( coordinator ) {
+			started = coordinator.admit();
+		}
+
+		// b would exceed the budget while a is running:
+		assertEquals( 1, started.size() );
+		assertTrue( started.get( 0 ) == a );
+		assertEquals( 600, coordinator.getBlocksInFlight() );
+
+		// A reset larger than the whole budget cannot run while a is running:
+		queue( coordinator, huge );
+		synchronized ( coordinator ) {
+			started = coordinator.admit();
+		}
+		assertEquals( 0, started.size() );
+
+		// A reset larger than the whole budget can run when nothing else is:
+		MineResetCoordinator empty = getCoordinator( 5, 1000 );
+		queue( empty, task( "huge", 0, 5000 ) );
+		synchronized ( empty ) {
+			started = empty.admit();
+		}
+		assertEquals( 1, started.size() );
+		assertEquals( 5000, empty.getBlocksInFlight() );
+	}
+
+	@Test
+	public void testOccupiedMinesFirst()
+	{
+		MineResetCoordinator coordinator = getCoordinator( 1, 1000000 );
+
+		MinePagedResetAsyncTask empty1 = task( "empty1", 0, 100 );
+		MinePagedResetAsyncTask occupied = task( "occupied", 3, 100 );
+		MinePagedResetAsyncTask empty2 = task( "empty2", 0, 100 );
+
+		queue( coordinator, empty1, occupied, empty2 );
+
+		// Make sure the empty mines have been waiting the longest:
+		empty1.setQueuedTimestamp( 1 );
+		empty2.setQueuedTimestamp( 2 );
+		occupied.setQueuedTimestamp( 3 );
+
+		synchronized ( coordinator ) {
+			assertTrue( coordinator.nextInQueue() == occupied );
+
+			List<MinePagedResetAsyncTask> started = coordinator.admit();
+			assertEquals( 1, started.size() );
+			assertTrue( started.get( 0 ) == occupied );
+		}
+
+		// With only empty mines left, the oldest is next:
+		coordinator.setMaxConcurrentResets( 3 );
+		synchronized ( coordinator ) {
+			assertTrue( coordinator.nextInQueue() == empty1 );
+		}
+	}
+
+	@Test
+	public void testQueueReplacement()
+	{
+		MineResetCoordinator coordinator = getCoordinator( 1, 1000000 );
+
+		StubMine mineA = new StubMine( "a", 0 );
+
+		MinePagedResetAsyncTask first = new MinePagedResetAsyncTask( mineA, 100 );
+		MinePagedResetAsyncTask other = task( "b", 0, 100 );
+		MinePagedResetAsyncTask second = new MinePagedResetAsyncTask( mineA, 200 );
+
+		queue( coordinator, first, other );
+		first.setQueuedTimestamp( 1 );
+		other.setQueuedTimestamp( 2 );
+
+		queue( coordinator, second );
+
+		// The newer reset replaced the older one, and kept its place in the queue:
+		assertEquals( 2, coordinator.getQueuedCount() );
+		assertEquals( 1, second.getQueuedTimestamp() );
+
+		synchronized ( coordinator ) {
+			assertTrue( coordinator.nextInQueue() == second );
+		}
+	}
+
+	@Test
+	public void testActiveMineIsSkipped()
+	{
+		MineResetCoordinator coordinator = getCoordinator( 2, 1000000 );
+
+		StubMine mineA = new StubMine( "a", 0 );
+
+		queue( coordinator, new MinePagedResetAsyncTask( mineA, 100 ) );
+		synchronized ( coordinator ) {
+			assertEquals( 1, coordinator.admit().size() );
+		}
+
+		// The same mine can be queued again, but it must wait for the active reset:
+		queue( coordinator, new MinePagedResetAsyncTask( mineA, 100 ) );
+		synchronized ( coordinator ) {
+			assertNull( coordinator.nextInQueue() );
+			assertEquals( 0, coordinator.admit().size() );
+		}
+		assertEquals( 1, coordinator.getQueuedCount() );
+	}
+
+	@Test
+	public void testStaleReleaseTimeout()
+	{
+		MineResetCoordinator coordinator = getCoordinator( 1, 1000000 );
+
+		MinePagedResetAsyncTask stale = task( "stale", 0, 100 );
+		MinePagedResetAsyncTask next = task( "next", 0, 300 );
+
+		queue( coordinator, stale );
+		synchronized ( coordinator ) {
+			assertEquals( 1, coordinator.admit().size() );
+		}
+
+		queue( coordinator, next );
+		synchronized ( coordinator ) {
+			assertEquals( 0, coordinator.admit().size() );
+		}
+
+		// The stale reset has been running for longer than the timeout:
+		stale.setStartedTimestamp( System.currentTimeMillis() -
+				MineResetCoordinator.ACTIVE_RESET_TIMEOUT_MS - 1000 );
+
+		List<MinePagedResetAsyncTask> started;
+		synchronized ( coordinator ) {
+			List<MinePagedResetAsyncTask> released = coordinator.releaseTimedOutResets();
+			assertEquals( 1, released.size() );
+			assertTrue( released.get( 0 ) == stale );
+
+			started = coordinator.admit();
+		}
+
+		assertEquals( 1, started.size() );
+		assertTrue( started.get( 0 ) == next );
+		assertEquals( 1, coordinator.getActiveCount() );
+		assertEquals( 300, coordinator.getBlocksInFlight() );
+	}
+
+}
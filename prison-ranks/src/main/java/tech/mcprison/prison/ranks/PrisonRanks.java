@@ -395,9 +395,17 @@ public class PrisonRanks
      * <p>Do not save ranks upon server shutdown or plugin disable events.  The 
      * ranks should be saved every time there is a modification to them.
      * </p>
+     * 
+     * <p>The player saves are written behind, so any pending player saves 
+     * must be flushed before the plugin is disabled.
+     * </p>
      */
     @Override 
     public void disable() {
+    	
+    	if ( playerManager != null ) {
+    		playerManager.flushAndShutdownSaveQueue();
+    	}
     }
     
 
@@ -31,6 +31,7 @@ import tech.mcprison.prison.output.Output.DebugTarget;
 import tech.mcprison.prison.ranks.data.PlayerRank;
 import tech.mcprison.prison.ranks.data.Rank;
 import tech.mcprison.prison.ranks.data.RankLadder;
+import tech.mcprison.prison.ranks.data.RankLadderCostTable;
 import tech.mcprison.prison.ranks.data.RankPlayer;
 import tech.mcprison.prison.ranks.data.RankPlayerFactory;
 import tech.mcprison.prison.ranks.data.TopNPlayers;
@@ -214,6 +215,294 @@ public class RankUtil
     					playerName, null, PromoteForceCharge.charge_player, cmdTasks );
     }
     
+    /**
+     * <p>This performs a rankupmax on the given ladder as a single transaction.  
+     * It first plans how many ranks the player can afford with their current 
+     * balance, using the cumulative rank costs.  Then it fires a RankUpEvent 
+     * for each rank, in order, and stops the plan at the first one that is
+     * canceled.  It then makes one economy withdrawal for the total cost, saves
+     * the player once, and adds the rank commands for each rank, in order, to
+     * the cmdTasks.
+     * </p>
+     * 
+     * <p>The plan stops at a rank that uses a different currency, so the caller
+     * can continue with the next rankup.  If the player can afford one rank or
+     * less, or does not have a rank on the ladder, then this uses the normal 
+     * rankupPlayer() so the results and messages are exactly the same as a 
+     * normal rankup.
+     * </p>
+     * 
+     * @param player
+     * @param rankPlayer
+     * @param ladderName
+     * @param playerName
+     * @param cmdTasks
+     * @return
+     */
+    public RankupResults rankupMaxPlayer(Player player, RankPlayer rankPlayer, String ladderName, 
+    		String playerName, List<PrisonCommandTaskData> cmdTasks ) {
+    	
+    	RankLadder ladder = player == null || ladderName == null ? null :
+    				PrisonRanks.getInstance().getLadderManager().getLadder( ladderName );
+    	
+    	PlayerRank originalRank = ladder == null ? null :
+    				new RankPlayerFactory().getRank( rankPlayer, ladder );
+    	
+    	List<PlayerRank> plan = null;
+    	String currency = null;
+    	double balanceInitial = 0;
+    	
+    	if ( originalRank != null && originalRank.getRank().getRankNext() != null ) {
+    		
+    		currency = originalRank.getRank().getRankNext().getCurrency();
+    		balanceInitial = rankPlayer.getBalanceNow( currency );
+    		
+    		plan = planRankupMax( rankPlayer, originalRank, balanceInitial );
+    	}
+    	
+    	if ( plan == null || plan.size() <= 1 ) {
+    		
+    		return rankupPlayer( player, rankPlayer, ladderName, playerName, cmdTasks );
+    	}
+    	
+    	RankupResults results = new RankupResults( RankupCommands.rankup, rankPlayer, null, ladderName, null );
+    	
+    	results.addTransaction( RankupTransactions.tring_to_rankup );
+    	results.addTransaction( RankupTransactions.costs_paid_by_player );
+    	
+    	try {
+    		rankupMaxPlayerInternal( results, rankPlayer, ladder, originalRank, plan, 
+    						currency, balanceInitial, cmdTasks );
+    	} catch (Exception e ) {
+    		results.addTransaction( RankupTransactions.failure_exception_caught_check_server_logs );
+    		
+    		Output.get().logError( rankUtilFailureInternalMsg( e.getMessage() ), e );
+    	}
+    	
+    	// Log the results:
+    	logTransactionResults(results);
+    	
+    	return results;
+    }
+    
+    /**
+     * <p>Calculates which ranks the player can afford, in order, starting with the
+     * rank after the original rank.  This does not change the player, their ranks, 
+     * or their balance.  The ladder's cost table is used to binary search the
+     * cumulative rank costs for the highest rank the balance can afford, without
+     * going past a change in currency.  The PlayerRanks are then calculated 
+     * the same way as a normal rankup.
+     * </p>
+     * 
+     * @param rankPlayer
+     * @param originalRank
+     * @param balance
+     * @return The PlayerRanks that can be afforded, in rankup order.
+     */
+    protected List<PlayerRank> planRankupMax( RankPlayer rankPlayer, PlayerRank originalRank, 
+    				double balance ) {
+    	List<PlayerRank> plan = new ArrayList<>();
+    	
+    	Rank rank = originalRank.getRank();
+    	RankLadder ladder = rank.getLadder();
+    	RankLadderCostTable costTable = ladder.getCostTable();
+    	
+    	int position = rank.getPosition();
+    	double otherMultiplier = rankPlayer.getRankMultiplierExcludingLadder( ladder );
+    	
+    	int targetPosition = costTable.getAffordablePosition( position, otherMultiplier, balance, true );
+    	
+    	double total = 0;
+    	
+    	for ( int i = position + 1; i <= targetPosition; i++ ) {
+    		
+    		PlayerRank pRankNext = rankPlayer.calculateTargetPlayerRank( ladder.getRanks().get( i ) );
+    		double cost = pRankNext.getRankCost() == null ? 0.0d : pRankNext.getRankCost();
+    		
+    		// Guard against rounding differences between the prefix sums and the actual costs:
+    		if ( total + cost > balance ) {
+    			break;
+    		}
+    		
+    		total += cost;
+    		plan.add( pRankNext );
+    	}
+    	
+    	return plan;
+    }
+    
+    private void rankupMaxPlayerInternal( RankupResults results, RankPlayer rankPlayer, 
+    		RankLadder ladder, PlayerRank originalRank, List<PlayerRank> plan, 
+    		String currency, double balanceInitial, List<PrisonCommandTaskData> cmdTasks ) {
+    	
+    	Output.get().logDebug( DebugTarget.rankup, 
+    			"Rankup: rankupMaxPlayerInternal: planned ranks: %d", plan.size() );
+    	
+    	results.setLadder( ladder );
+    	
+    	results.addTransaction( RankupTransactions.orginal_rank );
+    	results.setPlayerRankOriginal( originalRank );
+    	results.setOriginalRank( originalRank.getRank() );
+    	
+    	results.addTransaction( RankupTransactions.fireRankupEvent );
+    	
+    	// Fire a rankup event for each rank, in order, the same as if the player ranked 
+    	// up one rank at a time, so listeners can still cancel, or act upon, each rank.
+    	// The plan stops at the first rank that was canceled:
+    	Rank rankPrior = originalRank.getRank();
+    	int allowed = 0;
+    	for ( PlayerRank pRank : plan ) {
+    		double cost = pRank.getRankCost() == null ? 0.0d : pRank.getRankCost();
+    		
+    		RankUpEvent rankupEvent = new RankUpEvent(rankPlayer, rankPrior, pRank.getRank(), cost, 
+    				RankupCommands.rankup, PromoteForceCharge.charge_player );
+    		Prison.get().getEventBus().post(rankupEvent);
+    		
+    		if ( rankupEvent.isCanceled() ) {
+    			break;
+    		}
+    		
+    		rankPrior = pRank.getRank();
+    		allowed++;
+    	}
+    	
+    	if ( allowed == 0 ) {
+    		
+    		results.addTransaction( RankupStatus.RANKUP_EVENT_CANCELED, 
+    				RankupTransactions.failed_rankup_event_canceled_outside_of_prison );
+    		return;
+    	}
+    	
+    	plan = plan.subList( 0, allowed );
+    	
+    	PlayerRank pRankFinal = plan.get( plan.size() - 1 );
+    	Rank targetRank = pRankFinal.getRank();
+    	
+    	List<Rank> ranks = new ArrayList<>();
+    	double totalCost = 0;
+    	for ( PlayerRank pRank : plan ) {
+    		ranks.add( pRank.getRank() );
+    		totalCost += pRank.getRankCost() == null ? 0.0d : pRank.getRankCost();
+    	}
+    	
+    	results.addTransaction( RankupTransactions.next_rank_set );
+    	results.setPlayerRankTarget( pRankFinal );
+    	results.setTargetRank( targetRank );
+    	results.setRankupMaxRanks( ranks );
+    	
+    	
+    	if ( currency != null ) {
+    		results.addTransaction( RankupTransactions.custom_currency );
+    		
+    		EconomyCurrencyIntegration currencyEcon = PrisonAPI.getIntegrationManager()
+    				.getEconomyForCurrency( currency );
+    		if ( currencyEcon == null ) {
+    			results.addTransaction( RankupStatus.RANKUP_FAILURE_CURRENCY_IS_NOT_SUPPORTED, 
+    					RankupTransactions.specified_currency_not_found );
+    			return;
+    		}
+    	}
+    	
+    	results.addTransaction( RankupTransactions.player_balance_initial );
+    	results.setBalanceInitial( balanceInitial );
+    	results.setCurrency( currency );
+    	
+    	double balanceTargetFinal = balanceInitial - totalCost;
+    	
+    	// One economy withdrawal for all of the ranks:
+    	results.addTransaction( RankupTransactions.player_balance_decreased );
+    	boolean success = rankPlayer.removeBalanceBypassCache( currency, totalCost );
+    	
+    	if ( !success ) {
+    		results.addTransaction( RankupTransactions.economy_failed_to_apply_player_rankup_cost );
+    	}
+    	
+    	double balanceFinal = rankPlayer.getBalance( currency );
+    	
+    	results.addTransaction( RankupTransactions.player_balance_final );
+    	results.setBalanceFinal( balanceFinal );
+    	
+    	// Check to ensure the player's balance is correct..
+    	double finalAccuracy = Math.abs( balanceTargetFinal - balanceFinal );
+    	if ( !success || finalAccuracy >= 1.0 ) {
+    		
+    		if ( finalAccuracy >= 1.0 ) {
+    			
+    			results.addTransaction( RankupTransactions.accuracy_out_of_range );
+    			results.setRankupCostFinalAccuracy( finalAccuracy );
+    		}
+    		
+    		results.addTransaction( RankupStatus.RANKUP_FAILURE_ECONOMY_FAILED, 
+    				RankupTransactions.economy_failed_to_update_player_balance );
+    		return;
+    	}
+    	
+    	
+    	// Apply the final rank:
+    	rankPlayer.addRank( targetRank );
+    	
+    	// Validate that the player's rank was actually changed:
+    	PlayerRank newRank = rankPlayer.getPlayerRank( ladder.getName() );
+    	
+    	if ( newRank == null || !targetRank.equals( newRank.getRank() ) ) {
+    		
+    		results.setUnexpectedRank( newRank == null ? null : newRank.getRank() );
+    		
+    		results.addTransaction( RankupStatus.RANKUP_FAILURE_UNABLE_TO_ASSIGN_RANK, 
+    				RankupTransactions.failed_rankup_validation__target_rank_is_not_expected );
+    		
+    		// Refund the charges:
+    		results.addTransaction( RankupTransactions.player_balance_refund_increased);
+    		if ( !rankPlayer.addBalanceBypassCache( currency, totalCost ) ) {
+    			
+    			results.addTransaction( RankupTransactions.economy_failed_to_reverse_player_rankup_cost );
+    		}
+    		
+    		return;
+    	}
+    	
+    	
+    	// One save for all of the ranks:
+    	if ( !savePlayerRank( results, rankPlayer ) ) {
+    		return;
+    	}
+    	
+    	
+    	// Add the rank commands for each rank, in order, using the balances that
+    	// the player would have had if they ranked up one rank at a time:
+    	results.addTransaction( RankupTransactions.rankupCommandsStart );
+    	
+    	int available = 0;
+    	int count = 0;
+    	
+    	PlayerRank opRank = originalRank;
+    	double balance = balanceInitial;
+    	
+    	for ( PlayerRank tpRank : plan ) {
+    		double cost = tpRank.getRankCost() == null ? 0.0d : tpRank.getRankCost();
+    		
+    		available += tpRank.getRank().getRankUpCommands().size();
+    		count += addRankupCommandTasks( RankupCommands.rankup, ladder, results.getLadderName(), 
+    				opRank, tpRank, opRank.getRank(), tpRank.getRank(), 
+    				balance, balance - cost, currency, cmdTasks );
+    		
+    		balance -= cost;
+    		opRank = tpRank;
+    	}
+    	
+    	results.setRankupCommandsAvailable( available );
+    	results.setRankupCommandsExecuted( count );
+    	results.addTransaction( RankupTransactions.rankupCommandsCompleted );
+    	
+    	
+    	// Recalculate the rankup cost multipliers to apply to the next rankup.
+    	rankPlayer.recalculateRankMultipliers();
+    	
+    	TopNPlayers.getInstance().updatePlayerData(rankPlayer);
+    	
+    	results.addTransaction( RankupStatus.RANKUP_SUCCESS, RankupTransactions.rankup_successful );
+    }
+    
     public RankupResults promotePlayer(Player player, RankPlayer rankPlayer, String ladderName, 
     										String playerName, String executorName, PromoteForceCharge pForceCharge, 
     										List<PrisonCommandTaskData> cmdTasks ) {
@@ -526,7 +815,7 @@ public class RankUtil
         	}
         	
         	results.addTransaction( RankupTransactions.player_balance_initial );
-        	double balanceInitial = rankPlayer.getBalance( targetRank.getCurrency() );
+        	double balanceInitial = rankPlayer.getBalanceNow( targetRank.getCurrency() );
         	double balanceTargetFinal = balanceInitial;
         	
         	results.setBalanceInitial( balanceInitial );
@@ -641,12 +930,67 @@ public class RankUtil
         results.addTransaction( RankupTransactions.rankupCommandsStart );
         results.setRankupCommandsAvailable( targetRank.getRankUpCommands().size() );
         
-        int count = 0;
+        int count = addRankupCommandTasks( command, ladder, results.getLadderName(), 
+        		results.getPlayerRankOriginal(), results.getPlayerRankTarget(), 
+        		results.getOriginalRank(), results.getTargetRank(),
+        		results.getBalanceInitial(), results.getBalanceFinal(), results.getCurrency(), 
+        		cmdTasks );
+        
+        results.setRankupCommandsExecuted( count );
+        results.addTransaction( RankupTransactions.rankupCommandsCompleted );
+
+        
+        
+        // Recalculate the rankup cost multipliers to apply to the next rankup.
+        // This must be done AFTER the ranks commands sets up the placeholder 
+        // values so they will reflect the correct amounts.
+        rankPlayer.recalculateRankMultipliers();
+        
+        
+        // Sort the Top ranked list:
+//        rankPlayer.forcePlayerToRecalculateRankScore();
+        TopNPlayers.getInstance().updatePlayerData(rankPlayer);
         
+        
+//        results.addTransaction( RankupTransactions.fireRankupEvent );
+//        
+//        // Nothing can cancel a RankUpEvent:
+//        RankUpEvent rankupEvent = new RankUpEvent(rankPlayer, originalRank, targetRank, nextRankCost);
+//        Prison.get().getEventBus().post(rankupEvent);
+        
+        
+        if ( RankupCommands.demote == command ) {
+        	
+        	results.addTransaction( RankupStatus.DEMOTE_SUCCESS, RankupTransactions.demote_successful );
+        }
+        else {
+        	
+        	results.addTransaction( RankupStatus.RANKUP_SUCCESS, RankupTransactions.rankup_successful );
+        }
+        
+    }
+
+
+
+    /**
+     * <p>Adds the ladder's rankup commands, followed by the target rank's rankup commands,
+     * to the cmdTasks list.  The placeholders are based upon the original and target
+     * player ranks, and the balances before and after this rankup.
+     * </p>
+     * 
+     * @return The number of command tasks that were added.
+     */
+    private int addRankupCommandTasks( RankupCommands command, RankLadder ladder, String ladderName,
+    		PlayerRank opRank, PlayerRank tpRank, Rank oRank, Rank tRank, 
+    		double balanceInitial, double balanceFinal, String currency,
+    		List<PrisonCommandTaskData> cmdTasks ) {
+    	
+    	int count = 0;
+    	
         List<String> rankupCommands = new ArrayList<>();
         
         rankupCommands.addAll( ladder.getRankUpCommands() );
-        rankupCommands.addAll( targetRank.getRankUpCommands() );
+        rankupCommands.addAll( tRank.getRankUpCommands() );
         
         for ( int row = 0; row < rankupCommands.size(); row++ ) {
         	
@@ -655,12 +999,6 @@ public class RankUtil
         			( !cmd.contains( "{firstJoin}" ) || 
         			   cmd.contains( "{firstJoin}" ) && command == RankupCommands.firstJoin )  ) {
         		
-        		PlayerRank opRank = results.getPlayerRankOriginal();
-        		PlayerRank tpRank = results.getPlayerRankTarget();
-        		
-        		Rank oRank = results.getOriginalRank();
-        		Rank tRank = results.getTargetRank();
-        		
         		if ( command == RankupCommands.firstJoin && cmd.contains( "{firstJoin}" ) ) {
         			cmd = cmd.replace( "{firstJoin}", "" );
         		}
@@ -672,9 +1010,9 @@ public class RankUtil
 				cmdTask.setRankOriginal( opRank );
 				
 				
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.balanceInitial, Double.toString( results.getBalanceInitial()) );
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.balanceFinal, Double.toString( results.getBalanceFinal()) );
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.currency, results.getCurrency() );
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.balanceInitial, Double.toString( balanceInitial ) );
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.balanceFinal, Double.toString( balanceFinal ) );
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.currency, currency );
 				
 				cmdTask.addCustomPlaceholder( CustomPlaceholders.originalRankCost, 
 								opRank == null ? "" : Double.toString( opRank.getRankCost() ) );
@@ -682,7 +1020,7 @@ public class RankUtil
 								tpRank == null ? "" : Double.toString( tpRank.getRankCost() ) );
 				
 				
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.ladder, results.getLadderName() );
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.ladder, ladderName );
 				
 				cmdTask.addCustomPlaceholder( CustomPlaceholders.rank,
 									(oRank == null ? "none" : oRank.getName()) );
@@ -698,55 +1036,15 @@ public class RankUtil
 				
 				// Comment this out to stack the rank commands:
 				// cmdTask.submitCommandTask( prisonPlayer );
-
-        		
-//        		String formatted = cmd.replace("{player}", prisonPlayer.getName())
-//        				.replace("{player_uid}", rankPlayer.getUUID().toString());
-
-//            Prison.get().getPlatform().logPlain(
-//            		String.format( "RankUtil.rankupPlayerInternal:  Rank Command: [%s]", 
-//            					formatted ));
-        		
-//        		PrisonAPI.dispatchCommand(formatted);
+				
         		count++;
         	}
         }
-        results.setRankupCommandsExecuted( count );
-        results.addTransaction( RankupTransactions.rankupCommandsCompleted );
-
-        
-        
-        // Recalculate the rankup cost multipliers to apply to the next rankup.
-        // This must be done AFTER the ranks commands sets up the placeholder 
-        // values so they will reflect the correct amounts.
-        rankPlayer.recalculateRankMultipliers();
-        
-        
-        // Sort the Top ranked list:
-//        rankPlayer.forcePlayerToRecalculateRankScore();
-        TopNPlayers.getInstance().updatePlayerData(rankPlayer);
-        
-        
-//        results.addTransaction( RankupTransactions.fireRankupEvent );
-//        
-//        // Nothing can cancel a RankUpEvent:
-//        RankUpEvent rankupEvent = new RankUpEvent(rankPlayer, originalRank, targetRank, nextRankCost);
-//        Prison.get().getEventBus().post(rankupEvent);
-        
-        
-        if ( RankupCommands.demote == command ) {
-        	
-        	results.addTransaction( RankupStatus.DEMOTE_SUCCESS, RankupTransactions.demote_successful );
-        }
-        else {
-        	
-        	results.addTransaction( RankupStatus.RANKUP_SUCCESS, RankupTransactions.rankup_successful );
-        }
         
+        return count;
     }
 
 
-
 	private boolean savePlayerRank( RankupResults results, RankPlayer rankPlayer ) {
 		boolean success = false;
 //		try {
@@ -45,6 +45,14 @@ public class RankupResults {
     private long timestampStart = 0;
     private long timestampStop = 0;
     
+    /**
+     * <p>When rankupmax is planned as a single transaction, this contains all of 
+     * the ranks the player was ranked through, in order, ending with the target rank.
+     * Otherwise it is null.
+     * </p>
+     */
+    private List<Rank> rankupMaxRanks = null;
+    
     public RankupResults(RankupCommands command, RankPlayer rankPlayer, String executorName,
     		String ladderName, String rankName) {
         super();
@@ -278,4 +286,12 @@ public class RankupResults {
 		this.rankupCostFinalAccuracy = rankupCostFinalAccuracy;
 	}
 	
+
+	public List<Rank> getRankupMaxRanks() {
+		return rankupMaxRanks;
+	}
+	public void setRankupMaxRanks( List<Rank> rankupMaxRanks ) {
+		this.rankupMaxRanks = rankupMaxRanks;
+	}
+	
 }
@@ -561,7 +561,6 @@ public class LadderCommands
     	
 		
 		LadderManager lm = PrisonRanks.getInstance().getLadderManager();
-		RankManager rm = PrisonRanks.getInstance().getRankManager();
 		
         RankLadder ladder = lm.getLadder(ladderName);
         
@@ -576,18 +575,40 @@ public class LadderCommands
         	return;
         }
         
-        // Force a backup:
+        // Force a backup, then change the rank costs after the backup is finished:
     	PrisonBackups prisonBackup = new PrisonBackups();
     	
     	String backupComment = String.format( 
     							"Resetting all rank costs on ladder %s.", 
     							ladder.getName() );
-    	String message = prisonBackup.startBackup( BackupTypes.auto, backupComment );
+    	boolean started = prisonBackup.startBackupAsync( BackupTypes.incremental, backupComment, 
+    			message -> {
+    				
+    				sender.sendMessage( message );
+    				
+    				// Do not change the rank costs unless they were backed up:
+    				if ( prisonBackup.isBackupSuccessful() ) {
+    					sender.sendMessage( "Forced a Backup of prison configs prior to changing rank costs." );
+    					
+    					resetRankCosts( ladder, initialCost, addMult, exponent );
+    				}
+    				else {
+    					sender.sendMessage( "Error: ranks ladder resetRankCosts: The backup failed, " +
+    							"so the rank costs were not changed. See the console for the errors." );
+    				}
+    			});
+    	
+    	if ( !started ) {
+    		sender.sendMessage( "Error: ranks ladder resetRankCosts: Another backup is running. " +
+    				"Try again after it is finished." );
+    	}
+    }
+    
+    private void resetRankCosts( RankLadder ladder, double initialCost, double addMult, 
+    				double exponent ) {
+    	
+    	RankManager rm = PrisonRanks.getInstance().getRankManager();
     	
-    	sender.sendMessage( message );
-    	sender.sendMessage( "Forced a Backup of prison configs prior to changing rank costs." );
-
-        
         int ranksChanged = 0;
         
         int i = 1;
@@ -73,9 +73,22 @@ public class RankUpCommand
     			altPermissions = {"ranks.rankupmax.default", "ranks.rankupmax.prestige", "ranks.rankupmax.[ladderName]"},
     			onlyPlayers = false) 
     public void rankUpMax(CommandSender sender,
-    		@Arg(name = "ladder", description = "The ladder to rank up on.", def = "default")  String ladder 
+    		@Arg(name = "ladder", description = "The ladder to rank up on.", def = "default")  String ladder,
+    		@Arg(name = "playerName", description = "Provides the player's name for the rankupMax, but " +
+    				"this can only be provided by a non-player such as console or ran from a script.", def = "")  String playerName
     		) {
 
+		boolean isPlayer = sender.isPlayer();
+		
+		if ( isPlayer ) {
+			playerName = "";
+		}
+		
+        if ( !isPlayer && playerName.length() == 0 ) {
+        	Output.get().logInfo( rankupCannotRunFromConsoleMsg() );
+        	return;
+        }
+        
     	String perms = "ranks.rankupmax.";
     	String permsLadder = perms + ladder;
     	
@@ -104,22 +117,22 @@ public class RankUpCommand
     		if ( !LadderManager.LADDER_PRESTIGES.equalsIgnoreCase( ladder ) && 
     				!LadderManager.LADDER_DEFAULT.equalsIgnoreCase( ladder )) {
     			
-    			success = rankUpPrivate(sender, "", ladder, mode, perms, cmdTasks, sbRanks );
+    			success = rankUpPrivate(sender, playerName, ladder, mode, perms, cmdTasks, sbRanks );
     		}
     		else {
     			
     			// Run rankupmax on the default ladder only:
-    			success = rankUpPrivate(sender, "", LadderManager.LADDER_DEFAULT, mode, perms, cmdTasks, sbRanks );
+    			success = rankUpPrivate(sender, playerName, LadderManager.LADDER_DEFAULT, mode, perms, cmdTasks, sbRanks );
     			
     			// If they specified the prestiges ladder, then try to prestige that one rank:
     			if ( success && LadderManager.LADDER_PRESTIGES.equalsIgnoreCase( ladder ) ) {
     				
-    				success = rankUpPrivate(sender, "", LadderManager.LADDER_PRESTIGES, RankupModes.ONE_RANK, perms, cmdTasks, sbRanks );
+    				success = rankUpPrivate(sender, playerName, LadderManager.LADDER_PRESTIGES, RankupModes.ONE_RANK, perms, cmdTasks, sbRanks );
     			}
     		}
     		
 			
-    		Player player = getPlayer( sender, null );
+    		Player player = getPlayer( sender, playerName );
 			
 			// submit cmdTasks
 			if ( cmdTasks.size() > 0 ) {
@@ -135,11 +148,11 @@ public class RankUpCommand
 			// If the ran rankupmax for prestiges, and the last prestige was successful, then
 			// try it all again!
 			if ( success && LadderManager.LADDER_PRESTIGES.equalsIgnoreCase( ladder ) ) {
-				rankUpMax( sender, ladder );
+				rankUpMax( sender, ladder, playerName );
 			}
 		}
     	else {
-    		Player player = getPlayer( sender, null );
+    		Player player = getPlayer( sender, playerName );
     		Output.get().logDebug( DebugTarget.rankup, 
     				"Rankup: Failed: cmd '/rankupmax %s'  Does not have the permission ranks.rankupmax.%s", 
     				ladder, ladder );
@@ -362,7 +375,7 @@ public class RankUpCommand
 		
 		String currency = nextRank.getCurrency();
 		
-		if ( rPlayer.getBalance( currency ) < nextRank.getRankCost() ) {
+		if ( rPlayer.getBalanceNow( currency ) < nextRank.getRankCost() ) {
 			
 			// You do not have enough to prestige yet
 			ranksRankupCannotAffordMsg( sender, nextRank, rPlayer );
@@ -631,8 +644,15 @@ public class RankUpCommand
         
         if (rankPlayer != null ) {
         	
-        	// Performs the actual rankup here:
-        	RankupResults results = new RankUtil().rankupPlayer(player, rankPlayer, ladder, 
+        	// Performs the actual rankup here.  A rankupmax, that is not a prestige, is 
+        	// planned and performed as a single transaction:
+        	boolean singleTransaction = mode == RankupModes.MAX_RANKS && !canPrestige &&
+        			Prison.get().getPlatform().getConfigBooleanTrue( "ranks.rankup-max-single-transaction" );
+        	
+        	RankupResults results = singleTransaction ?
+        			new RankUtil().rankupMaxPlayer(player, rankPlayer, ladder, 
+        						sender.getName(), cmdTasks ) :
+        			new RankUtil().rankupPlayer(player, rankPlayer, ladder, 
         						sender.getName(), cmdTasks );
         	
         	
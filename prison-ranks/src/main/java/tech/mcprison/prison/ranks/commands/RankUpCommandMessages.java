@@ -342,7 +342,15 @@ public class RankUpCommandMessages
 		// Do not generate any other messages.
 		if ( sbRanks != null && tRank != null ) {
 			
-			sbRanks.append( tRank.getTag() ).append( " " );
+			if ( results.getRankupMaxRanks() != null ) {
+				// A single transaction rankupmax, so log all of the rank tags:
+				for ( Rank rank : results.getRankupMaxRanks() ) {
+					sbRanks.append( rank.getTag() ).append( " " );
+				}
+			}
+			else {
+				sbRanks.append( tRank.getTag() ).append( " " );
+			}
 			return;
 		}
 		
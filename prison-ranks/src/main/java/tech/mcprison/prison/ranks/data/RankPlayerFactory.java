@@ -1,6 +1,7 @@
 package tech.mcprison.prison.ranks.data;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -89,10 +90,13 @@ public class RankPlayerFactory
 	    public static Document toDocument( RankPlayer rankPlayer ) {
 	        Document ret = new Document();
 	        ret.put("uid", rankPlayer.getUUID());
-	        ret.put("ranks", rankPlayer.getRanksRefs() );
+	        
+	        // Copies, since the document may be saved from the async save queue while
+	        // the player's ranks and names are still being changed:
+	        ret.put("ranks", new HashMap<>( rankPlayer.getRanksRefs() ) );
 //	        ret.put("prestige", this.prestige);
 	        
-	        ret.put("names", rankPlayer.getNames());
+	        ret.put("names", new ArrayList<>( rankPlayer.getNames() ));
 
 //	        ret.put("blocksMined", rankPlayer.getBlocksMined() );
 	        return ret;
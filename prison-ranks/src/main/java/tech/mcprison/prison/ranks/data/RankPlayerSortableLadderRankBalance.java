@@ -164,14 +164,14 @@ public class RankPlayerSortableLadderRankBalance
 			PlayerRank pRank = rp1.getLadderRanks().get( rank.getLadder() );
 //			PlayerRank pRank = rp1.getRank( rank.getLadder() );
 			
-	        // This calculates the target rank, and takes in to consideration the player's existing rank:
-	        PlayerRank pRankNext = rp1.calculateTargetPlayerRank( nextRank );
+	        // The next rank's cost is read from the ladder's cost table, and takes in to 
+	        // consideration the player's existing ranks:
 //	        PlayerRank pRankNext = pRank.getTargetPlayerRankForPlayer( rp1, nextRank );
 
 //			PlayerRank pRankNext =  nextRank == null ? null : 
 //								new PlayerRank( nextRank, pRank.getRankMultiplier() );
 			
-			double nextRankCost = nextRank == null ? pRank.getRankCost() : pRankNext.getRankCost();
+			double nextRankCost = nextRank == null ? pRank.getRankCost() : rp1.getTargetRankCost( nextRank );
 			
 			topScore = nextRankCost / balance;
 			
@@ -76,12 +76,25 @@ public class PlayerManager
     private List<PlaceHolderKey> translatedPlaceHolderKeys;
     
     private transient Set<String> playerErrors;
+    
+    private RankPlayerSaveQueue saveQueue;
 
     public PlayerManager(Collection collection) {
     	super("PlayerMangager");
     	
         this.collection = collection;
         
+        if ( Prison.get().getPlatform() == null || 
+        		Prison.get().getPlatform().getConfigBooleanTrue( "ranks.player-save.write-behind.enabled" ) ) {
+        	
+        	long delayMs = Prison.get().getPlatform() == null ? 
+        			RankPlayerSaveQueue.DEFAULT_WRITE_BEHIND_DELAY_MS :
+        			Prison.get().getPlatform().getConfigLong( "ranks.player-save.write-behind.delay-ms", 
+        					RankPlayerSaveQueue.DEFAULT_WRITE_BEHIND_DELAY_MS );
+        	
+        	this.saveQueue = new RankPlayerSaveQueue( collection, delayMs );
+        }
+        
         this.players = new ArrayList<>();
         this.playersByName = new TreeMap<>();
         
@@ -159,6 +172,11 @@ public class PlayerManager
 
     /**
      * Saves a {@link RankPlayer} to disk.
+     * 
+     * <p>The player's document is always generated on the caller's thread.  If the
+     * write-behind save queue is enabled, then the document is queued and written 
+     * on the save queue's thread, otherwise it is written immediately.
+     * </p>
      *
      * @param player     The {@link RankPlayer} to save.
      * @param playerFile The key to save as.
@@ -169,7 +187,14 @@ public class PlayerManager
     	
     	if ( !player.isEnableDirty() || player.isEnableDirty() && player.isDirty() ) {
     		
-    		collection.save(playerFile, RankPlayerFactory.toDocument( player ) );
+    		Document document = RankPlayerFactory.toDocument( player );
+    		
+    		if ( saveQueue != null ) {
+    			saveQueue.submit( playerFile, document );
+    		}
+    		else {
+    			collection.save( playerFile, document );
+    		}
     		
     		player.setDirty( false );
     	}
@@ -191,6 +216,21 @@ public class PlayerManager
 		}
     }
 
+    /**
+     * <p>Writes all pending player saves and stops the save queue's thread. 
+     * Any saves after this will be written immediately.
+     * </p>
+     */
+    public void flushAndShutdownSaveQueue() {
+    	if ( saveQueue != null ) {
+    		saveQueue.shutdown();
+    	}
+    }
+    
+    public RankPlayerSaveQueue getSaveQueue() {
+    	return saveQueue;
+    }
+
     /**
      * Saves every player in the registry.  If one player fails to save, it will not
      * prevent the others from being saved.
@@ -663,19 +703,20 @@ public class PlayerManager
     					
     					nextRank = getNextPrestigeRank( rankPlayer, isDefault, nextRank );
     					
-    			        // This calculates the target rank, and takes in to consideration the player's existing rank:
-    			        PlayerRank nextPRank = rankPlayer.calculateTargetPlayerRank( nextRank );
+    			        // The target rank's cost is read from its ladder's cost table, and takes in to consideration
+    			        // the player's existing ranks:
+    			        boolean hasNextRank = nextRank != null && nextRank.getLadder() != null;
 //    			        PlayerRank nextPRank = pRank.getTargetPlayerRankForPlayer( rankPlayer, nextRank );
 
     					//PlayerRank nextPRank = new PlayerRank( nextRank, pRank.getRankMultiplier() );
     					
-    			        if ( nextPRank != null ) {
+    			        if ( hasNextRank ) {
     			        	
     			        	if ( sb.length() > 0 ) {
     			        		sb.append(", ");
     			        	}
     			        	
-    			        	double cost = nextPRank.getRankCost();
+    			        	double cost = rankPlayer.getTargetRankCost( nextRank );
     			        	
     			        	if ( attributeNFormat != null ) {
 
@@ -751,27 +792,24 @@ public class PlayerManager
     					
     					nextRank = getNextPrestigeRank( rankPlayer, isDefault, nextRank );
     					
-    			        // This calculates the target rank, and takes in to consideration the player's existing rank:
-    			        PlayerRank nextPRank =  rankPlayer.calculateTargetPlayerRank( nextRank );
+    			        // The target rank's cost is read from its ladder's cost table, and takes in to consideration
+    			        // the player's existing ranks:
+    			        boolean hasNextRank = nextRank != null && nextRank.getLadder() != null;
 //    			        PlayerRank nextPRank = pRank.getTargetPlayerRankForPlayer( rankPlayer, nextRank );
 
 // 						PlayerRank nextPRank = new PlayerRank( nextRank, pRank.getRankMultiplier() );
     			        
-    			        if ( nextPRank != null ) {
+    			        if ( hasNextRank ) {
     			        	
     			        	if ( sb.length() > 0 ) {
     			        		sb.append(",  ");
     			        	}
     			        	
 //    						Rank rank = key.getNext(key.getPositionOfRank(entry.getValue())).get();
-    			        	double cost = nextPRank.getRankCost();
     			        	double balance = rankPlayer.getBalance( pRank.getRank().getCurrency() );
 //    						double balance = getPlayerBalance(prisonPlayer,nextRank);
     			        	
-    			        	double percent = (balance < 0 ? 0 : 
-    			        		(cost == 0.0d || balance > cost ? 100.0 : 
-    			        			balance / cost * 100.0 )
-    			        			);
+    			        	double percent = rankPlayer.getTargetRankProgressPercent( nextRank, balance );
     			        	
     			        	if ( attributeNFormat != null ) {
     			        		
@@ -816,19 +854,20 @@ public class PlayerManager
     					
     					nextRank = getNextPrestigeRank( rankPlayer, isDefault, nextRank );
     					
-    			        // This calculates the target rank, and takes in to consideration the player's existing rank:
-    			        PlayerRank nextPRank = rankPlayer.calculateTargetPlayerRank( nextRank );
+    			        // The target rank's cost is read from its ladder's cost table, and takes in to consideration
+    			        // the player's existing ranks:
+    			        boolean hasNextRank = nextRank != null && nextRank.getLadder() != null;
 //    			        PlayerRank nextPRank = pRank.getTargetPlayerRankForPlayer( rankPlayer, nextRank );
 
 //    					PlayerRank nextPRank = new PlayerRank( nextRank, pRank.getRankMultiplier() );
     					
-    			        if ( nextPRank != null ) {
+    			        if ( hasNextRank ) {
     			        	
     			        	if ( sb.length() > 0 ) {
     			        		sb.append(",  ");
     			        	}
     			        	
-    			        	double cost = nextPRank.getRankCost();
+    			        	double cost = rankPlayer.getTargetRankCost( nextRank );
     			        	double balance = rankPlayer.getBalance( rank.getCurrency() );
 //    						double balance = getPlayerBalance(prisonPlayer,nextRank);
     			        	
@@ -882,19 +921,20 @@ public class PlayerManager
     					
     					nextRank = getNextPrestigeRank( rankPlayer, isDefault, nextRank );
     					
-    			        // This calculates the target rank, and takes in to consideration the player's existing rank:
-    			        PlayerRank nextPRank = rankPlayer.calculateTargetPlayerRank( nextRank );
+    			        // The target rank's cost is read from its ladder's cost table, and takes in to consideration
+    			        // the player's existing ranks:
+    			        boolean hasNextRank = nextRank != null && nextRank.getLadder() != null;
 //    			        PlayerRank nextPRank = pRank.getTargetPlayerRankForPlayer( rankPlayer, nextRank );
 
 //    					PlayerRank nextPRank = new PlayerRank( nextRank, pRank.getRankMultiplier() );
     					
-    			        if ( nextPRank != null ) {
+    			        if ( hasNextRank ) {
     			        	
     			        	if ( sb.length() > 0 ) {
     			        		sb.append(",  ");
     			        	}
     			        	
-    			        	double cost = nextPRank.getRankCost();
+    			        	double cost = rankPlayer.getTargetRankCost( nextRank );
     			        	double balance = rankPlayer.getBalance( rank.getCurrency() );
 //    					double balance = getPlayerBalance(prisonPlayer,nextRank);
     			        	
@@ -952,19 +992,20 @@ public class PlayerManager
 					
 					nextRank = getNextPrestigeRank( rankPlayer, isDefault, nextRank );
 					
-			        // This calculates the target rank, and takes in to consideration the player's existing rank:
-			        PlayerRank nextPRank = rankPlayer.calculateTargetPlayerRank( nextRank );
+			        // The target rank's cost is read from its ladder's cost table, and takes in to consideration
+			        // the player's existing ranks:
+			        boolean hasNextRank = nextRank != null && nextRank.getLadder() != null;
 //			        PlayerRank nextPRank = pRank.getTargetPlayerRankForPlayer( rankPlayer, nextRank );
 
 //					PlayerRank nextPRank = new PlayerRank( nextRank, pRank.getRankMultiplier() );
 					
-			        if ( nextPRank != null ) {
+			        if ( hasNextRank ) {
 			        	
 			        	if ( sb.length() > 0 ) {
 			        		sb.append(",  ");
 			        	}
 			        	
-			        	double cost = nextPRank.getRankCost();
+			        	double cost = rankPlayer.getTargetRankCost( nextRank );
 			        	double balance = rankPlayer.getBalance( rank.getCurrency() );
 //					double balance = getPlayerBalance(prisonPlayer,nextRank);
 			        	
@@ -1017,19 +1058,20 @@ public class PlayerManager
 					  
 	  					nextRank = getNextPrestigeRank( rankPlayer, isDefault, nextRank );
 					  
-  			          // This calculates the target rank, and takes in to consideration the player's existing rank:
-  			          PlayerRank nextPRank = rankPlayer.calculateTargetPlayerRank( nextRank );
+  			          // The target rank's cost is read from its ladder's cost table, and takes in to consideration
+  			          // the player's existing ranks:
+  			          boolean hasNextRank = nextRank != null && nextRank.getLadder() != null;
 //  			          PlayerRank nextPRank = pRank.getTargetPlayerRankForPlayer( rankPlayer, nextRank );
 
 //					  PlayerRank nextPRank = new PlayerRank( nextRank, pRank.getRankMultiplier() );
 					  
-  			          if ( nextPRank != null ) {
+  			          if ( hasNextRank ) {
   			        	
   			        	  if ( sb.length() > 0 ) {
   			        		  sb.append(",  ");
   			        	  }
   			        	  
-  			        	  double cost = nextPRank.getRankCost();
+  			        	  double cost = rankPlayer.getTargetRankCost( nextRank );
   			        	  double balance = rankPlayer.getBalance( rank.getCurrency() );
 //					  double balance = getPlayerBalance(prisonPlayer,nextRank);
   			        	  
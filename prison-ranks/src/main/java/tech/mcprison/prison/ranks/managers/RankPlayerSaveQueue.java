@@ -0,0 +1,216 @@
+package tech.mcprison.prison.ranks.managers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.store.Collection;
+import tech.mcprison.prison.store.Document;
+
+/**
+ * <p>This is a write-behind queue for saving RankPlayers.  When a player is
+ * saved, their document is generated on the caller's thread so it has the
+ * exact contents of the player at the time of the save.  The document is then
+ * queued, and if the same player is saved again before it is written, then
+ * only the newest document is kept.  All writes happen on one dedicated I/O
+ * thread, so the saves for a player are always written in the same order
+ * as they were submitted.
+ * </p>
+ *
+ * <p>This prevents commands such as rankupmax, which may rank a player through
+ * dozens of ranks, from rewriting the same player file many times on the
+ * calling thread.
+ * </p>
+ *
+ * <p>Upon shutdown, all pending saves are written before returning. After
+ * shutdown, all saves are written synchronously.
+ * </p>
+ *
+ */
+public class RankPlayerSaveQueue
+{
+	public static final long DEFAULT_WRITE_BEHIND_DELAY_MS = 500;
+
+	private final Collection collection;
+	private final long delayMs;
+
+	/**
+	 * <p>The pending documents keyed by the player's file name.  Guarded by
+	 * synchronizing on this map.
+	 * </p>
+	 */
+	private final Map<String, Document> pending;
+
+	/**
+	 * <p>Held while writing so a flush, and the synchronous saves after shutdown,
+	 * can never write the same file out of order.
+	 * </p>
+	 */
+	private final Object writeLock = new Object();
+
+	private final ScheduledThreadPoolExecutor executor;
+
+	private boolean flushScheduled = false;
+	private volatile boolean shutdown = false;
+
+	private final AtomicLong savesSubmitted;
+	private final AtomicLong savesWritten;
+
+	public RankPlayerSaveQueue( Collection collection, long delayMs ) {
+		super();
+
+		this.collection = collection;
+		this.delayMs = Math.max( 0, delayMs );
+
+		this.pending = new LinkedHashMap<>();
+
+		this.executor = new ScheduledThreadPoolExecutor( 1, r -> {
+			Thread thread = new Thread( r, "Prison-RankPlayer-Save" );
+			thread.setDaemon( true );
+			return thread;
+		});
+		this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy( false );
+
+		this.savesSubmitted = new AtomicLong();
+		this.savesWritten = new AtomicLong();
+	}
+
+	/**
+	 * <p>Queues the document to be written.  If there is already a pending
+	 * document for the same file, then it is replaced with this newer one.
+	 * </p>
+	 *
+	 * @param playerFile
+	 * @param document
+	 */
+	public void submit( String playerFile, Document document ) {
+
+		savesSubmitted.incrementAndGet();
+
+		boolean writeNow = false;
+
+		synchronized ( pending ) {
+
+			// The shutdown flag must be checked while holding the pending lock, since
+			// shutdown()'s final flush takes this lock too.  If the flush has already
+			// taken the pending documents, then this one would never be written:
+			if ( shutdown ) {
+				writeNow = true;
+			}
+			else {
+				pending.put( playerFile, document );
+
+				if ( !flushScheduled ) {
+					try {
+						executor.schedule( this::flush, delayMs, TimeUnit.MILLISECONDS );
+						flushScheduled = true;
+					}
+					catch ( RejectedExecutionException e ) {
+						// The executor has stopped, so do not leave it in pending:
+						pending.remove( playerFile );
+						writeNow = true;
+					}
+				}
+			}
+		}
+
+		if ( writeNow ) {
+			writeNow( playerFile, document );
+		}
+	}
+
+	/**
+	 * <p>Writes the document on the calling thread, which is used after shutdown.
+	 * </p>
+	 *
+	 * @param playerFile
+	 * @param document
+	 */
+	private void writeNow( String playerFile, Document document ) {
+
+		// Any older pending document for this file must not be written after this one:
+		synchronized ( writeLock ) {
+			synchronized ( pending ) {
+				pending.remove( playerFile );
+			}
+			write( playerFile, document );
+		}
+	}
+
+	/**
+	 * <p>Writes all of the pending documents.  This is normally only ran on
+	 * the I/O thread, or during shutdown after the I/O thread has stopped.
+	 * </p>
+	 */
+	private void flush() {
+		synchronized ( writeLock ) {
+			List<Map.Entry<String, Document>> saves;
+			
+			synchronized ( pending ) {
+				saves = new ArrayList<>( pending.entrySet() );
+				pending.clear();
+				flushScheduled = false;
+			}
+			
+			for ( Map.Entry<String, Document> save : saves ) {
+				write( save.getKey(), save.getValue() );
+			}
+		}
+	}
+
+	private void write( String playerFile, Document document ) {
+		try {
+			collection.save( playerFile, document );
+
+			savesWritten.incrementAndGet();
+		}
+		catch ( Exception e ) {
+			Output.get().logError( "RankPlayerSaveQueue: Failed to save player file " +
+					playerFile + ": " + e.getMessage(), e );
+		}
+	}
+
+	/**
+	 * <p>Stops the I/O thread, waiting for any save that is in progress, and then
+	 * writes all remaining pending saves on the calling thread. This should be
+	 * called when the ranks module is disabled.
+	 * </p>
+	 */
+	public void shutdown() {
+		shutdown = true;
+
+		executor.shutdown();
+
+		try {
+			if ( !executor.awaitTermination( 30, TimeUnit.SECONDS ) ) {
+				Output.get().logWarn( "RankPlayerSaveQueue: The save thread did not stop " +
+						"within 30 seconds. Writing the pending saves now." );
+			}
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+
+		flush();
+	}
+
+	public int getPendingCount() {
+		synchronized ( pending ) {
+			return pending.size();
+		}
+	}
+
+	public long getSavesSubmitted() {
+		return savesSubmitted.get();
+	}
+
+	public long getSavesWritten() {
+		return savesWritten.get();
+	}
+}
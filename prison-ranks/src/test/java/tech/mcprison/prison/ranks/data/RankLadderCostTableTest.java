@@ -0,0 +1,100 @@
+package tech.mcprison.prison.ranks.data;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class RankLadderCostTableTest
+{
+
+	private RankLadder createLadder( double rankCostMultiplier ) {
+		RankLadder ladder = new RankLadder( 1, "default" );
+		ladder.setRankCostMultiplierPerRank( rankCostMultiplier );
+
+		ladder.addRank( new Rank( 1, "A", "[A]", 0 ) );
+		ladder.addRank( new Rank( 2, "B", "[B]", 100 ) );
+		ladder.addRank( new Rank( 3, "C", "[C]", 200 ) );
+		ladder.addRank( new Rank( 4, "D", "[D]", 400 ) );
+		ladder.addRank( new Rank( 5, "E", "[E]", 800 ) );
+
+		return ladder;
+	}
+
+	@Test
+	public void testRankCostsMatchPlayerRank()
+	{
+		RankLadder ladder = createLadder( 0.1 );
+		RankLadderCostTable table = ladder.getCostTable();
+
+		double otherMultiplier = 0.25;
+
+		for ( Rank rank : ladder.getRanks() ) {
+
+			double multiplier = otherMultiplier + 0.1 * (1 + rank.getPosition());
+			PlayerRank pRank = new PlayerRank( rank, multiplier );
+
+			assertEquals( pRank.getRankCost(),
+					table.getRankCost( rank.getPosition(), otherMultiplier ), 0.000001 );
+		}
+	}
+
+	@Test
+	public void testCumulativeAndAffordable()
+	{
+		RankLadder ladder = createLadder( 0.0 );
+		RankLadderCostTable table = ladder.getCostTable();
+
+		assertEquals( 700, table.getCumulativeCost( 0, 3, 0 ), 0.000001 );
+		assertEquals( 1400, table.getCumulativeCost( 1, 4, 0 ), 0.000001 );
+		assertEquals( 0, table.getCumulativeCost( 2, 2, 0 ), 0.000001 );
+
+		assertEquals( 0, table.getAffordablePosition( 0, 0, 99, true ) );
+		assertEquals( 1, table.getAffordablePosition( 0, 0, 100, true ) );
+		assertEquals( 3, table.getAffordablePosition( 0, 0, 1000, true ) );
+		assertEquals( 4, table.getAffordablePosition( 0, 0, 1500, true ) );
+		assertEquals( 4, table.getAffordablePosition( 4, 0, 1500, true ) );
+
+		assertEquals( 50, table.getProgressPercent( 0, 0, 50 ), 0.000001 );
+		assertEquals( 100, table.getProgressPercent( 4, 0, 0 ), 0.000001 );
+	}
+
+	@Test
+	public void testTargetRankCostMatchesPlayerRank()
+	{
+		RankLadder ladder = createLadder( 0.1 );
+
+		// A player without any ranks has no multipliers from other ladders:
+		RankPlayer rPlayer = new RankPlayer();
+
+		for ( Rank rank : ladder.getRanks() ) {
+
+			assertEquals( rPlayer.calculateTargetPlayerRank( rank ).getRankCost(),
+					rPlayer.getTargetRankCost( rank ), 0.000001 );
+		}
+
+		Rank rankB = ladder.getRanks().get( 1 );
+		double cost = rPlayer.getTargetRankCost( rankB );
+
+		assertEquals( 50, rPlayer.getTargetRankProgressPercent( rankB, cost / 2 ), 0.000001 );
+		assertEquals( 100, rPlayer.getTargetRankProgressPercent( rankB, cost * 2 ), 0.000001 );
+		assertEquals( 0, rPlayer.getTargetRankProgressPercent( rankB, -10 ), 0.000001 );
+
+		assertEquals( -1, rPlayer.getTargetRankCost( null ), 0.000001 );
+	}
+
+	@Test
+	public void testCurrencyChangeAndInvalidation()
+	{
+		RankLadder ladder = createLadder( 0.0 );
+
+		assertEquals( 4, ladder.getCostTable().getAffordablePosition( 0, 0, 1500, true ) );
+
+		ladder.getRanks().get( 3 ).setCurrency( "tokens" );
+
+		RankLadderCostTable table = ladder.getCostTable();
+
+		assertEquals( 2, table.getAffordablePosition( 0, 0, 1500, true ) );
+		assertEquals( 4, table.getAffordablePosition( 0, 0, 1500, false ) );
+	}
+
+}
@@ -0,0 +1,104 @@
+package tech.mcprison.prison.ranks.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.store.Collection;
+import tech.mcprison.prison.store.Document;
+
+public class RankPlayerSaveQueueTest
+{
+
+	/**
+	 * <p>Records the file names that were saved.
+	 * </p>
+	 */
+	private static class SavedFiles
+			implements Collection
+	{
+		private final List<String> saved = new ArrayList<>();
+
+		@Override
+		public String getName() {
+			return "test";
+		}
+
+		@Override
+		public List<Document> getAll() {
+			return new ArrayList<>();
+		}
+
+		@Override
+		public Optional<Document> get( String key ) {
+			return Optional.empty();
+		}
+
+		@Override
+		public void save( Document document ) {
+		}
+
+		@Override
+		public synchronized void save( String filename, Document document ) {
+			saved.add( filename );
+		}
+
+		@Override
+		public boolean delete( String name ) {
+			return false;
+		}
+
+		@Override
+		public File backup( String name ) {
+			return null;
+		}
+
+		public synchronized List<String> getSaved() {
+			return new ArrayList<>( saved );
+		}
+	}
+
+	@Test
+	public void testPendingSavesAreWrittenOnShutdown()
+	{
+		SavedFiles files = new SavedFiles();
+
+		// The delay is long enough that only shutdown() will write them:
+		RankPlayerSaveQueue queue = new RankPlayerSaveQueue( files, 60000 );
+
+		queue.submit( "a", new Document() );
+		queue.submit( "b", new Document() );
+		queue.submit( "a", new Document() );
+
+		assertEquals( 2, queue.getPendingCount() );
+
+		queue.shutdown();
+
+		assertEquals( 0, queue.getPendingCount() );
+		assertEquals( 2, files.getSaved().size() );
+		assertEquals( 3, queue.getSavesSubmitted() );
+	}
+
+	@Test
+	public void testSubmitAfterShutdownIsWritten()
+	{
+		SavedFiles files = new SavedFiles();
+
+		RankPlayerSaveQueue queue = new RankPlayerSaveQueue( files, 60000 );
+		queue.shutdown();
+
+		queue.submit( "late", new Document() );
+
+		// It must be written now, since there will not be another flush:
+		assertEquals( 0, queue.getPendingCount() );
+		assertEquals( 1, files.getSaved().size() );
+		assertTrue( files.getSaved().contains( "late" ) );
+		assertEquals( 1, queue.getSavesWritten() );
+	}
+}
@@ -35,14 +35,18 @@ import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerKickEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerPickupItemEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.plugin.EventExecutor;
 import org.bukkit.plugin.PluginManager;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.events.Cancelable;
+import tech.mcprison.prison.internal.events.player.PlayerBlockMoveEvent;
 import tech.mcprison.prison.internal.events.player.PlayerPickUpItemEvent;
 import tech.mcprison.prison.internal.events.player.PlayerSuffocationEvent;
 import tech.mcprison.prison.internal.events.player.PrisonPlayerInteractEvent;
@@ -151,6 +155,47 @@ public class SpigotListener implements Listener {
                 new SpigotPlayer(e.getPlayer()), e.getReason()));
     }
 
+    /**
+     * <p>Player move events are fired many times a second for each player, so 
+     * this only posts an event when the player moves in to a different block, or
+     * a different world.
+     * </p>
+     * 
+     * @param e
+     */
+    @EventHandler(priority=EventPriority.MONITOR, ignoreCancelled=true) 
+    public void onPlayerMove(PlayerMoveEvent e) {
+    	org.bukkit.Location from = e.getFrom();
+    	org.bukkit.Location to = e.getTo();
+    	
+    	if ( to != null && 
+    			(from.getBlockX() != to.getBlockX() || 
+    			 from.getBlockY() != to.getBlockY() ||
+    			 from.getBlockZ() != to.getBlockZ() ||
+    			 from.getWorld() != to.getWorld()) ) {
+    		
+    		postPlayerBlockMove( e.getPlayer(), to );
+    	}
+    }
+    
+    @EventHandler(priority=EventPriority.MONITOR, ignoreCancelled=true) 
+    public void onPlayerTeleport(PlayerTeleportEvent e) {
+    	if ( e.getTo() != null ) {
+    		postPlayerBlockMove( e.getPlayer(), e.getTo() );
+    	}
+    }
+    
+    @EventHandler(priority=EventPriority.MONITOR) 
+    public void onPlayerRespawn(PlayerRespawnEvent e) {
+    	postPlayerBlockMove( e.getPlayer(), e.getRespawnLocation() );
+    }
+    
+    private void postPlayerBlockMove( Player player, org.bukkit.Location to ) {
+    	Prison.get().getEventBus().post(
+    			new PlayerBlockMoveEvent( new SpigotPlayer( player ), 
+    					SpigotUtil.bukkitLocationToPrison( to ) ) );
+    }
+
 	@EventHandler 
 	public void onPlayerSuffocation( EntityDamageEvent e ) {
 		Entity entity = e.getEntity();
@@ -39,9 +39,11 @@ import tech.mcprison.prison.PrisonAPI;
 import tech.mcprison.prison.PrisonCommand;
 import tech.mcprison.prison.PrisonCommand.RegisteredPluginsData;
 import tech.mcprison.prison.autofeatures.AutoFeaturesWrapper;
+import tech.mcprison.prison.backpacks.BackpackCache;
 import tech.mcprison.prison.backups.PrisonBackups;
 import tech.mcprison.prison.integration.Integration;
 import tech.mcprison.prison.integration.IntegrationType;
+import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlockTypes;
 import tech.mcprison.prison.localization.LocaleManager;
 import tech.mcprison.prison.mines.PrisonMines;
@@ -62,6 +64,8 @@ import tech.mcprison.prison.sellall.commands.SellallCommands;
 import tech.mcprison.prison.spigot.autofeatures.AutoManagerFeatures;
 import tech.mcprison.prison.spigot.autofeatures.events.AutoManagerBlockBreakEvents;
 import tech.mcprison.prison.spigot.backpacks.BackpacksListeners;
+import tech.mcprison.prison.spigot.backpacks.BackpacksUtil;
+import tech.mcprison.prison.spigot.backpacks.SiloBackpacksUtil;
 import tech.mcprison.prison.spigot.block.OnBlockBreakEventListener;
 import tech.mcprison.prison.spigot.bstats.PrisonBStats;
 import tech.mcprison.prison.spigot.commands.PrisonSpigotBackpackCommands;
@@ -97,6 +101,8 @@ import tech.mcprison.prison.spigot.tasks.PrisonInitialStartupTask;
 import tech.mcprison.prison.spigot.tasks.SpigotPrisonDelayedStartupTask;
 import tech.mcprison.prison.spigot.utils.PrisonUtilsMineBombs;
 import tech.mcprison.prison.spigot.utils.PrisonUtilsModule;
+import tech.mcprison.prison.spigot.utils.tasks.PlayerAutoRankupTask;
+import tech.mcprison.prison.tasks.PrisonStartupTasks;
 import tech.mcprison.prison.util.Text;
 
 /**
@@ -130,7 +136,8 @@ public class SpigotPrison
     private SellAllConfig sellAllConfig;
     private BackpacksConfig backpacksConfig;
 
-    private PrisonBlockTypes prisonBlockTypes;
+    private volatile PrisonBlockTypes prisonBlockTypes;
+    private volatile List<PrisonBlock> platformBlockTypes;
 
     private static boolean isBackPacksEnabled = false;
     private static boolean isSellAllEnabled = false;
@@ -317,42 +324,35 @@ public class SpigotPrison
 	   
 
         
-        // Manually register Listeners with Bukkit:
-        Bukkit.getPluginManager().registerEvents(new ListenersPrisonManager(),this);
-
+        // The startup is ran as a graph of stages.  The stages that only load files
+        // or build tables are ran on worker threads, while the stages that register
+        // with bukkit, or use the worlds, are ran on this thread.  The time for each
+        // stage is logged, and is also shown in /prison version.
+        PrisonStartupTasks startup = new PrisonStartupTasks( "Prison" );
         
-        boolean slimeFunEnabled1 = SpigotPrison.getInstance().getConfig().getBoolean("slime-fun");
-		boolean slimeFunEnabled2 = SpigotPrison.getInstance().getConfig().getBoolean("slime-fun.enabled");
-		
-        if ( slimeFunEnabled1 || slimeFunEnabled2 ) {
-        	Bukkit.getPluginManager().registerEvents(new SlimeBlockFunEventListener(), this);
-        }
+        // Load the autoFeaturesConfig.yml and blockConverters.json files:
+        startup.addAsync( "autoFeaturesConfig", () -> AutoFeaturesWrapper.getInstance() );
+        startup.addAsync( "blockConverters", () -> AutoFeaturesWrapper.getBlockConvertersInstance(), 
+        		"autoFeaturesConfig" );
         
-        Bukkit.getPluginManager().registerEvents(new SpigotListener(), this);
-
-        try {
-            isBackPacksEnabled = getConfig().getBoolean("backpacks");
-        } catch (NullPointerException ignored){}
-
-        if (isBackPacksEnabled){
-            Bukkit.getPluginManager().registerEvents(new BackpacksListeners(), this);
-        }
-
-        initIntegrations();
+        // The XMaterial block types that are valid on this server:
+        startup.addAsync( "platformBlockTypes", () -> preloadPlatformBlockTypes() );
         
-        // Sellall set to disabled since it will be set to the correct value in enableModulesAndCommands():
-        isSellAllEnabled = false;
+        startup.addSync( "listeners", () -> registerStartupListeners() );
         
-
+        startup.addSync( "integrations", () -> initIntegrations(), "listeners" );
         
-		// Load the autoFeaturesConfig.yml and blockConvertersConfig.json files:
-    	AutoFeaturesWrapper.getInstance();
-    	AutoFeaturesWrapper.getBlockConvertersInstance();
-    	
+        // The custom blocks can only be added after the integrations are loaded:
+        startup.addSync( "blockTypes", () -> getPrisonBlockTypes(), 
+        		"integrations", "platformBlockTypes" );
         
-		
-        // This is the loader for modules and commands:
-        enableModulesAndCommands();
+        // This is the loader for modules and commands.  Sellall is set to disabled 
+        // since it will be set to the correct value in enableModulesAndCommands():
+        startup.addSync( "modules", () -> {
+        			isSellAllEnabled = false;
+        			enableModulesAndCommands();
+        		}, 
+        		"integrations", "autoFeaturesConfig", "blockConverters", "blockTypes" );
 
         
 //        // NOTE: Put all commands within the initModulesAndCommands() function.
@@ -368,7 +368,15 @@ public class SpigotPrison
         
         // The BlockBreakEvents must be registered after the mines and ranks modules have been enabled:
         // Auto features will prevent this if it's disabled.
-        getBlockBreakEventListeners().registerAllBlockBreakEvents( this );
+        startup.addSync( "blockBreakEvents", 
+        		() -> getBlockBreakEventListeners().registerAllBlockBreakEvents( this ), "modules" );
+        
+        // The forced auto rankups are driven by the balance changes from the EconomyFacade:
+        startup.addSync( "autoRankups", 
+        		() -> PlayerAutoRankupTask.getInstance().register(), "modules" );
+        
+        startup.run();
+        
         
         
         // These stats are displayed within the initDeferredModules():
@@ -447,6 +455,44 @@ public class SpigotPrison
 		}
     }
 
+    /**
+     * <p>Registers prison's listeners with bukkit, and starts the backpacks.
+     * </p>
+     */
+    private void registerStartupListeners() {
+    	
+        // Manually register Listeners with Bukkit:
+        Bukkit.getPluginManager().registerEvents(new ListenersPrisonManager(),this);
+
+        
+        boolean slimeFunEnabled1 = SpigotPrison.getInstance().getConfig().getBoolean("slime-fun");
+		boolean slimeFunEnabled2 = SpigotPrison.getInstance().getConfig().getBoolean("slime-fun.enabled");
+		
+        if ( slimeFunEnabled1 || slimeFunEnabled2 ) {
+        	Bukkit.getPluginManager().registerEvents(new SlimeBlockFunEventListener(), this);
+        }
+        
+        Bukkit.getPluginManager().registerEvents(new SpigotListener(), this);
+
+        try {
+            isBackPacksEnabled = getConfig().getBoolean("backpacks");
+        } catch (NullPointerException ignored){}
+
+        if (isBackPacksEnabled){
+            Bukkit.getPluginManager().registerEvents(new BackpacksListeners(), this);
+            
+            // The backpacks are stored in the BackpackCache, which needs to be started, and
+            // the old backpacksData.yml file is moved to the players' files:
+            if ( BackpacksUtil.get() != null ) {
+            	BackpacksUtil.get().startup();
+            }
+            
+            if ( SiloBackpacksUtil.isEnabled() ) {
+            	SiloBackpacksUtil.get().startup();
+            }
+        }
+    }
+
     @Override
     public void onDisable() {
     	if (this.scheduler != null ) {
@@ -455,6 +501,9 @@ public class SpigotPrison
     	
     	Prison.get().getPlatform().unregisterAllCommands();
     	
+    	// Save all of the backpacks that have changed:
+    	BackpackCache.onDisable();
+    	
     	Prison.get().deinit();
     }
 
@@ -1403,7 +1452,8 @@ public class SpigotPrison
 					// out after the fact that a block that was used was invalid for
 					// their version of minecraft.
 					PrisonBlockTypes pbt = new PrisonBlockTypes();
-					pbt.addBlockTypes( SpigotUtil.getAllPlatformBlockTypes() );
+					pbt.addBlockTypes( platformBlockTypes != null ? platformBlockTypes :
+											SpigotUtil.getAllPlatformBlockTypes() );
 					pbt.addBlockTypes( SpigotUtil.getAllCustomBlockTypes() );
 					this.prisonBlockTypes = pbt;
 					
@@ -1414,6 +1464,29 @@ public class SpigotPrison
 		return prisonBlockTypes;
 	}
 
+	/**
+	 * <p>Returns true once the prison block types have been loaded, which 
+	 * will not force them to be loaded.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public boolean isPrisonBlockTypesLoaded() {
+		return prisonBlockTypes != null;
+	}
+
+	/**
+	 * <p>Finds all of the XMaterial block types that are valid on this server,
+	 * which does not need the integrations, so it can be ran on a worker thread
+	 * while prison is starting up.  getPrisonBlockTypes() will then use these.
+	 * </p>
+	 */
+	private void preloadPlatformBlockTypes() {
+		if ( platformBlockTypes == null ) {
+			platformBlockTypes = SpigotUtil.getAllPlatformBlockTypes();
+		}
+	}
+
 	public List<Listener> getRegisteredBlockListeners() {
 		return registeredBlockListeners;
 	}
@@ -46,6 +46,7 @@ import tech.mcprison.prison.internal.inventory.InventoryType;
 import tech.mcprison.prison.internal.inventory.Viewable;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.backpacks.BackpacksUtil;
+import tech.mcprison.prison.spigot.backpacks.SiloBackpacksUtil;
 import tech.mcprison.prison.spigot.block.PrisonItemStackNotSupportedRuntimeException;
 import tech.mcprison.prison.spigot.block.SpigotBlock;
 import tech.mcprison.prison.spigot.block.SpigotItemStack;
@@ -263,7 +264,16 @@ public class SpigotUtil {
 					String worldName = player.getWorld().getName();
 					List<String> disabledWorlds = bpUtil.getBackpacksConfig().getStringList("Options.DisabledWorlds");
 					if (!disabledWorlds.contains(worldName)){
-						if (bpUtil.isMultipleBackpacksEnabled()) {
+						
+						// Plain items are merged in to the silo counters first:
+						if ( SiloBackpacksUtil.isEnabled() ) {
+							overflow = SiloBackpacksUtil.get().addItems( player, overflow );
+						}
+						
+						if ( overflow.size() == 0 ) {
+							// Everything fit within the silos
+						}
+						else if (bpUtil.isMultipleBackpacksEnabled()) {
 							for (String id : bpUtil.getBackpacksIDs(player)) {
 								if (overflow.size() > 0) {
 //									if (id == null) {
@@ -408,6 +418,10 @@ public class SpigotUtil {
 			Inventory inv = BackpacksUtil.get().getBackpack(player, id);
 			removed += itemStackRemoveAll( xMat, inv );
 			BackpacksUtil.get().setInventory( player, inv, id );
+			
+			if ( SiloBackpacksUtil.isEnabled() ) {
+				removed += SiloBackpacksUtil.get().removeAll( player, xMat );
+			}
 		}
 		
 		
@@ -56,6 +56,8 @@ import tech.mcprison.prison.spigot.utils.tasks.PlayerAutoRankupTask;
 import tech.mcprison.prison.tasks.PrisonCommandTaskData;
 import tech.mcprison.prison.tasks.PrisonCommandTaskData.TaskMode;
 import tech.mcprison.prison.tasks.PrisonCommandTasks;
+import tech.mcprison.prison.util.PrisonTickStats;
+import tech.mcprison.prison.util.PrisonTickStats.TickSubsystem;
 import tech.mcprison.prison.util.Text;
 
 /**
@@ -155,6 +157,10 @@ public abstract class AutoManagerFeatures
 	 * @param start
 	 */
     protected void printDebugInfo(  PrisonMinesBlockBreakEvent pmEvent, double start ) {
+    	
+    	// This is called at the end of each of the block break event handlers:
+    	PrisonTickStats.record( TickSubsystem.blockBreak, (long) start );
+    	
 		if ( pmEvent != null && pmEvent.getDebugInfo().length() > 0 ) {
 			
 			long stop = System.nanoTime();
@@ -975,6 +981,7 @@ public abstract class AutoManagerFeatures
 					double amount = SellAllUtil.get().sellAllSell( player, itemStack, false, false, true );
 					final long nanoStop = System.nanoTime();
 					nanoTime += nanoStop - nanoStart;
+					PrisonTickStats.recordNanos( TickSubsystem.autosell, nanoStop - nanoStart );
 					
 					autosellTotal += amount;
 					
@@ -1534,6 +1541,7 @@ public abstract class AutoManagerFeatures
 						sellAllUtil.sellAllSell(player, false, !saNote, saNote, false, false, false, amounts );
 						final long nanoStop = System.nanoTime();
 						long nanoTime = nanoStop - nanoStart;
+						PrisonTickStats.recordNanos( TickSubsystem.autosell, nanoTime );
 						
 						double amount = 0;
 						for ( Double amt : amounts ) {
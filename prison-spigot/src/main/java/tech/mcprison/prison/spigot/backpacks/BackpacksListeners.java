@@ -65,7 +65,6 @@ public class BackpacksListeners implements Listener {
 
     private void defaultBackpackSetOnJoin(PlayerJoinEvent e) {
         Player p = e.getPlayer();
-        BackpacksUtil.get().setDefaultDataConfig();
         BackpacksUtil.get().giveBackpackItem(p);
     }
 
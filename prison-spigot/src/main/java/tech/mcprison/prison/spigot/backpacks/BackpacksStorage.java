@@ -0,0 +1,618 @@
+package tech.mcprison.prison.spigot.backpacks;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import tech.mcprison.prison.backpacks.BackpackCache;
+import tech.mcprison.prison.backpacks.BackpackCachePlayerData;
+import tech.mcprison.prison.backpacks.BackpackEnums.BackpackType;
+import tech.mcprison.prison.backpacks.PlayerBackpack;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.spigot.SpigotPrison;
+import tech.mcprison.prison.spigot.game.SpigotOfflinePlayer;
+import tech.mcprison.prison.spigot.game.SpigotPlayer;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>This stores the legacy backpacks within each player's own file in the
+ * BackpackCache, instead of storing all players within the one file
+ * backpacks/backpacksData.yml.  The player's file is loaded when they join,
+ * saved asynchronously when it has changed, and unloaded when they leave, so
+ * changing one backpack no longer rewrites, or reloads, every player's
+ * backpacks.
+ * </p>
+ *
+ * <p>Each backpack is stored under the same name that was used in the yaml
+ * file, which is "Items" for the default backpack, and "Items-&lt;id&gt;" for
+ * the others.  The items are serialized with bukkit's yaml serialization,
+ * one item for each slot, so nothing about the items is lost.
+ * </p>
+ *
+ * <p>Any changes to a player's data must be synchronized on the player's
+ * data object, and then marked dirty so it will be saved.
+ * </p>
+ *
+ * <p>Offline players are loaded from their files without adding them to the
+ * cache, so the admin commands do not fill the cache with players that will
+ * never be unloaded.  The admin GUIs use an index of the backpack owners that
+ * is loaded asynchronously at startup, and is then updated whenever a player's
+ * backpacks are changed, so the players' files are not read on the main thread.
+ * </p>
+ *
+ */
+public class BackpacksStorage {
+
+	public static final String LEGACY_BACKPACK_NAME = "Items";
+
+	private static final String ITEM_KEY = "item";
+
+	private final Map<String, BackpackIndexEntry> index;
+	private volatile boolean indexLoaded = false;
+
+	public BackpacksStorage() {
+		super();
+
+		this.index = new ConcurrentSkipListMap<>();
+	}
+
+	/**
+	 * <p>The details of one backpack owner that are shown in the admin GUIs, 
+	 * which are the player's name, uuid, limit, and the sizes of their 
+	 * backpacks, but not the items.
+	 * </p>
+	 */
+	protected static class BackpackIndexEntry {
+		private final String playerName;
+		private final String playerUuid;
+		private final Integer backpackLimit;
+		private final Map<String, Integer> backpackSizes;
+
+		/**
+		 * <p>This must be called while synchronized on the player's data.
+		 * </p>
+		 *
+		 * @param playerData
+		 * @param backpacks The player's inventory backpacks.
+		 */
+		protected BackpackIndexEntry( BackpackCachePlayerData playerData, List<PlayerBackpack> backpacks ) {
+			this.playerName = playerData.getPlayerName();
+			this.playerUuid = playerData.getPlayerUuid();
+			this.backpackLimit = playerData.getBackpackLimit();
+
+			this.backpackSizes = new LinkedHashMap<>();
+			for ( PlayerBackpack backpack : backpacks ) {
+				backpackSizes.put( backpack.getName(), backpack.getInventorySize() );
+			}
+		}
+
+		public boolean isEmpty() {
+			return backpackSizes.size() == 0 && backpackLimit == null;
+		}
+
+		public String getPlayerName() {
+			return playerName;
+		}
+		public String getPlayerUuid() {
+			return playerUuid;
+		}
+		public Integer getBackpackLimit() {
+			return backpackLimit;
+		}
+		public Map<String, Integer> getBackpackSizes() {
+			return backpackSizes;
+		}
+	}
+
+	/**
+	 * <p>Returns the key for the backpack, which is the same as the name
+	 * used in the legacy yaml file.
+	 * </p>
+	 *
+	 * @param id The backpack's id, or null for the default backpack.
+	 * @return
+	 */
+	public static String getBackpackKey( String id ) {
+		return id == null ? LEGACY_BACKPACK_NAME : LEGACY_BACKPACK_NAME + "-" + id;
+	}
+
+	/**
+	 * <p>Returns the backpack id for the key, or null for the default backpack.
+	 * </p>
+	 *
+	 * @param key
+	 * @return
+	 */
+	public static String getBackpackId( String key ) {
+		return key.length() > LEGACY_BACKPACK_NAME.length() + 1 ?
+						key.substring( LEGACY_BACKPACK_NAME.length() + 1 ) : null;
+	}
+
+	/**
+	 * <p>Returns the player's data.  Online players are loaded in to the cache if
+	 * they are not already in it.  Offline players that are not in the cache are
+	 * loaded from their file without being added to the cache, so changes to them
+	 * are saved right away by markDirty().
+	 * </p>
+	 *
+	 * @param p
+	 * @return
+	 */
+	public BackpackCachePlayerData getPlayerData( OfflinePlayer p ) {
+		BackpackCachePlayerData results = null;
+
+		if ( p != null ) {
+
+			Player player = p.getPlayer();
+
+			results = player != null ?
+						BackpackCache.getInstance().getOnlinePlayer( new SpigotPlayer( player ) ) :
+						BackpackCache.getInstance().getOfflinePlayer( new SpigotOfflinePlayer( p ) );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns the player's backpacks that use an inventory, which excludes
+	 * the silo backpacks.
+	 * </p>
+	 *
+	 * @param playerData
+	 * @return
+	 */
+	public List<PlayerBackpack> getInventoryBackpacks( BackpackCachePlayerData playerData ) {
+		List<PlayerBackpack> results = new ArrayList<>();
+
+		for ( PlayerBackpack backpack : playerData.getBackpacks().values() ) {
+			if ( backpack.getBackpackType() == BackpackType.inventory ) {
+				results.add( backpack );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns the player's backpack, and if it does not exist, and create
+	 * is true, then it will be created with the default size.
+	 * </p>
+	 *
+	 * @param playerData
+	 * @param id
+	 * @param create
+	 * @return The backpack, or null if it does not exist and create is false.
+	 */
+	public PlayerBackpack getBackpack( BackpackCachePlayerData playerData, String id,
+							int defaultSize, boolean create ) {
+
+		String key = getBackpackKey( id );
+
+		PlayerBackpack backpack = playerData.getBackpacks().get( key );
+
+		if ( backpack != null && backpack.getBackpackType() != BackpackType.inventory ) {
+			backpack = null;
+		}
+		else if ( backpack == null && create ) {
+
+			backpack = new PlayerBackpack( playerData.getPlayerName(), playerData.getPlayerUuid(),
+							BackpackType.inventory, key, "CHEST" );
+			backpack.setInventorySize( defaultSize );
+
+			playerData.getBackpacks().put( key, backpack );
+		}
+
+		return backpack;
+	}
+
+	/**
+	 * <p>Returns the backpack's items, by slot.  A slot without an item is null.
+	 * </p>
+	 *
+	 * @param backpack
+	 * @return
+	 */
+	public List<ItemStack> getItems( PlayerBackpack backpack ) {
+		List<ItemStack> results = new ArrayList<>();
+
+		if ( backpack != null && backpack.getSerializedInventory() != null ) {
+
+			for ( String serialized : backpack.getSerializedInventory() ) {
+				results.add( deserializeItem( serialized ) );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Replaces all of the backpack's items.  Like the legacy backpacks, the
+	 * empty slots are removed.
+	 * </p>
+	 *
+	 * @param backpack
+	 * @param items
+	 */
+	public void setItems( PlayerBackpack backpack, ItemStack[] items ) {
+
+		List<String> serialized = new ArrayList<>();
+
+		if ( items != null ) {
+			for ( ItemStack item : items ) {
+				if ( item != null ) {
+					serialized.add( serializeItem( item ) );
+				}
+			}
+		}
+
+		backpack.setSerializedInventory( serialized );
+	}
+
+	public static String serializeItem( ItemStack item ) {
+		YamlConfiguration yaml = new YamlConfiguration();
+		yaml.set( ITEM_KEY, item );
+
+		return yaml.saveToString();
+	}
+
+	public static ItemStack deserializeItem( String serialized ) {
+		ItemStack results = null;
+
+		if ( serialized != null ) {
+			YamlConfiguration yaml = new YamlConfiguration();
+
+			try {
+				yaml.loadFromString( serialized );
+				results = yaml.getItemStack( ITEM_KEY );
+			}
+			catch ( InvalidConfigurationException e ) {
+				Output.get().logError( "Backpacks: Unable to load a backpack item: " + e.getMessage() );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Marks the player's data as changed so it will be saved by the cache's
+	 * save task, and updates the index.  If the data is for an offline player
+	 * that is not in the cache, then the save task will never see it, so it is
+	 * saved now.  That only happens with the admin commands.
+	 * </p>
+	 *
+	 * @param playerData
+	 */
+	public void markDirty( BackpackCachePlayerData playerData ) {
+		BackpackCache bCache = BackpackCache.getInstance();
+
+		if ( bCache.isCached( playerData ) ) {
+			bCache.markDirty( playerData );
+		}
+		else {
+			bCache.saveCacheData( playerData );
+		}
+
+		updateIndex( playerData );
+	}
+
+	/**
+	 * <p>Finds the backpack owner by their name, first checking the online
+	 * players, then the backpack cache's files.
+	 * </p>
+	 *
+	 * @param name
+	 * @return
+	 */
+	public OfflinePlayer findOwner( String name ) {
+		OfflinePlayer results = null;
+
+		if ( name != null ) {
+
+			results = Bukkit.getPlayerExact( name );
+
+			if ( results == null ) {
+
+				for ( BackpackIndexEntry entry : index.values() ) {
+					if ( name.equalsIgnoreCase( entry.getPlayerName() ) ) {
+						results = Bukkit.getOfflinePlayer( UUID.fromString( entry.getPlayerUuid() ) );
+						break;
+					}
+				}
+			}
+
+			if ( results == null ) {
+
+				BackpackCache bCache = BackpackCache.getInstance();
+
+				List<BackpackCachePlayerData> cachedPlayers;
+				synchronized ( bCache.getPlayers() ) {
+					cachedPlayers = new ArrayList<>( bCache.getPlayers().values() );
+				}
+
+				for ( BackpackCachePlayerData playerData : cachedPlayers ) {
+					if ( name.equalsIgnoreCase( playerData.getPlayerName() ) ) {
+						results = Bukkit.getOfflinePlayer( UUID.fromString( playerData.getPlayerUuid() ) );
+						break;
+					}
+				}
+
+				if ( results == null ) {
+					File playerFile = bCache.getCacheFiles().findPlayerFile( name );
+					BackpackCachePlayerData playerData = playerFile == null ? null :
+									bCache.getCacheFiles().fromJsonFile( playerFile );
+
+					if ( playerData != null && playerData.getPlayerUuid() != null ) {
+						results = Bukkit.getOfflinePlayer( UUID.fromString( playerData.getPlayerUuid() ) );
+					}
+				}
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Builds the legacy yaml layout for all players that own backpacks, with
+	 * their names, ids, limits, and the backpack sizes, but not the items.
+	 * This is built from the index, so no files are read.  Until the index has
+	 * finished loading, only the players that have been updated are included.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public YamlConfiguration buildIndex() {
+		YamlConfiguration results = new YamlConfiguration();
+
+		for ( BackpackIndexEntry entry : index.values() ) {
+
+			String path = "Inventories." + entry.getPlayerUuid();
+
+			results.set( path + ".PlayerName", entry.getPlayerName() );
+			results.set( path + ".UniqueID", entry.getPlayerUuid() );
+
+			if ( entry.getBackpackLimit() != null ) {
+				results.set( path + ".Limit", entry.getBackpackLimit() );
+			}
+
+			for ( Map.Entry<String, Integer> size : entry.getBackpackSizes().entrySet() ) {
+				results.set( path + "." + size.getKey() + ".Size", size.getValue() );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Updates the player's entry within the index.  Players without any
+	 * backpacks, and without a limit, are removed.
+	 * </p>
+	 *
+	 * @param playerData
+	 */
+	public void updateIndex( BackpackCachePlayerData playerData ) {
+
+		if ( playerData != null && playerData.getPlayerUuid() != null ) {
+
+			BackpackIndexEntry entry;
+			synchronized ( playerData ) {
+				entry = new BackpackIndexEntry( playerData, getInventoryBackpacks( playerData ) );
+			}
+
+			if ( entry.isEmpty() ) {
+				index.remove( entry.getPlayerUuid() );
+			}
+			else {
+				index.put( entry.getPlayerUuid(), entry );
+			}
+		}
+	}
+
+	/**
+	 * <p>Loads the index from all of the players' files in an async task, so 
+	 * the files are not read on the main thread.  If a player is updated while
+	 * this is running, then their updated entry is kept.
+	 * </p>
+	 */
+	public void loadIndexAsync() {
+
+		PrisonTaskSubmitter.runTaskLaterAsync( () -> {
+
+			BackpackCache bCache = BackpackCache.getInstance();
+
+			for ( File playerFile : bCache.getCacheFiles().getAllPlayerFiles() ) {
+
+				BackpackCachePlayerData playerData = bCache.getCacheFiles().fromJsonFile( playerFile );
+
+				if ( playerData == null || playerData.getPlayerUuid() == null ) {
+					continue;
+				}
+
+				// Use the cached copy if the player is loaded since it may have unsaved changes:
+				BackpackCachePlayerData cached;
+				synchronized ( bCache.getPlayers() ) {
+					cached = bCache.getPlayers().get( playerData.getPlayerUuid() );
+				}
+				if ( cached != null ) {
+					playerData = cached;
+				}
+
+				BackpackIndexEntry entry;
+				synchronized ( playerData ) {
+					entry = new BackpackIndexEntry( playerData, getInventoryBackpacks( playerData ) );
+				}
+
+				if ( !entry.isEmpty() ) {
+					index.putIfAbsent( entry.getPlayerUuid(), entry );
+				}
+			}
+
+			indexLoaded = true;
+
+		}, 0 );
+	}
+
+	public boolean isIndexLoaded() {
+		return indexLoaded;
+	}
+
+	/**
+	 * <p>Moves all players from the legacy file backpacks/backpacksData.yml to their
+	 * own files in the BackpackCache.  When finished, the legacy file is renamed
+	 * so this only runs once, and so the original is kept as a backup.
+	 * </p>
+	 *
+	 * <p>If a player already has a backpack with the same name in their file, then
+	 * it is not replaced.
+	 * </p>
+	 */
+	public void migrateLegacyData() {
+
+		File legacyFile = new File( SpigotPrison.getInstance().getDataFolder(),
+								"backpacks/backpacksData.yml" );
+
+		if ( !legacyFile.exists() ) {
+			return;
+		}
+
+		BackpackCache bCache = BackpackCache.getInstance();
+
+		YamlConfiguration legacyData = YamlConfiguration.loadConfiguration( legacyFile );
+		ConfigurationSection inventories = legacyData.getConfigurationSection( "Inventories" );
+
+		int players = 0;
+		int errors = 0;
+
+		if ( inventories != null ) {
+
+			for ( String uuid : inventories.getKeys( false ) ) {
+
+				ConfigurationSection playerSection = inventories.getConfigurationSection( uuid );
+
+				try {
+					if ( playerSection != null &&
+							migrateLegacyPlayer( bCache, playerSection, UUID.fromString( uuid ) ) ) {
+						players++;
+					}
+				}
+				catch ( Exception e ) {
+					errors++;
+
+					Output.get().logError( "Backpacks: Unable to move the legacy backpacks for " +
+							uuid + " to their own file: " + e.getMessage() );
+				}
+			}
+		}
+
+		if ( errors > 0 ) {
+			Output.get().logWarn( String.format( "Backpacks: There were %d errors moving the legacy " +
+					"backpacks to their own files. The legacy file was not renamed, so the " +
+					"migration will be tried again on the next startup.", errors ) );
+		}
+		else {
+			SimpleDateFormat sdf = new SimpleDateFormat( "yyyy-MM-dd_HH-mm-ss" );
+			File migratedFile = new File( legacyFile.getParentFile(),
+					"backpacksData_migrated_" + sdf.format( new Date() ) + ".yml" );
+
+			legacyFile.renameTo( migratedFile );
+
+			Output.get().logInfo( "Backpacks: Moved the legacy backpacks for %s players to " +
+					"their own files. The legacy file was renamed to %s",
+					Integer.toString( players ), migratedFile.getName() );
+		}
+	}
+
+	private boolean migrateLegacyPlayer( BackpackCache bCache, ConfigurationSection playerSection, UUID uuid ) {
+
+		SpigotOfflinePlayer sPlayer = new SpigotOfflinePlayer( Bukkit.getOfflinePlayer( uuid ) );
+
+		BackpackCachePlayerData playerData = bCache.getOfflinePlayer( sPlayer );
+
+		boolean migrated = migrateLegacyPlayer( playerSection, playerData );
+
+		if ( migrated ) {
+			bCache.saveCacheData( playerData );
+		}
+
+		return migrated;
+	}
+
+	/**
+	 * <p>Copies the player's limit and backpacks from their section of the legacy 
+	 * file to their data.  The existing limit, and the existing backpacks with the 
+	 * same names, are not replaced.  This does not save the player's data.
+	 * </p>
+	 *
+	 * @param playerSection
+	 * @param playerData
+	 * @return True if anything was copied.
+	 */
+	protected boolean migrateLegacyPlayer( ConfigurationSection playerSection, 
+					BackpackCachePlayerData playerData ) {
+		boolean migrated = false;
+
+		synchronized ( playerData ) {
+
+			if ( playerData.getPlayerName() == null ) {
+				playerData.setPlayerName( playerSection.getString( "PlayerName" ) );
+			}
+
+			if ( playerData.getBackpackLimit() == null && playerSection.contains( "Limit" ) ) {
+				playerData.setBackpackLimit( playerSection.getInt( "Limit" ) );
+				migrated = true;
+			}
+
+			for ( String key : playerSection.getKeys( false ) ) {
+
+				ConfigurationSection itemsSection = key.startsWith( LEGACY_BACKPACK_NAME ) ?
+								playerSection.getConfigurationSection( key ) : null;
+
+				if ( itemsSection == null || playerData.getBackpacks().containsKey( key ) ) {
+					continue;
+				}
+
+				PlayerBackpack backpack = new PlayerBackpack( playerData.getPlayerName(),
+						playerData.getPlayerUuid(), BackpackType.inventory, key, "CHEST" );
+
+				backpack.setInventorySize( itemsSection.getInt( "Size", 0 ) );
+
+				// The slots are numbered, but may not be in order within the file:
+				int maxSlot = -1;
+				for ( String slot : itemsSection.getKeys( false ) ) {
+					try {
+						maxSlot = Math.max( maxSlot, Integer.parseInt( slot ) );
+					}
+					catch ( NumberFormatException ignored ) {
+						// The Size entry
+					}
+				}
+
+				ItemStack[] items = new ItemStack[ maxSlot + 1 ];
+				for ( int i = 0; i < items.length; i++ ) {
+					items[i] = itemsSection.getItemStack( i + ".ITEMSTACK" );
+				}
+
+				setItems( backpack, items );
+
+				playerData.getBackpacks().put( key, backpack );
+				migrated = true;
+			}
+		}
+
+		return migrated;
+	}
+
+}
@@ -1,20 +1,14 @@
 package tech.mcprison.prison.spigot.backpacks;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.Sound;
 import org.bukkit.configuration.Configuration;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -23,6 +17,9 @@ import org.bukkit.inventory.meta.ItemMeta;
 import com.cryptomorin.xseries.XMaterial;
 
 import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.backpacks.BackpackCache;
+import tech.mcprison.prison.backpacks.BackpackCachePlayerData;
+import tech.mcprison.prison.backpacks.PlayerBackpack;
 import tech.mcprison.prison.gui.PrisonCoreGuiMessages;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.SpigotUtil;
@@ -39,8 +36,7 @@ public class BackpacksUtil
 
     private static BackpacksUtil instance;
     private Configuration backpacksConfig = SpigotPrison.getInstance().getBackpacksConfig();
-    private File backpacksFile = new File(SpigotPrison.getInstance().getDataFolder() + "/backpacks/backpacksData.yml");
-    private FileConfiguration backpacksDataConfig = YamlConfiguration.loadConfiguration(backpacksFile);
+    private final BackpacksStorage storage = new BackpacksStorage();
     public static List<String> openBackpacks = new ArrayList<>();
     public static List<String> backpackEdited = new ArrayList<>();
     private final Compatibility compat = SpigotCompatibility.getInstance();
@@ -58,10 +54,12 @@ public class BackpacksUtil
 
     /**
      * Get Backpacks DATA config.
+     *
+     * The backpacks are stored within each player's own file, so this builds the old layout of the
+     * backpacksData.yml file from the index of the backpack owners, without their items.
      * */
     public Configuration getBackpacksData(){
-        updateCachedBackpack();
-        return backpacksDataConfig;
+        return storage.buildIndex();
     }
 
     /**
@@ -79,11 +77,6 @@ public class BackpacksUtil
         openBackpacks.remove(p.getName());
     }
 
-    public void updateCachedBackpack(){
-        backpacksFile = new File(SpigotPrison.getInstance().getDataFolder() + "/backpacks/backpacksData.yml");
-        backpacksDataConfig = YamlConfiguration.loadConfiguration(backpacksFile);
-    }
-
     /**
      * Check if player reached limit of own backpacks.
      *
@@ -155,7 +148,7 @@ public class BackpacksUtil
      * @return Player
      * */
     public Player getBackpackOwnerOnline(String name, String id){
-        return getOnlinePlayer(name, id);
+        return getOnlinePlayer(name);
     }
 
     /**
@@ -192,10 +185,14 @@ public class BackpacksUtil
 
 
     /**
-     * Set default backpack config file.
+     * Start the BackpackCache, which stores the backpacks within each player's own file, and move
+     * any backpacks from the old backpacksData.yml file to the players' files. Then the index of
+     * the backpack owners, which is used by the admin GUIs, is loaded asynchronously.
      * */
-    public void setDefaultDataConfig() {
-        setDefaultBackpackDataConfigMethod();
+    public void startup() {
+        BackpackCache.getInstance();
+        storage.migrateLegacyData();
+        storage.loadIndexAsync();
     }
 
     /**
@@ -215,7 +212,7 @@ public class BackpacksUtil
      * @return success - true or false
      * */
     public boolean resetBackpack(Player p) {
-        return resetBackpackMethod(p);
+        return resetBackpackMethod(p, null);
     }
 
     /**
@@ -238,7 +235,7 @@ public class BackpacksUtil
      * @return success - true or false
      * */
     public boolean resetBackpack(OfflinePlayer p) {
-        return resetBackpackMethod(p);
+        return resetBackpackMethod(p, null);
     }
 
     /**
@@ -263,7 +260,7 @@ public class BackpacksUtil
      *
      * */
     public void setBackpackSize(Player p, int size){
-        backpackResize(p, size);
+        backpackResize(p, size, null);
     }
 
     /**
@@ -276,7 +273,7 @@ public class BackpacksUtil
      *
      * */
     public void setBackpackSize(OfflinePlayer p, int size){
-        backpackResize(p, size);
+        backpackResize(p, size, null);
     }
 
     /**
@@ -697,63 +694,32 @@ public class BackpacksUtil
     }
 
     private int backpacksLimitGet(OfflinePlayer p) {
-        updateCachedBackpack();
+        BackpackCachePlayerData playerData = storage.getPlayerData(p);
 
-        // If the value if null, for example from an older version of Prison, this will read the default value from the
-        // backpacksconfig.yml and set it.
-        if (backpacksConfig.getString("Inventories." + p.getUniqueId() + ".Limit") == null){
-            setBackpacksLimit(p, Integer.parseInt(backpacksConfig.getString("Options.Multiple-BackPacks-For-Player")));
+        // If the value is null, for example from an older version of Prison, this will use the default value from
+        // the backpacksconfig.yml.
+        Integer limit = playerData == null ? null : playerData.getBackpackLimit();
+        if (limit == null){
+            return Integer.parseInt(backpacksConfig.getString("Options.Multiple-BackPacks-For-Player"));
         }
 
-        return backpacksConfig.getInt("Inventories." + p.getUniqueId() + ".Limit");
+        return limit;
     }
 
-    private int backpacksLimitGet(Player p) {
-        updateCachedBackpack();
-
-        // If the value if null, for example from an older version of Prison, this will read the default value from the
-        // backpacksconfig.yml and set it.
-        if (backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".Limit") == null){
-            setBackpacksLimit(p, Integer.parseInt(backpacksConfig.getString("Options.Multiple-BackPacks-For-Player")));
-        }
-
-        return Integer.parseInt(backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".Limit"));
-    }
-
-    private boolean backpacksLimitSet(Player p, int limit) {
-        updateCachedBackpack();
-
-        try{
-            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Limit", limit);
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex){
+    private boolean backpacksLimitSet(OfflinePlayer p, int limit) {
+        BackpackCachePlayerData playerData = storage.getPlayerData(p);
+        if (playerData == null){
             return false;
         }
 
-        updateCachedBackpack();
-        return true;
-    }
-
-    private boolean backpacksLimitSet(OfflinePlayer p, int limit) {
-        updateCachedBackpack();
-
-        try {
-            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Limit", limit);
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex) {
-            return false;
+        synchronized (playerData) {
+            playerData.setBackpackLimit(limit);
         }
 
-        updateCachedBackpack();
+        storage.markDirty(playerData);
         return true;
     }
 
-//    private void backpackConfigUpdater() {
-//        BackpacksConfig bpTemp = new BackpacksConfig();
-//        bpTemp.initialize();
-//        backpacksConfig = bpTemp.getFileBackpacksConfig();
-//    }
-
     private static BackpacksUtil getInstance() {
         if (instance == null && SpigotPrison.getInstance().getConfig().getString("backpacks") != null && SpigotPrison.getInstance().getConfig().getString("backpacks").equalsIgnoreCase("true")){
             instance = new BackpacksUtil();
@@ -763,32 +729,20 @@ public class BackpacksUtil
     }
 
     private boolean checkOwnBackpack(Player p) {
-        updateCachedBackpack();
+        BackpackCachePlayerData playerData = storage.getPlayerData(p);
+        if (playerData == null){
+            return false;
+        }
 
-        String playerName = backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".PlayerName");
-        return playerName != null;
+        synchronized (playerData) {
+            return storage.getInventoryBackpacks(playerData).size() > 0;
+        }
     }
 
     private boolean checkOwnBackpackMultiples(Player p){
-        updateCachedBackpack();
-
         return getNumberOwnedBackpacks(p) != 0;
     }
 
-    private void setDefaultBackpackDataConfigMethod() {
-        if (backpacksConfig.getConfigurationSection("Inventories") == null) {
-            try {
-                backpacksFile = new File(SpigotPrison.getInstance().getDataFolder() + "/backpacks/backpacksData.yml");
-                backpacksDataConfig = YamlConfiguration.loadConfiguration(backpacksFile);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (IOException ex) {
-                ex.printStackTrace();
-                return;
-            }
-        }
-        updateCachedBackpack();
-    }
-
     private void giveBackpackToPlayerOnJoinItem(Player p) {
         if (getBoolean(backpacksConfig.getString("Options.BackPack_Item_OnJoin")) && playerCanOwnBackpack(p)) {
             String registeredCmd = Prison.get().getCommandHandler().findRegisteredCommand( "backpack item" );
@@ -800,222 +754,68 @@ public class BackpacksUtil
         return !(!getBoolean(backpacksConfig.getString("Options.BackPack_Access_And_Item_If_Limit_Is_0")) && getBackpacksLimit(p) == 0);
     }
 
-    private boolean resetBackpackMethod(Player p) {
-        updateCachedBackpack();
-
-        try {
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items", null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (NullPointerException ex){
-                return false;
-            }
-        } catch (IOException ex){
-            ex.printStackTrace();
-            return false;
-        }
-
-        updateCachedBackpack();
-        return true;
-    }
-
-    private boolean resetBackpackMethod(Player p, String id) {
-        updateCachedBackpack();
-
-        try {
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id, null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (NullPointerException ex){
-                return false;
-            }
-        } catch (IOException ex){
-            ex.printStackTrace();
-            return false;
-        }
-
-        updateCachedBackpack();
-        return true;
-    }
-
-    private boolean resetBackpackMethod(OfflinePlayer p) {
-        updateCachedBackpack();
-
-        try {
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items", null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (NullPointerException ex){
-                return false;
-            }
-        } catch (IOException ex){
-            ex.printStackTrace();
+    private boolean resetBackpackMethod(OfflinePlayer p, String id) {
+        BackpackCachePlayerData playerData = storage.getPlayerData(p);
+        if (playerData == null){
             return false;
         }
 
-        updateCachedBackpack();
-        return true;
-    }
-
-    private boolean resetBackpackMethod(OfflinePlayer p, String id) {
-        updateCachedBackpack();
-
-        try {
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id, null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (NullPointerException ex){
+        synchronized (playerData) {
+            PlayerBackpack backpack = storage.getBackpack(playerData, id, backpackDefaultSize, false);
+            if (backpack == null){
                 return false;
             }
-        } catch (IOException ex){
-            ex.printStackTrace();
-            return false;
+            playerData.getBackpacks().remove(backpack.getName());
         }
 
-        updateCachedBackpack();
+        storage.markDirty(playerData);
         return true;
     }
 
-    private void backpackResize(Player p, int size) {
-        updateCachedBackpack();
+    private void backpackResize(OfflinePlayer p, int size, String id) {
 
-        // Must be multiple of 9.
-        if ((size % 9 != 0 || size > 54) && size != 0){
+        // Must be multiple of 9, but the default backpack may also be set to zero.
+        if ((size % 9 != 0 || size > 54) && !(size == 0 && id == null)){
             return;
         }
 
-        updateCachedBackpack();
-
-        backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items.Size", size);
-
-        try {
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex){
-            ex.printStackTrace();
-        }
-        updateCachedBackpack();
-    }
-
-    private void backpackResize(OfflinePlayer p, int size) {
-        updateCachedBackpack();
-
-        // Must be multiple of 9.
-        if ((size % 9 != 0 || size > 54) && size != 0){
+        BackpackCachePlayerData playerData = storage.getPlayerData(p);
+        if (playerData == null){
             return;
         }
 
-        updateCachedBackpack();
-
-        backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items.Size", size);
-
-        try {
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex){
-            ex.printStackTrace();
+        synchronized (playerData) {
+            PlayerBackpack backpack = storage.getBackpack(playerData, id, size, true);
+            backpack.setInventorySize(size);
         }
-        updateCachedBackpack();
-    }
-
-    private void backpackResize(Player p, int size, String id) {
-        updateCachedBackpack();
 
-        // Must be multiple of 9.
-        if (size % 9 != 0 || size > 54){
-            return;
-        }
-
-        updateCachedBackpack();
-
-        backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id + ".Size", size);
-
-        try {
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex){
-            ex.printStackTrace();
-        }
-        updateCachedBackpack();
+        storage.markDirty(playerData);
     }
 
-    private void backpackResize(OfflinePlayer p, int size, String id) {
-        updateCachedBackpack();
-
-        // Must be multiple of 9.
-        if (size % 9 != 0 || size > 54){
-            return;
-        }
-
-        updateCachedBackpack();
-
-        backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id + ".Size", size);
-
-        try {
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex){
-            ex.printStackTrace();
-        }
-        updateCachedBackpack();
-    }
-
-//    private int getSize(Player p) {
-//        updateCachedBackpack();
-//
-//        int backPackSize = backpackDefaultSize;
-//
-//        try {
-//            backPackSize = Integer.parseInt(backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".Items.Size"));
-//        } catch (NumberFormatException ignored){}
-//
-//        if (backPackSize % 9 != 0){
-//            backPackSize = (int) Math.ceil((float)backPackSize / 9) * 9;
-//        }
-//
-//        if (backPackSize == 0) backPackSize = 9;
-//
-//        return getBackpackPermSize(p, backPackSize);
-//    }
-
     public int getBackpackSize( UUID playerUuid, String id ) {
-    	String backpackId = id == null ? 
-    			"" : "-" + id;
-    	
     	int backpackSize = backpackDefaultSize;
-    	
-    	try {
-    		String size = backpacksDataConfig.getString("Inventories." + playerUuid + ".Items" + backpackId + ".Size");
-    		
-    		backpackSize = Integer.parseInt( size );
-    	} catch (NumberFormatException ignored){}
-    	
+
+    	BackpackCachePlayerData playerData = storage.getPlayerData( Bukkit.getOfflinePlayer( playerUuid ) );
+    	if ( playerData != null ) {
+    		synchronized ( playerData ) {
+    			PlayerBackpack backpack = storage.getBackpack( playerData, id, backpackDefaultSize, false );
+    			if ( backpack != null ) {
+    				backpackSize = backpack.getInventorySize();
+    			}
+    		}
+    	}
+
     	if (backpackSize % 9 != 0){
     		backpackSize = (int) Math.ceil( backpackSize / 9.0d ) * 9;
     	}
-    	
+
     	if (backpackSize == 0) backpackSize = 9;
-    	
+
     	return backpackSize;
     }
-    
-    private int getSize(Player p, String id) {
-//    	String backpackId = id == null ? 
-//    			"" : "-" + id;
-    	
-        updateCachedBackpack();
 
+    private int getSize(Player p, String id) {
         int backPackSize = getBackpackSize( p.getUniqueId(), id );
-        
-//        int backPackSize = backpackDefaultSize;
-//
-//        try {
-//        	String size = backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".Items" + backpackId + ".Size");
-//        	
-//            backPackSize = Integer.parseInt( size );
-//        } catch (NumberFormatException ignored){}
-//
-//        if (backPackSize % 9 != 0){
-//            backPackSize = (int) Math.ceil((float)backPackSize / 9) * 9;
-//        }
-//
-//        if (backPackSize == 0) backPackSize = 9;
 
         return getBackpackPermSize(p, backPackSize);
     }
@@ -1050,34 +850,27 @@ public class BackpacksUtil
         return backPackSize;
     }
 
-//    private Inventory getBackpackOwn(Player p) {
-//
-//        updateCachedBackpack();
-//
-//        int size = getBackpackSize(p, null);
-//        Inventory inv = Bukkit.createInventory(p, size, SpigotPrison.format("&3" + p.getName() + " -> Backpack"));
-//
-//        // Get the Items config section
-//        Set<String> slots;
-//        try {
-//            slots = backpacksDataConfig.getConfigurationSection("Inventories." + p.getUniqueId() + ".Items").getKeys(false);
-//        } catch (NullPointerException ex){
-//            return inv;
-//        }
-//        if (slots.size() != 0) {
-//            for (String slot : slots) {
-//                ItemStack finalItem = backpacksDataConfig.getItemStack("Inventories." + p.getUniqueId() + ".Items." + slot + ".ITEMSTACK");
-//                if (finalItem != null) {
-//                    int slotNumber = Integer.parseInt(slot);
-//                    if (size > slotNumber) {
-//                        inv.setItem(slotNumber, finalItem);
-//                    }
-//                }
-//            }
-//        }
-//
-//        return inv;
-//    }
+    /**
+     * <p>Returns the backpack's stored items, by slot, or an empty list if the 
+     * player does not have the backpack.
+     * </p>
+     * 
+     * @param p
+     * @param id
+     * @return
+     */
+    private List<ItemStack> getBackpackItems(OfflinePlayer p, String id) {
+        List<ItemStack> items = new ArrayList<>();
+
+        BackpackCachePlayerData playerData = storage.getPlayerData(p);
+        if (playerData != null) {
+            synchronized (playerData) {
+                items = storage.getItems(storage.getBackpack(playerData, id, backpackDefaultSize, false));
+            }
+        }
+
+        return items;
+    }
 
     /**
      * <p>This function returns prison based objects.
@@ -1090,83 +883,40 @@ public class BackpacksUtil
     public List<tech.mcprison.prison.internal.ItemStack> getPrisonBackpackContents( UUID playerUuid, String id ) {
     	List<tech.mcprison.prison.internal.ItemStack> contents = new ArrayList<>();
 
-    	String backpackId = id == null ? 
-    			"" : "-" + id;
-    	
-    	updateCachedBackpack();
-    	
     	int size = getBackpackSize( playerUuid, id);
-    	
-    	// Get the Items config section
-    	Set<String> slots;
-    	try {
-    		slots = backpacksDataConfig.getConfigurationSection(
-    				"Inventories." + playerUuid + ".Items" + backpackId).getKeys(false);
-    	} catch (NullPointerException ex){
-    		return contents;
-    	}
-    	
-    	if (slots.size() != 0) {
-    		for (String slot : slots) {
-    			ItemStack finalItem = backpacksDataConfig.getItemStack(
-    					"Inventories." + playerUuid + ".Items" + backpackId + "." + slot + ".ITEMSTACK");
-    			if (finalItem != null) {
-    				int slotNumber = Integer.parseInt(slot);
-    				if (size > slotNumber) {
-    					
-    					contents.add( new SpigotItemStack( finalItem ));
-    				}
-    			}
+
+    	List<ItemStack> items = getBackpackItems( Bukkit.getOfflinePlayer( playerUuid ), id );
+
+    	for ( int slot = 0; slot < items.size() && slot < size; slot++ ) {
+    		ItemStack finalItem = items.get( slot );
+    		if (finalItem != null) {
+    			contents.add( new SpigotItemStack( finalItem ));
     		}
     	}
-    	
+
     	return contents;
     }
-    
+
     private Inventory getBackpackOwn(Player p, String id) {
     	String backpackId = id == null ? 
     			"" : "-" + id;
-    	
-    	updateCachedBackpack();
-    	
+
     	int size = getBackpackSize(p, id);
-    	
+
     	Inventory inv = Bukkit.createInventory(p, size, SpigotPrison.format("&3" + p.getName() + " -> Backpack" + backpackId));
-    	
-    	// Get the Items config section
-    	Set<String> slots;
-    	try {
-    		slots = backpacksDataConfig.getConfigurationSection(
-    				"Inventories." + p.getUniqueId() + ".Items" + backpackId).getKeys(false);
-    	} catch (NullPointerException ex){
-    		return inv;
-    	}
-    	if (slots.size() != 0) {
-    		for (String slot : slots) {
-    			ItemStack finalItem = backpacksDataConfig.getItemStack(
-    					"Inventories." + p.getUniqueId() + ".Items" + backpackId + "." + slot + ".ITEMSTACK");
-    			if (finalItem != null) {
-    				int slotNumber = Integer.parseInt(slot);
-    				if (size > slotNumber) {
-    					inv.setItem(slotNumber, finalItem);
-    				}
-    			}
+
+    	List<ItemStack> items = getBackpackItems(p, id);
+
+    	for (int slot = 0; slot < items.size() && slot < size; slot++) {
+    		ItemStack finalItem = items.get(slot);
+    		if (finalItem != null) {
+    			inv.setItem(slot, finalItem);
     		}
     	}
-    	
+
     	return inv;
     }
 
-//    private void openBackpackMethod(Player p) {
-//        playOpenBackpackSound(p);
-//        String id = null;
-//        Inventory inv = getBackpack(p, id);
-//        p.openInventory(inv);
-//        if (!openBackpacks.contains(p.getName())){
-//            openBackpacks.add(p.getName());
-//        }
-//    }
-
     private void openBackpackMethod(Player p, String id) {
         playOpenBackpackSound(p);
         Inventory inv = getBackpack(p, id);
@@ -1177,180 +927,41 @@ public class BackpacksUtil
     }
 
     private Inventory getBackpackCustom(Player p, Inventory inv) {
-        // Get the Items config section
-        Set<String> slots;
-        try {
-            slots = backpacksDataConfig.getConfigurationSection("Inventories." + p.getUniqueId() + ".Items").getKeys(false);
-        } catch (NullPointerException ex){
-            return inv;
-        }
-        if (slots.size() != 0) {
-            for (String slot : slots) {
-                ItemStack finalItem = backpacksDataConfig.getItemStack("Inventories." + p.getUniqueId() + ".Items." + slot + ".ITEMSTACK");
-                if (finalItem != null) {
-                    try {
-                        inv.setItem(Integer.parseInt(slot), finalItem);
-                    } catch (ArrayIndexOutOfBoundsException ex){
-                        return inv;
-                    }
-                }
+        List<ItemStack> items = getBackpackItems(p, null);
+
+        for (int slot = 0; slot < items.size() && slot < inv.getSize(); slot++) {
+            ItemStack finalItem = items.get(slot);
+            if (finalItem != null) {
+                inv.setItem(slot, finalItem);
             }
         }
 
         return inv;
     }
 
-//    private void saveInventory(Player p, Inventory inv) {
-//        updateCachedBackpack();
-//
-//        // Set dimensions if null or error.
-//        boolean needToSetNewDimensions = checkDimensionError(p, null);
-//        boolean needToSetNewOwner = checkBackpackOwnerMissing(p);
-//        boolean needToSetNewOwnerID = checkBackpackOwnerIDMissing(p);
-//
-//        if (inv.getContents() != null){
-//
-//            int backpackSize = getBackpackSize(p, null);
-//            int slot = 0;
-//
-//            try {
-//                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items", null);
-//                backpacksDataConfig.save(backpacksFile);
-//            } catch (IOException ex){
-//                ex.printStackTrace();
-//                return;
-//            }
-//
-//            updateCachedBackpack();
-//
-//            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items.Size", backpackSize);
-//
-//            for (ItemStack item : inv.getContents()){
-//                if (item != null){
-//
-//                    backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items." + slot + ".ITEMSTACK", item);
-//
-//                    slot++;
-//                }
-//            }
-//
-//            oldDataVersionUpdater(p, null, false, true, true);
-//
-//            try {
-//                backpacksDataConfig.save(backpacksFile);
-//            } catch (IOException ex){
-//                ex.printStackTrace();
-//            }
-//        } else {
-//            // If it's null just delete the whole stored inventory.
-//            oldDataVersionUpdater(p, null, needToSetNewDimensions, needToSetNewOwner, needToSetNewOwnerID);
-//            try {
-//                backpacksDataConfig.set("Inventories." + p.getUniqueId().toString() + ".Items", null);
-//                backpacksDataConfig.save(backpacksFile);
-//            } catch (IOException ex){
-//                ex.printStackTrace();
-//            }
-//        }
-//
-//        updateCachedBackpack();
-//    }
-
     private void saveInventory(Player p, Inventory inv, String id) {
-    	String backpackId = id == null ? 
-    			"" : "-" + id;
-    	
-        updateCachedBackpack();
-
-        // Set dimensions if null or error.
-        boolean needToSetNewDimensions = checkDimensionError(p, id);
-        boolean needToSetNewOwner = checkBackpackOwnerMissing(p);
-        boolean needToSetNewOwnerID = checkBackpackOwnerIDMissing(p);
-
-        if (inv.getContents() != null){
-
-            int backpackSize = getBackpackSize(p, id);
-            int slot = 0;
-
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items" + backpackId, null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (IOException ex){
-                ex.printStackTrace();
-                return;
-            }
-
-            updateCachedBackpack();
-
-            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items" + backpackId + ".Size", backpackSize);
+        BackpackCachePlayerData playerData = storage.getPlayerData(p);
+        if (playerData == null){
+            return;
+        }
 
-            oldDataVersionUpdater(p, id, false, true, true);
+        synchronized (playerData) {
 
-            for (ItemStack item : inv.getContents()){
-                if (item != null){
+            if (inv.getContents() != null){
 
-                    backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items" + backpackId + "." + slot + ".ITEMSTACK", item);
+                PlayerBackpack backpack = storage.getBackpack(playerData, id, getBackpackSize(p, id), true);
 
-                    slot++;
-                }
-            }
-            if (slot != 0){
-                try {
-                    backpacksDataConfig.save(backpacksFile);
-                } catch (IOException ex){
-                    ex.printStackTrace();
-                }
-            }
-        } else {
-            // If it's null just delete the whole stored inventory.
-            oldDataVersionUpdater(p, id, needToSetNewDimensions, needToSetNewOwner, needToSetNewOwnerID);
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId().toString() + ".Items" + backpackId, null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (IOException ex){
-                ex.printStackTrace();
+                // Like before, the items are compacted in to the first slots:
+                storage.setItems(backpack, inv.getContents());
+            } else {
+                // If it's null just delete the whole stored inventory.
+                playerData.getBackpacks().remove(BackpacksStorage.getBackpackKey(id));
             }
         }
 
-        updateCachedBackpack();
+        storage.markDirty(playerData);
     }
 
-//    private void oldDataVersionUpdater(Player p, boolean needToSetNewDimensions, boolean needToSetNewOwner, boolean needToSetNewOwnerID) {
-//        if (needToSetNewDimensions){
-//            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items.Size", 
-//            		Integer.parseInt(backpacksConfig.getString("Options.BackPack_Default_Size")));
-//        }
-//        if (needToSetNewOwner){
-//            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".PlayerName", p.getName());
-//        }
-//        if (needToSetNewOwnerID){
-//            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".UniqueID", p.getUniqueId().toString());
-//        }
-//    }
-
-    private void oldDataVersionUpdater(Player p, String id, boolean needToSetNewDimensions, boolean needToSetNewOwner, boolean needToSetNewOwnerID) {
-    	String backpackId = id == null ? 
-    			"" : "-" + id;
-    	
-    	if (needToSetNewDimensions){
-            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items" + backpackId + ".Size", 
-            		Integer.parseInt(backpacksConfig.getString("Options.BackPack_Default_Size")));
-        }
-        if (needToSetNewOwner){
-            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".PlayerName", p.getName());
-        }
-        if (needToSetNewOwnerID){
-            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".UniqueID", p.getUniqueId().toString());
-        }
-    }
-
-//    private HashMap<Integer, ItemStack> addItemToBackpack(Player p, ItemStack item) {
-//    	String id = null;
-//        Inventory inv = getBackpack(p, id);
-//        HashMap<Integer, ItemStack> overflow = inv.addItem(item);
-//        setInventory(p, inv);
-//        return overflow;
-//    }
-
     private HashMap<Integer, ItemStack> addItemToBackpack(Player p, ItemStack item, String id) {
         Inventory inv = getBackpack(p, id);
         HashMap<Integer, ItemStack> overflow = inv.addItem(item);
@@ -1358,14 +969,6 @@ public class BackpacksUtil
         return overflow;
     }
 
-//    private HashMap<Integer, ItemStack> removeItemFromBackpack(Player p, ItemStack item) {
-//    	String id = null;
-//        Inventory inv = getBackpack(p, id );
-//        HashMap<Integer, ItemStack> underflow = inv.removeItem(item);
-//        setInventory(p, inv);
-//        return underflow;
-//    }
-
     private HashMap<Integer, ItemStack> removeItemFromBackpack(Player p, ItemStack item, String id) {
         Inventory inv = getBackpack(p, id);
         HashMap<Integer, ItemStack> underflow = inv.removeItem(item);
@@ -1433,158 +1036,29 @@ public class BackpacksUtil
     private List<String> getBackpacksIDsList(Player p) {
         List<String> backpacksIDs = new ArrayList<>();
 
-        // Items
-        //
-        updateCachedBackpack();
-
-        // Items can be -> Items- or just Items in the config, the default and old backpacks will have Items only, newer will be like
-        // Items-1 or anyway an ID, I'm just getting the ID with this which's what I need.
-        try {
-            for (String key : backpacksDataConfig.getConfigurationSection("Inventories." + p.getUniqueId()).getKeys(false)) {
-                if (!key.equalsIgnoreCase("Items") && !key.equalsIgnoreCase("Limit") && !key.equalsIgnoreCase("PlayerName") && !key.equalsIgnoreCase("UniqueID")) {
-                    backpacksIDs.add(key.substring(6));
-                } else {
-                    if (!backpacksIDs.contains(null) && !key.equalsIgnoreCase("PlayerName") && !key.equalsIgnoreCase("UniqueID") && !key.equalsIgnoreCase("Limit")) {
-                        backpacksIDs.add(null);
-                    }
+        BackpackCachePlayerData playerData = storage.getPlayerData(p);
+        if (playerData != null) {
+            synchronized (playerData) {
+                // The default and old backpacks are named Items, which has a null ID, and the others are named
+                // like Items-1.
+                for (PlayerBackpack backpack : storage.getInventoryBackpacks(playerData)) {
+                    backpacksIDs.add(BackpacksStorage.getBackpackId(backpack.getName()));
                 }
             }
-        } catch (NullPointerException ignored){}
+        }
 
         return backpacksIDs;
     }
 
     private int getNumberOfBackpacksOwnedByPlayer(Player p) {
-        int backpacksNumber = 0;
-
-        updateCachedBackpack();
-
-        // Items can be -> Items- or just Items in the config, the default and old backpacks will have Items only, newer will be like
-        // Items-1 or anyway an ID, I'm just getting the ID with this which's what I need.
-        try {
-            for (String string : backpacksDataConfig.getConfigurationSection("Inventories." + p.getUniqueId()).getKeys(false)) {
-                if (!string.equalsIgnoreCase("PlayerName") && !string.equalsIgnoreCase("Limit") && !string.equalsIgnoreCase("UniqueID")) {
-                    backpacksNumber++;
-                }
-            }
-        } catch (NullPointerException ignored){}
-
-        return backpacksNumber;
+        return getBackpacksIDsList(p).size();
     }
 
-//    private boolean checkDimensionError(Player p) {
-//        try{
-//            if (backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".Items" + ".Size") == null){
-//                return true;
-//            }
-//            Integer.parseInt(backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".Items" + ".Size"));
-//        } catch (NumberFormatException ex){
-//            return true;
-//        }
-//        return false;
-//    }
-
-    /**
-     * This function ONLY checks to confirm if the config setting is an integer!? \
-     * 
-     * @param p
-     * @param id
-     * @return
-     */
-    private boolean checkDimensionError(Player p, String id) {
-    	String backpackId = id == null ? 
-    			"" : "-" + id;
-        try{
-        	String size = backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".Items" + backpackId + ".Size");
-        	
-            if ( size == null){
-                return true;
-            }
-            Integer.parseInt( size );
-        } catch (NumberFormatException ex){
-            return true;
-        }
-        return false;
-    }
-
-    private boolean checkBackpackOwnerMissing(Player p) {
-        return backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".PlayerName") == null;
-    }
-
-//    private boolean checkBackpackOwnerMissing(Player p, String id) {
-//        return backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".PlayerName") == null;
-//    }
-
-    private boolean checkBackpackOwnerIDMissing(Player p) {
-        return backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".UniqueID") == null;
-    }
-
-//    private boolean checkBackpackOwnerIDMissing(Player p, String id) {
-//        return backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".UniqueID") == null;
-//    }
-
-//    private OfflinePlayer getOfflinePlayer(String name) {
-//        if (name != null) {
-//            updateCachedBackpack();
-//            if (backpacksDataConfig.getConfigurationSection("Inventories") != null) {
-//                for (String uniqueID : backpacksDataConfig.getConfigurationSection("Inventories").getKeys(false)) {
-//                    if (backpacksDataConfig.getString("Inventories." + uniqueID + ".PlayerName").equalsIgnoreCase(name) && backpacksDataConfig.getString("Inventories." + uniqueID + ".UniqueID") != null) {
-//                        return Bukkit.getOfflinePlayer(UUID.fromString(backpacksDataConfig.getString("Inventories." + uniqueID + ".UniqueID")));
-//                    }
-//                }
-//            }
-//        }
-//        return null;
-//    }
-
-    // what the hell? two functions with different parms but the damn exact same code????
-//    private OfflinePlayer getOfflinePlayer(String name, String id) {
     private OfflinePlayer getOfflinePlayer(String name) {
-        if (name != null) {
-            updateCachedBackpack();
-            ConfigurationSection inventories = backpacksDataConfig.getConfigurationSection("Inventories");
-            if (inventories != null) {
-                for (String uniqueID : inventories.getKeys(false)) {
-                	String playerName = inventories.getString(uniqueID + ".PlayerName");
-                	String uuid = inventories.getString(uniqueID + ".UniqueID");
-                    if (playerName != null && uuid != null){
-                        if (playerName.equalsIgnoreCase(name)){
-                            return Bukkit.getOfflinePlayer(UUID.fromString(uuid));
-                        }
-                    }
-                }
-            }
-        }
-        return null;
+        return storage.findOwner(name);
     }
 
     private Player getOnlinePlayer(String name) {
-        if (name != null) {
-            updateCachedBackpack();
-            if (backpacksDataConfig.getConfigurationSection("Inventories") != null) {
-                for (String uniqueID : backpacksDataConfig.getConfigurationSection("Inventories").getKeys(false)) {
-                    if (backpacksDataConfig.getString("Inventories." + uniqueID + ".PlayerName").equalsIgnoreCase(name) && backpacksDataConfig.getString("Inventories." + uniqueID + ".UniqueID") != null) {
-                        return Bukkit.getPlayer(UUID.fromString(backpacksDataConfig.getString("Inventories." + uniqueID + ".UniqueID")));
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
-    private Player getOnlinePlayer(String name, String id) {
-        if (name != null) {
-            updateCachedBackpack();
-            if (backpacksDataConfig.getConfigurationSection("Inventories") != null) {
-                for (String uniqueID : backpacksDataConfig.getConfigurationSection("Inventories").getKeys(false)) {
-                    if (backpacksDataConfig.getString("Inventories." + uniqueID + ".PlayerName") != null && backpacksDataConfig.getString("Inventories." + uniqueID + ".UniqueID") != null){
-                        if (backpacksDataConfig.getString("Inventories." + uniqueID + ".PlayerName").equalsIgnoreCase(name)){
-                            return Bukkit.getPlayer(UUID.fromString(backpacksDataConfig.getString("Inventories." + uniqueID + ".UniqueID")));
-                        }
-                    }
-                }
-            }
-        }
-        return null;
+        return name == null ? null : Bukkit.getPlayerExact(name);
     }
 }
@@ -0,0 +1,485 @@
+package tech.mcprison.prison.spigot.backpacks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.bukkit.configuration.Configuration;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import com.cryptomorin.xseries.XMaterial;
+
+import tech.mcprison.prison.backpacks.BackpackCache;
+import tech.mcprison.prison.backpacks.BackpackCachePlayerData;
+import tech.mcprison.prison.backpacks.PlayerBackpack;
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.spigot.SpigotPrison;
+import tech.mcprison.prison.spigot.SpigotUtil;
+import tech.mcprison.prison.spigot.game.SpigotPlayer;
+
+/**
+ * <p>This connects prison's silo backpacks, which are stored within the
+ * BackpackCache, to bukkit.  A silo only stores a count for each kind of item,
+ * so items that are picked up are merged in to their silo's counter, without
+ * searching through an inventory for a stack with room.  Only plain items,
+ * without any item meta, can be stored in a silo, since the count would lose
+ * the display name, lore, and enchantments.  All other items stay within the
+ * player's inventory, or the legacy backpacks.
+ * </p>
+ *
+ * <p>The silos are the default storage for backpacks when backpacks are enabled.
+ * They can be disabled in the backpacksconfig.yml file with the setting
+ * <code>Options.BackPack_Silo_Storage_Enabled</code>. Players view their silos,
+ * and withdraw items from them, with <code>/backpack silo</code>. The first time
+ * the silos are enabled, the plain items within the legacy backpacks, which are
+ * stored within each player's file, are moved in to the silos.
+ * </p>
+ *
+ */
+public class SiloBackpacksUtil {
+
+	public static final String MIGRATION_MARKER_FILE_NAME = "_legacy_backpacks_migrated.txt";
+
+	// The player's inventory slots, not including the armor and the off hand:
+	private static final int PLAYER_INVENTORY_SLOTS = 36;
+
+	private static SiloBackpacksUtil instance;
+
+	private final boolean siloStorageEnabled;
+
+	private final String backpackItemType;
+
+	private final int maxSiloSlots;
+	private final int maxSiloSize;
+	private final int maxTotalSize;
+
+	private SiloBackpacksUtil() {
+		super();
+
+		Configuration backpacksConfig = SpigotPrison.getInstance().getBackpacksConfig();
+
+		this.siloStorageEnabled = !"false".equalsIgnoreCase(
+				backpacksConfig.getString( "Options.BackPack_Silo_Storage_Enabled" ) );
+
+		this.backpackItemType = backpacksConfig.getString( "Options.BackPack_Item", "CHEST" );
+
+		this.maxSiloSlots = parseInt( backpacksConfig.getString( "Options.BackPack_Silo_Max_Slots" ), 54 );
+		this.maxSiloSize = parseInt( backpacksConfig.getString( "Options.BackPack_Silo_Max_Size" ), 100000 );
+		this.maxTotalSize = parseInt( backpacksConfig.getString( "Options.BackPack_Silo_Max_Total_Size" ), 0 );
+	}
+
+	public static SiloBackpacksUtil get() {
+		if ( instance == null ) {
+			synchronized ( SiloBackpacksUtil.class ) {
+				if ( instance == null ) {
+					instance = new SiloBackpacksUtil();
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * <p>Silos are only used if backpacks are enabled, and silo storage has not
+	 * been disabled.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public static boolean isEnabled() {
+		return BackpacksUtil.isEnabled() && get().isSiloStorageEnabled();
+	}
+
+	private int parseInt( String value, int defaultValue ) {
+		int results = defaultValue;
+
+		if ( value != null ) {
+			try {
+				results = Integer.parseInt( value.trim() );
+			}
+			catch ( NumberFormatException e ) {
+				// Use the default value
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Starts the BackpackCache, then moves the items from the legacy
+	 * backpacks in to the silos if that has not been done yet.  This should
+	 * be called when prison is enabled.
+	 * </p>
+	 */
+	public void startup() {
+
+		BackpackCache.getInstance();
+
+		migrateLegacyBackpacks();
+	}
+
+	/**
+	 * <p>This is the key for the item's silo, which is the same as the key
+	 * sellall uses for its items.  If the item cannot be stored in a silo,
+	 * then this returns null.
+	 * </p>
+	 *
+	 * @param item
+	 * @return
+	 */
+	public static String getSiloKey( ItemStack item ) {
+		String results = null;
+
+		if ( item != null && item.getAmount() > 0 && !item.hasItemMeta() ) {
+
+			try {
+				XMaterial xMat = XMaterial.matchXMaterial( item );
+
+				if ( xMat != XMaterial.AIR ) {
+					results = getSiloKey( xMat );
+				}
+			}
+			catch ( IllegalArgumentException e ) {
+				// Not supported, so it cannot be placed in a silo
+			}
+		}
+
+		return results;
+	}
+
+	public static String getSiloKey( XMaterial xMat ) {
+		PrisonBlock pBlock = xMat == null ? null : SpigotUtil.getPrisonBlock( xMat );
+
+		// Items that are not prison block types use the XMaterial's name:
+		return pBlock != null ? pBlock.getBlockNameSearch() :
+				xMat == null ? null : xMat.name().toLowerCase();
+	}
+
+	public BackpackCachePlayerData getPlayerData( Player player ) {
+		return BackpackCache.getInstance().getOnlinePlayer( new SpigotPlayer( player ) );
+	}
+
+	/**
+	 * <p>Returns the player's silo backpack.  Any use of the backpack must be
+	 * synchronized on the playerData.
+	 * </p>
+	 *
+	 * @param playerData
+	 * @return
+	 */
+	public PlayerBackpack getSiloBackpack( BackpackCachePlayerData playerData ) {
+		return playerData.getSiloBackpack( backpackItemType,
+						maxSiloSlots, maxSiloSize, maxTotalSize );
+	}
+
+	/**
+	 * <p>Adds the items to the player's silos.  Each item only needs the lookup
+	 * of its silo, and an update to its count.
+	 * </p>
+	 *
+	 * @param player
+	 * @param items
+	 * @return The items that could not be added to the silos.
+	 */
+	public HashMap<Integer, ItemStack> addItems( Player player, HashMap<Integer, ItemStack> items ) {
+		HashMap<Integer, ItemStack> overflow = new HashMap<>();
+
+		BackpackCachePlayerData playerData = getPlayerData( player );
+
+		if ( playerData == null ) {
+			return items;
+		}
+
+		boolean changed = false;
+
+		synchronized ( playerData ) {
+
+			PlayerBackpack backpack = getSiloBackpack( playerData );
+
+			for ( Entry<Integer, ItemStack> entry : items.entrySet() ) {
+				ItemStack item = entry.getValue();
+
+				String siloKey = getSiloKey( item );
+
+				if ( siloKey == null ) {
+					if ( item != null ) {
+						overflow.put( entry.getKey(), item );
+					}
+				}
+				else {
+
+					int remaining = backpack.addSiloItems( siloKey, item.getAmount() );
+
+					if ( remaining != item.getAmount() ) {
+						changed = true;
+					}
+
+					if ( remaining > 0 ) {
+						ItemStack extra = item.clone();
+						extra.setAmount( remaining );
+
+						overflow.put( entry.getKey(), extra );
+					}
+				}
+			}
+		}
+
+		if ( changed ) {
+			BackpackCache.getInstance().markDirty( playerData );
+		}
+
+		return overflow;
+	}
+
+	/**
+	 * <p>Removes all of the given item from the player's silos.
+	 * </p>
+	 *
+	 * @param player
+	 * @param xMat
+	 * @return The number of items that were removed.
+	 */
+	public int removeAll( Player player, XMaterial xMat ) {
+		int removed = 0;
+
+		BackpackCachePlayerData playerData = getPlayerData( player );
+
+		if ( playerData != null && xMat != null ) {
+
+			synchronized ( playerData ) {
+
+				removed = getSiloBackpack( playerData )
+							.removeSiloItems( getSiloKey( xMat ), Integer.MAX_VALUE );
+			}
+
+			if ( removed > 0 ) {
+				BackpackCache.getInstance().markDirty( playerData );
+			}
+		}
+
+		return removed;
+	}
+
+	public int getSiloCount( Player player, String siloKey ) {
+		int count = 0;
+
+		BackpackCachePlayerData playerData = getPlayerData( player );
+
+		if ( playerData != null && siloKey != null ) {
+
+			synchronized ( playerData ) {
+				count = getSiloBackpack( playerData ).getSiloCount( siloKey );
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * <p>Moves up to the amount of the silo's items in to the player's inventory.
+	 * Only the items that fit within the inventory are removed from the silo.
+	 * This must be called on the main thread, since it changes the player's
+	 * inventory.
+	 * </p>
+	 *
+	 * @param player
+	 * @param siloKey
+	 * @param amount
+	 * @return The number of items that were moved to the player's inventory.
+	 */
+	public int withdraw( Player player, String siloKey, int amount ) {
+		int withdrawn = 0;
+
+		BackpackCachePlayerData playerData = getPlayerData( player );
+		XMaterial xMat = siloKey == null ? null : SpigotUtil.getXMaterial( siloKey );
+		ItemStack item = xMat == null ? null : xMat.parseItem();
+
+		if ( playerData == null || item == null || amount <= 0 ) {
+			return withdrawn;
+		}
+
+		synchronized ( playerData ) {
+
+			PlayerBackpack backpack = getSiloBackpack( playerData );
+
+			int maxStackSize = item.getMaxStackSize();
+
+			// Never more than what could fit within an empty inventory:
+			int removed = backpack.removeSiloItems( siloKey,
+					Math.min( amount, maxStackSize * PLAYER_INVENTORY_SLOTS ) );
+
+			List<ItemStack> stacks = new ArrayList<>();
+			for ( int remaining = removed; remaining > 0; remaining -= maxStackSize ) {
+				stacks.add( SpigotUtil.getItemStack( xMat, Math.min( remaining, maxStackSize ) ) );
+			}
+
+			int notAdded = 0;
+			for ( ItemStack extra : player.getInventory()
+								.addItem( stacks.toArray( new ItemStack[0] ) ).values() ) {
+				notAdded += extra.getAmount();
+			}
+
+			// The items that did not fit go back in to the silo they came from:
+			backpack.addSiloItems( siloKey, notAdded );
+
+			withdrawn = removed - notAdded;
+		}
+
+		if ( withdrawn > 0 ) {
+			BackpackCache.getInstance().markDirty( playerData );
+		}
+
+		return withdrawn;
+	}
+
+	/**
+	 * <p>This moves all of the plain items from the legacy backpacks, which are
+	 * stored within each player's file in the backpack cache, in to the player's
+	 * silos.  Items that cannot be stored in a silo, or that do not fit, are left
+	 * in the legacy backpacks.  The players' files are backed up by the cache
+	 * when they are saved.
+	 * </p>
+	 *
+	 * <p>This only runs once.  When finished, a marker file is written to the
+	 * backpack cache's directory, and if it exists, the migration is skipped.
+	 * This must run after the old backpacksData.yml file has been moved to the
+	 * players' files.
+	 * </p>
+	 */
+	public void migrateLegacyBackpacks() {
+
+		BackpackCache bCache = BackpackCache.getInstance();
+
+		File markerFile = new File( bCache.getCacheFiles().getPlayerFilePath(),
+								MIGRATION_MARKER_FILE_NAME );
+
+		if ( markerFile.exists() ) {
+			return;
+		}
+
+		int players = 0;
+		long itemsMigrated = 0;
+
+		for ( File playerFile : bCache.getCacheFiles().getAllPlayerFiles() ) {
+
+			BackpackCachePlayerData playerData = bCache.getCacheFiles().fromJsonFile( playerFile );
+
+			if ( playerData == null || playerData.getPlayerUuid() == null ) {
+				continue;
+			}
+
+			// Use the cached copy if the player is loaded since it may have unsaved changes:
+			BackpackCachePlayerData cached;
+			synchronized ( bCache.getPlayers() ) {
+				cached = bCache.getPlayers().get( playerData.getPlayerUuid() );
+			}
+			if ( cached != null ) {
+				playerData = cached;
+			}
+
+			long migrated = migrateLegacyPlayer( playerData );
+
+			if ( migrated > 0 ) {
+				bCache.saveCacheData( playerData );
+
+				players++;
+				itemsMigrated += migrated;
+			}
+		}
+
+		try {
+			String message = String.format( "Legacy backpacks migrated to silos on %s. " +
+					"Players: %d  Items: %d %n", new Date().toString(), players, itemsMigrated );
+
+			Files.write( markerFile.toPath(),
+					Collections.singletonList( message ), StandardCharsets.UTF_8 );
+		}
+		catch ( IOException e ) {
+			Output.get().logError( "Backpacks: Unable to write the silo migration marker file: " +
+							markerFile.getAbsolutePath(), e );
+		}
+
+		if ( itemsMigrated > 0 ) {
+			Output.get().logInfo( "Backpacks: Moved %s items for %s players from the legacy " +
+					"backpacks in to silos.", Long.toString( itemsMigrated ), Integer.toString( players ) );
+		}
+	}
+
+	private long migrateLegacyPlayer( BackpackCachePlayerData playerData ) {
+		long migrated = 0;
+
+		BackpacksStorage storage = new BackpacksStorage();
+
+		synchronized ( playerData ) {
+
+			List<PlayerBackpack> legacyBackpacks = storage.getInventoryBackpacks( playerData );
+
+			if ( legacyBackpacks.size() == 0 ) {
+				return migrated;
+			}
+
+			PlayerBackpack backpack = getSiloBackpack( playerData );
+
+			for ( PlayerBackpack legacyBackpack : legacyBackpacks ) {
+
+				List<ItemStack> remaining = new ArrayList<>();
+				boolean changed = false;
+
+				for ( ItemStack item : storage.getItems( legacyBackpack ) ) {
+
+					if ( item == null ) {
+						continue;
+					}
+
+					String siloKey = getSiloKey( item );
+					int left = siloKey == null ? item.getAmount() :
+										backpack.addSiloItems( siloKey, item.getAmount() );
+
+					if ( left != item.getAmount() ) {
+						changed = true;
+						migrated += item.getAmount() - left;
+					}
+
+					if ( left > 0 ) {
+						ItemStack extra = item.clone();
+						extra.setAmount( left );
+						remaining.add( extra );
+					}
+				}
+
+				if ( changed ) {
+					// Rewrite the legacy backpack with only the items that are left:
+					storage.setItems( legacyBackpack, remaining.toArray( new ItemStack[0] ) );
+				}
+			}
+		}
+
+		return migrated;
+	}
+
+	public boolean isSiloStorageEnabled() {
+		return siloStorageEnabled;
+	}
+
+	public int getMaxSiloSlots() {
+		return maxSiloSlots;
+	}
+
+	public int getMaxSiloSize() {
+		return maxSiloSize;
+	}
+
+	public int getMaxTotalSize() {
+		return maxTotalSize;
+	}
+
+}
@@ -295,7 +295,7 @@ public abstract class OnBlockBreakEventCore
 			
 			// Only add the minedBlock to the blocks list if it matches the expected targetBlock name, which
 			// indicates it has not been replaced by something else, such as the result of a block event.
-			if ( pmEvent.getTargetBlock().getPrisonBlock().getBlockName().equalsIgnoreCase( minedBlock.getBlockName() )) {
+			if ( pmEvent.getTargetBlock().getPrisonBlock().isSameBlockName( minedBlock )) {
 				
 				blocks.add( minedBlock );
 				pmEvent.getTargetBlock().setAirBroke( true );
@@ -312,7 +312,7 @@ public abstract class OnBlockBreakEventCore
 
 				// Only add the minedBlock to the blocks list if it matches the expected targetBlock name, which
 				// indicates it has not been replaced by something else, such as the result of a block event.
-				if ( targetBlock.getPrisonBlock().getBlockName().equalsIgnoreCase( minedBlock.getBlockName() )) {
+				if ( targetBlock.getPrisonBlock().isSameBlockName( minedBlock )) {
 					
 					blocks.add( minedBlock );
 					targetBlock.setAirBroke( true );
@@ -339,7 +339,7 @@ public abstract class OnBlockBreakEventCore
 							SpigotBlock minedBlock, MineTargetPrisonBlock targetBlock  ) {
 		SpigotBlock results = null;
 		
-		if ( targetBlock.getPrisonBlock().getBlockName().equalsIgnoreCase( minedBlock.getBlockName() ) ) {
+		if ( targetBlock.getPrisonBlock().isSameBlockName( minedBlock ) ) {
 			results = minedBlock;
 			targetBlock.setAirBroke( true );
 			
@@ -108,6 +108,13 @@ public class SpigotBlock
     		
     		else if ( xMat != null ) {
     			sBlock = new SpigotBlock( xMat.name(), bukkitBlock );
+    			
+    			// Use the block id of the prison block type so the block can be 
+    			// matched to the mine's blocks without comparing the names:
+    			PrisonBlock blockType = SpigotCompatibility.getInstance().getCachedPrisonBlock( xMat );
+    			if ( blockType != null ) {
+    				sBlock.setBlockId( blockType.getBlockId() );
+    			}
     		}
     	}
 
@@ -241,7 +248,9 @@ public class SpigotBlock
 	}
 
     public void setPrisonBlock( XMaterial xMat ) {
-    	setPrisonBlock( SpigotUtil.getPrisonBlock( xMat.name() ) );
+    	PrisonBlock blockType = SpigotCompatibility.getInstance().getCachedPrisonBlock( xMat );
+    	
+    	setPrisonBlock( blockType != null ? blockType : SpigotUtil.getPrisonBlock( xMat.name() ) );
 		
 	}
 
@@ -13,6 +13,8 @@ import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.game.SpigotWorld;
 import tech.mcprison.prison.util.Location;
+import tech.mcprison.prison.util.PrisonTickStats;
+import tech.mcprison.prison.util.PrisonTickStats.TickSubsystem;
 
 public class SpigotBlockSetSynchronously {
 
@@ -78,6 +80,8 @@ public class SpigotBlockSetSynchronously {
 				
 				long elapsedNanos = System.nanoTime() - start;
 				
+				PrisonTickStats.recordNanos( TickSubsystem.mineReset, elapsedNanos );
+				
 					
 				if ( nanos != null ) {
 					nanos.addNanos( elapsedNanos );
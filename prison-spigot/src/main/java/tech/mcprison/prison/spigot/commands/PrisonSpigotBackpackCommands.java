@@ -76,6 +76,21 @@ public class PrisonSpigotBackpackCommands extends PrisonSpigotBaseCommands {
         }
     }
 
+    @Command(identifier = "backpack silo", description = "View and withdraw the items within your backpack's silos.", onlyPlayers = true)
+    private void backpackSiloCommand(CommandSender sender){
+
+        Player p = getSpigotPlayer(sender);
+
+        if (p == null) {
+            Output.get().sendInfo(sender, SpigotPrison.format( messages.getString(MessagesConfig.StringID.spigot_message_console_error)));
+            return;
+        }
+
+        if (isDisabledWorld(p)) return;
+
+        sender.dispatchCommand("gui backpacksilo");
+    }
+
     @Command(identifier = "backpack delete", description = "Delete a player's backpack.", permissions = "prison.admin", onlyPlayers = false)
     private void deleteBackpackCommand(CommandSender sender,
     @Arg(name = "Owner", description = "The backpack owner name", def = "null") String name,
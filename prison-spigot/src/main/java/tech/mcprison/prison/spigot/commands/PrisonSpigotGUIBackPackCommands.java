@@ -10,9 +10,11 @@ import tech.mcprison.prison.internal.CommandSender;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.backpacks.BackpacksUtil;
+import tech.mcprison.prison.spigot.backpacks.SiloBackpacksUtil;
 import tech.mcprison.prison.spigot.configs.MessagesConfig;
 import tech.mcprison.prison.spigot.gui.backpacks.BackpacksAdminGUI;
 import tech.mcprison.prison.spigot.gui.backpacks.BackpacksListPlayerGUI;
+import tech.mcprison.prison.spigot.gui.backpacks.BackpacksSiloGUI;
 
 public class PrisonSpigotGUIBackPackCommands
 	extends PrisonSpigotBaseCommands
@@ -85,6 +87,30 @@ public class PrisonSpigotGUIBackPackCommands
         }
     }
 
+    @Command(identifier = "gui backpacksilo", description = "View and withdraw the items within your backpack's silos", onlyPlayers = true)
+    private void backpackSiloGUICommand(CommandSender sender,
+    		@Arg(name = "page", description = "If there are more than 45 silos, then they " +
+    				"will be shown on multiple pages.  The page parameter starts with " +
+    				"page 1.", def = "1" ) int page){
+        Player p = getSpigotPlayer(sender);
+
+        if (p == null) {
+            Output.get().sendInfo(sender, SpigotPrison.format( messages.getString(MessagesConfig.StringID.spigot_message_console_error)));
+            return;
+        }
+
+        if (isDisabledWorld(p) || !SiloBackpacksUtil.isEnabled()) return;
+
+        if (getBoolean(BackpacksUtil.get().getBackpacksConfig().getString("Options.BackPack_Use_Permission_Enabled")) && !p.hasPermission(BackpacksUtil.get().getBackpacksConfig().getString("Options.BackPack_Use_Permission"))){
+            Output.get().sendWarn(sender, SpigotPrison.format(
+            		messages.getString(MessagesConfig.StringID.spigot_message_missing_permission)));
+            return;
+        }
+
+        BackpacksSiloGUI gui = new BackpacksSiloGUI(p, page, "gui backpacksilo", "close");
+        gui.open();
+    }
+
     @Command(identifier = "gui backpackadmin", description = "Open backpack admin GUI", permissions = "prison.admin", onlyPlayers = true)
     private void openBackpackAdminCommandGUI(CommandSender sender){
 
@@ -22,6 +22,8 @@ public interface CompatibilityBlocks
 	
 	public XMaterial getXMaterial( PrisonBlock prisonBlock );
 	
+	public PrisonBlock getCachedPrisonBlock( XMaterial xMat );
+	
 //	public XMaterial getXMaterial( BlockType blockType );
 
 //	public BlockType getBlockType( ItemStack spigotStack );
@@ -1,12 +1,16 @@
 package tech.mcprison.prison.spigot.compat;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.TreeMap;
 
+import org.bukkit.Material;
 import org.bukkit.block.Block;
 
 import com.cryptomorin.xseries.XMaterial;
 
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlockTypes;
 import tech.mcprison.prison.spigot.SpigotPrison;
 
 /**
@@ -14,6 +18,15 @@ import tech.mcprison.prison.spigot.SpigotPrison;
  * types so as to eliminate a high cost of access after the first time
  * the resource was accessed.
  * </p>
+ * 
+ * <p>The lookups that are used when blocks are broken and placed use arrays 
+ * instead of the string keys.  The bukkit blocks are mapped to their XMaterial
+ * by the Material's ordinal and the data value, the XMaterials are mapped to 
+ * the prison block types by the XMaterial's ordinal, and the prison blocks are
+ * mapped back to their XMaterial by the block id that was assigned by 
+ * PrisonBlockTypes.  The string keyed cache is only used the first time, and
+ * for the blocks that do not have a block id.
+ * </p>
  *
  */
 public class CompatibilityCache {
@@ -27,6 +40,15 @@ public class CompatibilityCache {
 	
 	private Map<String, XMaterial> xMaterialCache;
 	
+	// Indexed by the Material's ordinal times 16, plus the data value:
+	private final XMaterial[] xMaterialByMaterial;
+	
+	// Indexed by the XMaterial's ordinal:
+	private final PrisonBlock[] prisonBlockByXMaterial;
+	
+	// Indexed by the PrisonBlock's block id.  This is replaced when it needs to grow:
+	private volatile XMaterial[] xMaterialByBlockId;
+	
 	
 	private final SpigotPrison plugin;
 	
@@ -37,6 +59,10 @@ public class CompatibilityCache {
 //		this.blockTypeCache = new TreeMap<>();
 		this.xMaterialCache = new TreeMap<>();
 		
+		this.xMaterialByMaterial = new XMaterial[ Material.values().length * 16 ];
+		this.prisonBlockByXMaterial = new PrisonBlock[ XMaterial.values().length ];
+		this.xMaterialByBlockId = new XMaterial[ 0 ];
+		
 		initializeForcedCache();
 		
 		this.plugin = SpigotPrison.getInstance();
@@ -96,9 +122,24 @@ public class CompatibilityCache {
 	
 	public XMaterial getCachedXMaterial( tech.mcprison.prison.internal.block.Block prisonBlock )
 	{
-		String key = prisonBlock.getBlockName();
+		XMaterial xMat = null;
 		
-		XMaterial xMat = xMaterialCache.get( key );
+		int blockId = getBlockId( prisonBlock );
+		XMaterial[] byBlockId = xMaterialByBlockId;
+		
+		if ( blockId > 0 && blockId < byBlockId.length ) {
+			xMat = byBlockId[blockId];
+		}
+		
+		if ( xMat == null ) {
+			String key = prisonBlock.getBlockName();
+			
+			xMat = xMaterialCache.get( key );
+			
+			if ( xMat != null && blockId > 0 ) {
+				putXMaterialByBlockId( blockId, xMat );
+			}
+		}
 		
 		// Using VOID_AIR as temp placeholder for null values:
 		return xMat; // xMat == NULL_TOKEN ? null : xMat;
@@ -112,12 +153,31 @@ public class CompatibilityCache {
 			// Using NULL_TOKEN as temp placeholder for null values:
 			xMaterialCache.put( key, xMat == null ? NULL_TOKEN : xMat );
 		}
+		
+		int blockId = getBlockId( prisonBlock );
+		if ( blockId > 0 ) {
+			putXMaterialByBlockId( blockId, xMat == null ? NULL_TOKEN : xMat );
+		}
 	}
 
 	public XMaterial getCachedXMaterial( Block spigotBlock, byte data ) {
-		String key = spigotBlock.getType().name() + ( data <= 0 ? "" : ":" +data);
+		XMaterial xMat = null;
+		
+		int index = getMaterialIndex( spigotBlock.getType(), data );
 		
-		XMaterial xMat = xMaterialCache.get( key );
+		if ( index >= 0 ) {
+			xMat = xMaterialByMaterial[index];
+		}
+		
+		if ( xMat == null ) {
+			String key = spigotBlock.getType().name() + ( data <= 0 ? "" : ":" +data);
+			
+			xMat = xMaterialCache.get( key );
+			
+			if ( xMat != null && index >= 0 ) {
+				xMaterialByMaterial[index] = xMat;
+			}
+		}
 		
 		// Do not use NULL_TOKEN since this must return null if it does not exist:
 		return xMat; 
@@ -129,6 +189,85 @@ public class CompatibilityCache {
 			// Using VOID_AIR as temp placeholder for null values:
 			xMaterialCache.put( key, xMat == null ? NULL_TOKEN : xMat );
 		}
+		
+		int index = getMaterialIndex( spigotBlock.getType(), data );
+		if ( index >= 0 && xMaterialByMaterial[index] == null ) {
+			xMaterialByMaterial[index] = xMat == null ? NULL_TOKEN : xMat;
+		}
+	}
+	
+	/**
+	 * <p>Gets the prison block type for the XMaterial, which has the block id that 
+	 * was assigned by PrisonBlockTypes.  The block that is returned is not 
+	 * a clone, so it must not be changed.  If the prison block types have not 
+	 * been loaded yet, then this returns null and nothing is cached.
+	 * </p>
+	 * 
+	 * @param xMat
+	 * @return
+	 */
+	public PrisonBlock getCachedPrisonBlock( XMaterial xMat ) {
+		PrisonBlock results = null;
+		
+		if ( xMat != null ) {
+			results = prisonBlockByXMaterial[ xMat.ordinal() ];
+			
+			if ( results == null && getPlugin() != null && 
+					getPlugin().isPrisonBlockTypesLoaded() ) {
+				
+				PrisonBlockTypes pbTypes = getPlugin().getPrisonBlockTypes();
+				results = pbTypes.getBlockTypeByNameNoClone( xMat.name() );
+				
+				// Using NULL_BLOCK as a placeholder for the XMaterials that are 
+				// not a prison block type:
+				prisonBlockByXMaterial[ xMat.ordinal() ] = 
+								results == null ? PrisonBlock.NULL_BLOCK : results;
+			}
+			
+			if ( results == PrisonBlock.NULL_BLOCK ) {
+				results = null;
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>The data values only range from 0 through 15.  The NO_DATA_VALUE uses the 
+	 * same index as 0, which matches the string keys.
+	 * </p>
+	 * 
+	 * @param material
+	 * @param data
+	 * @return The index, or -1 if it cannot be indexed.
+	 */
+	private int getMaterialIndex( Material material, byte data ) {
+		int results = -1;
+		
+		if ( material != null && data < 16 ) {
+			results = material.ordinal() * 16 + ( data <= 0 ? 0 : data );
+		}
+		
+		return results;
+	}
+	
+	private int getBlockId( tech.mcprison.prison.internal.block.Block prisonBlock ) {
+		return prisonBlock instanceof PrisonBlock ? 
+				((PrisonBlock) prisonBlock).getBlockId() : 0;
+	}
+	
+	private synchronized void putXMaterialByBlockId( int blockId, XMaterial xMat ) {
+		XMaterial[] byBlockId = xMaterialByBlockId;
+		
+		if ( blockId >= byBlockId.length ) {
+			byBlockId = Arrays.copyOf( byBlockId, Math.max( blockId + 1, byBlockId.length * 2 ) );
+		}
+		
+		if ( byBlockId[blockId] == null ) {
+			byBlockId[blockId] = xMat;
+		}
+		
+		xMaterialByBlockId = byBlockId;
 	}
 	
 //	public XMaterial getCachedXMaterial( BlockType blockType, byte data ) {
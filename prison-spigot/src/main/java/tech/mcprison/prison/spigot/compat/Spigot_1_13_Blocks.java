@@ -13,7 +13,6 @@ import com.cryptomorin.xseries.XMaterial;
 
 import tech.mcprison.prison.internal.block.BlockFace;
 import tech.mcprison.prison.internal.block.PrisonBlock;
-import tech.mcprison.prison.internal.block.PrisonBlockTypes.InternalBlockTypes;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.block.SpigotBlock;
 import tech.mcprison.prison.spigot.block.SpigotItemStack;
@@ -203,7 +202,7 @@ public abstract class Spigot_1_13_Blocks
 	public void updateSpigotBlock( PrisonBlock prisonBlock, Block spigotBlock ) {
 		
 		if ( prisonBlock != null && 
-				!prisonBlock.getBlockName().equalsIgnoreCase( InternalBlockTypes.IGNORE.name() ) && 
+				!prisonBlock.equals( PrisonBlock.IGNORE ) && 
 				spigotBlock != null ) {
 			
 			XMaterial xMat = getXMaterial( prisonBlock );
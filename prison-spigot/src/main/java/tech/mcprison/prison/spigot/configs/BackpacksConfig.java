@@ -82,6 +82,10 @@ public class BackpacksConfig extends SpigotConfigComponents{
         dataConfig("Options.BackPack_Close_Sound", "BLOCK_CHEST_CLOSE");
         dataConfig("Options.Multiple-BackPacks-For-Player-Enabled", false);
         dataConfig("Options.Multiple-BackPacks-For-Player", "2");
+        dataConfig("Options.BackPack_Silo_Storage_Enabled", true);
+        dataConfig("Options.BackPack_Silo_Max_Slots", "54");
+        dataConfig("Options.BackPack_Silo_Max_Size", "100000");
+        dataConfig("Options.BackPack_Silo_Max_Total_Size", "0");
     }
 
     public FileConfiguration getFileBackpacksConfig(){
@@ -39,6 +39,7 @@ import tech.mcprison.prison.ranks.data.RankPlayerFactory;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.SpigotUtil;
 import tech.mcprison.prison.spigot.backpacks.BackpacksUtil;
+import tech.mcprison.prison.spigot.backpacks.SiloBackpacksUtil;
 import tech.mcprison.prison.spigot.compat.Compatibility;
 import tech.mcprison.prison.spigot.compat.SpigotCompatibility;
 import tech.mcprison.prison.spigot.configs.MessagesConfig;
@@ -46,6 +47,9 @@ import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.backpacks.BackpacksAdminGUI;
 import tech.mcprison.prison.spigot.gui.backpacks.BackpacksAdminListGUI;
 import tech.mcprison.prison.spigot.gui.backpacks.BackpacksAdminPlayerListGUI;
+import tech.mcprison.prison.spigot.gui.backpacks.BackpacksSiloGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIHolder;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.mine.SpigotBlocksListGUI;
 import tech.mcprison.prison.spigot.gui.mine.SpigotBlocksMineListGUI;
 import tech.mcprison.prison.spigot.gui.mine.SpigotMineBlockPercentageGUI;
@@ -397,19 +401,15 @@ public class ListenersPrisonManager
             // GUIs must have the good conditions to work.
             if (guiConditions(e, p)) return;
 
-            Compatibility compat = SpigotCompatibility.getInstance();
-
             String buttonNameMain;
             String[] parts;
             Module module;
-            String title;
 
             try {
                 // Get parameters.
                 buttonNameMain = SpigotPrison.stripColor(e.getCurrentItem().getItemMeta().getDisplayName());
                 parts = buttonNameMain.split(" ");
                 module = Prison.get().getModuleManager().getModule(PrisonRanks.MODULE_NAME);
-                title = Text.stripColor( compat.getGUITitle(e) );
             } catch (ArrayIndexOutOfBoundsException ex){
                 Output.get().sendWarn(new SpigotPlayer(p), "An error occurred while using the GUI, please check logs.");
                 ex.printStackTrace();
@@ -424,21 +424,20 @@ public class ListenersPrisonManager
             }
             
             // If a GUI Tools Page action, then process the request and just exit:
-            else if ( SpigotGUIMenuTools.getInstance().processGUIPage( p, title, e ) ) {
+            else if ( SpigotGUIMenuTools.getInstance().processGUIPage( p, e ) ) {
             	
             	return;
             }
             
             
-            String playerRanksTitle = guiConfig.getString("Options.Titles.PlayerRanksGUI").substring(2);
-            String playerPrestigeTitle = guiConfig.getString("Options.Titles.PlayerPrestigesGUI").substring(2);
-            String minesPlayerTitle = guiConfig.getString("Options.Titles.PlayerMinesGUI").substring(2);
+            // The GUI is identified by the inventory's holder, so the title does not need to be checked.
+            PrisonGUIType guiType = getGUIType(e, p);
 
-            // Check if the GUI have the right title and do the actions.
-            switch (title) {
+            // Check the GUI type and do the actions.
+            switch (guiType) {
             	
                 // Check the title and do the actions.
-                case "PrisonManager":
+                case prisonManager:
 
                     // Call the method.
                     prisonManagerGUI(e, p, buttonNameMain);
@@ -446,7 +445,7 @@ public class ListenersPrisonManager
                     break;
 
                 // Check the title.
-                case "RanksManager -> Ladders": {
+                case ladders: {
 
                     // Call the method.
                     laddersGUI(e, p, buttonNameMain, module);
@@ -456,7 +455,7 @@ public class ListenersPrisonManager
                 }
 
                 // Check the title of the inventory and do the actions.
-                case "Ladders -> Ranks": {
+                case ranks: {
 
                     // Call the method.
                     ranksGUI(e, p, buttonNameMain, parts);
@@ -464,7 +463,7 @@ public class ListenersPrisonManager
                     break;
                 }
                 // Check the title and do the actions.
-                case "Prestige -> Confirmation": {
+                case prestigeConfirm: {
 
                     // Call the method.
                     prestigeConfirmationGUI(e, p, buttonNameMain);
@@ -472,7 +471,7 @@ public class ListenersPrisonManager
                     break;
                 }
                 // Check the title of the inventory and do things.
-                case "Ranks -> RankManager": {
+                case rankManager: {
 
                     // Call the method.
                     rankManagerGUI(e, p, parts);
@@ -480,7 +479,7 @@ public class ListenersPrisonManager
                     break;
                 }
                 // Check the title and do the actions.
-                case "RankManager -> RankUPCommands": {
+                case rankUpCommands: {
 
                     // Call the method.
                     rankUPCommandsGUI(e, p, buttonNameMain);
@@ -488,7 +487,7 @@ public class ListenersPrisonManager
                     break;
                 }
                 // Check the inventory name and do the actions.
-                case "RankManager -> RankPrice": {
+                case rankPrice: {
 
                     // Call the method.
                     rankPriceGUI(e, p, parts);
@@ -496,14 +495,14 @@ public class ListenersPrisonManager
                     break;
                 }
                 // Check the title and do the actions.
-                case "MinesManager -> Mines": {
+                case mines: {
 
                     // Call the method.
                     minesGUI(e, p, buttonNameMain, parts);
 
                     break;
                 }
-                case "Mines -> MineInfo": {
+                case mineInfo: {
 
                     // Call the method.
                     mineInfoGUI(e, p, parts);
@@ -512,7 +511,7 @@ public class ListenersPrisonManager
                 }
 
                 // Check the title of the inventory and do the actions.
-                case "Mines -> Delete": {
+                case mineDelete: {
 
                     // Call the method.
                     minesDeleteGUI(p, parts);
@@ -521,7 +520,7 @@ public class ListenersPrisonManager
                 }
 
                 // Check the title of the inventory and do the actions.
-                case "MineInfo -> Blocks": {
+                case mineBlocks: {
 
                     // Call the method.
                     blocksGUI(e, p, parts);
@@ -530,7 +529,7 @@ public class ListenersPrisonManager
                 }
 
                 // Check the inventory name and do the actions.
-                case "Mines -> BlocksList": {
+                case mineBlocksList: {
 
                     blocksListGUI(e, p, parts);
 
@@ -538,7 +537,7 @@ public class ListenersPrisonManager
                 }
 
                 // Check the inventory name and do the actions.
-                case "MineInfo -> ResetTime": {
+                case mineResetTime: {
 
                     // Call the method.
                     resetTimeGUI(e, p, parts);
@@ -547,7 +546,7 @@ public class ListenersPrisonManager
                 }
 
                 // Check the inventory title and do the actions.
-                case "MineInfo -> MineNotifications": {
+                case mineNotifications: {
 
                     // Call the method.
                     mineNotificationsGUI(e, p, parts);
@@ -555,7 +554,7 @@ public class ListenersPrisonManager
                     break;
                 }
 
-                case "MineInfo -> BlockPercentage": {
+                case mineBlockPercentage: {
 
                     mineBlockPercentage(e, p, parts);
 
@@ -563,7 +562,7 @@ public class ListenersPrisonManager
                 }
 
                 // Check the inventory title and do the actions.
-                case "MineNotifications -> Radius": {
+                case mineNotificationRadius: {
 
                     // Call the method
                     radiusGUI(e, p, parts);
@@ -571,7 +570,7 @@ public class ListenersPrisonManager
                     break;
                 }
 //                // Check the inventory title and do the actions.
-//                case "PrisonManager -> AutoFeatures": {
+//                case autoFeatures: {
 //
 //                    // Call the method
 //                    autoFeaturesGUI(e, p, parts);
@@ -580,7 +579,7 @@ public class ListenersPrisonManager
 //                }
 
 //                // Check the title and do the actions.
-//                case "AutoFeatures -> AutoPickup": {
+//                case autoPickup: {
 //
 //                    // Call the method
 //                    autoPickupGUI(e, p, parts);
@@ -589,7 +588,7 @@ public class ListenersPrisonManager
 //                }
 
 //                // Check the title and do the actions.
-//                case "AutoFeatures -> AutoSmelt": {
+//                case autoSmelt: {
 //
 //                    // Call the method
 //                    autoSmeltGUI(e, p, parts);
@@ -598,7 +597,7 @@ public class ListenersPrisonManager
 //                }
 
 //                // Check the title and do the actions.
-//                case "AutoFeatures -> AutoBlock": {
+//                case autoBlock: {
 //
 //                    // Call the method
 //                    autoBlockGUI(e, p, parts);
@@ -607,7 +606,7 @@ public class ListenersPrisonManager
 //                }
 
                 // Check the title and do the actions.
-                case "SellAll -> Blocks": {
+                case sellAllBlocks: {
 
                     sellAllAdminBlocksGUI(e, p, parts);
 
@@ -615,7 +614,7 @@ public class ListenersPrisonManager
                 }
 
                 // Check the title and do the actions.
-                case "Prison -> SellAll-Admin": {
+                case sellAllAdmin: {
 
                     sellAllAdminGUI(e, p, buttonNameMain);
 
@@ -623,7 +622,7 @@ public class ListenersPrisonManager
                 }
 
                 // Check the title and do the actions.
-                case "SellAll -> AutoSell": {
+                case sellAllAutoSell: {
 
                     sellAllAutoSellAdminGUI(e, p, buttonNameMain);
 
@@ -631,7 +630,7 @@ public class ListenersPrisonManager
                 }
 
                 // Check the title and do the actions.
-                case "SellAll -> ItemValue": {
+                case sellAllItemValue: {
 
                     sellAllItemValue(e, p, parts);
 
@@ -639,7 +638,7 @@ public class ListenersPrisonManager
                 }
 
                 // Check the title and do the actions.
-                case "SellAll -> Delay": {
+                case sellAllDelay: {
 
                     sellAllDelayGUI(e, p, parts);
 
@@ -647,21 +646,21 @@ public class ListenersPrisonManager
                 }
 
                 // Check the title and do the actions.
-                case "SellAll -> Multipliers": {
+                case sellAllMultipliers: {
 
                     sellAllMultipliersGUI(e, p, buttonNameMain, parts);
 
                     break;
                 }
 
-                case "Edit -> Multiplier": {
+                case sellAllEditMultiplier: {
 
                     setSellAllPrestigeMultiplier(e, p, parts);
 
                     break;
                 }
 
-                case "Select -> ShowBlock":{
+                case mineShowBlock:{
 
                     showBlock(e, p, parts);
 
@@ -669,28 +668,28 @@ public class ListenersPrisonManager
                 }
 
                 // Check the title and do the actions.
-                case "Prison -> SellAll-Player": {
+                case sellAllPlayer: {
 
                     sellAllPlayerGUI(e, p, parts);
 
                     break;
                 }
                 // Check the title and do the actions.
-                case "Prison Setup -> Confirmation": {
+                case prisonSetupConfirm: {
 
                     prisonSetupConfirmGUI(e, p, parts);
 
                     break;
                 }
                 // Check the title and do the actions.
-                case "Backpacks-Admin":{
+                case backpacksAdmin:{
 
                     backpacksAdmin(e, p, buttonNameMain);
 
                     break;
                 }
                 // Check the title and do the actions.
-                case "Backpacks-Admin-Players":{
+                case backpacksAdminPlayers:{
 
                     BackpacksAdminListGUI gui = new BackpacksAdminListGUI(p, parts[1]);
                     gui.open();
@@ -698,7 +697,7 @@ public class ListenersPrisonManager
                     break;
                 }
                 // Check the title and do the actions.
-                case "Backpacks-Admin-List":{
+                case backpacksAdminList:{
 
                     if (parts[0].equalsIgnoreCase("Backpack")){
                         if (e.isRightClick() && e.isShiftClick()){
@@ -717,30 +716,79 @@ public class ListenersPrisonManager
 
                     break;
                 }
+                // The player GUIs have customizable titles.
+                case playerRanks: {
+
+                    playerRanksGUI(e, p, buttonNameMain);
+
+                    break;
+                }
+                case playerPrestiges: {
+
+                    playerPrestigesGUI(e, p, buttonNameMain);
+
+                    break;
+                }
+                case playerMines: {
+
+                    playerMinesGUI(p, e);
+
+                    break;
+                }
+                case backpacksPlayerList: {
+
+                    backpacksList(p, buttonNameMain, parts);
+
+                    break;
+                }
+                case backpackSilos: {
+
+                    backpackSilos(e, p, buttonNameMain);
+
+                    break;
+                }
                 default:{
 
                     break;
                 }
             }
 
-            // Customizable title GUIs.
-            if (title.equalsIgnoreCase(playerRanksTitle)){
-
-                // Call the method.
-                playerRanksGUI(e, p, buttonNameMain);
-            } else if (title.equalsIgnoreCase(playerPrestigeTitle)){
+        }
+    }
 
-                // Call the method.
-                playerPrestigesGUI(e, p, buttonNameMain);
-            } else if (title.equalsIgnoreCase(minesPlayerTitle)){
+    /**
+     * Get the type of the GUI from the inventory's holder.
+     *
+     * If the inventory was not created by a PrisonGUI, then fall back to the inventory's title.
+     * */
+    private PrisonGUIType getGUIType(InventoryClickEvent e, Player p){
 
-                // Call the method
-                playerMinesGUI(p, e);
-            } else if (title.equalsIgnoreCase(p.getName() + " -> Backpacks")){
+        PrisonGUIType guiType = PrisonGUIHolder.getGUIType(e.getInventory());
 
-                backpacksList(p, buttonNameMain, parts);
+        if (guiType == null){
+            Compatibility compat = SpigotCompatibility.getInstance();
+            String title = Text.stripColor( compat.getGUITitle(e) );
+
+            guiType = PrisonGUIType.fromTitle(title);
+
+            if (guiType == PrisonGUIType.unknown && title != null){
+                String playerRanksTitle = guiConfig.getString("Options.Titles.PlayerRanksGUI").substring(2);
+                String playerPrestigeTitle = guiConfig.getString("Options.Titles.PlayerPrestigesGUI").substring(2);
+                String minesPlayerTitle = guiConfig.getString("Options.Titles.PlayerMinesGUI").substring(2);
+
+                if (title.equalsIgnoreCase(playerRanksTitle)){
+                    guiType = PrisonGUIType.playerRanks;
+                } else if (title.equalsIgnoreCase(playerPrestigeTitle)){
+                    guiType = PrisonGUIType.playerPrestiges;
+                } else if (title.equalsIgnoreCase(minesPlayerTitle)){
+                    guiType = PrisonGUIType.playerMines;
+                } else if (title.equalsIgnoreCase(p.getName() + " -> Backpacks")){
+                    guiType = PrisonGUIType.backpacksPlayerList;
+                }
             }
         }
+
+        return guiType;
     }
 
     
@@ -843,6 +891,9 @@ public class ListenersPrisonManager
                 		Prison.get().getCommandHandler().findRegisteredCommand( "gui backpack " + finalID ));
             }
 
+        } else if (buttonNameMain.equalsIgnoreCase("Silos")){
+            Bukkit.dispatchCommand(p, 
+            		Prison.get().getCommandHandler().findRegisteredCommand( "gui backpacksilo" ));
         } else if (buttonNameMain.equalsIgnoreCase("Backpack")){
         	String id = null;
             BackpacksUtil.get().openBackpack(p, id);
@@ -851,6 +902,31 @@ public class ListenersPrisonManager
         }
     }
 
+    /**
+     * Withdraw the items from the silo that was clicked, then update its button with the new count.
+     * */
+    private void backpackSilos(InventoryClickEvent e, Player p, String siloKey) {
+
+        // Only the silos in the GUI, and not the player's own items:
+        if (e.getRawSlot() >= e.getInventory().getSize() || !SiloBackpacksUtil.isEnabled()){
+            return;
+        }
+
+        SiloBackpacksUtil siloUtil = SiloBackpacksUtil.get();
+
+        int amount = e.isShiftClick() ? Integer.MAX_VALUE : e.getCurrentItem().getMaxStackSize();
+        int withdrawn = siloUtil.withdraw(p, siloKey, amount);
+
+        if (withdrawn == 0){
+            Output.get().sendInfo(new SpigotPlayer(p), "There is no room in your inventory for " + siloKey + ".");
+        }
+
+        int count = siloUtil.getSiloCount(p, siloKey);
+
+        e.getInventory().setItem(e.getSlot(), count == 0 ? null :
+        		BackpacksSiloGUI.createSiloButton(null, siloKey, count).getButtonItem());
+    }
+
     private void showBlock(InventoryClickEvent e, Player p, String[] parts) {
         String positionStr = ( parts.length > 2 ? parts[2] : "0" );
         int position = 0;
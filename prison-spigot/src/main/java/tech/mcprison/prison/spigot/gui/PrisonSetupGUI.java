@@ -6,6 +6,7 @@ import tech.mcprison.prison.spigot.configs.MessagesConfig;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -22,7 +23,7 @@ public class PrisonSetupGUI extends SpigotGUIComponents {
     public void open(){
 
         // Create Prison GUI.
-        PrisonGUI gui = new PrisonGUI(p, 9, "&3Prison Setup -> Confirmation");
+        PrisonGUI gui = new PrisonGUI(p, 9, "&3Prison Setup -> Confirmation", PrisonGUIType.prisonSetupConfirm);
 
         // Create lore.
         ButtonLore lore = new ButtonLore(createLore(
@@ -0,0 +1,383 @@
+package tech.mcprison.prison.spigot.gui;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.configuration.Configuration;
+
+import com.cryptomorin.xseries.XMaterial;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.modules.ModuleElement;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.ranks.data.Rank;
+import tech.mcprison.prison.spigot.SpigotUtil;
+import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
+import tech.mcprison.prison.util.Text;
+
+/**
+ * <p>This caches the parts of the player's mines and ranks GUI items that do
+ * not change from one player to the next: the item's name, the block to use,
+ * and the lore, from the GuiConfig.yml file, with all of the mine's or rank's
+ * details already filled in.  When a GUI is opened, only the values that
+ * depend upon the player, or that change all the time, such as the blocks
+ * remaining within a mine, still need to be filled in, and only for the
+ * items on the page that is being shown.
+ * </p>
+ *
+ * <p>Each template records the details of the mine or rank that it was built
+ * from, so if the mine or rank is changed, such as a new tag, a resize, or
+ * linking a rank, then the template is rebuilt the next time it is used.  All
+ * templates are cleared when the GuiConfig.yml file is reloaded with
+ * <code>/prison reload gui</code>.
+ * </p>
+ *
+ */
+public class SpigotGUIItemTemplates
+{
+	private static SpigotGUIItemTemplates instance;
+
+	private final Map<String, MineItemTemplate> mineTemplates;
+	private final Map<String, RankItemTemplate> rankTemplates;
+
+	private SpigotGUIItemTemplates() {
+		super();
+
+		this.mineTemplates = new ConcurrentHashMap<>();
+		this.rankTemplates = new ConcurrentHashMap<>();
+	}
+
+	public static SpigotGUIItemTemplates getInstance() {
+		if ( instance == null ) {
+			synchronized ( SpigotGUIItemTemplates.class )
+			{
+				if ( instance == null ) {
+
+					instance = new SpigotGUIItemTemplates();
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * <p>The mine's item, with the lore's placeholders {mineName}, {mineTag},
+	 * {mineSize}, {mineVolume}, and {linkedRank} already replaced.
+	 * </p>
+	 */
+	public static class MineItemTemplate {
+		private final String fingerprint;
+
+		private final String displayName;
+		private final String mineTag;
+		private final XMaterial accessMaterial;
+		private final List<String> lore;
+
+		private MineItemTemplate( String fingerprint, String displayName, String mineTag,
+						XMaterial accessMaterial, List<String> lore ) {
+			super();
+
+			this.fingerprint = fingerprint;
+			this.displayName = displayName;
+			this.mineTag = mineTag;
+			this.accessMaterial = accessMaterial;
+			this.lore = Collections.unmodifiableList( lore );
+		}
+
+		public String getDisplayName() {
+			return displayName;
+		}
+		public String getMineTag() {
+			return mineTag;
+		}
+
+		/**
+		 * <p>The block to show when the player has access to the mine.
+		 * </p>
+		 */
+		public XMaterial getAccessMaterial() {
+			return accessMaterial;
+		}
+		public List<String> getLore() {
+			return lore;
+		}
+	}
+
+	/**
+	 * <p>The rank's item, with the lore's placeholders {rankName}, {rankTag},
+	 * {ladderName}, and {linkedMines} already replaced.
+	 * </p>
+	 */
+	public static class RankItemTemplate {
+		private final String fingerprint;
+
+		private final String displayName;
+		private final XMaterial material;
+		private final List<String> lore;
+
+		private RankItemTemplate( String fingerprint, String displayName,
+						XMaterial material, List<String> lore ) {
+			super();
+
+			this.fingerprint = fingerprint;
+			this.displayName = displayName;
+			this.material = material;
+			this.lore = Collections.unmodifiableList( lore );
+		}
+
+		public String getDisplayName() {
+			return displayName;
+		}
+
+		/**
+		 * <p>The block that was set for this rank, or null if the default should
+		 * be used.
+		 * </p>
+		 */
+		public XMaterial getMaterial() {
+			return material;
+		}
+		public List<String> getLore() {
+			return lore;
+		}
+	}
+
+	private Configuration getGuiConfig() {
+		return SpigotGUIComponents.guiConfig;
+	}
+
+	/**
+	 * <p>Returns the mine's template, building it if it does not exist, or if the
+	 * mine has changed since it was built.
+	 * </p>
+	 *
+	 * @param mine
+	 * @return
+	 */
+	public MineItemTemplate getMineTemplate( Mine mine ) {
+		String fingerprint = getFingerprint( mine );
+
+		MineItemTemplate template = mineTemplates.get( mine.getName() );
+
+		if ( template == null || !template.fingerprint.equals( fingerprint ) ) {
+			template = buildMineTemplate( mine, fingerprint );
+			mineTemplates.put( mine.getName(), template );
+		}
+
+		return template;
+	}
+
+	/**
+	 * <p>Returns the rank's template for the ladder's GUI, building it if it does
+	 * not exist, or if the rank has changed since it was built.
+	 * </p>
+	 *
+	 * @param ladderName
+	 * @param rank
+	 * @return
+	 */
+	public RankItemTemplate getRankTemplate( String ladderName, Rank rank ) {
+		String fingerprint = getFingerprint( rank );
+		String key = ladderName + ":" + rank.getName();
+
+		RankItemTemplate template = rankTemplates.get( key );
+
+		if ( template == null || !template.fingerprint.equals( fingerprint ) ) {
+			template = buildRankTemplate( ladderName, rank, fingerprint );
+			rankTemplates.put( key, template );
+		}
+
+		return template;
+	}
+
+	/**
+	 * <p>Clears all of the templates.  This must be called when the GuiConfig.yml
+	 * file is reloaded.
+	 * </p>
+	 */
+	public void invalidateAll() {
+		mineTemplates.clear();
+		rankTemplates.clear();
+	}
+
+	/**
+	 * <p>All of the mine's details that are used within the template.  If any of
+	 * them change, then the template must be rebuilt.
+	 * </p>
+	 */
+	private String getFingerprint( Mine mine ) {
+		return mine.getTag() + "|" +
+				(mine.isVirtual() ? "virtual" : mine.getBounds().getDimensions()) + "|" +
+				(mine.getRank() == null ? "" : mine.getRank().getTag());
+	}
+
+	private String getFingerprint( Rank rank ) {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append( rank.getTag() ).append( "|" )
+			.append( rank.getLadder() == null ? "" : rank.getLadder().getName() ).append( "|" );
+
+		if ( rank.getMines() != null ) {
+			for ( ModuleElement mine : rank.getMines() ) {
+				sb.append( mine.getTag() ).append( " " );
+			}
+		}
+
+		return sb.toString();
+	}
+
+	private MineItemTemplate buildMineTemplate( Mine m, String fingerprint ) {
+		Configuration guiConfig = getGuiConfig();
+
+		String guiItemNameDefaultSetting = guiConfig.getString( "Options.Mines.GuiItemNameDefault" );
+		String guiItemName = guiConfig.getString( "Options.Mines.GuiItemNames." + m.getName() );
+
+		String guiItemNameDefault =
+				(guiItemNameDefaultSetting == null || guiItemNameDefaultSetting.trim().length() == 0) ?
+						m.getName() :
+						guiItemNameDefaultSetting
+								.replace( "{mineName}", m.getName() )
+								.replace( "{mineTag}", m.getTag() );
+
+		// Get Mine Name. First use 'guiItemName' if not null, then try to use 'guiItemNameDefault'
+		// if not null, and then use the mine's tag, or if that's null, then use the name:
+		String mineName =
+				guiItemName != null ? guiItemName :
+					guiItemNameDefault != null ? guiItemNameDefault :
+						m.getTag() != null ? m.getTag() :
+							m.getName();
+
+		// Get mine Tag, but make sure it is valid and the mine's name is not null:
+		String mineTag = mineName == null ? "-no mine name-" : mineName;
+		if ( m.getTag() != null &&
+				!m.getTag().equalsIgnoreCase("null") &&
+				!m.getTag().equalsIgnoreCase("none") ) {
+			mineTag = m.getTag();
+		}
+
+		// Default to COAL_ORE if the player has access to the mine:
+		XMaterial xMat = XMaterial.COAL_ORE;
+
+		String defaultMineAccessXmat = guiConfig.getString(
+									"Options.Mines.MaterialType.HasMineAccess","COAL_ORE");
+		try {
+			XMaterial xMatTemp = SpigotUtil.getXMaterial( defaultMineAccessXmat );
+			if ( xMatTemp != null ) {
+				xMat = xMatTemp;
+			}
+		}
+		catch (Exception e) {
+		}
+
+		// The valid names to use for Options.Mines.MaterialType.<MaterialName> must be
+		// based upon the XMaterial enumeration name, or supported past names.
+		String materialTypeStr = guiConfig.getString("Options.Mines.MaterialType." + m.getName());
+
+		if ( materialTypeStr != null && materialTypeStr.trim().length() > 0 ) {
+
+			XMaterial xMatTemp = SpigotUtil.getXMaterial( materialTypeStr );
+			if ( xMatTemp == null ) {
+				Output.get().logInfo( "Warning: A block was specified for mine '%s' but it was " +
+						"unable to be mapped to a valid XMaterial type. Key = " +
+						"[Options.Mines.MaterialType.%s] value = " +
+						"[%s] Please use valid material names as found in the XMaterial " +
+						"source on git hub: " +
+						"https://github.com/CryptoMorin/XSeries/blob/master/src/main/java/" +
+						"com/cryptomorin/xseries/XMaterial.java ",
+						m.getName(), m.getName(), materialTypeStr );
+			}
+			else {
+				xMat = xMatTemp;
+			}
+		}
+
+		// The generic mine LORE is displayed first, then the mine's custom LORE:
+		List<String> mineLore = new ArrayList<>( guiConfig.getStringList( "EditableLore.Mines" ) );
+		mineLore.addAll( guiConfig.getStringList( "EditableLore.Mine." + m.getName() ) );
+
+		DecimalFormat iFmt = Prison.get().getDecimalFormatInt();
+
+		double volume = ( m.isVirtual() ? 0 : m.getBounds().getTotalBlockCount() );
+		String dimensions = ( m.isVirtual() ? "virtual" : m.getBounds().getDimensions() );
+		String linkedRank = m.getRank() == null ? "Not linked" : m.getRank().getTag();
+
+		List<String> lore = new ArrayList<>();
+		for ( String stringValue : mineLore ) {
+
+			stringValue = stringValue.replace( "{mineName}", mineName );
+			stringValue = stringValue.replace( "{mineTag}", mineTag );
+			stringValue = stringValue.replace( "{mineSize}", dimensions );
+			stringValue = stringValue.replace( "{mineVolume}", iFmt.format( volume ));
+			stringValue = stringValue.replace( "{linkedRank}", linkedRank );
+
+			lore.add( stringValue );
+		}
+
+		return new MineItemTemplate( fingerprint, mineName, mineTag, xMat, lore );
+	}
+
+	private RankItemTemplate buildRankTemplate( String ladderName, Rank rank, String fingerprint ) {
+		Configuration guiConfig = getGuiConfig();
+
+		String guiItemNameDefaultSetting = guiConfig.getString( "Options.Ranks.GuiItemNameDefault" );
+
+		String guiItemNameDefault =
+				(guiItemNameDefaultSetting == null || guiItemNameDefaultSetting.trim().length() == 0) ?
+						rank.getName() :
+						guiItemNameDefaultSetting
+								.replace( "{rankName}", rank.getName() )
+								.replace( "{rankTag}", rank.getTag() );
+
+		String guiItemName = guiConfig.getString( "Options.Ranks.GuiItemNames." + rank.getName() );
+
+		// Get Rank Name. First use 'guiItemName' if not null, then try to use 'guiItemNameDefault'
+		// if not null, and then use the rank's tag, or if that's null, then use the name:
+		String rankName =
+				guiItemName != null ? guiItemName :
+					guiItemNameDefault != null ? guiItemNameDefault :
+						rank.getTag() != null ? rank.getTag() :
+							rank.getName();
+
+		// The valid names to use for Options.Ranks.MaterialType.<MaterialName> must be
+		// based upon the XMaterial enumeration name, or supported past names.
+		String materialTypeStr = guiConfig.getString("Options.Ranks.MaterialType." + rank.getName());
+		XMaterial materialType =
+				materialTypeStr == null ? null :
+					XMaterial.matchXMaterial( materialTypeStr ).orElse(null);
+
+		List<String> rankLore = new ArrayList<>( guiConfig.getStringList( "EditableLore.Ranks" ) );
+		rankLore.addAll( guiConfig.getStringList( "EditableLore.Rank." + ladderName + "." + rank.getName() ) );
+
+		StringBuilder sbMines = new StringBuilder();
+		if ( rank.getMines() != null && rank.getMines().size() > 0 ) {
+
+			for (ModuleElement mine : rank.getMines() ) {
+				if ( sbMines.length() > 0 ) {
+					sbMines.append( " " );
+				}
+				sbMines.append( mine.getTag() );
+			}
+		}
+		else {
+			sbMines.append( "&3None" );
+		}
+
+		List<String> lore = new ArrayList<>();
+		for ( String stringValue : rankLore ) {
+
+			stringValue = stringValue.replace("{rankName}", rank.getName());
+			stringValue = stringValue.replace("{rankTag}", Text.translateAmpColorCodes(rank.getTag()));
+			stringValue = stringValue.replace("{ladderName}", rank.getLadder().getName());
+			stringValue = stringValue.replace("{linkedMines}", sbMines.toString() );
+
+			lore.add( stringValue );
+		}
+
+		return new RankItemTemplate( fingerprint, rankName, materialType, lore );
+	}
+}
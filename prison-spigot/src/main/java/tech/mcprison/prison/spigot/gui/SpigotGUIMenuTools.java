@@ -343,7 +343,7 @@ public class SpigotGUIMenuTools
 	
 	
     
-    public boolean processGUIPage( Player p, String title, InventoryClickEvent e ) {
+    public boolean processGUIPage( Player p, InventoryClickEvent e ) {
     	boolean isPageAction = false;
     	
     	ItemStack currentItem = e.getCurrentItem();
@@ -9,6 +9,7 @@ import tech.mcprison.prison.spigot.gui.SpigotGUIMenuTools.GUIMenuPageData;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -33,7 +34,7 @@ public class SpigotPrisonGUI extends SpigotGUIComponents {
 
     	
 //        int dimension = 45;
-        PrisonGUI gui = new PrisonGUI(p, guiPageData.getDimension(), "&3PrisonManager");
+        PrisonGUI gui = new PrisonGUI(p, guiPageData.getDimension(), "&3PrisonManager", PrisonGUIType.prisonManager);
 
         // Create and add buttons.
         gui.addButton(new Button(10, XMaterial.TRIPWIRE_HOOK, new ButtonLore( guiLeftClickToOpenMsg(), messages.getString(MessagesConfig.StringID.spigot_gui_lore_ranks_button_description)), "&3Ranks - Ladders" ));
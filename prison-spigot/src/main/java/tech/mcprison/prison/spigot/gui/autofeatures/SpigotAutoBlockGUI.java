@@ -9,6 +9,7 @@ import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -26,7 +27,7 @@ public class SpigotAutoBlockGUI extends SpigotGUIComponents {
     public void open() {
 
         // Create the inventory and set up the owner, dimensions or number of slots, and title
-        PrisonGUI gui = new PrisonGUI(p, 36, "&3AutoFeatures -> AutoBlock");
+        PrisonGUI gui = new PrisonGUI(p, 36, "&3AutoFeatures -> AutoBlock", PrisonGUIType.autoBlock);
 
         // Lores
         ButtonLore enabledLore = new ButtonLore(
@@ -10,6 +10,7 @@ import tech.mcprison.prison.spigot.configs.MessagesConfig;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -40,7 +41,7 @@ public class SpigotAutoFeaturesGUI extends SpigotGUIComponents {
             ButtonLore enable = new ButtonLore(
             		guiRightClickToEnableMsg(), messages.getString(MessagesConfig.StringID.spigot_gui_lore_disabled));
 
-            gui = new PrisonGUI(p, dimension, "&3PrisonManager -> AutoFeatures");
+            gui = new PrisonGUI(p, dimension, "&3PrisonManager -> AutoFeatures", PrisonGUIType.autoFeatures);
             gui.addButton(new Button(dimension -1,XMaterial.RED_STAINED_GLASS_PANE, closeGUILore, "&cClose" ));
 
             if (afConfig.isFeatureBoolean(AutoFeatures.playSoundIfInventoryIsFull)) {
@@ -93,7 +94,7 @@ public class SpigotAutoFeaturesGUI extends SpigotGUIComponents {
 
         } else {
 
-            gui = new PrisonGUI(p, 9, "&3PrisonManager -> AutoFeatures");
+            gui = new PrisonGUI(p, 9, "&3PrisonManager -> AutoFeatures", PrisonGUIType.autoFeatures);
 
             ButtonLore lore = new ButtonLore(
             		guiRightClickToEnableMsg(), 
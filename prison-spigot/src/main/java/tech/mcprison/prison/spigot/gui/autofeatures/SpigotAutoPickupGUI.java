@@ -11,6 +11,7 @@ import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -28,7 +29,7 @@ public class SpigotAutoPickupGUI extends SpigotGUIComponents {
     public void open() {
 
         int dimension = 36;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3AutoFeatures -> AutoPickup");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3AutoFeatures -> AutoPickup", PrisonGUIType.autoPickup);
 
         ButtonLore enabledLore = new ButtonLore( guiRightClickShiftToDisableMsg(), null);
         ButtonLore disabledLore = new ButtonLore( guiRightClickToEnableMsg(), null);
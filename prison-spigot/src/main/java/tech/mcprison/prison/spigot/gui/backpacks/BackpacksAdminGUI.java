@@ -9,6 +9,7 @@ import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -31,7 +32,7 @@ public class BackpacksAdminGUI extends SpigotGUIComponents {
         }
 
         int dimension = 27;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Backpacks-Admin");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Backpacks-Admin", PrisonGUIType.backpacksAdmin);
 
         ButtonLore lore = new ButtonLore( guiLeftClickToOpenMsg(), null);
 
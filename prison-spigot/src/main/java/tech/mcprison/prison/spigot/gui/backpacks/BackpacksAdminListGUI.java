@@ -11,6 +11,7 @@ import tech.mcprison.prison.spigot.backpacks.BackpacksUtil;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.rank.SpigotGUIMessages;
 
 /**
@@ -35,7 +36,7 @@ public class BackpacksAdminListGUI
     public void open(){
 
         int dimension = 54;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Backpacks-Admin-List");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Backpacks-Admin-List", PrisonGUIType.backpacksAdminList);
 
         Set<String> playerUUID = backpacksData.getConfigurationSection("Inventories").getKeys(false);
 
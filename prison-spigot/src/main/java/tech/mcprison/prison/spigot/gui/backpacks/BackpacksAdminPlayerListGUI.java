@@ -10,6 +10,7 @@ import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 import java.util.Set;
@@ -30,7 +31,7 @@ public class BackpacksAdminPlayerListGUI extends SpigotGUIComponents {
     public void open(){
 
         int dimension = 54;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Backpacks-Admin-Players");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Backpacks-Admin-Players", PrisonGUIType.backpacksAdminPlayers);
 
         if (backpacksData.getConfigurationSection("Inventories") == null){
             Output.get().sendWarn(new SpigotPlayer(p), messages.getString(MessagesConfig.StringID.spigot_message_gui_backpack_empty));
@@ -6,11 +6,13 @@ import com.cryptomorin.xseries.XMaterial;
 
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.backpacks.BackpacksUtil;
+import tech.mcprison.prison.spigot.backpacks.SiloBackpacksUtil;
 import tech.mcprison.prison.spigot.configs.MessagesConfig;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -32,7 +34,7 @@ public class BackpacksListPlayerGUI extends SpigotGUIComponents {
         }
 
         int dimension = 54;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3" + p.getName() + " -> Backpacks");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3" + p.getName() + " -> Backpacks", PrisonGUIType.backpacksPlayerList);
 
         ButtonLore loreAddBackpackButton = new ButtonLore(createLore(messages.getString(MessagesConfig.StringID.spigot_gui_lore_click_to_add_backpack)), createLore(
                 messages.getString(MessagesConfig.StringID.spigot_gui_lore_add_backpack_instruction_1),
@@ -65,6 +67,11 @@ public class BackpacksListPlayerGUI extends SpigotGUIComponents {
             gui.addButton(new Button(49, XMaterial.EMERALD_BLOCK, loreAddBackpackButton, "&aNew Backpack"));
         }
 
+        if (SiloBackpacksUtil.isEnabled()) {
+            gui.addButton(new Button(47, XMaterial.HOPPER, 
+            		new ButtonLore(loreClickToOpen, "&3/backpack silo"), "&3Silos"));
+        }
+
         gui.addButton(new Button(dimension-1, XMaterial.RED_STAINED_GLASS_PANE, 
         		new ButtonLore( guiClickToCloseMsg(), null), "&cClose"));
 
@@ -7,6 +7,7 @@ import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.backpacks.BackpacksUtil;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 public class BackpacksPlayerGUI extends SpigotGUIComponents {
@@ -40,7 +41,7 @@ public class BackpacksPlayerGUI extends SpigotGUIComponents {
 //        Inventory inv = backpacksUtil.getBackpack(p, id);
 
         if (inv != null){
-            PrisonGUI gui = new PrisonGUI(p, inv.getSize(), "&3" + p.getName() + " -> Backpack-" + id);
+            PrisonGUI gui = new PrisonGUI(p, inv.getSize(), "&3" + p.getName() + " -> Backpack-" + id, PrisonGUIType.backpack);
 
             Output.get().sendInfo(sPlayer, "Backpack" + id + " open with success!");
 
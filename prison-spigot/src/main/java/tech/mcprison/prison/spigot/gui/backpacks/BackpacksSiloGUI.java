@@ -0,0 +1,114 @@
+package tech.mcprison.prison.spigot.gui.backpacks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.entity.Player;
+
+import com.cryptomorin.xseries.XMaterial;
+
+import tech.mcprison.prison.backpacks.BackpackCachePlayerData;
+import tech.mcprison.prison.backpacks.PlayerBackpack;
+import tech.mcprison.prison.backpacks.PlayerBackpackSiloData;
+import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.spigot.SpigotUtil;
+import tech.mcprison.prison.spigot.backpacks.SiloBackpacksUtil;
+import tech.mcprison.prison.spigot.game.SpigotPlayer;
+import tech.mcprison.prison.spigot.gui.SpigotGUIMenuTools;
+import tech.mcprison.prison.spigot.gui.SpigotGUIMenuTools.GUIMenuPageData;
+import tech.mcprison.prison.spigot.gui.guiutility.Button;
+import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
+import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
+
+/**
+ * <p>Shows the player's silos, with the number of items within each one.  A
+ * left click withdraws a stack of the silo's item, and a shift click withdraws
+ * as many as will fit within the player's inventory.
+ * </p>
+ */
+public class BackpacksSiloGUI extends SpigotGUIComponents {
+
+    private final Player p;
+
+    private int page = 0;
+    private String cmdPage;
+    private String cmdReturn;
+
+    public BackpacksSiloGUI(Player p, int page, String cmdPage, String cmdReturn) {
+        this.p = p;
+
+        this.page = page;
+        this.cmdPage = cmdPage;
+        this.cmdReturn = cmdReturn;
+    }
+
+    public void open(){
+
+        SiloBackpacksUtil siloUtil = SiloBackpacksUtil.get();
+        BackpackCachePlayerData playerData = siloUtil.getPlayerData(p);
+
+        if (playerData == null){
+            return;
+        }
+
+        // Copies of the silos, since they may be changed once the player's data is unlocked:
+        List<PlayerBackpackSiloData> silos = new ArrayList<>();
+        synchronized (playerData) {
+            PlayerBackpack backpack = siloUtil.getSiloBackpack(playerData);
+
+            for (PlayerBackpackSiloData silo : backpack.getSilos().values()) {
+                if (silo.getCount() > 0) {
+                    PlayerBackpackSiloData siloCopy = new PlayerBackpackSiloData(silo.getItemType());
+                    siloCopy.setCount(silo.getCount());
+
+                    silos.add(siloCopy);
+                }
+            }
+        }
+
+        if (silos.isEmpty()){
+            Output.get().sendInfo(new SpigotPlayer(p), "Your backpack's silos are empty.");
+            return;
+        }
+
+        GUIMenuPageData guiPageData = SpigotGUIMenuTools.getInstance()
+        		.createGUIPageObject( silos.size(), page, cmdPage, cmdReturn );
+
+        List<PlayerBackpackSiloData> silosDisplay = silos.subList( guiPageData.getPosStart(), guiPageData.getPosEnd() );
+
+        PrisonGUI gui = new PrisonGUI(p, guiPageData.getDimension(), "&3Backpack -> Silos", PrisonGUIType.backpackSilos);
+
+        for (PlayerBackpackSiloData silo : silosDisplay) {
+            gui.addButton(createSiloButton(null, silo.getItemType(), silo.getCount()));
+        }
+
+        // The controls for the standard menu are in positions: 4, 5, and 6:
+        SpigotGUIMenuTools.getInstance().addMenuPageButtonsStandard( gui, guiPageData );
+
+        gui.open();
+    }
+
+    /**
+     * <p>The button for a silo.  Its name is the silo's key, so the key can be
+     * found when the button is clicked.
+     * </p>
+     *
+     * @param position
+     * @param siloKey
+     * @param count
+     * @return
+     */
+    public static Button createSiloButton(Integer position, String siloKey, int count){
+        XMaterial xMat = SpigotUtil.getXMaterial(siloKey);
+
+        ButtonLore lore = new ButtonLore();
+        lore.addLineLoreAction("&aLeft-Click to withdraw a stack.");
+        lore.addLineLoreAction("&aShift-Click to withdraw all that fit.");
+        lore.setLoreDescription("&7Count: &3" + count);
+
+        return new Button(position, xMat == null || !xMat.isSupported() ? XMaterial.BARRIER : xMat,
+        		Math.max(1, Math.min(count, 64)), lore, "&3" + siloKey);
+    }
+}
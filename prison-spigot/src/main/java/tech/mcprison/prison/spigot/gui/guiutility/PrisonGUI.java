@@ -20,13 +20,27 @@ public class PrisonGUI extends SpigotGUIComponents{
     /**
      * Basic PrisonGUI empty.
      *
+     * The GUI type is found from the title, so this only works for the GUIs with fixed titles.
+     *
      * @param p - Player.
      * @param size - int.
      * @param title - String.
      * */
     public PrisonGUI(Player p, int size, String title){
+        this(p, size, title, PrisonGUIType.fromTitle(Text.stripColor(Text.translateAmpColorCodes(title))));
+    }
+
+    /**
+     * Basic PrisonGUI empty, with the GUI type that clicks will be routed by.
+     *
+     * @param p - Player.
+     * @param size - int.
+     * @param title - String.
+     * @param guiType - PrisonGUIType.
+     * */
+    public PrisonGUI(Player p, int size, String title, PrisonGUIType guiType){
         this.p = p;
-        this.inv = Bukkit.createInventory(null, size, Text.translateAmpColorCodes(title));
+        this.inv = createHolderInventory(guiType, size, title);
     }
 
     /**
@@ -58,6 +72,20 @@ public class PrisonGUI extends SpigotGUIComponents{
         this.inv = Bukkit.createInventory(owner, size, Text.translateAmpColorCodes(title));
     }
 
+    /**
+     * Create an inventory that is held by a PrisonGUIHolder, so clicks can be routed by the GUI type.
+     *
+     * @param guiType - PrisonGUIType.
+     * @param size - Integer multiple of 9, between 9 and 54.
+     * @param title - Inventory title.
+     * */
+    public static Inventory createHolderInventory(PrisonGUIType guiType, int size, String title){
+        PrisonGUIHolder holder = new PrisonGUIHolder(guiType);
+        Inventory inventory = Bukkit.createInventory(holder, size, Text.translateAmpColorCodes(title));
+        holder.setInventory(inventory);
+        return inventory;
+    }
+
     /**
      * Set permission to open the Inventory/GUI.
      * */
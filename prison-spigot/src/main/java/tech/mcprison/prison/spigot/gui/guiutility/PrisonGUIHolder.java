@@ -0,0 +1,57 @@
+package tech.mcprison.prison.spigot.gui.guiutility;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+/**
+ * <p>This is the holder for all of the inventories that prison's GUIs create.
+ * When a player clicks within a GUI, the holder identifies which GUI it is, so
+ * the click can be routed to its handler without comparing the inventory's
+ * title to all of the known titles.  It also prevents other plugins' inventories
+ * that happen to have the same title from being treated as prison's GUIs.
+ * </p>
+ *
+ */
+public class PrisonGUIHolder
+	implements InventoryHolder
+{
+	private final PrisonGUIType guiType;
+
+	private Inventory inventory;
+
+	public PrisonGUIHolder( PrisonGUIType guiType ) {
+		super();
+
+		this.guiType = guiType == null ? PrisonGUIType.unknown : guiType;
+	}
+
+	/**
+	 * <p>Returns the GUI type of the inventory, or null if the inventory was not
+	 * created by one of prison's GUIs.
+	 * </p>
+	 *
+	 * @param inventory
+	 * @return
+	 */
+	public static PrisonGUIType getGUIType( Inventory inventory ) {
+		PrisonGUIType results = null;
+
+		if ( inventory != null && inventory.getHolder() instanceof PrisonGUIHolder ) {
+			results = ((PrisonGUIHolder) inventory.getHolder()).getGuiType();
+		}
+
+		return results;
+	}
+
+	public PrisonGUIType getGuiType() {
+		return guiType;
+	}
+
+	@Override
+	public Inventory getInventory() {
+		return inventory;
+	}
+	public void setInventory( Inventory inventory ) {
+		this.inventory = inventory;
+	}
+}
@@ -0,0 +1,98 @@
+package tech.mcprison.prison.spigot.gui.guiutility;
+
+/**
+ * <p>Identifies each of prison's GUIs, so a click can be routed to the GUI's
+ * handler by the inventory's holder, instead of matching the inventory's title.
+ * The title is still kept for each type, without color codes, so inventories
+ * that were opened without a PrisonGUIHolder can still be identified.
+ * </p>
+ *
+ * <p>The player GUIs have titles that can be customized within the
+ * GuiConfig.yml file, so they do not have a fixed title.
+ * </p>
+ *
+ */
+public enum PrisonGUIType
+{
+	prisonManager( "PrisonManager" ),
+	prisonSetupConfirm( "Prison Setup -> Confirmation" ),
+
+	ladders( "RanksManager -> Ladders" ),
+	ranks( "Ladders -> Ranks" ),
+	rankManager( "Ranks -> RankManager" ),
+	rankUpCommands( "RankManager -> RankUPCommands" ),
+	rankPrice( "RankManager -> RankPrice" ),
+	prestigeConfirm( "Prestige -> Confirmation" ),
+
+	mines( "MinesManager -> Mines" ),
+	mineInfo( "Mines -> MineInfo" ),
+	mineDelete( "Mines -> Delete" ),
+	mineBlocks( "MineInfo -> Blocks" ),
+	mineBlocksList( "Mines -> BlocksList" ),
+	mineResetTime( "MineInfo -> ResetTime" ),
+	mineNotifications( "MineInfo -> MineNotifications" ),
+	mineBlockPercentage( "MineInfo -> BlockPercentage" ),
+	mineNotificationRadius( "MineNotifications -> Radius" ),
+	mineShowBlock( "Select -> ShowBlock" ),
+
+	autoFeatures( "PrisonManager -> AutoFeatures" ),
+	autoPickup( "AutoFeatures -> AutoPickup" ),
+	autoSmelt( "AutoFeatures -> AutoSmelt" ),
+	autoBlock( "AutoFeatures -> AutoBlock" ),
+
+	sellAllAdmin( "Prison -> SellAll-Admin" ),
+	sellAllBlocks( "SellAll -> Blocks" ),
+	sellAllAutoSell( "SellAll -> AutoSell" ),
+	sellAllItemValue( "SellAll -> ItemValue" ),
+	sellAllDelay( "SellAll -> Delay" ),
+	sellAllMultipliers( "SellAll -> Multipliers" ),
+	sellAllEditMultiplier( "Edit -> Multiplier" ),
+	sellAllPlayer( "Prison -> SellAll-Player" ),
+
+	backpacksAdmin( "Backpacks-Admin" ),
+	backpacksAdminPlayers( "Backpacks-Admin-Players" ),
+	backpacksAdminList( "Backpacks-Admin-List" ),
+	backpacksPlayerList( null ),
+	backpack( null ),
+	backpackSilos( "Backpack -> Silos" ),
+
+	playerRanks( null ),
+	playerPrestiges( null ),
+	playerMines( null ),
+
+	unknown( null );
+
+	private final String title;
+
+	private PrisonGUIType( String title ) {
+		this.title = title;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * <p>Finds the type of GUI that has the given title, which must not have
+	 * any color codes.  This only finds the GUIs that have a fixed title, so if
+	 * the title does not match, then this returns unknown.
+	 * </p>
+	 *
+	 * @param title
+	 * @return
+	 */
+	public static PrisonGUIType fromTitle( String title ) {
+		PrisonGUIType results = unknown;
+
+		if ( title != null ) {
+			for ( PrisonGUIType guiType : values() ) {
+				if ( guiType.getTitle() != null && guiType.getTitle().equals( title ) ) {
+					results = guiType;
+					break;
+				}
+			}
+		}
+
+		return results;
+	}
+}
@@ -25,6 +25,7 @@ import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.configs.MessagesConfig;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.ListenersPrisonManager;
+import tech.mcprison.prison.spigot.gui.SpigotGUIItemTemplates;
 import tech.mcprison.prison.spigot.sellall.SellAllUtil;
 import tech.mcprison.prison.util.Text;
 
@@ -224,6 +225,9 @@ public abstract class SpigotGUIComponents
     public static void updateGUIConfig(){
         File file = new File(SpigotPrison.getInstance().getDataFolder() + "/GuiConfig.yml");
         guiConfig = YamlConfiguration.loadConfiguration(file);
+
+        // The cached GUI items were built from the old config:
+        SpigotGUIItemTemplates.getInstance().invalidateAll();
     }
 
     /**
@@ -13,6 +13,7 @@ import tech.mcprison.prison.spigot.SpigotUtil;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.rank.SpigotGUIMessages;
 
 /**
@@ -38,7 +39,7 @@ public class SpigotBlocksListGUI
         int pageSize = 45;
         
         // Create the inventory
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Mines -> BlocksList");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Mines -> BlocksList", PrisonGUIType.mineBlocksList);
 
         ButtonLore lore = new ButtonLore(guiRanksLoreClickToStartBlockSetupMsg(), null);
 
@@ -9,6 +9,7 @@ import tech.mcprison.prison.spigot.SpigotUtil;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.rank.SpigotGUIMessages;
 
 /**
@@ -33,7 +34,7 @@ public class SpigotMineBlockPercentageGUI
 
     public void open() {
         int dimension = 45;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3MineInfo -> BlockPercentage");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3MineInfo -> BlockPercentage", PrisonGUIType.mineBlockPercentage);
 
         ButtonLore changeDecreaseValueLore = new ButtonLore( guiClickToDecreaseMsg(), null);
         
@@ -11,6 +11,7 @@ import tech.mcprison.prison.spigot.gui.SpigotGUIMenuTools.GUIMenuPageData;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.rank.SpigotGUIMessages;
 
 /**
@@ -37,7 +38,7 @@ public class SpigotMineInfoGUI
         		.createGUIPageObject( totalArraySize, 1, "gui admin mines", "gui admin mines" );
 
         
-        PrisonGUI gui = new PrisonGUI(p, guiPageData.getDimension(), "&3Mines -> MineInfo" );
+        PrisonGUI gui = new PrisonGUI(p, guiPageData.getDimension(), "&3Mines -> MineInfo" , PrisonGUIType.mineInfo);
 
         ButtonLore resetMineLore = new ButtonLore(createLore(
         		guiLeftClickToResetMsg(),
@@ -7,6 +7,7 @@ import com.cryptomorin.xseries.XMaterial;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.rank.SpigotGUIMessages;
 
 /**
@@ -31,7 +32,7 @@ public class SpigotMineNotificationRadiusGUI
 
         // Create GUI.
         int dimension = 45;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3MineNotifications -> Radius");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3MineNotifications -> Radius", PrisonGUIType.mineNotificationRadius);
 
         ButtonLore changeDecreaseValueLore = new ButtonLore( guiClickToDecreaseMsg(), null);
         
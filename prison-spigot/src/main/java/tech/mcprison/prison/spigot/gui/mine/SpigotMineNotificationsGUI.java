@@ -10,6 +10,7 @@ import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.rank.SpigotGUIMessages;
 
 /**
@@ -30,7 +31,7 @@ public class SpigotMineNotificationsGUI
 
         // Create GUI.
         int dimension = 27;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3MineInfo -> MineNotifications");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3MineInfo -> MineNotifications", PrisonGUIType.mineNotifications);
 
         // Init variables
         PrisonMines pMines = PrisonMines.getInstance();
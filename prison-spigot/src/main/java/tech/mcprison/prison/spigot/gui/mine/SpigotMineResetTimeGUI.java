@@ -7,6 +7,7 @@ import com.cryptomorin.xseries.XMaterial;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.rank.SpigotGUIMessages;
 
 /**
@@ -29,7 +30,7 @@ public class SpigotMineResetTimeGUI
 
         // Create GUI.
         int dimension = 45;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3MineInfo -> ResetTime");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3MineInfo -> ResetTime", PrisonGUIType.mineResetTime);
 
 
         ButtonLore changeDecreaseValueLore = new ButtonLore( guiClickToDecreaseMsg(), null);
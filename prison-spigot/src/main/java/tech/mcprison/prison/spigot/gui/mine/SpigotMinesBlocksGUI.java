@@ -11,6 +11,7 @@ import tech.mcprison.prison.spigot.SpigotUtil;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.rank.SpigotGUIMessages;
 
 /**
@@ -38,7 +39,7 @@ public class SpigotMinesBlocksGUI
     public void open(){
 
         int dimension = 54;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3MineInfo -> Blocks");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3MineInfo -> Blocks", PrisonGUIType.mineBlocks);
 
         // Get Mine
         Mine m = PrisonMines.getInstance().getMine(mineName);
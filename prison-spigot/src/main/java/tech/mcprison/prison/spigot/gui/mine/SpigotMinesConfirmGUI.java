@@ -7,6 +7,7 @@ import com.cryptomorin.xseries.XMaterial;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -26,7 +27,7 @@ public class SpigotMinesConfirmGUI extends SpigotGUIComponents {
 
         // Create GUI.
         int dimension = 9;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Mines -> Delete");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Mines -> Delete", PrisonGUIType.mineDelete);
 
         ButtonLore confirmLore = new ButtonLore( guiClickToConfirmMsg(), null);
         ButtonLore cancelLore = new ButtonLore( guiClickToCancelMsg(), null);
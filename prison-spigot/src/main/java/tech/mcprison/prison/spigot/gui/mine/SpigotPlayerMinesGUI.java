@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 
 import com.cryptomorin.xseries.XMaterial;
@@ -16,14 +17,16 @@ import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.data.PrisonSortableResults;
 import tech.mcprison.prison.mines.managers.MineManager.MineSortOrder;
 import tech.mcprison.prison.output.Output;
-import tech.mcprison.prison.spigot.SpigotUtil;
-import tech.mcprison.prison.spigot.configs.GuiConfig;
+import tech.mcprison.prison.placeholders.PlaceholderTextTemplate;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
+import tech.mcprison.prison.spigot.gui.SpigotGUIItemTemplates;
+import tech.mcprison.prison.spigot.gui.SpigotGUIItemTemplates.MineItemTemplate;
 import tech.mcprison.prison.spigot.gui.SpigotGUIMenuTools;
 import tech.mcprison.prison.spigot.gui.SpigotGUIMenuTools.GUIMenuPageData;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.rank.SpigotGUIMessages;
 import tech.mcprison.prison.spigot.nbt.PrisonNBTUtil;
 import tech.mcprison.prison.util.Text;
@@ -93,76 +96,28 @@ public class SpigotPlayerMinesGUI
 //            return;
 //        }
 
-        GuiConfig guiConfigClass = new GuiConfig();
-        guiConfig = guiConfigClass.getFileGuiConfig();
         String permission = Text.translateAmpColorCodes(permissionWarpPlugin);
 
         // Create GUI but use the gui title as defined within the ConfigGui.yml file:
-        PrisonGUI gui = new PrisonGUI(p, guiPageData.getDimension(), guiConfig.getString("Options.Titles.PlayerMinesGUI"));
+        PrisonGUI gui = new PrisonGUI(p, guiPageData.getDimension(), guiConfig.getString("Options.Titles.PlayerMinesGUI"), PrisonGUIType.playerMines);
 
         
-        String guiItemNameDefaultSetting = guiConfig.getString( "Options.Mines.GuiItemNameDefault" );
-
+        // The parts of each mine's item that are the same for all players are cached:
+        SpigotGUIItemTemplates templates = SpigotGUIItemTemplates.getInstance();
         
-        // Load the generic mine LORE that would be displayed first:
-        List<String> configCustomLore = guiConfig.getStringList("EditableLore.Mines");
+        DecimalFormat iFmt = Prison.get().getDecimalFormatInt();
         
-        String noMineAccessBlockType = guiConfig.getString( "Options.Mines.MaterialType.NoMineAccess" );
-        if ( noMineAccessBlockType == null ) {
-        	noMineAccessBlockType = XMaterial.REDSTONE_BLOCK.name();
-        }
-        else {
-        	// Validate that it is valid, otherwise use redstone_block:
-        	try {
-				XMaterial.matchXMaterial( noMineAccessBlockType ).orElse(null);
-			} 
-        	catch (Exception e) {
-				noMineAccessBlockType = XMaterial.REDSTONE_BLOCK.name();
-			}
-        }
-        	
-        // Make the buttons for every Mine with info
+        // Make the buttons for every Mine with info, but only for the mines on this page
         for (Mine m : minesDisplay) {
-//        	for (Mine m : mines.getSortedList()) {
-
-            String guiItemName = guiConfig.getString( "Options.Mines.GuiItemNames." + m.getName() );
 
+        	MineItemTemplate template = templates.getMineTemplate( m );
+        	
+        	String mineName = template.getDisplayName();
         	
             // Init the lore array with default values for ladders
             ButtonLore minesLore = new ButtonLore();
             
-
-            // If a mine has custom LORE, then try to load it:
-        	String mineLoreKey = "EditableLore.Mine." + m.getName();
-        	List<String> mineLore = new ArrayList<>( configCustomLore );
-        	List<String> mineLore2 = guiConfig.getStringList( mineLoreKey );
-        	mineLore.addAll( mineLore2 );
-
-
-            XMaterial xMat = XMaterial.matchXMaterial( noMineAccessBlockType ).orElse(null);
-//            XMaterial xMat = XMaterial.REDSTONE_BLOCK;
-            
-            // Bug: Cannot safely use Material due to variants prior to bukkit v1.13:
-//            Material material;
-            
-            String guiItemNameDefault = 
-            		(guiItemNameDefaultSetting == null || guiItemNameDefaultSetting.trim().length() == 0) ?
-            				m.getName() :
-            				guiItemNameDefaultSetting
-            						.replace( "{mineName}", m.getName() )
-            						.replace( "{mineTag}", m.getTag() );
-
-            // Get Mine Name. First use 'guiItemName' if not null, then try to use 'guiItemNameDefault'
-            // if not null, and then use the mine's tag, or if that's null, then use the name:
-            String mineName =
-            		guiItemName != null ? guiItemName :
-            			guiItemNameDefault != null ? guiItemNameDefault :
-            				m.getTag() != null ? m.getTag() :
-            					m.getName();
-
-//            // Add mineName lore for TP.
-//            minesLore.addLineLoreAction( "&3" + mineName );
-
+            XMaterial xMat;
             
             boolean hasMineAccess = m.hasMiningAccess(spigotPlayer);
             String permMineAccess = permission + m.getName();
@@ -189,46 +144,8 @@ public class SpigotPlayerMinesGUI
             	}
             	
             	
-            	// Default to COAL_ORE since the player has access to the mine:
-            	{
-            		xMat = XMaterial.COAL_ORE;
-
-            		String defaultMineAccessXmat = guiConfig.getString(
-            									"Options.Mines.MaterialType.HasMineAccess","COAL_ORE");
-            		try {
-						XMaterial xMatTemp = SpigotUtil.getXMaterial( defaultMineAccessXmat );
-						if ( xMatTemp != null ) {
-							xMat = xMatTemp;
-						}
-					} 
-            		catch (Exception e) {
-					}
-            	}
-            	// xMat = XMaterial.COAL_ORE;
-
-            	
-            	// The valid names to use for Options.Mines.MaterialType.<MaterialName> must be
-            	// based upon the XMaterial enumeration name, or supported past names.
-//            Material mineMaterial = null;
-            	String materialTypeStr = guiConfig.getString("Options.Mines.MaterialType." + m.getName());
-            	
-            	if ( materialTypeStr != null && materialTypeStr.trim().length() > 0 ) {
-            		
-            		XMaterial xMatTemp = SpigotUtil.getXMaterial( materialTypeStr );
-            		if ( xMatTemp == null ) {
-            			Output.get().logInfo( "Warning: A block was specified for mine '%s' but it was " +
-            					"unable to be mapped to a valid XMaterial type. Key = " +
-            					"[Options.Mines.MaterialType.%s] value = " +
-            					"[%s] Please use valid material names as found in the XMaterial " +
-            					"source on git hub: " +
-            					"https://github.com/CryptoMorin/XSeries/blob/master/src/main/java/" +
-            					"com/cryptomorin/xseries/XMaterial.java ",
-            					m.getName(), m.getName(), materialTypeStr );
-            		}
-            		else {
-            			xMat = xMatTemp;
-            		}
-            	}
+            	// Use the mine's block since the player has access to the mine:
+            	xMat = template.getAccessMaterial();
 
             	lockStatus = statusUnlockedMine;
             	
@@ -243,51 +160,34 @@ public class SpigotPlayerMinesGUI
 //                minesLore.addLineLoreDescription( statusLockedMine );
             }
 
-            // Get mine Tag, but make sure it is valid and the mine's name is not null:
-            String mineTag = mineName == null ? "-no mine name-" : mineName;
-            if ( m.getTag() != null && 
-            		!m.getTag().equalsIgnoreCase("null") && 
-            		!m.getTag().equalsIgnoreCase("none") ) {
-            	mineTag = m.getTag();
-            }
+            double volume = ( m.isVirtual() ? 0 : m.getBounds().getTotalBlockCount() );
+            double remaining = volume * m.getPercentRemainingBlockCount() / 100.0;
             
-            DecimalFormat iFmt = Prison.get().getDecimalFormatInt();
-            
-            for (String stringValue : mineLore) {
-            	
-            	double volume = ( m.isVirtual() ? 0 : m.getBounds().getTotalBlockCount() );
-            	double remaining = volume * m.getPercentRemainingBlockCount() / 100.0;
-            	
-            	String dimensions = ( m.isVirtual() ? "virtual" : m.getBounds().getDimensions() );
-            	
-            	stringValue = stringValue.replace( "{mineName}", mineName );
-            	stringValue = stringValue.replace( "{mineTag}", mineTag );
-            	stringValue = stringValue.replace( "{mineSize}", dimensions );
-            	stringValue = stringValue.replace( "{mineVolume}", iFmt.format( volume ));
-            	stringValue = stringValue.replace( "{mineRemaining}", iFmt.format( remaining ));
-            	stringValue = stringValue.replace( "{mineRemainingPercent}", iFmt.format( m.getPercentRemainingBlockCount() ));
+            for (String stringValue : template.getLore()) {
             	
-            	stringValue = stringValue.replace( "{clickToTeleport}", clickToTeleport );
-            	stringValue = stringValue.replace( "{lockStatus}", lockStatus );
-
-            	stringValue = stringValue.replace( "{playerCount}", iFmt.format( m.getPlayerCount()) );
-            	
-            	if ( m.getRank() == null ) {
-            		stringValue = stringValue.replace( "{linkedRank}", "Not linked" );
-            	}
-            	else {
-            		stringValue = stringValue.replace( "{linkedRank}", m.getRank().getTag() );
+            	if ( stringValue.indexOf( '{' ) >= 0 ) {
+            		
+            		stringValue = stringValue.replace( "{mineRemaining}", iFmt.format( remaining ));
+            		stringValue = stringValue.replace( "{mineRemainingPercent}", iFmt.format( m.getPercentRemainingBlockCount() ));
+            		
+            		stringValue = stringValue.replace( "{clickToTeleport}", clickToTeleport );
+            		stringValue = stringValue.replace( "{lockStatus}", lockStatus );
+            		
+            		stringValue = stringValue.replace( "{playerCount}", iFmt.format( m.getPlayerCount()) );
             	}
             	
-            	
 				minesLore.addLineLoreAction( stringValue );
 			}
             
             if ( placeholderAPINotNull ) {
             	
-            	List<String> lores = PlaceholderAPI.setPlaceholders(
-            			Bukkit.getOfflinePlayer( p.getUniqueId()), 
-        				minesLore.getLoreAction());
+            	// Only the lines with placeholders need to be passed to PlaceholderAPI:
+            	OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer( p.getUniqueId() );
+            	List<String> lores = new ArrayList<>();
+            	for ( String lore : minesLore.getLoreAction() ) {
+            		lores.add( PlaceholderTextTemplate.hasPlaceholders( lore ) ?
+            				PlaceholderAPI.setPlaceholders( offlinePlayer, lore ) : lore );
+            	}
             	
                 minesLore.setLoreAction( lores );
             }
@@ -9,6 +9,7 @@ import com.cryptomorin.xseries.XMaterial;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -28,7 +29,7 @@ public class SpigotConfirmPrestigeGUI extends SpigotGUIComponents {
     	
     	// Create the inventory
     	int dimension = 9;
-    	PrisonGUI gui = new PrisonGUI( player, dimension, "&3Prestige -> Confirmation");
+    	PrisonGUI gui = new PrisonGUI( player, dimension, "&3Prestige -> Confirmation", PrisonGUIType.prestigeConfirm);
     	
     	ButtonLore confirmLore = new ButtonLore(createLore(
     			guiClickToConfirmMsg()), lore );
@@ -15,6 +15,7 @@ import tech.mcprison.prison.spigot.gui.SpigotGUIMenuTools.GUIMenuPageData;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 
 /**
  * @author GABRYCA
@@ -71,7 +72,7 @@ public class SpigotLaddersGUI
 //        int dimension = 54;
 //        int pageSize = 45;
 
-        PrisonGUI gui = new PrisonGUI(p, guiPageData.getDimension(), "&3RanksManager -> Ladders");
+        PrisonGUI gui = new PrisonGUI(p, guiPageData.getDimension(), "&3RanksManager -> Ladders", PrisonGUIType.ladders);
 
         ButtonLore laddersLore = new ButtonLore(
         		guiLeftClickToOpenMsg(), 
@@ -30,6 +30,7 @@ import tech.mcprison.prison.spigot.gui.SpigotGUIMenuTools.GUIMenuPageData;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 
 /**
  * @author GABRYCA
@@ -144,7 +145,8 @@ public class SpigotPlayerPrestigesGUI
 //        int dimension = (int) (Math.ceil(ladder.getRanks().size() / 9D) * 9) + 9;
 
         PrisonGUI gui = new PrisonGUI(getPlayer(), guiPageData.getDimension(), 
-        				guiConfig.getString("Options.Titles.PlayerPrestigesGUI"));
+        				guiConfig.getString("Options.Titles.PlayerPrestigesGUI"), 
+        				PrisonGUIType.playerPrestiges);
 
         
         String guiItemNameDefaultSetting = guiConfig.getString( "Options.Ranks.GuiItemNameDefault" );
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.Server;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
@@ -15,9 +16,9 @@ import com.cryptomorin.xseries.XMaterial;
 import me.clip.placeholderapi.PlaceholderAPI;
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.modules.Module;
-import tech.mcprison.prison.modules.ModuleElement;
 import tech.mcprison.prison.modules.ModuleManager;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.placeholders.PlaceholderTextTemplate;
 import tech.mcprison.prison.placeholders.PlaceholdersUtil;
 import tech.mcprison.prison.ranks.PrisonRanks;
 import tech.mcprison.prison.ranks.data.PlayerRank;
@@ -28,13 +29,15 @@ import tech.mcprison.prison.ranks.managers.LadderManager;
 import tech.mcprison.prison.ranks.managers.PlayerManager;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
+import tech.mcprison.prison.spigot.gui.SpigotGUIItemTemplates;
+import tech.mcprison.prison.spigot.gui.SpigotGUIItemTemplates.RankItemTemplate;
 import tech.mcprison.prison.spigot.gui.SpigotGUIMenuTools;
 import tech.mcprison.prison.spigot.gui.SpigotGUIMenuTools.GUIMenuPageData;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.nbt.PrisonNBTUtil;
-import tech.mcprison.prison.util.Text;
 
 /**
  * @author GABRYCA
@@ -155,14 +158,10 @@ public class SpigotPlayerRanksGUI
         
 //        Rank playerRank = playerRankRank == null ? null : playerRankRank.getRank();
 
-        PrisonGUI gui = new PrisonGUI(getPlayer(), guiPageData.getDimension(), guiConfig.getString("Options.Titles.PlayerRanksGUI"));
+        PrisonGUI gui = new PrisonGUI(getPlayer(), guiPageData.getDimension(), guiConfig.getString("Options.Titles.PlayerRanksGUI"), PrisonGUIType.playerRanks);
 
         
         
-        String guiItemNameDefaultSetting = guiConfig.getString( "Options.Ranks.GuiItemNameDefault" );
-
-
-
         // Not sure how you want to represent this:
         String materialHasStr = guiConfig.getString("Options.Ranks.MaterialType.HasRankAccess", "TRIPWIRE_HOOK");
         XMaterial materialHas = XMaterial.matchXMaterial( materialHasStr ).orElse(null);
@@ -173,7 +172,8 @@ public class SpigotPlayerRanksGUI
         						).orElse(null);
 
         
-        List<String> configCustomLore = guiConfig.getStringList("EditableLore.Ranks");
+        // The parts of each rank's item that are the same for all players are cached:
+        SpigotGUIItemTemplates templates = SpigotGUIItemTemplates.getInstance();
 
         
         // Variables
@@ -197,45 +197,20 @@ public class SpigotPlayerRanksGUI
 		{
         	
             
-            String guiItemNameDefault = 
-            		(guiItemNameDefaultSetting == null || guiItemNameDefaultSetting.trim().length() == 0) ?
-            				rank.getName() :
-            				guiItemNameDefaultSetting
-            						.replace( "{rankName}", rank.getName() )
-            						.replace( "{rankTag}", rank.getTag() );
-            
-            String guiItemName = guiConfig.getString( "Options.Ranks.GuiItemNames." + rank.getName() );
-
-            // Get Rank Name. First use 'guiItemName' if not null, then try to use 'guiItemNameDefault'
-            // if not null, and then use the rank's tag, or if that's null, then use the name:
-            String rankName =
-            		guiItemName != null ? guiItemName :
-            			guiItemNameDefault != null ? guiItemNameDefault :
-            				rank.getTag() != null ? rank.getTag() :
-            					rank.getName();
+        	RankItemTemplate template = templates.getRankTemplate( ladderName, rank );
+        	
+            String rankName = template.getDisplayName();
     
             
             // hasAccess uses access by rank, and access by perm:
             boolean playerHasThisRank = getRankPlayer() != null && getRankPlayer().hasAccessToRank( rank );
             
            	
-        	// The valid names to use for Options.Ranks.MaterialType.<MaterialName> must be
-        	// based upon the XMaterial enumeration name, or supported past names.
-        	String materialTypeStr = guiConfig.getString("Options.Ranks.MaterialType." + rank.getName());
-        	XMaterial materialType =
-        			materialTypeStr == null ? null :
-        				XMaterial.matchXMaterial( materialTypeStr ).orElse(null);
-        	
-        	materialType = 
+        	XMaterial materialType = 
         			!playerHasThisRank ? materialHasNot : 
-        				materialType != null ? materialType :
+        				template.getMaterial() != null ? template.getMaterial() :
         					materialHas;
         	
-        	String rankLoreKey = "EditableLore.Rank." + ladderName + "." + rank.getName();
-        	List<String> rankLore = new ArrayList<>( configCustomLore );
-        	List<String> rankLore2 = guiConfig.getStringList( rankLoreKey );
-        	rankLore.addAll( rankLore2 );
-        	
             ButtonLore ranksLore = new ButtonLore();
 
             PlayerRank calPRank = rankPlayer.calculateTargetPlayerRank( rank );
@@ -244,47 +219,35 @@ public class SpigotPlayerRanksGUI
             double rankPrice = calPRank.getRankCost();
             double rankMultiplier = calPRank.getRankMultiplier();
 
-            StringBuilder sbMines = new StringBuilder();
-            if ( rank.getMines() != null && rank.getMines().size() > 0 ) {
-            	
-            	for (ModuleElement mine : rank.getMines() ) {
-            		if ( sbMines.length() > 0 ) {
-            			sbMines.append( " " );
-            		}
-            		sbMines.append( mine.getTag() );
-            	}
-            }
-            else {
-            	sbMines.append( "&3None" );
-            }
-
-            for ( String stringValue : rankLore ) {
+            String currency = (rank.getCurrency() == null || 
+            		"default".equalsIgnoreCase( rank.getCurrency()) ||
+            		rank.getCurrency().trim().length() == 0  ?
+            				"" : " " + rank.getCurrency() );
+            
+            String rankPriceFormatted = PlaceholdersUtil.formattedKmbtSISize(
+            				rankPrice, formatDecimal, "") + currency;
+            String rankMultiplierFormatted = mFmt.format( rankMultiplier );
+            
+            for ( String stringValue : template.getLore() ) {
                 
-            	String currency = (rank.getCurrency() == null || 
-        				"default".equalsIgnoreCase( rank.getCurrency()) ||
-							rank.getCurrency().trim().length() == 0  ?
-									"" : " " + rank.getCurrency() );
-            	
-                stringValue = stringValue.replace("{rankPrice}", 
-                		PlaceholdersUtil.formattedKmbtSISize(
-                				rankPrice, formatDecimal, "") + currency
-                		);
+            	if ( stringValue.indexOf( '{' ) >= 0 ) {
+            		
+            		stringValue = stringValue.replace("{rankPrice}", rankPriceFormatted);
+            		stringValue = stringValue.replace("{rankMultiplier}", rankMultiplierFormatted);
+            	}
             	
-                stringValue = stringValue.replace("{rankName}", rank.getName());
-                stringValue = stringValue.replace("{rankTag}", Text.translateAmpColorCodes(rank.getTag()));
-                stringValue = stringValue.replace("{rankMultiplier}", mFmt.format( rankMultiplier ));
-                stringValue = stringValue.replace("{ladderName}", rank.getLadder().getName());
-                
-                stringValue = stringValue.replace("{linkedMines}", sbMines.toString() );
-                
                 ranksLore.addLineLoreAction(stringValue);
             }
             
             if ( placeholderAPINotNull ) {
             	
-            	List<String> lores = PlaceholderAPI.setPlaceholders(
-            			Bukkit.getOfflinePlayer(player.getUniqueId()), 
-        				ranksLore.getLoreAction());
+            	// Only the lines with placeholders need to be passed to PlaceholderAPI:
+            	OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer( player.getUniqueId() );
+            	List<String> lores = new ArrayList<>();
+            	for ( String lore : ranksLore.getLoreAction() ) {
+            		lores.add( PlaceholderTextTemplate.hasPlaceholders( lore ) ?
+            				PlaceholderAPI.setPlaceholders( offlinePlayer, lore ) : lore );
+            	}
             	
                 ranksLore.setLoreAction( lores );
             }
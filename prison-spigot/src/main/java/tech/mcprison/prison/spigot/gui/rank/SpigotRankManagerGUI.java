@@ -17,6 +17,7 @@ import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 
 /**
  * @author GABRYCA
@@ -40,7 +41,7 @@ public class SpigotRankManagerGUI
         }
 
         int dimension = 27;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Ranks -> RankManager");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Ranks -> RankManager", PrisonGUIType.rankManager);
 
         ButtonLore rankupCommandsLore = new ButtonLore( guiLeftClickToOpenMsg(), null);
 
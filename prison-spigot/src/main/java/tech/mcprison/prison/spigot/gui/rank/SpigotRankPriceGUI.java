@@ -7,6 +7,7 @@ import com.cryptomorin.xseries.XMaterial;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -32,7 +33,7 @@ public class SpigotRankPriceGUI extends SpigotGUIComponents {
         }
 
         int dimension = 45;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3RankManager -> RankPrice");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3RankManager -> RankPrice", PrisonGUIType.rankPrice);
 
         ButtonLore changeDecreaseValueLore = new ButtonLore( guiClickToDecreaseMsg(), null);
 //        ButtonLore changeDecreaseValueLore = new ButtonLore(
@@ -9,6 +9,7 @@ import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 
 /**
  * @author GABRYCA
@@ -58,7 +59,7 @@ public class SpigotRankUPCommandsGUI
             return;
         }
 
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3RankManager -> RankUPCommands");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3RankManager -> RankUPCommands", PrisonGUIType.rankUpCommands);
 
         // For every command make a button
         for (String command : rank.getRankUpCommands()) {
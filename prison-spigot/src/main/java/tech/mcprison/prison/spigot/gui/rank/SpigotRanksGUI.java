@@ -17,6 +17,7 @@ import tech.mcprison.prison.spigot.gui.SpigotGUIMenuTools.GUIMenuPageData;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 
 /**
  * @author GABRYCA
@@ -70,7 +71,7 @@ public class SpigotRanksGUI
 //        int dimension = 54;
 //        int pageSize = 45;
 
-        PrisonGUI gui = new PrisonGUI(p, guiPageData.getDimension(), "&3Ladders -> Ranks");
+        PrisonGUI gui = new PrisonGUI(p, guiPageData.getDimension(), "&3Ladders -> Ranks", PrisonGUIType.ranks);
 
         // Global Strings.
         String loreShiftRightClickDelete = guiRightClickShiftToDeleteMsg();
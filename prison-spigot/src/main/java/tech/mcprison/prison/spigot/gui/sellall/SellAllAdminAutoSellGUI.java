@@ -7,6 +7,7 @@ import com.cryptomorin.xseries.XMaterial;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -25,7 +26,7 @@ public class SellAllAdminAutoSellGUI extends SpigotGUIComponents {
 
         updateSellAllConfig();
 
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3SellAll -> AutoSell");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3SellAll -> AutoSell", PrisonGUIType.sellAllAutoSell);
 
         ButtonLore closeGUILore = new ButtonLore( guiClickToCloseMsg(), null);
         ButtonLore perUserToggleableLore = new ButtonLore();
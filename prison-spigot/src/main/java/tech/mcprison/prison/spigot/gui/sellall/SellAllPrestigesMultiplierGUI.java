@@ -7,6 +7,7 @@ import com.cryptomorin.xseries.XMaterial;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -27,7 +28,7 @@ public class SellAllPrestigesMultiplierGUI extends SpigotGUIComponents {
         updateSellAllConfig();
 
         int dimension = 45;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3SellAll -> Multipliers");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3SellAll -> Multipliers", PrisonGUIType.sellAllMultipliers);
 
         // Page elements.
         int pageSize = 45;
@@ -7,6 +7,7 @@ import com.cryptomorin.xseries.XMaterial;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -29,7 +30,7 @@ public class SellAllPrestigesSetMultiplierGUI extends SpigotGUIComponents {
         updateSellAllConfig();
 
         int dimension = 45;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Edit -> Multiplier");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3Edit -> Multiplier", PrisonGUIType.sellAllEditMultiplier);
 
         ButtonLore changeDecreaseValueLore = new ButtonLore( guiClickToDecreaseMsg(), null);
 //        ButtonLore changeDecreaseValueLore = new ButtonLore(
@@ -7,6 +7,7 @@ import com.cryptomorin.xseries.XMaterial;
 import tech.mcprison.prison.spigot.gui.guiutility.Button;
 import tech.mcprison.prison.spigot.gui.guiutility.ButtonLore;
 import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUI;
+import tech.mcprison.prison.spigot.gui.guiutility.PrisonGUIType;
 import tech.mcprison.prison.spigot.gui.guiutility.SpigotGUIComponents;
 
 /**
@@ -30,7 +31,7 @@ public class SellAllPriceGUI
         updateSellAllConfig();
 
         int dimension = 45;
-        PrisonGUI gui = new PrisonGUI(p, dimension, "&3SellAll -> ItemValue");
+        PrisonGUI gui = new PrisonGUI(p, dimension, "&3SellAll -> ItemValue", PrisonGUIType.sellAllItemValue);
 
         ButtonLore changeDecreaseValueLore = new ButtonLore( guiClickToDecreaseMsg(), null);
 //        ButtonLore changeDecreaseValueLore = new ButtonLore(
@@ -6,8 +6,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
@@ -20,6 +18,7 @@ import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
 import tech.mcprison.prison.placeholders.PlaceholderManagerUtils;
 import tech.mcprison.prison.placeholders.PlaceholderStatsData;
+import tech.mcprison.prison.placeholders.PlaceholderTextTemplate;
 import tech.mcprison.prison.placeholders.Placeholders;
 import tech.mcprison.prison.placeholders.PlaceholdersStats;
 import tech.mcprison.prison.ranks.PrisonRanks;
@@ -27,6 +26,8 @@ import tech.mcprison.prison.ranks.managers.PlayerManager;
 import tech.mcprison.prison.ranks.managers.RankManager;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
+import tech.mcprison.prison.util.PrisonTickStats;
+import tech.mcprison.prison.util.PrisonTickStats.TickSubsystem;
 
 public class SpigotPlaceholders
 	implements Placeholders {
@@ -36,16 +37,9 @@ public class SpigotPlaceholders
 	private RankManager rm = null;
 	
 
-	// NOTE: These patterns are from: 
+	// NOTE: The placeholder patterns are now within PlaceholderTextTemplate and are from: 
 	// https://github.com/PlaceholderAPI/PlaceholderAPI/blob/master/src/main/java/me/clip/placeholderapi/PlaceholderAPI.java
 	
-	// We want to include the placeholder escape characters in group 1:
-	private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("([%]([^%]+)[%])");
-	private static final Pattern BRACKET_PLACEHOLDER_PATTERN = Pattern.compile("([{]([^{}]+)[}])");
-
-//	private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("[%]([^%]+)[%]");
-//	private static final Pattern BRACKET_PLACEHOLDER_PATTERN = Pattern.compile("[{]([^{}]+)[}]");
-	  
 	
 	public SpigotPlaceholders() {
 		super();
@@ -275,6 +269,8 @@ public class SpigotPlaceholders
 
     	long nanoEnd = System.nanoTime();
     	
+    	PrisonTickStats.recordNanos( TickSubsystem.placeholders, nanoEnd - nanoStart );
+    	
     	// Save the stats to the placeholderCache, and store the placeholderKey if not already
     	// stored in the cache.
     	PlaceholdersStats.getInstance().setStats( identifier, stats, nanoStart, nanoEnd );
@@ -432,44 +428,48 @@ public class SpigotPlaceholders
      */
     @Override
 	public String placeholderTranslateText(UUID playerUuid, String playerName, String rawText) {
-    	String results = rawText;
-
-		// First check for % % placeholders:
-
-		final Matcher matcher = PLACEHOLDER_PATTERN.matcher(results);
-
-		results = replaceAllPlaceholders( playerUuid, playerName, results, matcher );
-
-		final Matcher matcher2 = BRACKET_PLACEHOLDER_PATTERN.matcher(results);
-		
-		results = replaceAllPlaceholders( playerUuid, playerName, results, matcher2 );
-		
-		return results;
+    	
+    	// The text is only parsed the first time it is used, then the template is 
+    	// reused so only the placeholders need to be translated:
+    	PlaceholderTextTemplate template = PlaceholderTextTemplate.getTemplate( rawText );
+    	
+    	if ( !template.hasPlaceholders() ) {
+    		return rawText;
+    	}
+    	
+    	return template.render( 
+    			placeholderText -> translatePlaceholder( playerUuid, playerName, placeholderText ) );
 	}
 
 
-	private String replaceAllPlaceholders(UUID playerUuid, String playerName, String rawText, final Matcher matcher) {
-		String results = rawText;
+	/**
+	 * <p>Translates one placeholder, which includes its escape characters.  If it is
+	 * not a prison placeholder, then this returns null so it will be left in the text.
+	 * </p>
+	 * 
+	 * @param playerUuid
+	 * @param playerName
+	 * @param placeholderText
+	 * @return
+	 */
+	private String translatePlaceholder( UUID playerUuid, String playerName, String placeholderText ) {
+		String results = null;
 		
-		while (matcher.find()) {
-			final String placeholderText = matcher.group(1);
-
-			PlaceholderIdentifier identifier = new PlaceholderIdentifier( placeholderText );
-			identifier.setPlayer(playerUuid, playerName);
+		PlaceholderIdentifier identifier = new PlaceholderIdentifier( placeholderText );
+		identifier.setPlayer(playerUuid, playerName);
+		
+		String replacementText = processPlaceholderIdentifier(identifier);
+		if ( identifier.isFoundAMatch() ) {
 			
-			String replacementText = processPlaceholderIdentifier(identifier);
-			if ( identifier.isFoundAMatch() ) {
-				
-				if ( identifier.getPlayer() != null &&
-						identifier.getPlayer() instanceof SpigotPlayer &&
-						ignorePlayerInDisabledWorlds( (SpigotPlayer) identifier.getPlayer() )) {
-					replacementText = "";
-				}
-				
-				results = results.replace( placeholderText, replacementText );
+			if ( identifier.getPlayer() != null &&
+					identifier.getPlayer() instanceof SpigotPlayer &&
+					ignorePlayerInDisabledWorlds( (SpigotPlayer) identifier.getPlayer() )) {
+				replacementText = "";
 			}
 			
+			results = replacementText;
 		}
+		
 		return results;
 	}
 
@@ -24,6 +24,10 @@ import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
 import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
 import tech.mcprison.prison.autofeatures.AutoFeaturesWrapper;
+import tech.mcprison.prison.backpacks.BackpackCache;
+import tech.mcprison.prison.backpacks.BackpackCachePlayerData;
+import tech.mcprison.prison.backpacks.PlayerBackpack;
+import tech.mcprison.prison.backpacks.PlayerBackpackSiloData;
 import tech.mcprison.prison.integration.EconomyCurrencyIntegration;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.output.Output;
@@ -35,6 +39,7 @@ import tech.mcprison.prison.ranks.data.RankPlayer;
 import tech.mcprison.prison.sellall.events.PrePlayerSellAllEvent;
 import tech.mcprison.prison.sellall.messages.SpigotVariousGuiMessages;
 import tech.mcprison.prison.spigot.SpigotPrison;
+import tech.mcprison.prison.spigot.backpacks.SiloBackpacksUtil;
 import tech.mcprison.prison.spigot.block.SpigotItemStack;
 //import tech.mcprison.prison.spigot.configs.MessagesConfig;
 import tech.mcprison.prison.spigot.game.SpigotCommandSender;
@@ -42,6 +47,7 @@ import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.sellall.SellAllAdminGUI;
 import tech.mcprison.prison.spigot.gui.sellall.SellAllPlayerGUI;
 import tech.mcprison.prison.spigot.inventory.SpigotPlayerInventory;
+import tech.mcprison.prison.util.PrisonCooldownTracker;
 import tech.mcprison.prison.util.Text;
 
 /**
@@ -64,7 +70,7 @@ public class SellAllUtil
     private HashMap<Player, Double> autoSellEarningsNotificationWaiting = new HashMap<>();
     private ArrayList<XMaterial> sellAllItemTriggers;
     
-    private ArrayList<Player> activePlayerDelay = new ArrayList<>();
+    private static final PrisonCooldownTracker activePlayerDelay = new PrisonCooldownTracker("sellAllDelay");
 //    private List<String> sellAllDisabledWorlds;
 //    private MessagesConfig messages;
     private double defaultMultiplier;
@@ -683,6 +689,8 @@ public class SellAllUtil
     	SpigotPlayerInventory spInventory = sPlayer.getSpigotPlayerInventory();
 
     	List<SellAllData> soldItems = valueOfInventoryItems( spInventory, multiplier );
+    	soldItems.addAll( sellSiloBackpackItems( sPlayer.getWrapper(), multiplier, false ) );
+    	
     	for (SellAllData soldItem : soldItems) {
 			value += soldItem.getTransactionAmount();
 		}
@@ -697,6 +705,7 @@ public class SellAllUtil
     	SpigotPlayerInventory spInventory = sPlayer.getSpigotPlayerInventory();
     	
     	List<SellAllData> soldItems = valueOfInventoryItems( spInventory, multiplier );
+    	soldItems.addAll( sellSiloBackpackItems( sPlayer.getWrapper(), multiplier, false ) );
     	
     	String report = SellAllData.itemsSoldReport(soldItems, sPlayer, multiplier);
     	
@@ -710,6 +719,7 @@ public class SellAllUtil
     	SpigotPlayerInventory spInventory = sPlayer.getSpigotPlayerInventory();
     	
     	List<SellAllData> soldItems = valueOfInventoryItems( spInventory, multiplier );
+    	soldItems.addAll( sellSiloBackpackItems( sPlayer.getWrapper(), multiplier, false ) );
     	
     	return soldItems;
     }
@@ -781,7 +791,11 @@ public class SellAllUtil
             return new ArrayList<>();
         }
 
-        return sellInventoryItems( spInventory, multiplier );
+        List<SellAllData> soldItems = sellInventoryItems( spInventory, multiplier );
+        
+        soldItems.addAll( sellSiloBackpackItems( p, multiplier, true ) );
+        
+        return soldItems;
     }
 
     /**
@@ -872,6 +886,60 @@ public class SellAllUtil
 		return soldItems;
     }
     
+    /**
+     * <p>This sells, or just values, the items within the player's silo backpack.  
+     * Since a silo is only a count of one kind of item, this only needs one 
+     * lookup of the sale price for each kind of item in the backpack.
+     * </p>
+     * 
+     * @param p
+     * @param multiplier
+     * @param removeSold If true, the sold items are removed from the silos.
+     * @return
+     */
+    private List<SellAllData> sellSiloBackpackItems( Player p, double multiplier, boolean removeSold ) {
+    	List<SellAllData> soldItems = new ArrayList<>();
+    	
+    	if ( p != null && isSellAllBackpackItemsEnabled && SiloBackpacksUtil.isEnabled() ) {
+    		
+    		SiloBackpacksUtil siloUtil = SiloBackpacksUtil.get();
+    		BackpackCachePlayerData playerData = siloUtil.getPlayerData( p );
+    		
+    		if ( playerData != null ) {
+    			
+    			synchronized ( playerData ) {
+    				
+    				PlayerBackpack backpack = siloUtil.getSiloBackpack( playerData );
+    				
+    				for ( PlayerBackpackSiloData silo : new ArrayList<>( backpack.getSilos().values() ) ) {
+    					
+    					PrisonBlock pBlockSellAll = sellAllItems.get( silo.getItemType() );
+    					int count = silo.getCount();
+    					
+    					if ( pBlockSellAll != null && count > 0 ) {
+    						
+    						double amount = count * pBlockSellAll.getSalePrice() * multiplier;
+    						SellAllData sad = new SellAllData( pBlockSellAll, count, amount );
+    						
+    						if ( removeSold ) {
+    							sad.setItemsSold( true );
+    							backpack.removeSiloItems( silo.getItemType(), count );
+    						}
+    						
+    						soldItems.add( sad );
+    					}
+    				}
+    			}
+    			
+    			if ( removeSold && soldItems.size() > 0 ) {
+    				BackpackCache.getInstance().markDirty( playerData );
+    			}
+    		}
+    	}
+    	
+    	return soldItems;
+    }
+    
     private List<SellAllData> valueOfInventoryItems( 
     		tech.mcprison.prison.internal.inventory.Inventory inventory, double multiplier ) {
     	List<SellAllData> soldItems = new ArrayList<>();
@@ -1213,7 +1281,7 @@ public class SellAllUtil
      * @return boolean.
      * */
     public boolean isPlayerWaitingSellAllDelay(Player p){
-        return activePlayerDelay.contains(p);
+        return activePlayerDelay.isActive(p.getUniqueId().toString());
     }
 
     /**
@@ -1593,17 +1661,12 @@ public class SellAllUtil
 
     /**
      * Add Player to active delay.
-     * He'll be removed at the end of it.
-     * Also start delay.
+     * The delay is stored as the time it expires, so it does not need a task to remove it.
      *
      * @param p - Player.
      * */
     public void addToDelay(Player p){
-        if (!isPlayerWaitingSellAllDelay(p)){
-            activePlayerDelay.add(p);
-            Bukkit.getScheduler().scheduleSyncDelayedTask(
-            			SpigotPrison.getInstance(), () -> removeFromDelay(p), 20L * defaultSellAllDelay);
-        }
+        activePlayerDelay.tryStartSeconds(p.getUniqueId().toString(), defaultSellAllDelay);
     }
 
     /**
@@ -2268,7 +2331,7 @@ public class SellAllUtil
      * @param p - Player.
      * */
     public void removeFromDelay(Player p){
-        activePlayerDelay.remove(p);
+        activePlayerDelay.remove(p.getUniqueId().toString());
     }
 
     /**
@@ -995,7 +995,7 @@ public class PrisonUtilsMineBombs
 						
 						// Submit the bomb's task to go off:
 						
-						setoffBombDelayed( sPlayer, bomb, bombBlock );
+						setoffBombDelayed( sPlayer, bomb, bombBlock, mine );
 						
 						
 						
@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.TreeMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Effect;
@@ -24,24 +23,29 @@ import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.bombs.MineBombData;
 import tech.mcprison.prison.bombs.MineBombEffectsData;
 import tech.mcprison.prison.bombs.MineBombEffectsData.EffectState;
-import tech.mcprison.prison.bombs.MineBombs;
-import tech.mcprison.prison.bombs.MineBombs.ExplosionOrientation;
-import tech.mcprison.prison.bombs.MineBombs.ExplosionShape;
+import tech.mcprison.prison.bombs.MineBombShape;
+import tech.mcprison.prison.bombs.MineBombShape.ShapeBlockVisitor;
+import tech.mcprison.prison.internal.block.MineTargetBlockKey;
+import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
+import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.api.ExplosiveBlockBreakEvent;
 import tech.mcprison.prison.spigot.block.SpigotBlock;
 import tech.mcprison.prison.spigot.block.SpigotItemStack;
+import tech.mcprison.prison.spigot.compat.SpigotCompatibility;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.game.SpigotWorld;
 import tech.mcprison.prison.spigot.spiget.BluesSpigetSemVerComparator;
+import tech.mcprison.prison.util.Bounds;
 import tech.mcprison.prison.util.Location;
+import tech.mcprison.prison.util.PrisonCooldownTracker;
 import tech.mcprison.prison.util.Text;
 
 public class PrisonUtilsMineBombsTasks
 	extends PrisonUtils
 {
-	public static final Map<String, Integer> playerCooldowns = new TreeMap<>();
+	public static final PrisonCooldownTracker playerCooldowns = new PrisonCooldownTracker( "mineBombs" );
 	
 
 	public PrisonUtilsMineBombsTasks() {
@@ -98,59 +102,30 @@ public class PrisonUtilsMineBombsTasks
 	 * cooldown already exists, then this will return a value of false.
 	 * </p>
 	 * 
+	 * <p>The cooldown is stored as the time it expires, so there is no task
+	 * that counts it down.
+	 * </p>
+	 * 
 	 * @param playerUUID
 	 * @param ticks
 	 * @return
 	 */
 	public boolean addPlayerCooldown( String playerUUID, int ticks )
 	{
-		boolean results = false;
-
-		if ( !playerCooldowns.containsKey( playerUUID ) || playerCooldowns.get( playerUUID ) <= 0 )
-		{
-
-			playerCooldowns.put( playerUUID, ticks );
-
-			new BukkitRunnable()
-			{
-
-				@Override
-				public void run()
-				{
-					
-					Integer cooldownTicks = playerCooldowns.get( playerUUID );
-
-					int ticksRemaining = cooldownTicks == null ? 0 : cooldownTicks - 10;
-
-					if ( ticksRemaining <= 0 )
-					{
-						playerCooldowns.remove( playerUUID );
-						this.cancel();
-					}
-					else
-					{
-						playerCooldowns.put( playerUUID, ticksRemaining );
-					}
-
-				}
-			}.runTaskTimer( SpigotPrison.getInstance(), 10, 10 );
-
-			results = true;
-		}
-
-		return results;
+		return playerCooldowns.tryStartTicks( playerUUID, ticks );
 	}
 
+	/**
+	 * <p>Returns the number of ticks remaining on the player's cooldown, or
+	 * zero if it has expired.
+	 * </p>
+	 * 
+	 * @param playerUUID
+	 * @return
+	 */
 	public static int checkPlayerCooldown( String playerUUID )
 	{
-		int results = 0;
-
-		if ( playerCooldowns.containsKey( playerUUID ) )
-		{
-			results = playerCooldowns.get( playerUUID );
-		}
-
-		return results;
+		return playerCooldowns.getRemainingTicks( playerUUID );
 	}
 
 	
@@ -239,8 +214,19 @@ public class PrisonUtilsMineBombsTasks
 		
 	}
 	
+	/**
+	 * <p>Sets off the bomb after its fuse delay.  The explosion is clipped to the 
+	 * mine's bounds, so if the mine is null, then the explosion is not clipped.
+	 * </p>
+	 * 
+	 * @param sPlayer
+	 * @param bomb
+	 * @param targetBlock
+	 * @param mine The mine that the bomb was placed in.
+	 * @return
+	 */
 	public boolean setoffBombDelayed( SpigotPlayer sPlayer, MineBombData bomb, // Item droppedBomb, 
-						SpigotBlock targetBlock ) {
+						SpigotBlock targetBlock, Mine mine ) {
 		boolean results = false;
 		
 		final Location location = ( targetBlock.getLocation() == null ? 
@@ -259,9 +245,8 @@ public class PrisonUtilsMineBombsTasks
 				
 				submitBombEffects( bomb, EffectState.explode, location );
 				
-				MineBombs mBombs = MineBombs.getInstance();
 				
-				List<org.bukkit.block.Block> blocks = calculatBlocksForExplosion( bomb, location, mBombs );
+				List<org.bukkit.block.Block> blocks = calculatBlocksForExplosion( bomb, location, mine );
 				
 				
 //				SpigotBlock targetBlock = (SpigotBlock) world.getBlockAt( location );
@@ -329,111 +314,82 @@ public class PrisonUtilsMineBombsTasks
 				
 			}
 
+			/**
+			 * <p>This finds the blocks that the explosion will break.  The explosion's 
+			 * shape is first clipped to the mine's bounds, then the blocks that the mine
+			 * already knows were mined, or were set to air, are skipped.  The world is 
+			 * only read for the blocks that are left, so the cost follows the number of 
+			 * blocks that will be broken, and not the size of the explosion.
+			 * </p>
+			 * 
+			 * <p>All of the blocks are returned together, so they will be processed as 
+			 * one explosion event.
+			 * </p>
+			 */
 			private List<org.bukkit.block.Block> calculatBlocksForExplosion( MineBombData bomb, Location location,
-					MineBombs mBombs )
+						Mine mine )
 			{
 				List<org.bukkit.block.Block> blocks = new ArrayList<>();
 				
-				// Calculate all the locations that are included in the explosion:
-				List<Location> blockLocations = null;
-
-				
-				ExplosionShape shape = ExplosionShape.fromString( bomb.getExplosionShape() );
-				
-				switch ( shape )
-				{
-					case cube:
-						{
-							blockLocations = mBombs.calculateCube( location, 
-									bomb.getRadius() );
-							break;
-						}
-					
-					case ring_x:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner(),
-								ExplosionOrientation.x_axis );
-						break;
-					}
-					case ring_y:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner(),
-								ExplosionOrientation.y_axis );
-						break;
-					}
-					case ring_z:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner(),
-								ExplosionOrientation.z_axis );
-						break;
-					}
-
-					
-					case disk_x:
-						{
-							blockLocations = mBombs.calculateSphere( location, 
-									bomb.getRadius(), false, 0,
-									ExplosionOrientation.x_axis );
-							break;
-						}
-					case disk_y:
-						{
-							blockLocations = mBombs.calculateSphere( location, 
-									bomb.getRadius(), false, 0,
-									ExplosionOrientation.y_axis );
-							break;
-						}
-					case disk_z:
-						{
-							blockLocations = mBombs.calculateSphere( location, 
-									bomb.getRadius(), false, 0,
-									ExplosionOrientation.z_axis );
-							break;
-						}
-						
-						
-					
-					case sphereHollow:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner() );
-						break;
-					}
-					
-					case sphere:
-					default:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), false );
-						break;
-					}
-				}
-
+				// The shape of the explosion was calculated when the bombs were loaded,
+				// so it only needs to be moved to where the bomb exploded:
+				MineBombShape shapeTemplate = bomb.getShapeTemplate();
 				
-				SpigotWorld world = (SpigotWorld) location.getWorld();
+				tech.mcprison.prison.internal.World pWorld = location.getWorld();
+				org.bukkit.World world = ((SpigotWorld) pWorld).getWrapper();
 
 				
 				// Honor the percent chance for including the block:
 				double removalChance = bomb.getRemovalChance();
 				Random random = new Random();
 				
+				// The mine's target blocks identify which blocks have already been mined:
+				Map<MineTargetBlockKey, MineTargetPrisonBlock> targetBlocks = 
+						mine == null || mine.isVirtual() ? null : mine.getMineTargetPrisonBlocksMap();
 				
-				// Convert to spigot blocks:
-				for ( Location bLocation : blockLocations ) {
+				ShapeBlockVisitor visitor = (x, y, z) -> {
 					double chance = random.nextDouble() * 100.0d;
 					
 					if ( chance <= removalChance ) {
 						
-						SpigotBlock sBlock = (SpigotBlock) world.getBlockAt( bLocation );
-						if ( !sBlock.isEmpty() ) {
+						if ( targetBlocks != null && targetBlocks.size() > 0 ) {
+							MineTargetPrisonBlock mineTarget = 
+									targetBlocks.get( new MineTargetBlockKey( pWorld, x, y, z ) );
 							
-							blocks.add( sBlock.getWrapper() );
+							// Skip the blocks that are known to be air without reading the world:
+							if ( mineTarget != null && 
+									( mineTarget.isAirBroke() || mineTarget.isMined() ) ) {
+								return;
+							}
+						}
+						
+						org.bukkit.block.Block block = world.getBlockAt( x, y, z );
+						if ( !block.isEmpty() ) {
+							
+							blocks.add( block );
 						}
 					}
+				};
+				
+				// Never go below the bottom of the world:
+				int worldMinY = SpigotCompatibility.getInstance().getMinY();
+				
+				if ( mine != null && !mine.isVirtual() && mine.getBounds().withinSameWorld( location ) ) {
+					Bounds bounds = mine.getBounds();
+					
+					shapeTemplate.forEachBlockWithin( 
+							location.getBlockX(), location.getBlockY(), location.getBlockZ(),
+							bounds.getxBlockMin(), bounds.getyBlockMin(), bounds.getzBlockMin(),
+							bounds.getxBlockMax(), bounds.getyBlockMax(), bounds.getzBlockMax(),
+							worldMinY, visitor );
 				}
+				else {
+					
+					shapeTemplate.forEachBlock( 
+							location.getBlockX(), location.getBlockY(), location.getBlockZ(), 
+							worldMinY, visitor );
+				}
+				
 				return blocks;
 			}
 		}.runTaskLater( SpigotPrison.getInstance(), bomb.getFuseDelayTicks() );
@@ -2,61 +2,357 @@ package tech.mcprison.prison.spigot.utils.tasks;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.eventbus.Subscribe;
 
 import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.integration.EconomyBalanceListener;
+import tech.mcprison.prison.integration.EconomyFacade;
+import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.internal.events.player.PlayerQuitEvent;
+import tech.mcprison.prison.ranks.PrisonRanks;
 import tech.mcprison.prison.ranks.data.PlayerRank;
+import tech.mcprison.prison.ranks.data.Rank;
 import tech.mcprison.prison.ranks.data.RankPlayer;
+import tech.mcprison.prison.ranks.events.RankUpEvent;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.utils.tasks.PrisonUtilsTaskTypes.PrisonUtilsTaskTypRunCommand;
+import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
+
+/**
+ * <p>If the config.yml settings 'prison-mines.forced-auto-rankups' is enabled,
+ * then this will rankup the players as soon as they have enough money.  This
+ * will perform all rankups; `/rankup` and `/prestige`.  The prestige is
+ * actually just `/rankup prestiges [playerName]`.
+ * </p>
+ *
+ * <p>This is driven by the EconomyFacade, which notifies this class whenever a
+ * player's balance increases, such as when blocks are sold with autosell or
+ * sellall.  Each player has a cached threshold, which is the cost of their next
+ * rank, so most notifications only compare two numbers.  The threshold is
+ * calculated on the server's thread, and is cleared when the player ranks up.
+ * </p>
+ *
+ * <p>Each player can only have one rankup pending at a time, so a player that
+ * is mining quickly will not submit a rankup command for every block.  If the
+ * player can afford more than one rank on the same ladder, then `/rankupmax`
+ * is used so they are all processed by one command.
+ * </p>
+ *
+ */
+public class PlayerAutoRankupTask
+	implements EconomyBalanceListener
+{
+	/**
+	 * <p>The cached thresholds are recalculated when they are older than this,
+	 * so changes to the rank costs will be picked up.
+	 * </p>
+	 */
+	public static final long THRESHOLD_MAX_AGE_MS = 60000;
+
+	/**
+	 * <p>If the player did not rankup within this time after a rankup was
+	 * submitted, such as if the rankup failed, then another rankup can be
+	 * submitted.
+	 * </p>
+	 */
+	public static final long PENDING_TIMEOUT_MS = 5000;
+
+	private static PlayerAutoRankupTask instance;
+
+	private final Map<UUID, RankupThreshold> thresholds;
+	private final Map<UUID, Long> pending;
+
+	private boolean registered = false;
+
+
+	/**
+	 * <p>The cost of the player's next rank, and the cost of the next two ranks
+	 * on the same ladder.  If the next two ranks use a different currency, or
+	 * there is no rank after the next one, then the nextTwoCost is -1.
+	 * </p>
+	 *
+	 * <p>If the player does not have a next rank, then the nextCost is infinite
+	 * so no balance will reach it, and the player is not checked again until it
+	 * expires, or they rankup.
+	 * </p>
+	 */
+	private static class RankupThreshold {
+		private final String currency;
+		private final String ladderName;
+		private final double nextCost;
+		private final double nextTwoCost;
+		private final long timestamp;
+
+		public RankupThreshold( String currency, String ladderName,
+					double nextCost, double nextTwoCost ) {
+			super();
+
+			this.currency = currency;
+			this.ladderName = ladderName;
+			this.nextCost = nextCost;
+			this.nextTwoCost = nextTwoCost;
+			this.timestamp = System.currentTimeMillis();
+		}
+
+		public static RankupThreshold noNextRank() {
+			return new RankupThreshold( null, null, Double.POSITIVE_INFINITY, -1 );
+		}
+
+		public boolean isExpired() {
+			return System.currentTimeMillis() - timestamp > THRESHOLD_MAX_AGE_MS;
+		}
+
+		public boolean isCurrency( String currency ) {
+			return normalizeCurrency( this.currency ).equals( normalizeCurrency( currency ) );
+		}
+	}
+
+
+	private PlayerAutoRankupTask() {
+		super();
+
+		this.thresholds = new ConcurrentHashMap<>();
+		this.pending = new ConcurrentHashMap<>();
+	}
 
-public class PlayerAutoRankupTask {
+	public static PlayerAutoRankupTask getInstance() {
+		if ( instance == null ) {
+			synchronized ( PlayerAutoRankupTask.class ) {
+				if ( instance == null ) {
+					instance = new PlayerAutoRankupTask();
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * <p>Registers with the EconomyFacade for the balance changes, and with
+	 * prison's event bus for the rankups.  This should be called once the ranks
+	 * module has been enabled.
+	 * </p>
+	 */
+	public synchronized void register() {
+		if ( !registered ) {
+			registered = true;
+
+			EconomyFacade.getInstance().addBalanceListener( this );
+			Prison.get().getEventBus().register( this );
+		}
+	}
 
-	
 	/**
-	 * <p>If the config.yml settings 'prison-mines.forced-auto-rankups' is enabled,
-	 * then it will check to see if the player has enough money to rankup.
-	 * This will perform all rankups; `/rankup` and `/prestige`.  The prestige is 
-	 * actually just `/rankup prestiges [playerName]`.
+	 * <p>This is called from the block break handling and sellall.  Since the
+	 * balance changes are already sent to this class, this only checks the
+	 * player's cached balance against the player's cached threshold, and does
+	 * nothing if a rankup is already pending.
 	 * </p>
-	 * 
+	 *
 	 * @param sPlayer
 	 */
 	public static void autoSubmitPlayerRankupTask( SpigotPlayer sPlayer, StringBuilder debugInfo ) {
-		
-		if ( Prison.get().getPlatform().getConfigBooleanFalse( "prison-mines.forced-auto-rankups" ) ) {
-			
+
+		if ( isEnabled() && sPlayer != null ) {
+
 			RankPlayer rPlayer = sPlayer.getRankPlayer();
-			
-			PlayerRank nextRank = rPlayer.getNextPlayerRank();
-			
-			if ( nextRank != null ) {
-				
-				String currency = nextRank.getCurrency();
-				double balance = rPlayer.getBalance( currency );
-				
-				double rankBalance = nextRank.getRankCost();
-				
-				if ( balance >= rankBalance ) {
-					
-					if ( debugInfo != null ) {
-						debugInfo.append( "(forcing auto rankup) " );
-					}
-					
-					String cmd = 
-							String.format( "rankup %s %s",
-									nextRank.getRank().getLadder().getName(),
-									rPlayer.getName() );
-					
-					List<PrisonUtilsTaskTypes> tasks = new ArrayList<>();
-					PrisonUtilsTaskTypRunCommand task = new PrisonUtilsTaskTypRunCommand( rPlayer, cmd );
-					tasks.add( task );
-					
-					PrisonUtilsTask taskRunner = new PrisonUtilsTask( tasks );
-					taskRunner.submit();
-					
+
+			if ( rPlayer != null ) {
+
+				RankupThreshold threshold = getInstance().thresholds.get( rPlayer.getUUID() );
+				String currency = threshold == null ? null : threshold.currency;
+
+				if ( getInstance().checkBalance( rPlayer, currency,
+						EconomyFacade.getInstance().getBalance( rPlayer, currency ) ) &&
+						debugInfo != null ) {
+
+					debugInfo.append( "(forcing auto rankup) " );
+				}
+			}
+		}
+	}
+
+	@Override
+	public void balanceIncreased( Player player, String currency, double balance ) {
+
+		if ( isEnabled() && player != null ) {
+
+			checkBalance( player, currency, balance );
+		}
+	}
+
+	/**
+	 * <p>Compares the balance against the player's cached threshold, and if it
+	 * is enough, or if the threshold needs to be calculated, then a check is
+	 * scheduled to run on the server's thread.  Only one check or rankup can be
+	 * pending for a player.
+	 * </p>
+	 *
+	 * @param player
+	 * @param currency
+	 * @param balance
+	 * @return True if a check was scheduled.
+	 */
+	private boolean checkBalance( Player player, String currency, double balance ) {
+		boolean results = false;
+
+		UUID uuid = player.getUUID();
+		RankupThreshold threshold = thresholds.get( uuid );
+
+		if ( threshold == null || threshold.isExpired() ||
+				threshold.isCurrency( currency ) && balance >= threshold.nextCost ) {
+
+			long now = System.currentTimeMillis();
+			Long since = pending.putIfAbsent( uuid, now );
+
+			if ( since != null && now - since > PENDING_TIMEOUT_MS ) {
+
+				// The last rankup did not happen, so replace it:
+				results = pending.replace( uuid, since, now );
+			}
+			else {
+				results = since == null;
+			}
+
+			if ( results ) {
+				PrisonTaskSubmitter.runTaskLater( () -> submitRankup( uuid ), 0 );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Runs on the server's thread.  This calculates the player's threshold, and
+	 * if the player can afford their next rank, then the rankup command is
+	 * submitted.  A player without a next rank keeps a threshold that cannot be
+	 * reached, so their balance changes do not schedule this again.  The player stays pending until they rankup, or until the
+	 * PENDING_TIMEOUT_MS expires.
+	 * </p>
+	 *
+	 * @param uuid
+	 */
+	private void submitRankup( UUID uuid ) {
+
+		String cmd = null;
+
+		RankPlayer rPlayer = isEnabled() ? getOnlineRankPlayer( uuid ) : null;
+
+		RankupThreshold threshold = rPlayer == null ? null : calculateThreshold( rPlayer );
+
+		if ( threshold == null ) {
+			thresholds.remove( uuid );
+		}
+		else {
+			thresholds.put( uuid, threshold );
+
+			double balance = rPlayer.getBalance( threshold.currency );
+
+			if ( threshold.nextTwoCost > 0 && balance >= threshold.nextTwoCost ) {
+
+				cmd = String.format( "rankupmax %s %s", threshold.ladderName, rPlayer.getName() );
+			}
+			else if ( balance >= threshold.nextCost ) {
+
+				cmd = String.format( "rankup %s %s", threshold.ladderName, rPlayer.getName() );
+			}
+		}
+
+		if ( cmd == null ) {
+			pending.remove( uuid );
+		}
+		else {
+			List<PrisonUtilsTaskTypes> tasks = new ArrayList<>();
+			PrisonUtilsTaskTypRunCommand task = new PrisonUtilsTaskTypRunCommand( rPlayer, cmd );
+			tasks.add( task );
+
+			PrisonUtilsTask taskRunner = new PrisonUtilsTask( tasks );
+			taskRunner.submit();
+		}
+	}
+
+	private RankupThreshold calculateThreshold( RankPlayer rPlayer ) {
+		RankupThreshold results = RankupThreshold.noNextRank();
+
+		PlayerRank nextRank = rPlayer.getNextPlayerRank();
+
+		if ( nextRank != null && nextRank.getRank() != null &&
+				nextRank.getRank().getLadder() != null ) {
+
+			Rank rank = nextRank.getRank();
+			String currency = nextRank.getCurrency();
+			double nextTwoCost = -1;
+
+			// The prestiges are always one rank at a time:
+			if ( !rank.getLadder().isPrestiges() ) {
+
+				PlayerRank secondRank = rPlayer.calculateTargetPlayerRank( rank.getRankNext() );
+
+				if ( secondRank != null &&
+						normalizeCurrency( currency ).equals( normalizeCurrency( secondRank.getCurrency() ) ) ) {
+
+					nextTwoCost = nextRank.getRankCost() + secondRank.getRankCost();
 				}
 			}
-			
+
+			results = new RankupThreshold( currency, rank.getLadder().getName(),
+					nextRank.getRankCost(), nextTwoCost );
+		}
+
+		return results;
+	}
+
+	private RankPlayer getOnlineRankPlayer( UUID uuid ) {
+		RankPlayer results = null;
+
+		Player player = Prison.get().getPlatform().getPlayer( uuid ).orElse( null );
+
+		if ( player != null && player.isOnline() ) {
+			results = player.getRankPlayer();
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>The player ranked up, so their threshold is no longer valid, and the
+	 * next balance change can submit another rankup.
+	 * </p>
+	 *
+	 * @param event
+	 */
+	@Subscribe
+	public void onRankUp( RankUpEvent event ) {
+		if ( event.getPlayer() != null ) {
+
+			UUID uuid = event.getPlayer().getUUID();
+
+			thresholds.remove( uuid );
+			pending.remove( uuid );
+		}
+	}
+
+	@Subscribe
+	public void onPlayerQuit( PlayerQuitEvent event ) {
+		if ( event.getPlayer() != null ) {
+
+			UUID uuid = event.getPlayer().getUUID();
+
+			thresholds.remove( uuid );
+			pending.remove( uuid );
 		}
 	}
+
+	private static boolean isEnabled() {
+		return Prison.get().getPlatform().getConfigBooleanFalse( "prison-mines.forced-auto-rankups" ) &&
+				PrisonRanks.getInstance() != null && PrisonRanks.getInstance().isEnabled();
+	}
+
+	private static String normalizeCurrency( String currency ) {
+		return currency == null || "default".equalsIgnoreCase( currency.trim() ) ?
+				EconomyFacade.DEFAULT_CURRENCY : currency.trim();
+	}
 }
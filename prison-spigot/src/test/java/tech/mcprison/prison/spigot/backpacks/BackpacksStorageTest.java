@@ -0,0 +1,105 @@
+package tech.mcprison.prison.spigot.backpacks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Test;
+
+import tech.mcprison.prison.backpacks.BackpackCachePlayerData;
+import tech.mcprison.prison.backpacks.BackpackEnums.BackpackType;
+import tech.mcprison.prison.backpacks.PlayerBackpack;
+
+public class BackpacksStorageTest
+{
+
+	private BackpackCachePlayerData createPlayerData( String uuid, String name ) {
+		BackpackCachePlayerData playerData = new BackpackCachePlayerData();
+		playerData.setPlayerUuid( uuid );
+		playerData.setPlayerName( name );
+
+		return playerData;
+	}
+
+	@Test
+	public void testMigrateLegacyPlayer()
+			throws InvalidConfigurationException
+	{
+		String uuid = UUID.randomUUID().toString();
+
+		YamlConfiguration legacy = new YamlConfiguration();
+		legacy.loadFromString(
+				"Inventories:\n" +
+				"  " + uuid + ":\n" +
+				"    PlayerName: Alice\n" +
+				"    UniqueID: " + uuid + "\n" +
+				"    Limit: 3\n" +
+				"    Items:\n" +
+				"      Size: 27\n" +
+				"    Items-2:\n" +
+				"      Size: 18\n" );
+
+		BackpacksStorage storage = new BackpacksStorage();
+
+		// The player already has the second backpack, which must not be replaced:
+		BackpackCachePlayerData playerData = createPlayerData( uuid, null );
+		PlayerBackpack existing = new PlayerBackpack( "Alice", uuid, BackpackType.inventory,
+											"Items-2", "CHEST" );
+		existing.setInventorySize( 54 );
+		playerData.getBackpacks().put( "Items-2", existing );
+
+		assertTrue( storage.migrateLegacyPlayer(
+				legacy.getConfigurationSection( "Inventories." + uuid ), playerData ) );
+
+		assertEquals( "Alice", playerData.getPlayerName() );
+		assertEquals( Integer.valueOf( 3 ), playerData.getBackpackLimit() );
+		assertEquals( 2, playerData.getBackpacks().size() );
+		assertEquals( 27, playerData.getBackpacks().get( "Items" ).getInventorySize() );
+		assertEquals( 54, playerData.getBackpacks().get( "Items-2" ).getInventorySize() );
+
+		// Running it again does not change anything:
+		assertFalse( storage.migrateLegacyPlayer(
+				legacy.getConfigurationSection( "Inventories." + uuid ), playerData ) );
+	}
+
+	@Test
+	public void testIndexForManyOwners()
+	{
+		BackpacksStorage storage = new BackpacksStorage();
+
+		int owners = 10000;
+
+		for ( int i = 0; i < owners; i++ ) {
+			BackpackCachePlayerData playerData = createPlayerData( UUID.randomUUID().toString(), "player" + i );
+
+			PlayerBackpack backpack = new PlayerBackpack( playerData.getPlayerName(), playerData.getPlayerUuid(),
+												BackpackType.inventory, "Items", "CHEST" );
+			backpack.setInventorySize( 9 );
+			playerData.getBackpacks().put( "Items", backpack );
+
+			storage.updateIndex( playerData );
+		}
+
+		YamlConfiguration index = storage.buildIndex();
+		assertEquals( owners, index.getConfigurationSection( "Inventories" ).getKeys( false ).size() );
+
+		// A player without any backpacks, or a limit, is removed from the index:
+		BackpackCachePlayerData playerData = createPlayerData( UUID.randomUUID().toString(), "empty" );
+		storage.updateIndex( playerData );
+
+		playerData.setBackpackLimit( 2 );
+		storage.updateIndex( playerData );
+		assertEquals( Integer.valueOf( 2 ),
+				Integer.valueOf( storage.buildIndex().getInt(
+						"Inventories." + playerData.getPlayerUuid() + ".Limit" ) ) );
+
+		playerData.setBackpackLimit( null );
+		storage.updateIndex( playerData );
+		assertNull( storage.buildIndex().get( "Inventories." + playerData.getPlayerUuid() ) );
+	}
+}